@@ -0,0 +1,201 @@
+package com.emmanuelarhu.bench;
+
+import com.emmanuelarhu.allure.AllureAttachmentFilter;
+import com.emmanuelarhu.base.BaseTest;
+import com.emmanuelarhu.latency.LatencyFilter;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * How much of a call is the framework's own overhead: the same GET against
+ * an in-process loopback server answering canned bodies, with one more layer
+ * of the test client switched on per {@code layer}:
+ * <ul>
+ *   <li>{@code jdk}: java.net.http client, the transport floor</li>
+ *   <li>{@code restAssured}: bare {@code given().get()}, no filters</li>
+ *   <li>{@code headers}: plus the JSON content type and accept headers</li>
+ *   <li>{@code getRequest}: BaseTest's spec, adding {@code log().ifValidationFails()}</li>
+ *   <li>{@code latencyFilter} / {@code allureFilter}: getRequest plus that one global filter</li>
+ *   <li>{@code allFilters}: getRequest after BaseTest's own setup, i.e. the filter chain and
+ *       phase-timing client the tests run with</li>
+ *   <li>{@code makeApiCall}: all of that through makeApiCall with its logging</li>
+ * </ul>
+ * {@code body} picks a single todo or the 200-row {@code /todos} list from the
+ * fixtures. {@code throughput} scores calls per second, {@code latency} the
+ * sampled per-call distribution in microseconds; add {@code -prof gc} for bytes allocated per call. Each
+ * call with the {@link AllureAttachmentFilter} runs as a one-call test, so the
+ * exchange is kept as in a real run; writing the attachments happens once per
+ * test in AllureAttachmentListener and is not measured here. System.out is
+ * redirected to the null device so console writes cost a syscall without
+ * flooding the JMH output. The server sets TCP_NODELAY, otherwise delayed
+ * ACKs on loopback add ~40ms to every keep-alive call and hide everything else.
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="ClientOverheadBenchmark -prof gc"}
+ *
+ * @author Emmanuel Arhu
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class ClientOverheadBenchmark {
+
+    @Param({"jdk", "restAssured", "headers", "getRequest", "latencyFilter", "allureFilter", "allFilters",
+            "makeApiCall"})
+    public String layer;
+
+    @Param({"todo", "todos"})
+    public String body;
+
+    private HttpServer server;
+    private HttpClient jdkClient;
+    private URI uri;
+    private String endpoint;
+    private Client client;
+    private boolean inTest;
+    private PrintStream console;
+    private PrintStream quiet;
+
+    /**
+     * Exposes BaseTest's protected request helpers
+     */
+    static final class Client extends BaseTest {
+
+        Client(String baseUrl) {
+            BASE_URL = baseUrl;
+        }
+
+        Response request(String endpoint) {
+            return getRequest().get(endpoint);
+        }
+
+        Response call(String endpoint) {
+            return makeApiCall(endpoint, "GET");
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        byte[] todos;
+        try (InputStream in = ClientOverheadBenchmark.class.getResourceAsStream("/fixtures/todos.json")) {
+            todos = in.readAllBytes();
+        }
+        byte[] todo = new ObjectMapper().readTree(todos).get(0).toString().getBytes();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] payload = exchange.getRequestURI().getPath().equals("/todos") ? todos : todo;
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        });
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        endpoint = body.equals("todos") ? "/todos" : "/todos/1";
+        uri = URI.create(baseUrl + endpoint);
+        jdkClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        RestAssured.baseURI = baseUrl;
+        client = new Client(baseUrl);
+
+        RestAssured.replaceFiltersWith(new ArrayList<>());
+        if (layer.equals("allFilters") || layer.equals("makeApiCall")) {
+            client.setup(baseUrl, "", "42");
+        } else {
+            List<Filter> filters = new ArrayList<>();
+            if (layer.equals("allureFilter")) {
+                filters.add(new AllureAttachmentFilter());
+            } else if (layer.equals("latencyFilter")) {
+                filters.add(new LatencyFilter(new LatencyRecorder()));
+            }
+            RestAssured.replaceFiltersWith(filters);
+        }
+        inTest = RestAssured.filters().stream().anyMatch(filter -> filter instanceof AllureAttachmentFilter);
+
+        console = System.out;
+        Path nullDevice = Path.of("/dev/null");
+        OutputStream discard = Files.isWritable(nullDevice)
+                ? new FileOutputStream(nullDevice.toFile()) : OutputStream.nullOutputStream();
+        quiet = new PrintStream(new BufferedOutputStream(discard, 8192), true);
+        System.setOut(quiet);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        System.setOut(console);
+        quiet.close();
+        RestAssured.reset();
+        server.stop(0);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int throughput() throws IOException, InterruptedException {
+        return call();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int latency() throws IOException, InterruptedException {
+        return call();
+    }
+
+    private int call() throws IOException, InterruptedException {
+        if (inTest) {
+            AllureAttachmentFilter.begin(); // a fresh one-call test, so kept exchanges do not pile up
+        }
+        switch (layer) {
+            case "jdk":
+                return jdkClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                        HttpResponse.BodyHandlers.ofByteArray()).body().length;
+            case "restAssured":
+                return given().get(endpoint).asByteArray().length;
+            case "headers":
+                return given().contentType(ContentType.JSON).accept(ContentType.JSON).get(endpoint)
+                        .asByteArray().length;
+            case "makeApiCall":
+                return client.call(endpoint).asByteArray().length;
+            default:
+                return client.request(endpoint).asByteArray().length;
+        }
+    }
+}
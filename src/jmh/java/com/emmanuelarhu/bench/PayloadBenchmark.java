@@ -0,0 +1,118 @@
+package com.emmanuelarhu.bench;
+
+import com.emmanuelarhu.models.comments;
+import com.emmanuelarhu.models.photos;
+import com.emmanuelarhu.models.todos;
+import com.emmanuelarhu.validation.CommentValidation;
+import com.emmanuelarhu.validation.PhotoValidation;
+import com.emmanuelarhu.validation.TodoValidation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a whole list response into model objects and validating
+ * it, per payload: the recorded {@code /photos} (5000 rows), {@code /comments}
+ * (500) and {@code /todos} (200) fixtures in {@code src/jmh/resources/fixtures}.
+ *
+ * {@code jackson} is a plain ObjectMapper read, {@code restAssured} the
+ * {@code response.as(photos[].class)} path the tests use, {@code validate}
+ * the *Validation array check on already parsed rows and
+ * {@code restAssuredAndValidate} both, as a list test does them.
+ * Add {@code -prof gc} for bytes allocated per payload:
+ * {@code mvn -Pbenchmarks test-compile exec:exec -Djmh.args="PayloadBenchmark -prof gc"}
+ *
+ * @author Emmanuel Arhu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"photos", "comments", "todos"})
+    public String resource;
+
+    private byte[] payload;
+    private Class<?> type;
+    private int rows; // the fixture's recorded size, whatever -Ddataset.scale says
+    private Object parsed;
+
+    @Setup
+    public void load() throws IOException {
+        try (InputStream in = PayloadBenchmark.class.getResourceAsStream("/fixtures/" + resource + ".json")) {
+            if (in == null) {
+                throw new IllegalStateException("No fixture for " + resource);
+            }
+            payload = in.readAllBytes();
+        }
+        switch (resource) {
+            case "photos":
+                type = photos[].class;
+                rows = 5000;
+                break;
+            case "comments":
+                type = comments[].class;
+                rows = 500;
+                break;
+            case "todos":
+                type = todos[].class;
+                rows = 200;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown resource " + resource);
+        }
+        parsed = MAPPER.readValue(payload, type);
+        validate(parsed);
+    }
+
+    @Benchmark
+    public Object jackson() throws IOException {
+        return MAPPER.readValue(payload, type);
+    }
+
+    @Benchmark
+    public Object restAssured() {
+        return new ResponseBuilder().setStatusCode(200).setContentType(ContentType.JSON).setBody(payload).build()
+                .as(type);
+    }
+
+    @Benchmark
+    public void validate() {
+        validate(parsed);
+    }
+
+    @Benchmark
+    public void restAssuredAndValidate() {
+        validate(restAssured());
+    }
+
+    private void validate(Object parsedRows) {
+        if (parsedRows instanceof photos[]) {
+            PhotoValidation.validatePhotoArray((photos[]) parsedRows, rows);
+        } else if (parsedRows instanceof comments[]) {
+            CommentValidation.validateCommentArray((comments[]) parsedRows, rows);
+        } else {
+            TodoValidation.validateTodoArray((todos[]) parsedRows, rows);
+        }
+    }
+}
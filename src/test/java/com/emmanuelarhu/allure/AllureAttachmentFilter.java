@@ -0,0 +1,102 @@
+package com.emmanuelarhu.allure;
+
+import com.emmanuelarhu.latency.EndpointTemplate;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replacement for {@code AllureRestAssured}: keeps each request and response
+ * of the running test in memory and leaves it to
+ * {@link AllureAttachmentListener} to attach them once the test's outcome is
+ * known, under the {@link AttachmentPolicy}. Calls made outside a test (load
+ * runs, tools) are not kept.
+ *
+ * @author Emmanuel Arhu
+ */
+public class AllureAttachmentFilter implements OrderedFilter {
+
+    private static final ThreadLocal<List<Exchange>> CURRENT = new ThreadLocal<>();
+
+    /**
+     * One call as it will be attached; response fields are null when the call threw
+     */
+    record Exchange(String endpoint, String method, String uri, String requestHeaders, byte[] requestBody,
+                    String statusLine, int status, String responseHeaders, byte[] responseBody, double millis,
+                    String error) {
+
+        boolean failed() {
+            return error != null || status >= 500;
+        }
+    }
+
+    /**
+     * Start keeping the current thread's calls for a test, dropping any kept so far;
+     * AllureAttachmentListener does this for TestNG tests
+     */
+    public static void begin() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    /**
+     * Stop keeping calls and return them, or null when no test was open
+     */
+    static List<Exchange> end() {
+        List<Exchange> exchanges = CURRENT.get();
+        CURRENT.remove();
+        return exchanges;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        List<Exchange> exchanges = CURRENT.get();
+        if (exchanges == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String endpoint = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+        String requestHeaders = format(requestSpec.getHeaders());
+        byte[] requestBody = bytes(requestSpec.getBody());
+        long started = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            exchanges.add(new Exchange(endpoint, requestSpec.getMethod(), requestSpec.getURI(), requestHeaders,
+                    requestBody, response.getStatusLine(), response.getStatusCode(), format(response.getHeaders()),
+                    response.getBody().asByteArray(), (System.nanoTime() - started) / 1e6, null));
+            return response;
+        } catch (RuntimeException e) {
+            exchanges.add(new Exchange(endpoint, requestSpec.getMethod(), requestSpec.getURI(), requestHeaders,
+                    requestBody, null, -1, null, null, (System.nanoTime() - started) / 1e6,
+                    e.getClass().getSimpleName() + ": " + e.getMessage()));
+            throw e;
+        }
+    }
+
+    private static String format(Headers headers) {
+        StringBuilder text = new StringBuilder();
+        for (Header header : headers) {
+            text.append("  ").append(header.getName()).append(": ").append(header.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static byte[] bytes(Object body) {
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 1; // after NamespaceFilter, so its header is attached
+    }
+}
@@ -0,0 +1,212 @@
+package com.emmanuelarhu.allure;
+
+import com.emmanuelarhu.allure.AllureAttachmentFilter.Exchange;
+import com.emmanuelarhu.logging.AsyncLog;
+import io.qameta.allure.Allure;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Attaches each test's calls, as kept by {@link AllureAttachmentFilter},
+ * once the test has finished: one plain-text attachment per call with full
+ * or previewed bodies per the {@link AttachmentPolicy}, plus a gzip
+ * attachment for large full bodies. A preview names the body's size and,
+ * for a JSON array, its item count. At the end of the run it prints how
+ * many bytes the attachments took against the bodies they describe, and
+ * the size of the Allure results directory.
+ *
+ * @author Emmanuel Arhu
+ */
+public class AllureAttachmentListener implements IInvokedMethodListener, IExecutionListener {
+
+    private static final AttachmentPolicy POLICY = AttachmentPolicy.fromConfig();
+
+    private final Map<String, AtomicLong> successfulCalls = new ConcurrentHashMap<>();
+    private final LongAdder attached = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder bodyBytes = new LongAdder();
+    private final LongAdder writtenBytes = new LongAdder();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            AllureAttachmentFilter.begin();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        List<Exchange> exchanges = AllureAttachmentFilter.end();
+        if (exchanges == null) {
+            return;
+        }
+        boolean testFailed = !testResult.isSuccess();
+        for (Exchange exchange : exchanges) {
+            bodyBytes.add(length(exchange.requestBody()) + length(exchange.responseBody()));
+            if (!testFailed && !exchange.failed() && successfulCalls.computeIfAbsent(exchange.endpoint(),
+                    key -> new AtomicLong()).getAndIncrement() % POLICY.getSampleEvery() != 0) {
+                sampledOut.increment();
+                continue;
+            }
+            attach(exchange, POLICY.fullBodies(testFailed, exchange.failed()));
+        }
+    }
+
+    private void attach(Exchange exchange, boolean full) {
+        String name = exchange.endpoint() + " → " + (exchange.error() != null ? "error" : exchange.status());
+        StringBuilder text = new StringBuilder()
+                .append(exchange.method()).append(' ').append(exchange.uri()).append(" → ")
+                .append(exchange.error() != null ? exchange.error() : exchange.statusLine())
+                .append(String.format(" in %.1fms%n%n", exchange.millis()))
+                .append("Request headers:\n").append(exchange.requestHeaders());
+        body(text, name, "Request body", exchange.requestBody(), full);
+        if (exchange.error() == null) {
+            text.append("\nResponse headers:\n").append(exchange.responseHeaders());
+            body(text, name, "Response body", exchange.responseBody(), full);
+        }
+        byte[] content = text.toString().getBytes(StandardCharsets.UTF_8);
+        Allure.addAttachment(name, "text/plain", new ByteArrayInputStream(content), "txt");
+        writtenBytes.add(content.length);
+        attached.increment();
+    }
+
+    /**
+     * Append a body in full, previewed, or previewed with the full body in its own gzip attachment
+     */
+    private void body(StringBuilder text, String name, String label, byte[] body, boolean full) {
+        if (body == null || body.length == 0) {
+            return;
+        }
+        text.append('\n').append(label).append(" (").append(describe(body)).append("):\n");
+        if (full && !POLICY.compresses(body.length)) {
+            text.append(new String(body, StandardCharsets.UTF_8)).append('\n');
+            return;
+        }
+        int shown = Math.min(body.length, POLICY.getBodyMax());
+        text.append(new String(body, 0, shown, StandardCharsets.UTF_8));
+        if (shown < body.length) {
+            text.append("… (").append(body.length - shown).append(" more bytes)");
+        }
+        text.append('\n');
+        if (full) {
+            String attachment = name + " " + label.toLowerCase();
+            byte[] gzip = gzip(body);
+            Allure.addAttachment(attachment, "application/gzip", new ByteArrayInputStream(gzip),
+                    isJson(body) ? "json.gz" : "txt.gz");
+            writtenBytes.add(gzip.length);
+            compressed.increment();
+            text.append("Full body in attachment '").append(attachment).append("'\n");
+        }
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (attached.sum() == 0 && sampledOut.sum() == 0) {
+            return;
+        }
+        AsyncLog.info(String.format("📎 Allure attachments: %d calls attached (%d gzipped), %d sampled out; %s written for %s of bodies",
+                attached.sum(), compressed.sum(), sampledOut.sum(), megabytes(writtenBytes.sum()),
+                megabytes(bodyBytes.sum())));
+        Path results = Path.of(System.getProperty("allure.results.directory", "allure-results"));
+        if (Files.isDirectory(results)) {
+            try (Stream<Path> files = Files.walk(results)) {
+                long size = files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+                AsyncLog.info("📁 " + results + " is " + megabytes(size));
+            } catch (IOException | UncheckedIOException e) {
+                AsyncLog.error("❌ Failed to measure " + results + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Size, plus the item count of a top-level JSON array
+     */
+    private static String describe(byte[] body) {
+        int items = jsonArrayItems(body);
+        return body.length + " bytes" + (items >= 0 ? ", JSON array of " + items + " items" : "");
+    }
+
+    /**
+     * Items of a top-level JSON array, counted by one pass over the bytes; -1 when the body is not an array
+     */
+    private static int jsonArrayItems(byte[] body) {
+        int i = 0;
+        while (i < body.length && Character.isWhitespace(body[i])) {
+            i++;
+        }
+        if (i == body.length || body[i] != '[') {
+            return -1;
+        }
+        int depth = 0;
+        int items = 0;
+        boolean inString = false;
+        boolean empty = true;
+        for (; i < body.length; i++) {
+            byte b = body[i];
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (b == '"') {
+                inString = true;
+            } else if (b == '[' || b == '{') {
+                depth++;
+            } else if (b == ']' || b == '}') {
+                depth--;
+            } else if (b == ',' && depth == 1) {
+                items++;
+            }
+            if (depth >= 1 && !Character.isWhitespace(b) && !(depth == 1 && b == '[')) {
+                empty = false;
+            }
+        }
+        return empty ? 0 : items + 1;
+    }
+
+    private static boolean isJson(byte[] body) {
+        return body.length > 0 && (body[0] == '[' || body[0] == '{');
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static long length(byte[] body) {
+        return body == null ? 0 : body.length;
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / 1e6);
+    }
+}
@@ -0,0 +1,68 @@
+package com.emmanuelarhu.allure;
+
+import com.emmanuelarhu.config.TestConfig;
+
+/**
+ * How much of each request/response goes into the Allure results, from
+ * allure.properties or system properties:
+ * <ul>
+ *   <li>{@code allure.attach.bodies}: {@code failure} (default) attaches full bodies only for failed tests
+ *   and 5xx or failed calls, {@code always} for every call, {@code never} previews only</li>
+ *   <li>{@code allure.attach.body.max}: characters of a body previewed otherwise (default 4096)</li>
+ *   <li>{@code allure.attach.sample.every}: attach the first and every Nth successful call per endpoint
+ *   of a passing test (default 1, all)</li>
+ *   <li>{@code allure.attach.compress}: store full bodies over {@code allure.attach.compress.min} bytes
+ *   (default 16384) as a separate gzip attachment (default true)</li>
+ * </ul>
+ *
+ * @author Emmanuel Arhu
+ */
+final class AttachmentPolicy {
+
+    enum Bodies { FAILURE, ALWAYS, NEVER }
+
+    private final Bodies bodies;
+    private final int bodyMax;
+    private final long sampleEvery;
+    private final boolean compress;
+    private final int compressMin;
+
+    private AttachmentPolicy(Bodies bodies, int bodyMax, long sampleEvery, boolean compress, int compressMin) {
+        this.bodies = bodies;
+        this.bodyMax = bodyMax;
+        this.sampleEvery = sampleEvery;
+        this.compress = compress;
+        this.compressMin = compressMin;
+    }
+
+    static AttachmentPolicy fromConfig() {
+        return new AttachmentPolicy(
+                Bodies.valueOf(TestConfig.get("allure.attach.bodies", "failure").toUpperCase()),
+                TestConfig.getInt("allure.attach.body.max", 4096),
+                Math.max(1, TestConfig.getLong("allure.attach.sample.every", 1)),
+                TestConfig.getBoolean("allure.attach.compress", true),
+                TestConfig.getInt("allure.attach.compress.min", 16384));
+    }
+
+    /**
+     * Whether a call's bodies are attached in full rather than previewed
+     */
+    boolean fullBodies(boolean testFailed, boolean callFailed) {
+        return bodies == Bodies.ALWAYS || (bodies == Bodies.FAILURE && (testFailed || callFailed));
+    }
+
+    int getBodyMax() {
+        return bodyMax;
+    }
+
+    long getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Whether a full body of this size goes to its own gzip attachment
+     */
+    boolean compresses(int bytes) {
+        return compress && bytes >= compressMin;
+    }
+}
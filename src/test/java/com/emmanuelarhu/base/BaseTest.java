@@ -1,6 +1,32 @@
 package com.emmanuelarhu.base;
 
-import io.qameta.allure.restassured.AllureRestAssured;
+import com.emmanuelarhu.allure.AllureAttachmentFilter;
+import com.emmanuelarhu.cassette.CassetteFilter;
+import com.emmanuelarhu.cassette.CassetteMissException;
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.data.DatasetCounts;
+import com.emmanuelarhu.fault.FaultProxy;
+import com.emmanuelarhu.fault.FaultScenario;
+import com.emmanuelarhu.jfr.ApiCallEvent;
+import com.emmanuelarhu.jfr.RetryAttemptEvent;
+import com.emmanuelarhu.latency.EndpointTemplate;
+import com.emmanuelarhu.latency.LatencyFilter;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.emmanuelarhu.latency.PhaseTimingHttpClient;
+import com.emmanuelarhu.latency.PhaseTimingObjectMapper;
+import com.emmanuelarhu.latency.RequestPhases;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
+import com.emmanuelarhu.logging.LogLevel;
+import com.emmanuelarhu.metrics.MetricsFilter;
+import com.emmanuelarhu.metrics.MetricsRegistry;
+import com.emmanuelarhu.standin.DatasetGenerator;
+import com.emmanuelarhu.standin.NamespaceFilter;
+import com.emmanuelarhu.standin.StandIn;
+import com.emmanuelarhu.trace.Span;
+import com.emmanuelarhu.trace.SuiteTrace;
+import com.emmanuelarhu.trace.TraceContext;
+import com.emmanuelarhu.trace.TraceContextFilter;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
@@ -9,6 +35,9 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Optional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import static io.restassured.RestAssured.given;
 
 /**
@@ -19,14 +48,67 @@ import static io.restassured.RestAssured.given;
 public class BaseTest {
 
     protected static String BASE_URL;
+
+    // Expected resource sizes (JSONPlaceholder's by default, scaled with -Ddataset.scale)
+    protected static final DatasetCounts COUNTS = DatasetCounts.current();
     private static final int DEFAULT_TIMEOUT = 10000; // 10 seconds
 
+    // Record/replay layer, null unless -Dcassette.mode=record|replay is set
+    private static final CassetteFilter CASSETTE_FILTER = CassetteFilter.fromSystemProperties();
+
+    // Fault-injection proxy in front of baseUrl, started when a faultScenario parameter is given
+    private static FaultProxy faultProxy;
+
+    // In-process JSONPlaceholder stand-in, started with -Dstandin=true
+    private static StandIn standIn;
+
+    // Per-thread namespaces on a stateful stand-in, so parallel mutation tests do not collide
+    private static final NamespaceFilter NAMESPACE_FILTER = new NamespaceFilter();
+
+    // One shared Allure attachment filter; a new one per setup() would stack up and attach every call N times.
+    // Calls are attached by AllureAttachmentListener at the end of each test, sized by allure.attach.*
+    private static final AllureAttachmentFilter ALLURE_FILTER = new AllureAttachmentFilter();
+
+    // Every request's latency per endpoint template, reported by LatencyListener at the end of the run
+    private static final LatencyFilter LATENCY_FILTER = new LatencyFilter(LatencyRecorder.suite());
+
+    // Every request and response at DEBUG through the async log; tests add LogFilter.all() to see one at INFO
+    private static final LogFilter LOG_FILTER = new LogFilter(LogLevel.DEBUG);
+
+    // Request, status, byte and latency metrics per endpoint template, exported by MetricsListener
+    private static final MetricsFilter METRICS_FILTER = new MetricsFilter(MetricsRegistry.suite());
+    // W3C traceparent/tracestate on every request, one client span per attempt in the running test's trace
+    private static final TraceContextFilter TRACE_CONTEXT_FILTER = new TraceContextFilter();
+
+    private static final MetricsRegistry.Counter RETRIES = MetricsRegistry.suite().counter("api_retries",
+            "makeApiCall attempts retried after a 5xx or an exception", null, "endpoint");
+
     @BeforeClass
-    @Parameters({"baseUrl"})
-    public void setup(@Optional("https://jsonplaceholder.typicode.com") String baseUrl) {
-        BASE_URL = baseUrl;
+    @Parameters({"baseUrl", "faultScenario", "faultSeed"})
+    public void setup(@Optional("https://jsonplaceholder.typicode.com") String baseUrl,
+                      @Optional("") String faultScenario,
+                      @Optional("42") String faultSeed) {
+        String targetUrl = resolveTargetUrl(baseUrl);
+        BASE_URL = faultScenario.isBlank() ? targetUrl : startFaultProxy(targetUrl, faultScenario, Long.parseLong(faultSeed));
         RestAssured.baseURI = BASE_URL;
-        RestAssured.filters(new AllureRestAssured());
+        if (!RestAssured.filters().contains(ALLURE_FILTER)) {
+            RestAssured.filters(ALLURE_FILTER);
+        }
+        if (CASSETTE_FILTER != null && !RestAssured.filters().contains(CASSETTE_FILTER)) {
+            RestAssured.filters(CASSETTE_FILTER);
+        }
+        if (usesNamespaces() && !RestAssured.filters().contains(NAMESPACE_FILTER)) {
+            RestAssured.filters(NAMESPACE_FILTER);
+        }
+        if (!RestAssured.filters().contains(LATENCY_FILTER)) {
+            RestAssured.filters(LATENCY_FILTER);
+        }
+        if (!RestAssured.filters().contains(LOG_FILTER)) {
+            RestAssured.filters(LOG_FILTER);
+        }
+        if (!RestAssured.filters().contains(METRICS_FILTER)) {
+            RestAssured.filters(METRICS_FILTER);
+        }
 
         // Set timeouts to handle network issues
         RestAssured.config = RestAssured.config()
@@ -34,44 +116,119 @@ public class BaseTest {
                         .setParam("http.connection.timeout", DEFAULT_TIMEOUT)
                         .setParam("http.socket.timeout", DEFAULT_TIMEOUT));
 
-        System.out.println("🔧 Test setup completed with Base URL: " + BASE_URL);
+        // Time DNS, connect, TLS, TTFB and download of every request (see RequestPhases)
+        if (RequestPhases.isEnabled()) {
+            RestAssured.config = RestAssured.config()
+                    .httpClient(RestAssured.config().getHttpClientConfig().httpClientFactory(PhaseTimingHttpClient::new));
+            MetricsRegistry.suite().gauge("api_http_connections_open",
+                    "HttpClient connections currently open (REST Assured opens one per request)",
+                    PhaseTimingHttpClient::openConnections);
+        }
+        // Time parsing, for RequestPhases and the JFR deserialization events
+        RestAssured.config = RestAssured.config()
+                .objectMapperConfig(RestAssured.config().getObjectMapperConfig().defaultObjectMapper(
+                        new PhaseTimingObjectMapper(RestAssured.config().getObjectMapperConfig().jackson2ObjectMapperFactory())));
+
+        AsyncLog.info("🔧 Test setup completed with Base URL: " + BASE_URL);
+    }
+
+    /**
+     * URL under test: the stand-in when -Dstandin=true, else -DbaseUrl, else the TestNG parameter
+     */
+    private static synchronized String resolveTargetUrl(String baseUrl) {
+        if (!Boolean.getBoolean("standin")) {
+            return System.getProperty("baseUrl", baseUrl);
+        }
+        try {
+            if (standIn == null) {
+                standIn = StandIn.start(DatasetGenerator.generate(), 0);
+                Runtime.getRuntime().addShutdownHook(new Thread(BaseTest::stopStandIn));
+            }
+            return standIn.getBaseUrl();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start stand-in server", e);
+        }
+    }
+
+    /**
+     * Whether requests are routed to per-thread namespaces (stateful stand-in, unless -Dstandin.namespaces=false)
+     */
+    private static boolean usesNamespaces() {
+        return Boolean.getBoolean("standin")
+                && TestConfig.get("standin.storage", "dynamic").equals("stateful")
+                && TestConfig.getBoolean("standin.namespaces", true);
+    }
+
+    /**
+     * Start (or reuse) the fault proxy for a scenario and return the URL to test through
+     */
+    private static synchronized String startFaultProxy(String targetUrl, String scenarioSpec, long seed) {
+        FaultScenario scenario = FaultScenario.parse(scenarioSpec);
+        if (faultProxy != null && faultProxy.getTarget().toString().equals(targetUrl)
+                && faultProxy.getScenario().getSpec().equals(scenario.getSpec())) {
+            return faultProxy.getBaseUrl();
+        }
+        try {
+            if (faultProxy != null) {
+                faultProxy.close();
+            } else {
+                Runtime.getRuntime().addShutdownHook(new Thread(BaseTest::stopFaultProxy));
+            }
+            faultProxy = FaultProxy.start(targetUrl, scenario, seed);
+            return faultProxy.getBaseUrl();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start fault proxy for " + targetUrl, e);
+        }
+    }
+
+    private static synchronized void stopStandIn() {
+        try {
+            standIn.close();
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to stop stand-in: " + e.getMessage());
+        }
+    }
+
+    private static synchronized void stopFaultProxy() {
+        try {
+            faultProxy.close();
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to stop fault proxy: " + e.getMessage());
+        }
     }
 
     /**
-     * Get a fresh REST Assured request with proper error handling
+     * Get a fresh REST Assured request with proper error handling, carrying the test's trace context
      */
     protected static RequestSpecification getRequest() {
         return given()
                 .contentType(ContentType.JSON)
                 .accept(ContentType.JSON)
+                .filter(TRACE_CONTEXT_FILTER)
                 .when()
                 .log().ifValidationFails();
     }
 
-    /**
-     * Verify response time with better feedback
-     */
-    protected void verifyResponseTime(long responseTime) {
-        if (responseTime > 5000) {
-            System.out.println("⚠️ Warning: Response took " + responseTime + "ms (over 5 seconds)");
-        } else {
-            System.out.println("✅ Response time: " + responseTime + "ms");
-        }
-    }
-
     /**
      * Helper method to safely make API calls with retry logic
      */
     protected Response makeApiCall(String endpoint, String method) {
         int maxRetries = 3;  // ✅ Actually allow retries
         int retryCount = 0;
+        ApiCallEvent callEvent = new ApiCallEvent();
+        callEvent.begin();
+        Response response = null;
 
         while (retryCount <= maxRetries) {  // ✅ Fixed: <= instead of <
+            RetryAttemptEvent attemptEvent = new RetryAttemptEvent();
+            attemptEvent.begin();
+            Exception error = null;
+            response = null;
             try {
-                System.out.println("🔄 Attempt " + (retryCount + 1) + "/" + (maxRetries + 1) +
+                TraceContext.resendCount(retryCount);
+                AsyncLog.debug("🔄 Attempt " + (retryCount + 1) + "/" + (maxRetries + 1) +
                         " - " + method + " " + BASE_URL + endpoint);
 
-                Response response;
                 switch (method.toUpperCase()) {
                     case "GET":
                         response = getRequest().get(endpoint);
@@ -90,34 +247,84 @@ public class BaseTest {
                 }
 
                 // ✅ Log response details for debugging
-                System.out.println("📊 Response Status: " + response.getStatusCode());
-                System.out.println("📊 Response Time: " + response.getTime() + "ms");
-                System.out.println("📊 Response Body Length: " + response.getBody().asString().length());
+                if (AsyncLog.isEnabled(LogLevel.DEBUG)) {
+                    AsyncLog.debug("📊 Response Status: " + response.getStatusCode() + ", Time: " + response.getTime()
+                            + "ms, Body Length: " + response.getBody().asString().length());
+                }
 
                 // ✅ Accept any non-server error status codes
                 if (response.getStatusCode() < 500) {
+                    commitAttempt(attemptEvent, endpoint, method, retryCount + 1, response, null, 0);
+                    commitCall(callEvent, endpoint, method, retryCount + 1, response, true);
                     return response;
                 } else {
-                    System.out.println("❌ Server error " + response.getStatusCode() + ", retrying...");
+                    AsyncLog.warn("❌ Server error " + response.getStatusCode() + ", retrying...");
                 }
 
+            } catch (CassetteMissException e) {
+                commitAttempt(attemptEvent, endpoint, method, retryCount + 1, null, e, 0);
+                commitCall(callEvent, endpoint, method, retryCount + 1, null, false);
+                throw e; // ✅ Unrecorded request in replay mode, retrying cannot help
             } catch (Exception e) {
-                System.out.println("❌ Attempt " + (retryCount + 1) + " failed: " + e.getClass().getSimpleName() + " - " + e.getMessage());
-                e.printStackTrace(); // ✅ Print full stack trace for debugging
+                error = e;
+                AsyncLog.warn("❌ Attempt " + (retryCount + 1) + " failed: " + e.getClass().getSimpleName() + " - " + e.getMessage(),
+                        e); // ✅ Full stack trace for debugging
             }
 
             retryCount++;
+            commitAttempt(attemptEvent, endpoint, method, retryCount, response, error,
+                    retryCount <= maxRetries ? 1000L * retryCount : 0);
             if (retryCount <= maxRetries) {  // ✅ Fixed condition
+                RETRIES.inc(EndpointTemplate.of(method, BASE_URL + endpoint));
+                Span sleep = SuiteTrace.begin(SuiteTrace.SLEEP, "retry backoff " + endpoint).arg("attempt", retryCount);
                 try {
                     Thread.sleep(1000 * retryCount); // Exponential backoff
-                    System.out.println("⏳ Waiting " + (1000 * retryCount) + "ms before retry...");
+                    AsyncLog.debug("⏳ Waiting " + (1000 * retryCount) + "ms before retry...");
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     break;
+                } finally {
+                    sleep.end();
                 }
             }
         }
 
+        commitCall(callEvent, endpoint, method, retryCount, response, false);
         throw new RuntimeException("Failed to make API call to " + endpoint + " after " + (maxRetries + 1) + " attempts");
     }
+
+    /**
+     * Emit one makeApiCall attempt to a running JFR recording; response is null when the attempt threw
+     */
+    private static void commitAttempt(RetryAttemptEvent event, String endpoint, String method, int attempt,
+                                      Response response, Exception error, long backoffMillis) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.method = method.toUpperCase();
+            event.attempt = attempt;
+            event.status = response == null ? -1 : response.getStatusCode();
+            event.bytes = response == null ? 0 : response.getBody().asByteArray().length;
+            event.error = error == null ? null : error.getClass().getSimpleName() + ": " + error.getMessage();
+            event.backoff = backoffMillis;
+            event.commit();
+        }
+    }
+
+    /**
+     * Emit a whole makeApiCall, retries included, to a running JFR recording
+     */
+    private static void commitCall(ApiCallEvent event, String endpoint, String method, int attempts,
+                                   Response response, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.method = method.toUpperCase();
+            event.status = response == null ? -1 : response.getStatusCode();
+            event.bytes = response == null ? 0 : response.getBody().asByteArray().length;
+            event.attempts = attempts;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,304 @@
+package com.emmanuelarhu.cassette;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk store of recorded HTTP exchanges.
+ *
+ * A cassette is two files next to each other: {@code <name>.cas}, an
+ * append-only log of length-prefixed records, and {@code <name>.idx}, a
+ * memory-mapped hash table from request key to record offset (see
+ * {@link CassetteIndex}). When the index is missing it is rebuilt by
+ * scanning the log, so a run that crashed mid-recording stays usable; a
+ * torn last record is cut off before recording appends to the log again.
+ *
+ * Record layout: int length, then key, status code, latency (long),
+ * status line, content type, header count + name/value pairs and body,
+ * where every string and the body are int-length-prefixed bytes.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class Cassette implements Closeable {
+
+    private static final long MAGIC = 0x5241434153533031L; // "RACASS01"
+    private static final int FILE_HEADER_BYTES = 8;
+
+    private final Path dataFile;
+    private final boolean writable;
+    private final FileChannel data;
+    private final CassetteIndex index;
+    private final MappedByteBuffer replayView;
+    private long end;
+
+    private Cassette(Path dataFile, boolean writable, FileChannel data, CassetteIndex index,
+                     MappedByteBuffer replayView, long end) {
+        this.dataFile = dataFile;
+        this.writable = writable;
+        this.data = data;
+        this.index = index;
+        this.replayView = replayView;
+        this.end = end;
+    }
+
+    /**
+     * Open a cassette for recording, creating it when missing and appending otherwise
+     */
+    public static Cassette openForRecording(Path basePath) throws IOException {
+        Path dataFile = dataFile(basePath);
+        Files.createDirectories(dataFile.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(dataFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.allocate(FILE_HEADER_BYTES).putLong(0, MAGIC), 0);
+        }
+        checkMagic(channel, dataFile);
+        long complete = completeLength(channel);
+        if (complete < channel.size()) {
+            // Torn tail from a crash mid-record: drop it, and the index that may point into it
+            channel.truncate(complete);
+            Files.deleteIfExists(indexFile(basePath));
+        }
+        return new Cassette(dataFile, true, channel, loadIndex(basePath, channel, true), null, channel.size());
+    }
+
+    /**
+     * Open an existing cassette read-only for replay; logs under 2 GB are memory-mapped
+     */
+    public static Cassette openForReplay(Path basePath) throws IOException {
+        Path dataFile = dataFile(basePath);
+        if (!Files.exists(dataFile)) {
+            throw new IllegalStateException("No cassette recorded at " + dataFile);
+        }
+        FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ);
+        checkMagic(channel, dataFile);
+        CassetteIndex index = loadIndex(basePath, channel, false);
+        MappedByteBuffer view = channel.size() <= Integer.MAX_VALUE
+                ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                : null;
+        return new Cassette(dataFile, false, channel, index, view, channel.size());
+    }
+
+    /**
+     * Number of distinct request keys in the cassette
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Append an exchange; a key recorded earlier now resolves to this newer record
+     */
+    public synchronized void append(CassetteEntry entry) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Cassette " + dataFile + " is open for replay only");
+        }
+        ByteBuffer record = encode(entry);
+        long offset = end;
+        while (record.hasRemaining()) {
+            end += data.write(record, end);
+        }
+        index.put(hash(entry.key()), entry.key(), offset, this::keyAt);
+    }
+
+    /**
+     * Look up the most recent exchange recorded for a key, or null when absent
+     */
+    public CassetteEntry find(String key) throws IOException {
+        long offset;
+        if (writable) {
+            synchronized (this) {
+                offset = index.find(hash(key), key, this::keyAt);
+            }
+        } else {
+            offset = index.find(hash(key), key, this::keyAt);
+        }
+        return offset < 0 ? null : decode(read(offset));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writable) {
+            data.force(false);
+            index.force();
+        }
+        data.close();
+    }
+
+    /**
+     * Stable 64-bit FNV-1a hash of a request key
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private String keyAt(long offset) throws IOException {
+        ByteBuffer record = read(offset);
+        return readString(record);
+    }
+
+    /**
+     * Read the record at an offset, positioned just after its length prefix
+     */
+    private ByteBuffer read(long offset) throws IOException {
+        if (replayView != null) {
+            int length = replayView.getInt((int) offset);
+            return replayView.slice((int) offset + 4, length);
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        readFully(lengthBuffer, offset);
+        ByteBuffer record = ByteBuffer.allocate(lengthBuffer.getInt(0));
+        readFully(record, offset + 4);
+        return record.flip();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated cassette record in " + dataFile);
+            }
+        }
+    }
+
+    /**
+     * Length of the log up to the end of its last complete record
+     */
+    private static long completeLength(FileChannel channel) throws IOException {
+        long position = FILE_HEADER_BYTES;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (position + 4 <= channel.size()) {
+            lengthBuffer.clear();
+            channel.read(lengthBuffer, position);
+            int length = lengthBuffer.getInt(0);
+            if (length <= 0 || position + 4 + length > channel.size()) {
+                break;
+            }
+            position += 4 + length;
+        }
+        return Math.min(position, channel.size());
+    }
+
+    private static Path indexFile(Path basePath) {
+        return basePath.resolveSibling(basePath.getFileName() + ".idx");
+    }
+
+    private static CassetteIndex loadIndex(Path basePath, FileChannel channel, boolean writable) throws IOException {
+        Path indexFile = indexFile(basePath);
+        CassetteIndex index = CassetteIndex.openExisting(indexFile, writable);
+        if (index != null) {
+            return index;
+        }
+        // Index lost or never flushed: rebuild it from the append-only log
+        index = CassetteIndex.create(indexFile, 0);
+        long position = FILE_HEADER_BYTES;
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+        while (position + 4 <= channel.size()) {
+            lengthBuffer.clear();
+            channel.read(lengthBuffer, position);
+            int length = lengthBuffer.getInt(0);
+            if (length <= 0 || position + 4 + length > channel.size()) {
+                break; // torn tail from an interrupted recording
+            }
+            ByteBuffer keyBuffer = ByteBuffer.allocate(Math.min(length, 4 + 64 * 1024));
+            channel.read(keyBuffer, position + 4);
+            String key = readString(keyBuffer.flip());
+            long recordOffset = position;
+            index.put(hash(key), key, recordOffset, offset -> offset == recordOffset ? key : keyAtScan(channel, offset));
+            position += 4 + length;
+        }
+        if (writable) {
+            channel.truncate(position);
+        }
+        index.force();
+        return writable ? index : CassetteIndex.openExisting(indexFile, false);
+    }
+
+    private static String keyAtScan(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, offset);
+        ByteBuffer key = ByteBuffer.allocate(header.getInt(4));
+        channel.read(key, offset + 8);
+        return new String(key.array(), StandardCharsets.UTF_8);
+    }
+
+    private static void checkMagic(FileChannel channel, Path dataFile) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        channel.read(header, 0);
+        if (header.getLong(0) != MAGIC) {
+            throw new IllegalStateException(dataFile + " is not a cassette file");
+        }
+    }
+
+    private static Path dataFile(Path basePath) {
+        return basePath.resolveSibling(basePath.getFileName() + ".cas");
+    }
+
+    private static ByteBuffer encode(CassetteEntry entry) {
+        byte[] key = entry.key().getBytes(StandardCharsets.UTF_8);
+        byte[] statusLine = entry.statusLine().getBytes(StandardCharsets.UTF_8);
+        byte[] contentType = entry.contentType().getBytes(StandardCharsets.UTF_8);
+        List<byte[]> headers = new ArrayList<>();
+        int length = 4 + key.length + 4 + 8 + 4 + statusLine.length + 4 + contentType.length + 4 + 4 + entry.body().length;
+        for (CassetteEntry.Header header : entry.headers()) {
+            byte[] name = header.name().getBytes(StandardCharsets.UTF_8);
+            byte[] value = header.value().getBytes(StandardCharsets.UTF_8);
+            headers.add(name);
+            headers.add(value);
+            length += 8 + name.length + value.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length).putInt(length);
+        putBytes(buffer, key);
+        buffer.putInt(entry.statusCode()).putLong(entry.latencyNanos());
+        putBytes(buffer, statusLine);
+        putBytes(buffer, contentType);
+        buffer.putInt(entry.headers().size());
+        for (byte[] part : headers) {
+            putBytes(buffer, part);
+        }
+        putBytes(buffer, entry.body());
+        return buffer.flip();
+    }
+
+    private static CassetteEntry decode(ByteBuffer record) {
+        String key = readString(record);
+        int statusCode = record.getInt();
+        long latencyNanos = record.getLong();
+        String statusLine = readString(record);
+        String contentType = readString(record);
+        int headerCount = record.getInt();
+        List<CassetteEntry.Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new CassetteEntry.Header(readString(record), readString(record)));
+        }
+        return new CassetteEntry(key, statusCode, statusLine, contentType, headers, readBytes(record), latencyNanos);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+}
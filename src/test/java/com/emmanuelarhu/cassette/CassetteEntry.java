@@ -0,0 +1,30 @@
+package com.emmanuelarhu.cassette;
+
+import java.util.List;
+
+/**
+ * One recorded request/response exchange stored in a cassette
+ *
+ * @param key          canonical request key (method, path, query and body hash)
+ * @param statusCode   HTTP status code of the recorded response
+ * @param statusLine   full HTTP status line of the recorded response
+ * @param contentType  response content type, empty when absent
+ * @param headers      response headers as name/value pairs
+ * @param body         raw response body
+ * @param latencyNanos time the live call took, replayed on request
+ *
+ * @author Emmanuel Arhu
+ */
+public record CassetteEntry(String key,
+                            int statusCode,
+                            String statusLine,
+                            String contentType,
+                            List<Header> headers,
+                            byte[] body,
+                            long latencyNanos) {
+
+    /**
+     * A single response header
+     */
+    public record Header(String name, String value) {}
+}
@@ -0,0 +1,180 @@
+package com.emmanuelarhu.cassette;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.filter.time.TimingFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.internal.RestAssuredResponseImpl;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * REST Assured filter that records live traffic into a {@link Cassette}
+ * or answers requests from one without touching the network.
+ *
+ * Configured through system properties:
+ * <ul>
+ *   <li>{@code cassette.mode} - off (default), record or replay</li>
+ *   <li>{@code cassette.path} - cassette base path, default {@code target/cassettes/jsonplaceholder}</li>
+ *   <li>{@code cassette.replayLatency} - when true, replay sleeps for each call's recorded latency</li>
+ * </ul>
+ *
+ * Requests are keyed by method, path, query string and a hash of the body,
+ * so a cassette recorded against one base URL replays against any other.
+ *
+ * @author Emmanuel Arhu
+ */
+public class CassetteFilter implements OrderedFilter {
+
+    private static final String DEFAULT_PATH = "target/cassettes/jsonplaceholder";
+
+    private final CassetteMode mode;
+    private final Cassette cassette;
+    private final boolean replayLatency;
+
+    public CassetteFilter(CassetteMode mode, Cassette cassette, boolean replayLatency) {
+        this.mode = mode;
+        this.cassette = cassette;
+        this.replayLatency = replayLatency;
+    }
+
+    /**
+     * Build the filter from system properties, or return null when cassettes are off
+     */
+    public static CassetteFilter fromSystemProperties() {
+        CassetteMode mode = CassetteMode.fromString(System.getProperty("cassette.mode"));
+        if (mode == CassetteMode.OFF) {
+            return null;
+        }
+        Path path = Path.of(System.getProperty("cassette.path", DEFAULT_PATH));
+        boolean replayLatency = Boolean.getBoolean("cassette.replayLatency");
+        try {
+            Cassette cassette = mode == CassetteMode.RECORD
+                    ? Cassette.openForRecording(path)
+                    : Cassette.openForReplay(path);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    cassette.close();
+                } catch (IOException e) {
+                    System.out.println("❌ Failed to close cassette " + path + ": " + e.getMessage());
+                }
+            }));
+            System.out.println("📼 Cassette " + mode + " at " + path + " (" + cassette.size() + " recorded requests)");
+            return new CassetteFilter(mode, cassette, replayLatency);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cassette " + path, e);
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String key = requestKey(requestSpec);
+        try {
+            if (mode == CassetteMode.REPLAY) {
+                return replay(key);
+            }
+            long start = System.nanoTime();
+            Response response = ctx.next(requestSpec, responseSpec);
+            long latencyNanos = System.nanoTime() - start;
+            if (mode == CassetteMode.RECORD) {
+                cassette.append(toEntry(key, response, latencyNanos));
+            }
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cassette I/O failed for " + key, e);
+        }
+    }
+
+    /**
+     * Run after every other filter (Allure, logging, metrics and LatencyFilter just above this one)
+     * so they see replayed responses too
+     */
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    private Response replay(String key) throws IOException {
+        long start = System.nanoTime();
+        CassetteEntry entry = cassette.find(key);
+        if (entry == null) {
+            throw new CassetteMissException(key);
+        }
+        if (replayLatency) {
+            LockSupport.parkNanos(entry.latencyNanos());
+        }
+        List<Header> headers = new ArrayList<>(entry.headers().size());
+        for (CassetteEntry.Header header : entry.headers()) {
+            headers.add(new Header(header.name(), header.value()));
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(entry.statusCode())
+                .setStatusLine(entry.statusLine())
+                .setHeaders(new Headers(headers))
+                .setBody(entry.body());
+        if (!entry.contentType().isEmpty()) {
+            builder.setContentType(entry.contentType());
+        }
+        Response response = builder.build();
+        // Built responses carry no timing, so getTime() reports the replay's own duration
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        ((RestAssuredResponseImpl) response).setFilterContextProperties(
+                Map.of(TimingFilter.RESPONSE_TIME_MILLISECONDS, elapsedMillis));
+        return response;
+    }
+
+    private static CassetteEntry toEntry(String key, Response response, long latencyNanos) {
+        List<CassetteEntry.Header> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(new CassetteEntry.Header(header.getName(), header.getValue()));
+        }
+        String contentType = response.getContentType() == null ? "" : response.getContentType();
+        String statusLine = response.getStatusLine() == null ? "" : response.getStatusLine();
+        return new CassetteEntry(key, response.getStatusCode(), statusLine, contentType,
+                headers, response.asByteArray(), latencyNanos);
+    }
+
+    /**
+     * Canonical request key: "METHOD /path?query #bodyhash"
+     */
+    static String requestKey(FilterableRequestSpecification requestSpec) {
+        URI uri = URI.create(requestSpec.getURI());
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        return key.append(" #").append(bodyHash(requestSpec.getBody())).toString();
+    }
+
+    private static String bodyHash(Object body) {
+        if (body == null) {
+            return "-";
+        }
+        byte[] bytes = body instanceof byte[] raw ? raw : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
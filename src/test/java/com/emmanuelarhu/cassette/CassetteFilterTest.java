@@ -0,0 +1,91 @@
+package com.emmanuelarhu.cassette;
+
+import com.emmanuelarhu.latency.LatencyFilter;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Recording and replaying through {@link CassetteFilter} with the other filters in BaseTest's order
+ *
+ * @author Emmanuel Arhu
+ */
+public class CassetteFilterTest {
+
+    private Path directory;
+    private Path base;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("cassette-filter-test");
+        base = directory.resolve("tape");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testReplayedRequestsAreTimed() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/posts/1", exchange -> {
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            get("http://127.0.0.1:" + server.getAddress().getPort(),
+                    new CassetteFilter(CassetteMode.RECORD, cassette, false), new LatencyRecorder());
+        } finally {
+            server.stop(0);
+        }
+
+        LatencyRecorder replayed = new LatencyRecorder();
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            Response response = get("http://127.0.0.1:1", new CassetteFilter(CassetteMode.REPLAY, cassette, false),
+                    replayed);
+            assertEquals(response.getStatusCode(), 200);
+            assertEquals(response.jsonPath().getInt("id"), 1);
+        }
+
+        Map<String, Histogram> histograms = replayed.histograms();
+        assertFalse(histograms.isEmpty(), "LatencyFilter never saw the replayed request");
+        assertEquals(histograms.get("GET /posts/{id}").getTotalCount(), 2);
+    }
+
+    /**
+     * GET /posts/1 twice, the cassette registered before LatencyFilter as BaseTest does
+     */
+    private static Response get(String baseUrl, CassetteFilter cassette, LatencyRecorder recorder) {
+        List<Filter> filters = List.of(cassette, new LatencyFilter(recorder));
+        RestAssured.given().baseUri(baseUrl).filters(filters).get("/posts/1").then().statusCode(200);
+        return RestAssured.given().baseUri(baseUrl).filters(filters).get("/posts/1");
+    }
+}
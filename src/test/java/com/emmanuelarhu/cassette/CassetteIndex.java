@@ -0,0 +1,178 @@
+package com.emmanuelarhu.cassette;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped open-addressing hash table mapping request key hashes to
+ * record offsets in the cassette data file.
+ *
+ * Layout: a 16 byte header (magic, capacity, size, reserved) followed by
+ * {@code capacity} slots of 16 bytes each (key hash, record offset).
+ * An offset of 0 marks an empty slot, which is safe because the data file
+ * always starts with its own header.
+ *
+ * @author Emmanuel Arhu
+ */
+final class CassetteIndex {
+
+    private static final int MAGIC = 0x43494458; // "CIDX"
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Resolves the full request key stored at a data file offset, used to
+     * tell apart keys whose 64-bit hashes collide.
+     */
+    interface KeyReader {
+        String keyAt(long offset) throws IOException;
+    }
+
+    private final Path file;
+    private final boolean writable;
+    private MappedByteBuffer table;
+    private int capacity;
+    private int size;
+
+    private CassetteIndex(Path file, boolean writable, MappedByteBuffer table) {
+        this.file = file;
+        this.writable = writable;
+        this.table = table;
+        this.capacity = table.getInt(4);
+        this.size = table.getInt(8);
+    }
+
+    /**
+     * Open an existing index file, or return null when it is missing or unreadable
+     */
+    static CassetteIndex openExisting(Path file, boolean writable) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) {
+            return null;
+        }
+        MappedByteBuffer table = map(file, writable, Files.size(file));
+        if (table.getInt(0) != MAGIC
+                || Files.size(file) != HEADER_BYTES + (long) table.getInt(4) * SLOT_BYTES) {
+            return null;
+        }
+        return new CassetteIndex(file, writable, table);
+    }
+
+    /**
+     * Create an empty index file, replacing any previous one
+     */
+    static CassetteIndex create(Path file, int expectedEntries) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedEntries * 2 - 1)) << 1;
+        Files.deleteIfExists(file);
+        MappedByteBuffer table = map(file, true, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+        table.putInt(0, MAGIC);
+        table.putInt(4, capacity);
+        table.putInt(8, 0);
+        return new CassetteIndex(file, true, table);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Find the record offset for a key, or -1 when it was never recorded
+     */
+    long find(long hash, String key, KeyReader reader) throws IOException {
+        int mask = capacity - 1;
+        for (int slot = (int) mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int base = HEADER_BYTES + slot * SLOT_BYTES;
+            long offset = table.getLong(base + 8);
+            if (offset == 0) {
+                return -1;
+            }
+            if (table.getLong(base) == hash && key.equals(reader.keyAt(offset))) {
+                return offset;
+            }
+        }
+    }
+
+    /**
+     * Point a key at a record offset; a re-recorded key replaces its older record
+     */
+    void put(long hash, String key, long offset, KeyReader reader) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Cassette index " + file + " is read-only");
+        }
+        if ((size + 1) * 2 > capacity) {
+            grow(reader);
+        }
+        int mask = capacity - 1;
+        for (int slot = (int) mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int base = HEADER_BYTES + slot * SLOT_BYTES;
+            long existing = table.getLong(base + 8);
+            if (existing == 0) {
+                table.putLong(base, hash);
+                table.putLong(base + 8, offset);
+                table.putInt(8, ++size);
+                return;
+            }
+            if (table.getLong(base) == hash && key.equals(reader.keyAt(existing))) {
+                table.putLong(base + 8, offset);
+                return;
+            }
+        }
+    }
+
+    void force() {
+        if (writable) {
+            table.force();
+        }
+    }
+
+    /**
+     * Rehash into a table twice the size, swapping the file in atomically
+     */
+    private void grow(KeyReader reader) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CassetteIndex bigger = create(tmp, capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = HEADER_BYTES + slot * SLOT_BYTES;
+            long offset = table.getLong(base + 8);
+            if (offset != 0) {
+                bigger.putUnique(table.getLong(base), offset);
+            }
+        }
+        bigger.force();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.table = bigger.table;
+        this.capacity = bigger.capacity;
+        this.size = bigger.size;
+    }
+
+    private void putUnique(long hash, long offset) {
+        int mask = capacity - 1;
+        int slot = (int) mix(hash) & mask;
+        while (table.getLong(HEADER_BYTES + slot * SLOT_BYTES + 8) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = HEADER_BYTES + slot * SLOT_BYTES;
+        table.putLong(base, hash);
+        table.putLong(base + 8, offset);
+        table.putInt(8, ++size);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static MappedByteBuffer map(Path file, boolean writable, long length) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.emmanuelarhu.cassette;
+
+/**
+ * Thrown in replay mode when a request was never recorded.
+ * Retrying cannot help, so callers should fail fast on it.
+ *
+ * @author Emmanuel Arhu
+ */
+public class CassetteMissException extends IllegalStateException {
+
+    public CassetteMissException(String requestKey) {
+        super("No recorded response in cassette for " + requestKey);
+    }
+}
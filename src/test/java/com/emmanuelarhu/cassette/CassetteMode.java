@@ -0,0 +1,25 @@
+package com.emmanuelarhu.cassette;
+
+/**
+ * How the cassette layer treats HTTP traffic for a run
+ *
+ * @author Emmanuel Arhu
+ */
+public enum CassetteMode {
+    /** Cassette disabled, every call goes to the network */
+    OFF,
+    /** Calls go to the network and every exchange is appended to the cassette */
+    RECORD,
+    /** Calls are answered from the cassette, nothing goes to the network */
+    REPLAY;
+
+    /**
+     * Parse a mode name such as "record" or "REPLAY", defaulting to OFF
+     */
+    public static CassetteMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return OFF;
+        }
+        return valueOf(value.trim().toUpperCase());
+    }
+}
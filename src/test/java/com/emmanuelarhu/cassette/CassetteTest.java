@@ -0,0 +1,137 @@
+package com.emmanuelarhu.cassette;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Cassette file format: round trip, re-recording, index rebuild and torn-tail recovery
+ *
+ * @author Emmanuel Arhu
+ */
+public class CassetteTest {
+
+    private Path directory;
+    private Path base;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("cassette-test");
+        base = directory.resolve("tape");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private static CassetteEntry entry(String key, String body) {
+        return new CassetteEntry(key, 200, "HTTP/1.1 200 OK", "application/json",
+                List.of(new CassetteEntry.Header("X-Test", "yes")), body.getBytes(StandardCharsets.UTF_8), 1234L);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            cassette.append(entry("GET /posts/1", "{\"id\":1}"));
+        }
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            CassetteEntry found = cassette.find("GET /posts/1");
+            assertNotNull(found);
+            assertEquals(found.statusCode(), 200);
+            assertEquals(found.statusLine(), "HTTP/1.1 200 OK");
+            assertEquals(found.contentType(), "application/json");
+            assertEquals(found.headers(), List.of(new CassetteEntry.Header("X-Test", "yes")));
+            assertEquals(new String(found.body(), StandardCharsets.UTF_8), "{\"id\":1}");
+            assertEquals(found.latencyNanos(), 1234L);
+            assertNull(cassette.find("GET /posts/2"));
+        }
+    }
+
+    @Test
+    public void testReRecordedKeyResolvesToNewestRecord() throws IOException {
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            cassette.append(entry("GET /users/1", "old"));
+            cassette.append(entry("GET /users/1", "new"));
+            assertEquals(cassette.size(), 1);
+        }
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            assertEquals(new String(cassette.find("GET /users/1").body(), StandardCharsets.UTF_8), "new");
+        }
+    }
+
+    @Test
+    public void testIndexGrowsPastInitialCapacity() throws IOException {
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            for (int i = 0; i < 2000; i++) {
+                cassette.append(entry("GET /comments/" + i, "body " + i));
+            }
+        }
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            assertEquals(cassette.size(), 2000);
+            for (int i = 0; i < 2000; i += 97) {
+                assertEquals(new String(cassette.find("GET /comments/" + i).body(), StandardCharsets.UTF_8), "body " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testMissingIndexIsRebuiltFromLog() throws IOException {
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            cassette.append(entry("GET /albums/1", "one"));
+            cassette.append(entry("GET /albums/2", "two"));
+        }
+        Files.delete(directory.resolve("tape.idx"));
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            assertEquals(cassette.size(), 2);
+            assertEquals(new String(cassette.find("GET /albums/2").body(), StandardCharsets.UTF_8), "two");
+        }
+    }
+
+    @Test
+    public void testTornTailIsCutBeforeRecordingAppends() throws IOException {
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            cassette.append(entry("GET /todos/1", "first"));
+        }
+        Path dataFile = directory.resolve("tape.cas");
+        long complete = Files.size(dataFile);
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+            // A length prefix promising more bytes than were written, as a crash mid-record leaves it
+            channel.write(ByteBuffer.allocate(10).putInt(0, 500), complete);
+        }
+
+        try (Cassette cassette = Cassette.openForRecording(base)) {
+            assertEquals(Files.size(dataFile), complete);
+            cassette.append(entry("GET /todos/2", "second"));
+        }
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            assertEquals(new String(cassette.find("GET /todos/1").body(), StandardCharsets.UTF_8), "first");
+            assertEquals(new String(cassette.find("GET /todos/2").body(), StandardCharsets.UTF_8), "second");
+        }
+        Files.delete(directory.resolve("tape.idx"));
+        try (Cassette cassette = Cassette.openForReplay(base)) {
+            assertEquals(cassette.size(), 2, "Rebuilt index should see both records past the old tail");
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReplayOfForeignFileIsRejected() throws IOException {
+        Files.write(directory.resolve("tape.cas"), "not a cassette".getBytes(StandardCharsets.UTF_8));
+        Cassette.openForReplay(base).close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.emmanuelarhu.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Framework settings read from allure.properties on the test classpath,
+ * where any key can be overridden with a system property of the same name
+ * (e.g. {@code mvn test -Dtest.data.photos.count=1000000}).
+ *
+ * @author Emmanuel Arhu
+ */
+public final class TestConfig {
+
+    private static final Properties FILE_PROPERTIES = load("allure.properties");
+
+    private TestConfig() {}
+
+    /**
+     * Get a setting, system properties first, then allure.properties, then the default
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = FILE_PROPERTIES.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return Long.parseLong(get(key, String.valueOf(defaultValue)));
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return Double.parseDouble(get(key, String.valueOf(defaultValue)));
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * All keys from allure.properties, for callers that scan a key prefix
+     */
+    public static Properties fileProperties() {
+        Properties copy = new Properties();
+        copy.putAll(FILE_PROPERTIES);
+        return copy;
+    }
+
+    private static Properties load(String resource) {
+        Properties properties = new Properties();
+        try (InputStream in = TestConfig.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + resource, e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,102 @@
+package com.emmanuelarhu.data;
+
+import com.emmanuelarhu.config.TestConfig;
+
+/**
+ * Expected number of rows per resource.
+ *
+ * Defaults to JSONPlaceholder's fixed sizes from the test.data.*.count keys
+ * in allure.properties, multiplied by {@code dataset.scale} (default 1) so
+ * the same tests can run against a scaled stand-in dataset, e.g.
+ * {@code -Ddataset.scale=200} for 1M photos over 20k albums.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class DatasetCounts {
+
+    private static final int SCALE = TestConfig.getInt("dataset.scale", 1);
+    private static final DatasetCounts CURRENT = fromConfig();
+
+    private final int users;
+    private final int posts;
+    private final int comments;
+    private final int albums;
+    private final int photos;
+    private final int todos;
+
+    public DatasetCounts(int users, int posts, int comments, int albums, int photos, int todos) {
+        this.users = users;
+        this.posts = posts;
+        this.comments = comments;
+        this.albums = albums;
+        this.photos = photos;
+        this.todos = todos;
+    }
+
+    /**
+     * Counts configured for this run
+     */
+    public static DatasetCounts current() {
+        return CURRENT;
+    }
+
+    /**
+     * Factor this run's counts were scaled by, from {@code dataset.scale}
+     */
+    public static int scale() {
+        return SCALE;
+    }
+
+    /**
+     * Multiply every resource by the same factor, keeping the parent/child ratios
+     */
+    public DatasetCounts scaled(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Dataset scale must be at least 1, got " + factor);
+        }
+        return new DatasetCounts(Math.multiplyExact(users, factor), Math.multiplyExact(posts, factor),
+                Math.multiplyExact(comments, factor), Math.multiplyExact(albums, factor),
+                Math.multiplyExact(photos, factor), Math.multiplyExact(todos, factor));
+    }
+
+    private static DatasetCounts fromConfig() {
+        DatasetCounts base = new DatasetCounts(
+                TestConfig.getInt("test.data.users.count", 10),
+                TestConfig.getInt("test.data.posts.count", 100),
+                TestConfig.getInt("test.data.comments.count", 500),
+                TestConfig.getInt("test.data.albums.count", 100),
+                TestConfig.getInt("test.data.photos.count", 5000),
+                TestConfig.getInt("test.data.todos.count", 200));
+        return base.scaled(SCALE);
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getPosts() {
+        return posts;
+    }
+
+    public int getComments() {
+        return comments;
+    }
+
+    public int getAlbums() {
+        return albums;
+    }
+
+    public int getPhotos() {
+        return photos;
+    }
+
+    public int getTodos() {
+        return todos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DatasetCounts{users=%d, posts=%d, comments=%d, albums=%d, photos=%d, todos=%d}",
+                users, posts, comments, albums, photos, todos);
+    }
+}
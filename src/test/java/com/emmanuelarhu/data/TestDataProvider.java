@@ -10,6 +10,11 @@ import org.testng.annotations.DataProvider;
  */
 public class TestDataProvider {
 
+    // Out-of-range ids are derived from the dataset size so they stay invalid at any -Ddataset.scale;
+    // at scale 1 they are the same ids as JSONPlaceholder's fixed sizes. A stateful stand-in hands out
+    // created ids from StatefulStore.FIRST_CREATED_ID, so POSTs never make one of these ids exist
+    private static final DatasetCounts COUNTS = DatasetCounts.current();
+
     // ===== USER DATA PROVIDERS =====
     @DataProvider(name = "validUserData")
     public Object[][] validUserData() {
@@ -42,8 +47,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidUserIds")
     public Object[][] invalidUserIds() {
+        int users = COUNTS.getUsers();
         return new Object[][]{
-                {0}, {-1}, {999}, {11}, {100}
+                {0}, {-1}, {users * 100 - 1}, {users + 1}, {users * 10}
         };
     }
 
@@ -79,8 +85,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidPostIds")
     public Object[][] invalidPostIds() {
+        int posts = COUNTS.getPosts();
         return new Object[][]{
-                {0}, {-1}, {101}, {999}, {500}
+                {0}, {-1}, {posts + 1}, {posts * 10 - 1}, {posts * 5}
         };
     }
 
@@ -119,8 +126,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidCommentIds")
     public Object[][] invalidCommentIds() {
+        int comments = COUNTS.getComments();
         return new Object[][]{
-                {0}, {-1}, {501}, {999}, {1000}
+                {0}, {-1}, {comments + 1}, {comments * 2 - 1}, {comments * 2}
         };
     }
 
@@ -156,8 +164,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidAlbumIds")
     public Object[][] invalidAlbumIds() {
+        int albums = COUNTS.getAlbums();
         return new Object[][]{
-                {0}, {-1}, {101}, {999}, {500}
+                {0}, {-1}, {albums + 1}, {albums * 10 - 1}, {albums * 5}
         };
     }
 
@@ -195,8 +204,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidPhotoIds")
     public Object[][] invalidPhotoIds() {
+        int photos = COUNTS.getPhotos();
         return new Object[][]{
-                {0}, {-1}, {5001}, {9999}, {10000}
+                {0}, {-1}, {photos + 1}, {photos * 2 - 1}, {photos * 2}
         };
     }
 
@@ -230,8 +240,9 @@ public class TestDataProvider {
 
     @DataProvider(name = "invalidTodoIds")
     public Object[][] invalidTodoIds() {
+        int todos = COUNTS.getTodos();
         return new Object[][]{
-                {0}, {-1}, {201}, {999}, {500}
+                {0}, {-1}, {todos + 1}, {todos * 5 - 1}, {todos * 5 / 2}
         };
     }
 
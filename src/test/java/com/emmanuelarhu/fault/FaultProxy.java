@@ -0,0 +1,308 @@
+package com.emmanuelarhu.fault;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP proxy that sits in front of a base URL and injects the faults
+ * described by a {@link FaultScenario}: latency, bandwidth throttling,
+ * synthetic 5xx responses, truncated bodies and connection resets.
+ *
+ * Clients talk plain HTTP/1.1 to the proxy; the proxy forwards to the
+ * target over HTTP or HTTPS, one request per connection. Random draws come
+ * from a seeded generator so a scenario replays the same fault sequence
+ * for the same request order.
+ *
+ * @author Emmanuel Arhu
+ */
+public class FaultProxy implements Closeable {
+
+    private static final int UPSTREAM_TIMEOUT = 30000;
+    private static final int THROTTLE_TICK_MS = 50;
+
+    private final URI target;
+    private final FaultScenario scenario;
+    private final SplittableRandom seedSource;
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread acceptor;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong delayedMillis = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong upstreamFailures = new AtomicLong();
+
+    private FaultProxy(URI target, FaultScenario scenario, long seed) throws IOException {
+        this.target = target;
+        this.scenario = scenario;
+        this.seedSource = new SplittableRandom(seed);
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.acceptor = Thread.ofPlatform().daemon().name("fault-proxy-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Start a proxy on an ephemeral loopback port in front of a base URL
+     */
+    public static FaultProxy start(String targetBaseUrl, FaultScenario scenario, long seed) throws IOException {
+        FaultProxy proxy = new FaultProxy(URI.create(targetBaseUrl), scenario, seed);
+        System.out.println("🧨 Fault proxy " + proxy.getBaseUrl() + " -> " + targetBaseUrl + " with " + scenario);
+        return proxy;
+    }
+
+    /**
+     * Base URL clients should use instead of the target
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public URI getTarget() {
+        return target;
+    }
+
+    public FaultScenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * One-line summary of how many faults were injected so far
+     */
+    public String summary() {
+        return String.format("requests=%d, delayed=%dms total, throttled=%d, injected5xx=%d, truncated=%d, resets=%d, upstreamFailures=%d",
+                requests.get(), delayedMillis.get(), throttled.get(), errors.get(), truncated.get(), resets.get(), upstreamFailures.get());
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        workers.shutdownNow();
+        System.out.println("🧨 Fault proxy stopped: " + summary());
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                SplittableRandom random;
+                synchronized (seedSource) {
+                    random = seedSource.split();
+                }
+                workers.execute(() -> handle(client, random));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("❌ Fault proxy accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket client, SplittableRandom random) {
+        try (client) {
+            client.setSoTimeout(UPSTREAM_TIMEOUT);
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            String head = readHead(in);
+            if (head == null) {
+                return;
+            }
+            byte[] body = in.readNBytes(contentLength(head));
+            requests.incrementAndGet();
+
+            String requestLine = head.substring(0, head.indexOf("\r\n"));
+            String path = requestLine.split(" ")[1];
+            int query = path.indexOf('?');
+            FaultRule rule = scenario.ruleFor(query < 0 ? path : path.substring(0, query));
+
+            if (rule != null && random.nextDouble() < rule.getResetRate()) {
+                resets.incrementAndGet();
+                client.setSoLinger(true, 0); // close() now sends RST instead of FIN
+                return;
+            }
+
+            byte[] response;
+            if (rule != null && random.nextDouble() < rule.getErrorRate()) {
+                errors.incrementAndGet();
+                response = syntheticError(rule.getErrorStatus());
+            } else {
+                try {
+                    response = forward(head, body);
+                } catch (IOException e) {
+                    upstreamFailures.incrementAndGet();
+                    response = syntheticError(502);
+                }
+            }
+
+            int length = response.length;
+            if (rule != null && random.nextDouble() < rule.getTruncateRate()) {
+                truncated.incrementAndGet();
+                int bodyStart = indexOfHeadEnd(response) + 4;
+                length = bodyStart + (response.length - bodyStart) / 2;
+            }
+            if (rule != null) {
+                long delay = rule.getLatency().sampleMillis(random);
+                if (delay > 0) {
+                    delayedMillis.addAndGet(delay);
+                    Thread.sleep(delay);
+                }
+            }
+            write(client.getOutputStream(), response, length, rule == null ? 0 : rule.getBandwidthBytesPerSecond());
+        } catch (SocketException e) {
+            // client gave up (timeout or reset) while we were still working
+        } catch (IOException e) {
+            System.out.println("❌ Fault proxy connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Send the request upstream with Connection: close and read the whole response
+     */
+    private byte[] forward(String head, byte[] body) throws IOException {
+        boolean tls = "https".equalsIgnoreCase(target.getScheme());
+        int port = target.getPort() > 0 ? target.getPort() : (tls ? 443 : 80);
+        String hostHeader = target.getPort() > 0 ? target.getHost() + ":" + port : target.getHost();
+
+        StringBuilder upstreamHead = new StringBuilder();
+        String[] lines = head.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        String basePath = target.getRawPath() == null ? "" : target.getRawPath().replaceAll("/$", "");
+        upstreamHead.append(requestLine[0]).append(' ').append(basePath).append(requestLine[1])
+                .append(' ').append(requestLine[2]).append("\r\n");
+        for (int i = 1; i < lines.length; i++) {
+            String name = lines[i].substring(0, Math.max(0, lines[i].indexOf(':'))).trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("host") && !name.equals("connection") && !name.startsWith("proxy-") && !name.equals("keep-alive")) {
+                upstreamHead.append(lines[i]).append("\r\n");
+            }
+        }
+        upstreamHead.append("Host: ").append(hostHeader).append("\r\nConnection: close\r\n\r\n");
+
+        Socket upstream = new Socket();
+        try {
+            // connect with a timeout first, then layer TLS over the connected socket
+            upstream.connect(new InetSocketAddress(target.getHost(), port), UPSTREAM_TIMEOUT);
+            upstream.setSoTimeout(UPSTREAM_TIMEOUT);
+            if (tls) {
+                SSLSocket secure = (SSLSocket) ((SSLSocketFactory) SSLSocketFactory.getDefault())
+                        .createSocket(upstream, target.getHost(), port, true);
+                SSLParameters parameters = secure.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS"); // check the certificate is for the host
+                secure.setSSLParameters(parameters);
+                secure.startHandshake();
+                upstream = secure;
+            }
+            OutputStream out = upstream.getOutputStream();
+            out.write(upstreamHead.toString().getBytes(StandardCharsets.ISO_8859_1));
+            out.write(body);
+            out.flush();
+            return markConnectionClose(upstream.getInputStream().readAllBytes());
+        } finally {
+            upstream.close();
+        }
+    }
+
+    private void write(OutputStream out, byte[] response, int length, long bytesPerSecond) throws IOException, InterruptedException {
+        if (bytesPerSecond <= 0) {
+            out.write(response, 0, length);
+            out.flush();
+            return;
+        }
+        throttled.incrementAndGet();
+        int chunk = (int) Math.max(1, bytesPerSecond * THROTTLE_TICK_MS / 1000);
+        for (int offset = 0; offset < length; offset += chunk) {
+            out.write(response, offset, Math.min(chunk, length - offset));
+            out.flush();
+            Thread.sleep(THROTTLE_TICK_MS);
+        }
+    }
+
+    private static byte[] syntheticError(int status) {
+        byte[] body = ("{\"error\":\"fault injected by FaultProxy\",\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " Injected Fault\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(head.getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(body);
+        return out.toByteArray();
+    }
+
+    /**
+     * Swap upstream connection headers for Connection: close, since we serve one request per connection
+     */
+    private static byte[] markConnectionClose(byte[] response) {
+        int headEnd = indexOfHeadEnd(response);
+        if (headEnd < 0) {
+            return response;
+        }
+        StringBuilder head = new StringBuilder();
+        for (String line : new String(response, 0, headEnd, StandardCharsets.ISO_8859_1).split("\r\n")) {
+            String lower = line.toLowerCase(Locale.ROOT);
+            if (!lower.startsWith("connection:") && !lower.startsWith("keep-alive:")) {
+                head.append(line).append("\r\n");
+            }
+        }
+        head.append("Connection: close\r\n\r\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream(response.length + 32);
+        out.writeBytes(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(response, headEnd + 4, response.length - headEnd - 4);
+        return out.toByteArray();
+    }
+
+    private static int indexOfHeadEnd(byte[] data) {
+        for (int i = 0; i + 3 < data.length; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n' && data[i + 2] == '\r' && data[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read request line and headers up to the blank line, or null on a closed connection
+     */
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream(512);
+        int lastFour = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            head.write(b);
+            lastFour = (lastFour << 8) | b;
+            if (lastFour == 0x0D0A0D0A) {
+                return head.toString(StandardCharsets.ISO_8859_1);
+            }
+        }
+        return null;
+    }
+
+    private static int contentLength(String head) {
+        for (String line : head.split("\r\n")) {
+            if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                return Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        return 0;
+    }
+}
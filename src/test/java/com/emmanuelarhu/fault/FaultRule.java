@@ -0,0 +1,134 @@
+package com.emmanuelarhu.fault;
+
+import java.util.regex.Pattern;
+
+/**
+ * Faults injected for requests whose path matches a regular expression.
+ *
+ * Spec syntax: {@code <path-regex>: key=value; key=value ...} with keys
+ * <ul>
+ *   <li>{@code latency} - a {@link LatencyDistribution} spec, e.g. {@code uniform(100,500)}</li>
+ *   <li>{@code bandwidth} - response throughput cap in bytes/second, {@code k}/{@code m} suffixes allowed</li>
+ *   <li>{@code error} - rate of synthetic 5xx responses, optionally {@code @status} (default 503)</li>
+ *   <li>{@code truncate} - rate of responses cut off halfway through the body</li>
+ *   <li>{@code reset} - rate of connections reset (TCP RST) before any response</li>
+ * </ul>
+ * A path of {@code *} matches everything.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class FaultRule {
+
+    private final Pattern pathPattern;
+    private LatencyDistribution latency = LatencyDistribution.NONE;
+    private long bandwidthBytesPerSecond;
+    private double errorRate;
+    private int errorStatus = 503;
+    private double truncateRate;
+    private double resetRate;
+
+    private FaultRule(Pattern pathPattern) {
+        this.pathPattern = pathPattern;
+    }
+
+    /**
+     * Parse one rule, e.g. "/photos.*: latency=fixed(200); error=0.1@500"
+     */
+    public static FaultRule parse(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Fault rule needs '<path>: settings': " + spec);
+        }
+        String path = spec.substring(0, colon).trim();
+        FaultRule rule = new FaultRule(Pattern.compile(path.equals("*") ? ".*" : path));
+
+        for (String setting : spec.substring(colon + 1).split(";")) {
+            if (setting.isBlank()) {
+                continue;
+            }
+            String[] pair = setting.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Fault setting needs key=value: " + setting);
+            }
+            String value = pair[1].trim();
+            switch (pair[0].trim().toLowerCase()) {
+                case "latency":
+                    rule.latency = LatencyDistribution.parse(value);
+                    break;
+                case "bandwidth":
+                    rule.bandwidthBytesPerSecond = parseBytes(value);
+                    break;
+                case "error":
+                    String[] rateAndStatus = value.split("@");
+                    rule.errorRate = parseRate(rateAndStatus[0]);
+                    if (rateAndStatus.length > 1) {
+                        rule.errorStatus = Integer.parseInt(rateAndStatus[1].trim());
+                    }
+                    break;
+                case "truncate":
+                    rule.truncateRate = parseRate(value);
+                    break;
+                case "reset":
+                    rule.resetRate = parseRate(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown fault setting: " + pair[0]);
+            }
+        }
+        return rule;
+    }
+
+    public boolean matches(String path) {
+        return pathPattern.matcher(path).matches();
+    }
+
+    public LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    public long getBandwidthBytesPerSecond() {
+        return bandwidthBytesPerSecond;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public double getTruncateRate() {
+        return truncateRate;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    private static double parseRate(String value) {
+        double rate = Double.parseDouble(value.trim());
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Fault rate must be between 0 and 1: " + value);
+        }
+        return rate;
+    }
+
+    private static long parseBytes(String value) {
+        String lower = value.trim().toLowerCase();
+        long multiplier = 1;
+        if (lower.endsWith("k")) {
+            multiplier = 1024;
+        } else if (lower.endsWith("m")) {
+            multiplier = 1024 * 1024;
+        }
+        String digits = multiplier == 1 ? lower : lower.substring(0, lower.length() - 1);
+        return Long.parseLong(digits.trim()) * multiplier;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FaultRule{path=%s, latency=%s, bandwidth=%d B/s, error=%.2f@%d, truncate=%.2f, reset=%.2f}",
+                pathPattern, latency, bandwidthBytesPerSecond, errorRate, errorStatus, truncateRate, resetRate);
+    }
+}
@@ -0,0 +1,65 @@
+package com.emmanuelarhu.fault;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of fault rules; the first rule whose path matches applies.
+ *
+ * Spec syntax: rules separated by {@code |}, for example
+ * {@code /photos.*: latency=uniform(200,800); bandwidth=64k | *: error=0.05@503; reset=0.01}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class FaultScenario {
+
+    private final String spec;
+    private final List<FaultRule> rules;
+
+    private FaultScenario(String spec, List<FaultRule> rules) {
+        this.spec = spec;
+        this.rules = rules;
+    }
+
+    /**
+     * Parse a scenario, typically taken from the "faultScenario" TestNG parameter
+     */
+    public static FaultScenario parse(String spec) {
+        List<FaultRule> rules = new ArrayList<>();
+        for (String rule : spec.split("\\|")) {
+            if (!rule.isBlank()) {
+                rules.add(FaultRule.parse(rule));
+            }
+        }
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("Fault scenario has no rules: " + spec);
+        }
+        return new FaultScenario(spec.trim(), Collections.unmodifiableList(rules));
+    }
+
+    /**
+     * The rule for a request path, or null when the path is left alone
+     */
+    public FaultRule ruleFor(String path) {
+        for (FaultRule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public List<FaultRule> getRules() {
+        return rules;
+    }
+
+    public String getSpec() {
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultScenario" + rules;
+    }
+}
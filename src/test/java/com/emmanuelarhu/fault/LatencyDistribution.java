@@ -0,0 +1,80 @@
+package com.emmanuelarhu.fault;
+
+import java.util.SplittableRandom;
+
+/**
+ * Delay distribution applied by the fault proxy before each response.
+ *
+ * Spec syntax (milliseconds): {@code fixed(50)}, {@code uniform(100,500)},
+ * {@code normal(200,50)} or {@code exponential(150)}.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class LatencyDistribution {
+
+    public static final LatencyDistribution NONE = new LatencyDistribution("fixed", 0, 0);
+
+    private final String kind;
+    private final double a;
+    private final double b;
+
+    private LatencyDistribution(String kind, double a, double b) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * Parse a spec such as "uniform(100,500)"
+     */
+    public static LatencyDistribution parse(String spec) {
+        String trimmed = spec.trim();
+        int open = trimmed.indexOf('(');
+        if (open < 0 || !trimmed.endsWith(")")) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec);
+        }
+        String kind = trimmed.substring(0, open).trim().toLowerCase();
+        String[] args = trimmed.substring(open + 1, trimmed.length() - 1).split(",");
+        double first = Double.parseDouble(args[0].trim());
+        double second = args.length > 1 ? Double.parseDouble(args[1].trim()) : 0;
+        switch (kind) {
+            case "fixed":
+            case "exponential":
+                return new LatencyDistribution(kind, first, 0);
+            case "uniform":
+            case "normal":
+                if (args.length != 2) {
+                    throw new IllegalArgumentException(kind + " latency needs two arguments: " + spec);
+                }
+                return new LatencyDistribution(kind, first, second);
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + kind);
+        }
+    }
+
+    /**
+     * Draw one delay in milliseconds, never negative
+     */
+    public long sampleMillis(SplittableRandom random) {
+        double value;
+        switch (kind) {
+            case "uniform":
+                value = a + random.nextDouble() * (b - a);
+                break;
+            case "normal":
+                value = a + b * random.nextGaussian();
+                break;
+            case "exponential":
+                value = -a * Math.log(1 - random.nextDouble());
+                break;
+            default:
+                value = a;
+        }
+        return Math.max(0, Math.round(value));
+    }
+
+    @Override
+    public String toString() {
+        return kind + "(" + a + (kind.equals("uniform") || kind.equals("normal") ? "," + b : "") + ")";
+    }
+}
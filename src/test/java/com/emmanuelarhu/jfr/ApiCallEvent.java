@@ -0,0 +1,42 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code BaseTest.makeApiCall}, from the first attempt to the response
+ * returned or the last retry given up on. Status is that of the last
+ * attempt, -1 when it threw.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.ApiCall")
+@Label("API Call")
+@Category({"API Tests", "HTTP"})
+@Description("makeApiCall including all of its retries and backoff")
+@StackTrace(false)
+public class ApiCallEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,32 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@code response.as(...)} through REST Assured's Jackson mapper, booked
+ * to the endpoint of the thread's last request.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.Deserialization")
+@Label("Deserialization")
+@Category({"API Tests", "Payload"})
+@Description("Response body mapped to a model with response.as(...)")
+@StackTrace(false)
+public class DeserializationEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Body Size")
+    @DataAmount
+    public long bytes;
+}
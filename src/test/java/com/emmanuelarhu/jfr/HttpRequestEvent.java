@@ -0,0 +1,40 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Every request on the wire, whether it came through makeApiCall or a
+ * test's own {@code getRequest()}; emitted by {@code LatencyFilter}. Status
+ * is -1 when the request threw.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.HttpRequest")
+@Label("HTTP Request")
+@Category({"API Tests", "HTTP"})
+@Description("A single REST Assured request, below all other filters")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. GET /posts/{id}")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
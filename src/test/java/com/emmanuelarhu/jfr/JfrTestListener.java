@@ -0,0 +1,47 @@
+package com.emmanuelarhu.jfr;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+
+/**
+ * Emits a {@link TestMethodEvent} around every test method invocation.
+ * Costs an object and a clock read per test when no recording is running;
+ * see the {@code jfr} Maven profile for one that is.
+ *
+ * @author Emmanuel Arhu
+ */
+public class JfrTestListener implements IInvokedMethodListener {
+
+    private static final int MAX_PARAMETERS_LENGTH = 200;
+    private static final ThreadLocal<TestMethodEvent> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            TestMethodEvent event = new TestMethodEvent();
+            event.begin();
+            CURRENT.set(event);
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestMethodEvent event = CURRENT.get();
+        if (!method.isTestMethod() || event == null) {
+            return;
+        }
+        CURRENT.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.test = method.getTestMethod().getQualifiedName();
+            String parameters = Arrays.toString(testResult.getParameters());
+            event.parameters = parameters.length() > MAX_PARAMETERS_LENGTH
+                    ? parameters.substring(0, MAX_PARAMETERS_LENGTH - 1) + "…" : parameters;
+            event.result = testResult.isSuccess() ? "PASS" : testResult.getStatus() == ITestResult.SKIP ? "SKIP" : "FAIL";
+            event.commit();
+        }
+    }
+}
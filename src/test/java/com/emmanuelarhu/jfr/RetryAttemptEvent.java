@@ -0,0 +1,46 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One attempt inside {@code BaseTest.makeApiCall}, with the backoff slept
+ * after it when it is retried. Status is -1 when the attempt threw.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.RetryAttempt")
+@Label("API Call Attempt")
+@Category({"API Tests", "HTTP"})
+@Description("A single makeApiCall attempt; attempt 2 and up are retries")
+@StackTrace(false)
+public class RetryAttemptEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+
+    @Label("Backoff")
+    @Timespan(Timespan.MILLISECONDS)
+    public long backoff;
+}
@@ -0,0 +1,30 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One test method invocation, so the request events and the JVM's GC and
+ * allocation events can be lined up with the test that caused them.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.TestMethod")
+@Label("Test Method")
+@Category({"API Tests"})
+@Description("A TestNG test method invocation, one per data-provider row")
+@StackTrace(false)
+public class TestMethodEvent extends jdk.jfr.Event {
+
+    @Label("Test")
+    public String test;
+
+    @Label("Parameters")
+    public String parameters;
+
+    @Label("Result")
+    public String result;
+}
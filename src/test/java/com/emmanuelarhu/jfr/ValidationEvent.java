@@ -0,0 +1,31 @@
+package com.emmanuelarhu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An outermost call into the {@code com.emmanuelarhu.validation} classes,
+ * booked to the endpoint of the thread's last request.
+ *
+ * @author Emmanuel Arhu
+ */
+@Name("com.emmanuelarhu.Validation")
+@Label("Validation")
+@Category({"API Tests", "Payload"})
+@Description("Field and consistency checks on a deserialized response")
+@StackTrace(false)
+public class ValidationEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Validator")
+    @Description("Class and method, e.g. PhotoValidation.validatePhotoArray")
+    public String validator;
+
+    @Label("Passed")
+    public boolean passed;
+}
@@ -0,0 +1,123 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.cassette.CassetteMode;
+import com.emmanuelarhu.config.TestConfig;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-of-run step that judges this run's endpoints against the
+ * {@link BaselineStore} and then adds the run to it.
+ *
+ * Settings: {@code latency.baseline} (default true),
+ * {@code latency.baseline.dir} (default latency-baselines),
+ * {@code latency.baseline.window} (runs merged into the baseline, default 20),
+ * {@code latency.baseline.env} (default the stand-in storage mode or the
+ * target host, plus the cassette mode when one is set), {@code latency.run.id} (default the current git commit),
+ * {@code latency.regression.alpha} (0.01), {@code latency.regression.threshold}
+ * (relative median shift, 0.10) and {@code latency.regression.minSamples} (5).
+ * Runs that injected a fault scenario are skipped by {@link LatencyListener}.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {}
+
+    /**
+     * Print a verdict per endpoint, write them to {@code verdicts.tsv} in the latency directory,
+     * store the run and return the endpoints that regressed
+     */
+    public static List<String> run(Map<String, Histogram> histograms, Path latencyDirectory, PrintStream out)
+            throws IOException {
+        BaselineStore store = BaselineStore.open(Path.of(TestConfig.get("latency.baseline.dir", "latency-baselines")));
+        String environment = environment();
+        Map<String, BaselineStore.Baseline> baselines =
+                store.load(environment, TestConfig.getInt("latency.baseline.window", 20));
+        RegressionCheck check = new RegressionCheck(TestConfig.getDouble("latency.regression.alpha", 0.01),
+                TestConfig.getDouble("latency.regression.threshold", 0.10),
+                TestConfig.getInt("latency.regression.minSamples", 5));
+
+        List<String> regressions = new ArrayList<>();
+        StringBuilder tsv = new StringBuilder("endpoint\tverdict\tbaseline_runs\tbaseline_p50_ms\tcurrent_p50_ms"
+                + "\tbaseline_p99_ms\tcurrent_p99_ms\tp_slower\tp_value\n");
+        out.printf("📈 Latency vs. baseline (%s, %s):%n", environment, store.getFile());
+        out.printf("%-40s %-16s %5s %11s %11s %11s %11s %8s %9s%n", "endpoint", "verdict", "runs",
+                "base p50", "now p50", "base p99", "now p99", "P(slower)", "p-value");
+        for (Map.Entry<String, Histogram> endpoint : histograms.entrySet()) {
+            BaselineStore.Baseline baseline = baselines.get(endpoint.getKey());
+            RegressionCheck.Result result = check.compare(baseline == null ? null : baseline.histogram(),
+                    endpoint.getValue());
+            int runs = baseline == null ? 0 : baseline.runs();
+            out.printf("%-40s %-16s %5d %9.2fms %9.2fms %9.2fms %9.2fms %8.2f %9.4f%n", endpoint.getKey(),
+                    (result.verdict() == RegressionCheck.Verdict.REGRESSION ? "❌ " : "") + result.verdict(), runs,
+                    result.baselineP50Millis(), result.currentP50Millis(), result.baselineP99Millis(),
+                    result.currentP99Millis(), result.probabilitySlower(), result.pValue());
+            tsv.append(String.join("\t", endpoint.getKey(), result.verdict().name(), String.valueOf(runs),
+                    String.valueOf(result.baselineP50Millis()), String.valueOf(result.currentP50Millis()),
+                    String.valueOf(result.baselineP99Millis()), String.valueOf(result.currentP99Millis()),
+                    String.valueOf(result.probabilitySlower()), String.valueOf(result.pValue()))).append('\n');
+            if (result.verdict() == RegressionCheck.Verdict.REGRESSION) {
+                regressions.add(endpoint.getKey());
+            }
+        }
+        Files.createDirectories(latencyDirectory);
+        Files.writeString(latencyDirectory.resolve("verdicts.tsv"), tsv, StandardCharsets.UTF_8);
+        store.append(TestConfig.get("latency.run.id", currentCommit()), environment, histograms);
+        return regressions;
+    }
+
+    /**
+     * Runs are only compared with runs against the same kind of backend
+     */
+    static String environment() {
+        String configured = TestConfig.get("latency.baseline.env", "");
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+        CassetteMode cassette = CassetteMode.fromString(System.getProperty("cassette.mode"));
+        String suffix = cassette == CassetteMode.OFF ? "" : "-cassette-" + cassette.name().toLowerCase()
+                + (cassette == CassetteMode.REPLAY && Boolean.getBoolean("cassette.replayLatency") ? "-latency" : "");
+        if (Boolean.getBoolean("standin")) {
+            return "standin-" + TestConfig.get("standin.storage", "dynamic") + "-x" + TestConfig.get("dataset.scale", "1")
+                    + suffix;
+        }
+        String host = URI.create(TestConfig.get("baseUrl", "https://jsonplaceholder.typicode.com")).getHost();
+        return (host == null ? "unknown" : host) + suffix;
+    }
+
+    /**
+     * Short commit id from .git without running git, or "unknown"
+     */
+    static String currentCommit() {
+        try {
+            Path git = Path.of(".git");
+            String head = Files.readString(git.resolve("HEAD")).trim();
+            if (!head.startsWith("ref: ")) {
+                return head.substring(0, Math.min(12, head.length()));
+            }
+            String ref = head.substring(5);
+            Path loose = git.resolve(ref);
+            if (Files.exists(loose)) {
+                return Files.readString(loose).trim().substring(0, 12);
+            }
+            for (String line : Files.readAllLines(git.resolve("packed-refs"))) {
+                if (line.endsWith(" " + ref)) {
+                    return line.substring(0, 12);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // not a git checkout; fall through
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,108 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Baseline environments of {@link BaselineComparison}: live, replayed and
+ * latency-replayed runs are each compared only with their own kind
+ *
+ * @author Emmanuel Arhu
+ */
+public class BaselineComparisonTest {
+
+    private static final String[] PROPERTIES = {"latency.baseline.dir", "latency.run.id", "latency.baseline.env",
+            "cassette.mode", "cassette.replayLatency", "standin", "baseUrl"};
+    private static final PrintStream NOWHERE = new PrintStream(OutputStream.nullOutputStream());
+
+    private final Map<String, String> saved = new HashMap<>();
+    private Path directory;
+
+    @BeforeMethod
+    public void isolate() throws IOException {
+        for (String property : PROPERTIES) {
+            saved.put(property, System.getProperty(property));
+            System.clearProperty(property);
+        }
+        directory = Files.createTempDirectory("baselines");
+        System.setProperty("latency.baseline.dir", directory.toString());
+        System.setProperty("latency.run.id", "test");
+        System.setProperty("baseUrl", "https://api.example.com");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restore() throws IOException {
+        saved.forEach((property, value) -> {
+            if (value == null) {
+                System.clearProperty(property);
+            } else {
+                System.setProperty(property, value);
+            }
+        });
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testReplayedRunsHaveTheirOwnBaseline() throws IOException {
+        String live = runWith(null, false);
+        String replay = runWith("replay", false);
+        String replayWithLatency = runWith("replay", true);
+        runWith("replay", false);
+
+        assertEquals(live, "api.example.com");
+        assertEquals(replay, "api.example.com-cassette-replay");
+        assertEquals(replayWithLatency, "api.example.com-cassette-replay-latency");
+        assertEquals(runs(live), 1);
+        assertEquals(runs(replay), 2);
+        assertEquals(runs(replayWithLatency), 1);
+    }
+
+    @Test
+    public void testConfiguredEnvironmentWins() throws IOException {
+        System.setProperty("latency.baseline.env", "nightly");
+
+        assertEquals(runWith("replay", true), "nightly");
+        assertEquals(runs("nightly"), 1);
+    }
+
+    /**
+     * Compare and store one run of GET /posts under the given cassette settings, returning its environment
+     */
+    private String runWith(String cassetteMode, boolean replayLatency) throws IOException {
+        if (cassetteMode != null) {
+            System.setProperty("cassette.mode", cassetteMode);
+        } else {
+            System.clearProperty("cassette.mode");
+        }
+        System.setProperty("cassette.replayLatency", String.valueOf(replayLatency));
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < 20; i++) {
+            histogram.recordValue(1000 + i);
+        }
+        BaselineComparison.run(Map.of("GET /posts", histogram), directory.resolve("latency"), NOWHERE);
+        return BaselineComparison.environment();
+    }
+
+    private int runs(String environment) throws IOException {
+        BaselineStore.Baseline baseline = BaselineStore.open(directory).load(environment, 20).get("GET /posts");
+        return baseline == null ? 0 : baseline.runs();
+    }
+}
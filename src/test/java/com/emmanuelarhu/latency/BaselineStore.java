@@ -0,0 +1,119 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+/**
+ * Append-only file of per-endpoint latency histograms from past runs, used as
+ * the rolling baseline for {@link RegressionCheck}.
+ *
+ * Each line of {@code baselines.tsv} is one endpoint of one run:
+ * {@code v1 <epoch millis> <run id> <environment> <endpoint> <histogram>},
+ * tab separated, with the histogram in HdrHistogram's compressed encoding
+ * (base64, usually a few hundred bytes). Runs only compare against runs of
+ * the same environment, so stand-in and live timings never mix. Loading
+ * keeps just the last {@code window} lines per endpoint before decoding, so
+ * thousands of stored runs stay cheap.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class BaselineStore {
+
+    private static final String VERSION = "v1";
+
+    private final Path file;
+
+    private BaselineStore(Path file) {
+        this.file = file;
+    }
+
+    public static BaselineStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new BaselineStore(directory.resolve("baselines.tsv"));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Merged histograms of the last {@code window} runs per endpoint in an environment, with the run count
+     */
+    public Map<String, Baseline> load(String environment, int window) throws IOException {
+        Map<String, Deque<String>> recent = new HashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t");
+                    if (fields.length != 6 || !fields[0].equals(VERSION) || !fields[3].equals(environment)) {
+                        continue;
+                    }
+                    Deque<String> lines = recent.computeIfAbsent(fields[4], endpoint -> new ArrayDeque<>());
+                    lines.addLast(fields[5]);
+                    if (lines.size() > window) {
+                        lines.removeFirst();
+                    }
+                }
+            }
+        }
+        Map<String, Baseline> baselines = new HashMap<>();
+        for (Map.Entry<String, Deque<String>> endpoint : recent.entrySet()) {
+            Histogram merged = new Histogram(3);
+            for (String encoded : endpoint.getValue()) {
+                merged.add(decode(encoded));
+            }
+            baselines.put(endpoint.getKey(), new Baseline(merged, endpoint.getValue().size()));
+        }
+        return baselines;
+    }
+
+    /**
+     * Append this run's histograms
+     */
+    public void append(String runId, String environment, Map<String, Histogram> histograms) throws IOException {
+        long now = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map.Entry<String, Histogram> endpoint : histograms.entrySet()) {
+                writer.write(String.join("\t", VERSION, String.valueOf(now), runId, environment,
+                        endpoint.getKey(), encode(endpoint.getValue())));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Past runs of one endpoint merged into a single histogram
+     */
+    public record Baseline(Histogram histogram, int runs) {}
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer, 9);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt histogram in latency baseline store", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.emmanuelarhu.latency;
+
+import java.net.URI;
+
+/**
+ * Collapses concrete request URLs into endpoint templates, so latencies of
+ * {@code /posts/57} and {@code /posts/3} are reported together as
+ * {@code GET /posts/{id}} and {@code /comments?postId=4} as
+ * {@code GET /comments?postId={postId}}.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class EndpointTemplate {
+
+    private EndpointTemplate() {}
+
+    /**
+     * Template key for a request, e.g. {@code "GET /posts/{id}/comments"}
+     */
+    public static String of(String method, String uri) {
+        URI parsed = URI.create(uri);
+        return method.toUpperCase() + " " + path(parsed.getRawPath()) + query(parsed.getRawQuery());
+    }
+
+    private static String path(String rawPath) {
+        if (rawPath == null || rawPath.isEmpty()) {
+            return "/";
+        }
+        StringBuilder template = new StringBuilder();
+        for (String segment : rawPath.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/').append(isNumeric(segment) ? "{id}" : segment);
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    private static String query(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        StringBuilder template = new StringBuilder();
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            template.append(template.length() == 0 ? '?' : '&').append(name).append("={").append(name).append('}');
+        }
+        return template.toString();
+    }
+
+    private static boolean isNumeric(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-' && segment.length() > 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.config.TestConfig;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A latency limit for requests of one HTTP method, optionally narrowed to one
+ * endpoint template, at a percentile (100 = every single request).
+ *
+ * Budgets come from allure.properties or system properties:
+ * <ul>
+ *   <li>{@code response.time.<method>.max=<ms>}: no request may take longer,
+ *       e.g. {@code response.time.get.max=2000}</li>
+ *   <li>{@code latency.budget.<method>[.<template>].p<percentile>=<ms>}: the
+ *       percentile of a test's requests, e.g. {@code latency.budget.get.p95=800}
+ *       or {@code latency.budget.get./photos/{id}.p99_9=1500} ({@code _} for a
+ *       decimal point, {@code max} also accepted; escape {@code =} in query
+ *       templates as {@code \=} in allure.properties)</li>
+ * </ul>
+ *
+ * @author Emmanuel Arhu
+ */
+public final class LatencyBudget {
+
+    private static final String MAX_PREFIX = "response.time.";
+    private static final String BUDGET_PREFIX = "latency.budget.";
+
+    private final String method;
+    private final String template;
+    private final double percentile;
+    private final long limitMillis;
+
+    LatencyBudget(String method, String template, double percentile, long limitMillis) {
+        this.method = method.toUpperCase();
+        this.template = template;
+        this.percentile = percentile;
+        this.limitMillis = limitMillis;
+    }
+
+    /**
+     * All budgets configured in allure.properties and system properties
+     */
+    public static List<LatencyBudget> fromConfig() {
+        Properties properties = TestConfig.fileProperties();
+        properties.putAll(System.getProperties());
+        List<LatencyBudget> budgets = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(MAX_PREFIX) && key.endsWith(".max")) {
+                String method = key.substring(MAX_PREFIX.length(), key.length() - ".max".length());
+                budgets.add(new LatencyBudget(method, null, 100, TestConfig.getLong(key, 0)));
+            } else if (key.startsWith(BUDGET_PREFIX)) {
+                budgets.add(parse(key.substring(BUDGET_PREFIX.length()), TestConfig.getLong(key, 0)));
+            }
+        }
+        return budgets;
+    }
+
+    /**
+     * Parse {@code <method>[.<template>].p<percentile>} with a limit in milliseconds
+     */
+    static LatencyBudget parse(String key, long limitMillis) {
+        int firstDot = key.indexOf('.');
+        int lastDot = key.lastIndexOf('.');
+        if (firstDot < 0) {
+            throw new IllegalArgumentException("Latency budget needs <method>.p<percentile>: " + key);
+        }
+        String method = key.substring(0, firstDot);
+        String template = lastDot > firstDot ? key.substring(firstDot + 1, lastDot) : null;
+        String level = key.substring(lastDot + 1);
+        double percentile;
+        if (level.equals("max")) {
+            percentile = 100;
+        } else if (level.startsWith("p")) {
+            percentile = Double.parseDouble(level.substring(1).replace('_', '.'));
+        } else {
+            throw new IllegalArgumentException("Latency budget level must be max or p<percentile>: " + key);
+        }
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Latency budget percentile out of range: " + key);
+        }
+        return new LatencyBudget(method, template, percentile, limitMillis);
+    }
+
+    /**
+     * Whether this budget covers an endpoint key such as {@code "GET /posts/{id}"}
+     */
+    public boolean appliesTo(String endpoint) {
+        int space = endpoint.indexOf(' ');
+        return endpoint.substring(0, space).equals(method)
+                && (template == null || endpoint.substring(space + 1).equals(template));
+    }
+
+    /**
+     * Whether this is a per-request maximum rather than a percentile of many requests
+     */
+    public boolean isMax() {
+        return percentile == 100;
+    }
+
+    /**
+     * Milliseconds at this budget's percentile when it exceeds the limit, else -1
+     */
+    public double exceededBy(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return -1;
+        }
+        double observed = (isMax() ? histogram.getMaxValue() : histogram.getValueAtPercentile(percentile)) / 1000.0;
+        return observed > limitMillis ? observed : -1;
+    }
+
+    @Override
+    public String toString() {
+        String level = isMax() ? "max" : "p" + (percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile) : String.valueOf(percentile));
+        return method + (template == null ? "" : " " + template) + " " + level + " <= " + limitMillis + "ms";
+    }
+}
@@ -0,0 +1,117 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import io.qameta.allure.Allure;
+import org.HdrHistogram.Histogram;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks every test's requests against the {@link LatencyBudget}s from
+ * allure.properties. Per-request maxima ({@code response.time.get.max}) are
+ * checked on each invocation; percentile budgets on all samples of the test
+ * method so far, i.e. across every data-provider row, and fail only the row
+ * where the percentile first goes over.
+ *
+ * {@code -Dlatency.budgets=fail} (default) fails a passing test that is over
+ * budget, {@code warn} only prints and attaches, {@code off} disables the
+ * checks. Either way the offending latency distribution is attached to the
+ * test in the Allure report. Tests whose {@code <test>} sets a
+ * {@code faultScenario} only warn, since the injected latency is the point.
+ *
+ * Every test also gets a {@link RequestWaterfall} of its requests' phases
+ * attached, unless {@code -Dlatency.waterfall=false} or
+ * {@code -Dlatency.phases=false}.
+ *
+ * @author Emmanuel Arhu
+ */
+public class LatencyBudgetListener implements IInvokedMethodListener {
+
+    private static final String MODE = TestConfig.get("latency.budgets", "fail");
+    private static final List<LatencyBudget> BUDGETS = LatencyBudget.fromConfig();
+    private static final boolean CHECK_BUDGETS = !MODE.equals("off") && !BUDGETS.isEmpty();
+    private static final boolean WATERFALL = RequestPhases.isEnabled() && TestConfig.getBoolean("latency.waterfall", true);
+
+    private final Map<ITestNGMethod, TestLatencies> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && (CHECK_BUDGETS || WATERFALL)) {
+            TestLatencies.begin(methods.computeIfAbsent(method.getTestMethod(), key -> new TestLatencies()));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        TestLatencies.Invocation invocation = TestLatencies.end();
+        if (invocation == null) {
+            return;
+        }
+        boolean attach = Allure.getLifecycle().getCurrentTestCase().isPresent();
+        if (WATERFALL && attach && !invocation.getCalls().isEmpty()) {
+            Allure.addAttachment("Request waterfall", "text/plain", RequestWaterfall.render(invocation.getCalls()));
+        }
+        if (!CHECK_BUDGETS) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        StringBuilder distributions = new StringBuilder();
+        Map<String, Histogram> allRows = invocation.getMethod().allSamples();
+        for (LatencyBudget budget : BUDGETS) {
+            Map<String, Histogram> samples = budget.isMax() ? invocation.getSamples() : allRows;
+            for (Map.Entry<String, Histogram> endpoint : samples.entrySet()) {
+                if (!budget.appliesTo(endpoint.getKey())) {
+                    continue;
+                }
+                double observed = budget.exceededBy(endpoint.getValue());
+                if (observed < 0 || (!budget.isMax() && !invocation.getMethod().firstReport(budget + endpoint.getKey()))) {
+                    continue;
+                }
+                violations.add(String.format("%s took %.1fms, budget %s", endpoint.getKey(), observed, budget));
+                distributions.append(describe(endpoint.getKey(), budget, endpoint.getValue()));
+            }
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Latency budget exceeded: " + String.join("; ", violations);
+        if (attach) {
+            Allure.addAttachment("Latency budget", "text/plain", distributions.toString());
+        }
+        if (MODE.equals("fail") && testResult.getStatus() == ITestResult.SUCCESS && !underFaults(testResult)) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(message));
+        } else {
+            AsyncLog.warn("⚠️ " + message);
+        }
+    }
+
+    private static boolean underFaults(ITestResult testResult) {
+        String scenario = testResult.getTestContext().getCurrentXmlTest().getParameter("faultScenario");
+        return scenario != null && !scenario.isBlank();
+    }
+
+    private static String describe(String endpoint, LatencyBudget budget, Histogram histogram) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        out.printf("%s, budget %s, %d %s (values in ms)%n", endpoint, budget, histogram.getTotalCount(),
+                budget.isMax() ? "requests in this invocation" : "requests over all rows");
+        histogram.outputPercentileDistribution(out, 5, 1000.0);
+        out.println();
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
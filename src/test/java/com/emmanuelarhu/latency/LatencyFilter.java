@@ -0,0 +1,103 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.jfr.HttpRequestEvent;
+import com.emmanuelarhu.trace.Span;
+import com.emmanuelarhu.trace.SuiteTrace;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * REST Assured filter that records every request's latency into a
+ * {@link LatencyRecorder} under its {@link EndpointTemplate}, and into the
+ * running test's samples for {@link LatencyBudgetListener}. A 5xx status or
+ * a transport exception counts as an error. Each request also opens its
+ * {@link RequestPhases} call, which the timed client below fills in, and
+ * is emitted as a JFR {@link HttpRequestEvent} when a recording is running
+ * and as an HTTP span of the {@link SuiteTrace}.
+ *
+ * An open-model load generator calls {@link #scheduleNext(long)} with the
+ * time a request was meant to start; the next request on that thread is
+ * then measured from that time rather than from when it actually went out,
+ * so queueing behind a stalled system is not hidden (coordinated omission).
+ *
+ * @author Emmanuel Arhu
+ */
+public class LatencyFilter implements OrderedFilter {
+
+    private static final ThreadLocal<long[]> SCHEDULED_START = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    private final LatencyRecorder recorder;
+
+    public LatencyFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Measure the current thread's next request from this {@link System#nanoTime()} instead of its send time
+     */
+    public static void scheduleNext(long scheduledNanos) {
+        SCHEDULED_START.get()[0] = scheduledNanos;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String template = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+        long[] scheduled = SCHEDULED_START.get();
+        if (RequestPhases.isEnabled()) {
+            TestLatencies.call(RequestPhases.start(template));
+        }
+        long started = System.nanoTime();
+        if (scheduled[0] >= 0) {
+            started = Math.min(started, scheduled[0]);
+            scheduled[0] = -1;
+        }
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        Span span = SuiteTrace.begin(SuiteTrace.HTTP, template);
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            long elapsed = System.nanoTime() - started;
+            recorder.record(template, elapsed, response.getStatusCode() >= 500);
+            TestLatencies.record(template, elapsed);
+            commit(event, template, requestSpec, response);
+            span.arg("status", response.getStatusCode()).end();
+            return response;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - started;
+            recorder.record(template, elapsed, true);
+            TestLatencies.record(template, elapsed);
+            commit(event, template, requestSpec, null);
+            span.arg("error", e.getClass().getSimpleName()).end();
+            throw e;
+        }
+    }
+
+    /**
+     * Emit the request to a running JFR recording; response is null when the request threw
+     */
+    private static void commit(HttpRequestEvent event, String template, FilterableRequestSpecification requestSpec,
+                               Response response) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = template;
+            event.method = requestSpec.getMethod();
+            event.uri = requestSpec.getURI();
+            event.status = response == null ? -1 : response.getStatusCode();
+            event.bytes = response == null ? 0 : response.getBody().asByteArray().length;
+            event.commit();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1; // closest to the wire but above the cassette, so replayed requests are timed too
+    }
+}
@@ -0,0 +1,90 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import org.testng.IExecutionListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Prints the suite's per-endpoint latency percentiles at the end of the run
+ * and writes them as {@code .hlog} files to {@code -Dlatency.dir} (default
+ * target/latency), one interval per TestNG {@code <test>}, followed by the
+ * mean time per {@link RequestPhases} phase ({@code phases.tsv}). The run is
+ * then checked for regressions against past runs by {@link BaselineComparison},
+ * unless a {@code <test>} ran under a {@code faultScenario}: injected latency
+ * would flag false regressions and poison the baseline for later runs.
+ *
+ * @author Emmanuel Arhu
+ */
+public class LatencyListener implements ITestListener, IExecutionListener {
+
+    private volatile boolean faultsInjected;
+
+    @Override
+    public void onStart(ITestContext context) {
+        String scenario = context.getCurrentXmlTest().getParameter("faultScenario");
+        if (scenario != null && !scenario.isBlank()) {
+            faultsInjected = true;
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        LatencyRecorder.suite().sampleInterval();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        LatencyRecorder recorder = LatencyRecorder.suite();
+        if (recorder.histograms().isEmpty()) {
+            return;
+        }
+        AsyncLog.report(out -> {
+            out.println("⏱️ Latency per endpoint:");
+            recorder.printReport(out, "endpoint");
+        });
+        Path directory = Path.of(TestConfig.get("latency.dir", "target/latency"));
+        try {
+            List<Path> files = recorder.writeHistogramLogs(directory);
+            AsyncLog.info("📁 Wrote " + files.size() + " histogram logs to " + directory);
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to write histogram logs: " + e.getMessage());
+        }
+        if (!RequestPhases.isEmpty()) {
+            AsyncLog.report(out -> {
+                out.println("⏱️ Mean ms per request by phase:");
+                RequestPhases.printReport(out);
+            });
+            try {
+                Files.createDirectories(directory);
+                Files.writeString(directory.resolve("phases.tsv"), RequestPhases.toTsv(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                AsyncLog.error("❌ Failed to write phases.tsv: " + e.getMessage());
+            }
+        }
+        if (faultsInjected) {
+            AsyncLog.info("⏭️ Skipped the latency baseline: this run injected a fault scenario");
+        } else if (TestConfig.getBoolean("latency.baseline", true)) {
+            try {
+                ByteArrayOutputStream table = new ByteArrayOutputStream();
+                List<String> regressions = BaselineComparison.run(recorder.histograms(), directory,
+                        new PrintStream(table, true, StandardCharsets.UTF_8));
+                AsyncLog.info(table.toString(StandardCharsets.UTF_8).stripTrailing());
+                if (!regressions.isEmpty()) {
+                    AsyncLog.error("❌ Latency regressions: " + String.join(", ", regressions));
+                }
+            } catch (IOException e) {
+                AsyncLog.error("❌ Failed to compare with the latency baseline: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+
+/**
+ * Latency histograms keyed by endpoint template (or any other name), in
+ * microseconds.
+ *
+ * Writers record into an HdrHistogram {@link Recorder} per key, which is
+ * wait-free for any number of threads, so virtual threads never contend on
+ * a lock. {@link #sampleInterval()} swaps out each key's interval histogram
+ * and merges it into the running total; the intervals are kept compressed
+ * (a few hundred bytes each instead of the ~190 KB of a live histogram, so
+ * an hour of 1 s samples stays small) so they can be written as
+ * {@code .hlog} files for HistogramLogProcessor and HdrHistogram's plotter.
+ *
+ * @author Emmanuel Arhu
+ */
+public class LatencyRecorder {
+
+    private static final LatencyRecorder SUITE = new LatencyRecorder();
+    private static final long HIGHEST_MICROS = 3_600_000_000L; // 1 hour
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private volatile Map<String, Series> series = new ConcurrentHashMap<>();
+    private volatile long startedMillis = System.currentTimeMillis();
+
+    /**
+     * Every request of the API suite, filled by {@code BaseTest}'s {@link LatencyFilter}
+     */
+    public static LatencyRecorder suite() {
+        return SUITE;
+    }
+
+    /**
+     * One sampled interval, compressed
+     */
+    private record Interval(long startMillis, long endMillis, byte[] compressed) {
+
+        Histogram decode() {
+            try {
+                Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressed),
+                        HIGHEST_MICROS);
+                histogram.setStartTimeStamp(startMillis);
+                histogram.setEndTimeStamp(endMillis);
+                return histogram;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt interval histogram", e); // encoded above, cannot happen
+            }
+        }
+    }
+
+    /**
+     * One key's live recorder, merged total and sampled intervals
+     */
+    private static final class Series {
+
+        private final Recorder recorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+        private final Histogram total = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final List<Interval> intervals = new ArrayList<>();
+        private Histogram interval;
+        private ByteBuffer buffer;
+
+        synchronized void sample() {
+            interval = recorder.getIntervalHistogram(interval);
+            if (interval.getTotalCount() == 0) {
+                return;
+            }
+            total.add(interval);
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(interval.getNeededByteBufferCapacity());
+            }
+            buffer.clear();
+            int length = interval.encodeIntoCompressedByteBuffer(buffer);
+            intervals.add(new Interval(interval.getStartTimeStamp(), interval.getEndTimeStamp(),
+                    Arrays.copyOf(buffer.array(), length)));
+        }
+    }
+
+    /**
+     * Record one latency; {@code error} marks a 5xx or transport failure
+     */
+    public void record(String key, long nanos, boolean error) {
+        Series entry = series.computeIfAbsent(key, name -> new Series());
+        entry.recorder.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, nanos / 1000)));
+        if (error) {
+            entry.errors.increment();
+        }
+    }
+
+    /**
+     * Close the current interval of every key and merge it into the totals
+     */
+    public void sampleInterval() {
+        for (Series entry : series.values()) {
+            entry.sample();
+        }
+    }
+
+    /**
+     * Drop everything recorded so far, e.g. at the end of a warmup
+     */
+    public void reset() {
+        series = new ConcurrentHashMap<>();
+        startedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Seconds since creation or the last {@link #reset()}
+     */
+    public double elapsedSeconds() {
+        return (System.currentTimeMillis() - startedMillis) / 1000.0;
+    }
+
+    /**
+     * Merged histograms per key (sorted), including the current interval
+     */
+    public Map<String, Histogram> histograms() {
+        sampleInterval();
+        Map<String, Histogram> copies = new TreeMap<>();
+        series.forEach((key, entry) -> {
+            synchronized (entry) {
+                copies.put(key, entry.total.copy());
+            }
+        });
+        return copies;
+    }
+
+    /**
+     * Errors per key recorded with {@code error = true}
+     */
+    public long errors(String key) {
+        Series entry = series.get(key);
+        return entry == null ? 0 : entry.errors.sum();
+    }
+
+    /**
+     * Print count, error rate, throughput and p50/p90/p99/p99.9/max per key
+     */
+    public void printReport(PrintStream out, String label) {
+        Map<String, Histogram> histograms = histograms();
+        double seconds = elapsedSeconds();
+        out.printf("%-40s %10s %8s %7s %10s %9s %9s %9s %9s %9s%n",
+                label, "requests", "errors", "error%", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> row : histograms.entrySet()) {
+            Histogram histogram = row.getValue();
+            long count = histogram.getTotalCount();
+            long errors = errors(row.getKey());
+            out.printf("%-40s %,10d %,8d %6.2f%% %,10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.getKey(), count, errors, count == 0 ? 0 : errors * 100.0 / count, count / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * Write each key's sampled intervals to {@code <directory>/<key>.hlog}
+     * (values in microseconds) and return the files written
+     */
+    public List<Path> writeHistogramLogs(Path directory) throws IOException {
+        sampleInterval();
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            Path file = directory.resolve(fileName(entry.getKey()) + ".hlog");
+            Series value = entry.getValue();
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                HistogramLogWriter writer = new HistogramLogWriter(out);
+                writer.outputComment("[" + entry.getKey() + ", values in microseconds]");
+                writer.outputLogFormatVersion();
+                writer.outputStartTime(startedMillis);
+                writer.setBaseTime(startedMillis);
+                writer.outputLegend();
+                synchronized (value) {
+                    for (Interval interval : value.intervals) {
+                        writer.outputIntervalHistogram(interval.decode());
+                    }
+                }
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * "GET /posts/{id}" -> "GET_posts_id"
+     */
+    static String fileName(String key) {
+        return key.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_+|_+$", "");
+    }
+}
@@ -0,0 +1,88 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Totals and {@code .hlog} intervals of {@link LatencyRecorder}
+ *
+ * @author Emmanuel Arhu
+ */
+public class LatencyRecorderTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("latency-recorder");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testIntervalsAreWrittenToHistogramLogs() throws IOException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int interval = 1; interval <= 3; interval++) {
+            for (int i = 0; i < 10 * interval; i++) {
+                recorder.record("GET /posts/{id}", interval * 1_000_000L, false);
+            }
+            recorder.sampleInterval();
+        }
+        recorder.sampleInterval(); // nothing recorded since: no empty interval
+
+        List<Path> files = recorder.writeHistogramLogs(directory);
+
+        assertEquals(files, List.of(directory.resolve("GET_posts_id.hlog")));
+        List<Histogram> intervals = new ArrayList<>();
+        HistogramLogReader reader = new HistogramLogReader(files.getFirst().toFile());
+        for (EncodableHistogram read = reader.nextIntervalHistogram(); read != null;
+             read = reader.nextIntervalHistogram()) {
+            intervals.add((Histogram) read);
+        }
+        assertEquals(intervals.size(), 3);
+        for (int interval = 1; interval <= 3; interval++) {
+            Histogram histogram = intervals.get(interval - 1);
+            assertEquals(histogram.getTotalCount(), 10 * interval);
+            assertEquals(histogram.getMaxValue(), interval * 1000L, 1.0, "Values are in microseconds");
+        }
+    }
+
+    @Test
+    public void testTotalsMergeEveryInterval() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET /users", 2_000_000, false);
+        recorder.sampleInterval();
+        recorder.record("GET /users", 4_000_000, true);
+        recorder.record("GET /todos", 1_000_000, false);
+
+        Map<String, Histogram> histograms = recorder.histograms();
+
+        assertEquals(histograms.keySet(), Set.of("GET /todos", "GET /users"));
+        assertEquals(histograms.get("GET /users").getTotalCount(), 2);
+        assertEquals(recorder.errors("GET /users"), 1);
+        assertEquals(recorder.errors("GET /todos"), 0);
+    }
+}
@@ -0,0 +1,233 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.latency.RequestPhases.Phase;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.DefaultClientConnection;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The HttpClient REST Assured creates for each request, with the wire
+ * phases of the request booked to {@link RequestPhases}: DNS lookup, TCP
+ * connect and TLS handshake (via {@link TimedSocketFactory}), sending the
+ * request, waiting for the response headers and reading the body. Body
+ * download counts only time spent blocked in reads, not the gaps in which
+ * REST Assured does other work. Open connections are counted for the
+ * metrics registry.
+ *
+ * Installed by BaseTest through {@code HttpClientConfig.httpClientFactory};
+ * {@code -Dlatency.phases=false} keeps REST Assured's plain client.
+ *
+ * @author Emmanuel Arhu
+ */
+@SuppressWarnings("deprecation") // REST Assured's httpClientFactory still takes the legacy HttpClient 4 API
+public class PhaseTimingHttpClient extends DefaultHttpClient {
+
+    private static final AtomicLong OPEN_CONNECTIONS = new AtomicLong();
+
+    /**
+     * Connections opened by these clients and not yet closed or shut down
+     */
+    public static long openConnections() {
+        return OPEN_CONNECTIONS.get();
+    }
+
+    @Override
+    protected ClientConnectionManager createClientConnectionManager() {
+        return new BasicClientConnectionManager(SchemeRegistryFactory.createDefault()) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new TimedConnectionOperator(registry);
+            }
+        };
+    }
+
+    @Override
+    protected HttpRequestExecutor createRequestExecutor() {
+        return new HttpRequestExecutor() {
+            @Override
+            protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection,
+                                                 HttpContext context) throws IOException, HttpException {
+                long started = System.nanoTime();
+                try {
+                    return super.doSendRequest(request, connection, context);
+                } finally {
+                    RequestPhases.record(Phase.SEND, started, System.nanoTime());
+                }
+            }
+
+            @Override
+            protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection,
+                                                     HttpContext context) throws HttpException, IOException {
+                long started = System.nanoTime();
+                HttpResponse response;
+                try {
+                    response = super.doReceiveResponse(request, connection, context);
+                } finally {
+                    RequestPhases.record(Phase.TTFB, started, System.nanoTime());
+                }
+                RequestPhases call = RequestPhases.current();
+                if (call != null && response.getEntity() != null) {
+                    response.setEntity(new TimedEntity(response.getEntity(), call));
+                }
+                return response;
+            }
+        };
+    }
+
+    /**
+     * Times name resolution, and wraps each scheme's socket factory before the first connection through it
+     */
+    private static final class TimedConnectionOperator extends DefaultClientConnectionOperator {
+
+        private TimedConnectionOperator(SchemeRegistry registry) {
+            super(registry);
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+                                   HttpContext context, HttpParams params) throws IOException {
+            SchemeRegistry registry = context == null ? null
+                    : (SchemeRegistry) context.getAttribute(ClientContext.SCHEME_REGISTRY);
+            TimedSocketFactory.wrap(registry != null ? registry : schemeRegistry, target.getSchemeName());
+            super.openConnection(connection, target, local, context, params);
+        }
+
+        @Override
+        public OperatedClientConnection createConnection() {
+            return new CountedConnection();
+        }
+
+        @Override
+        protected InetAddress[] resolveHostname(String host) throws UnknownHostException {
+            long started = System.nanoTime();
+            try {
+                return super.resolveHostname(host);
+            } finally {
+                RequestPhases.record(Phase.DNS, started, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Counted in {@link #openConnections()} from its first bind to a socket until it is closed or shut down
+     */
+    private static final class CountedConnection extends DefaultClientConnection {
+
+        private final AtomicBoolean open = new AtomicBoolean();
+
+        @Override
+        public void opening(Socket socket, HttpHost target) throws IOException {
+            if (open.compareAndSet(false, true)) {
+                OPEN_CONNECTIONS.incrementAndGet();
+            }
+            super.opening(socket, target);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed();
+            super.close();
+        }
+
+        @Override
+        public void shutdown() throws IOException {
+            closed();
+            super.shutdown();
+        }
+
+        private void closed() {
+            if (open.compareAndSet(true, false)) {
+                OPEN_CONNECTIONS.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Response body whose reads are booked as download time of the call that received it
+     */
+    private static final class TimedEntity extends HttpEntityWrapper {
+
+        private final RequestPhases call;
+
+        private TimedEntity(HttpEntity entity, RequestPhases call) {
+            super(entity);
+            this.call = call;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                private boolean reading;
+                private long firstRead;
+                private long blocked;
+                private boolean booked;
+
+                @Override
+                public int read() throws IOException {
+                    long started = System.nanoTime();
+                    int value = super.read();
+                    finished(started, value < 0);
+                    return value;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    long started = System.nanoTime();
+                    int count = super.read(buffer, offset, length);
+                    finished(started, count < 0);
+                    return count;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    book();
+                }
+
+                private void finished(long started, boolean endOfStream) {
+                    if (!reading) {
+                        reading = true;
+                        firstRead = started;
+                    }
+                    blocked += System.nanoTime() - started;
+                    if (endOfStream) {
+                        book();
+                    }
+                }
+
+                private void book() {
+                    if (!booked && reading) {
+                        booked = true;
+                        call.add(Phase.DOWNLOAD, firstRead, firstRead + blocked);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.jfr.DeserializationEvent;
+import com.emmanuelarhu.latency.RequestPhases.Phase;
+import io.restassured.internal.mapping.Jackson2Mapper;
+import io.restassured.mapper.ObjectMapper;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+import io.restassured.path.json.mapper.factory.Jackson2ObjectMapperFactory;
+
+/**
+ * REST Assured's Jackson mapper with {@code response.as(...)} booked as the
+ * parse phase of the thread's last request in {@link RequestPhases} and,
+ * when a recording is running, as a JFR {@link DeserializationEvent}.
+ * Serialization of request bodies is passed through untimed.
+ *
+ * @author Emmanuel Arhu
+ */
+public class PhaseTimingObjectMapper implements ObjectMapper {
+
+    private final ObjectMapper delegate;
+
+    public PhaseTimingObjectMapper(Jackson2ObjectMapperFactory factory) {
+        this.delegate = new Jackson2Mapper(factory);
+    }
+
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        DeserializationEvent event = new DeserializationEvent();
+        event.begin();
+        long started = System.nanoTime();
+        try {
+            return delegate.deserialize(context);
+        } finally {
+            RequestPhases.record(Phase.PARSE, started, System.nanoTime());
+            event.end();
+            if (event.shouldCommit()) {
+                RequestPhases call = RequestPhases.current();
+                event.endpoint = call == null ? null : call.getEndpoint();
+                event.type = context.getType().getTypeName();
+                event.bytes = context.getDataToDeserialize().asByteArray().length;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        return delegate.serialize(context);
+    }
+}
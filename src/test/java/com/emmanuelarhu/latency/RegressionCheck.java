@@ -0,0 +1,123 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decides whether an endpoint got slower than its rolling baseline.
+ *
+ * The two latency distributions are compared with a one-sided Mann-Whitney U
+ * test computed directly from the histograms' buckets (ties averaged, normal
+ * approximation with tie correction). A significant result only becomes a
+ * regression or improvement when the median also moved by at least the
+ * relative threshold, so large samples do not flag a 1% wobble.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class RegressionCheck {
+
+    /**
+     * Outcome for one endpoint
+     */
+    public enum Verdict { REGRESSION, IMPROVED, UNCHANGED, NEW, TOO_FEW_SAMPLES }
+
+    /**
+     * Verdict plus the numbers behind it; {@code probabilitySlower} is the
+     * chance a random current request is slower than a random baseline one
+     */
+    public record Result(Verdict verdict, double baselineP50Millis, double currentP50Millis,
+                         double baselineP99Millis, double currentP99Millis,
+                         double probabilitySlower, double pValue) {}
+
+    private final double alpha;
+    private final double threshold;
+    private final int minSamples;
+
+    /**
+     * @param alpha      significance level of the one-sided test, e.g. 0.01
+     * @param threshold  minimum relative median shift, e.g. 0.10 for 10%
+     * @param minSamples minimum requests on each side before judging
+     */
+    public RegressionCheck(double alpha, double threshold, int minSamples) {
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minSamples = minSamples;
+    }
+
+    public Result compare(Histogram baseline, Histogram current) {
+        double currentP50 = current.getValueAtPercentile(50) / 1000.0;
+        double currentP99 = current.getValueAtPercentile(99) / 1000.0;
+        if (baseline == null || baseline.getTotalCount() == 0) {
+            return new Result(Verdict.NEW, 0, currentP50, 0, currentP99, Double.NaN, Double.NaN);
+        }
+        double baselineP50 = baseline.getValueAtPercentile(50) / 1000.0;
+        double baselineP99 = baseline.getValueAtPercentile(99) / 1000.0;
+        if (baseline.getTotalCount() < minSamples || current.getTotalCount() < minSamples) {
+            return new Result(Verdict.TOO_FEW_SAMPLES, baselineP50, currentP50, baselineP99, currentP99,
+                    Double.NaN, Double.NaN);
+        }
+
+        double[] test = mannWhitney(current, baseline);
+        double probabilitySlower = test[0];
+        double z = test[1];
+        double shift = baselineP50 == 0 ? 0 : (currentP50 - baselineP50) / baselineP50;
+        Verdict verdict = Verdict.UNCHANGED;
+        double pValue;
+        if (z >= 0) {
+            pValue = 1 - normalCdf(z);
+            if (pValue < alpha && shift >= threshold) {
+                verdict = Verdict.REGRESSION;
+            }
+        } else {
+            pValue = normalCdf(z);
+            if (pValue < alpha && shift <= -threshold) {
+                verdict = Verdict.IMPROVED;
+            }
+        }
+        return new Result(verdict, baselineP50, currentP50, baselineP99, currentP99, probabilitySlower, pValue);
+    }
+
+    /**
+     * {U / (n1 n2), z} for "a tends to be larger than b", from bucketed values
+     */
+    static double[] mannWhitney(Histogram a, Histogram b) {
+        TreeMap<Long, long[]> counts = new TreeMap<>();
+        for (HistogramIterationValue value : a.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), key -> new long[2])[0] += value.getCountAtValueIteratedTo();
+        }
+        for (HistogramIterationValue value : b.recordedValues()) {
+            counts.computeIfAbsent(value.getValueIteratedTo(), key -> new long[2])[1] += value.getCountAtValueIteratedTo();
+        }
+        double n1 = a.getTotalCount();
+        double n2 = b.getTotalCount();
+        double n = n1 + n2;
+        double rankSum = 0;
+        double tieTerm = 0;
+        double ranked = 0;
+        for (Map.Entry<Long, long[]> bucket : counts.entrySet()) {
+            double ties = bucket.getValue()[0] + bucket.getValue()[1];
+            double averageRank = ranked + (ties + 1) / 2;
+            rankSum += bucket.getValue()[0] * averageRank;
+            tieTerm += ties * ties * ties - ties;
+            ranked += ties;
+        }
+        double u = rankSum - n1 * (n1 + 1) / 2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        double z = variance <= 0 ? 0 : (u - n1 * n2 / 2) / Math.sqrt(variance);
+        return new double[]{u / (n1 * n2), z};
+    }
+
+    /**
+     * Standard normal CDF (Abramowitz and Stegun 7.1.26, error below 1.5e-7)
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
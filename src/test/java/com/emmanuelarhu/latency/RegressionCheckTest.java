@@ -0,0 +1,106 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+/**
+ * Mann-Whitney statistics and verdicts of {@link RegressionCheck}
+ *
+ * @author Emmanuel Arhu
+ */
+public class RegressionCheckTest {
+
+    private final RegressionCheck check = new RegressionCheck(0.01, 0.10, 5);
+
+    @Test
+    public void testMannWhitneyOfSeparatedSamples() {
+        double[] slower = RegressionCheck.mannWhitney(histogram(4, 5, 6), histogram(1, 2, 3));
+        double[] faster = RegressionCheck.mannWhitney(histogram(1, 2, 3), histogram(4, 5, 6));
+
+        assertEquals(slower[0], 1.0);
+        assertEquals(faster[0], 0.0);
+        // U = 9 of n1 n2 = 9, mean 4.5, variance 3 * 3 * 7 / 12
+        assertEquals(slower[1], 4.5 / Math.sqrt(5.25), 1e-9);
+        assertEquals(faster[1], -slower[1], 1e-9);
+    }
+
+    @Test
+    public void testMannWhitneyAveragesTies() {
+        double[] identical = RegressionCheck.mannWhitney(histogram(5, 5, 5, 5), histogram(5, 5, 5));
+        double[] partial = RegressionCheck.mannWhitney(histogram(1, 2), histogram(2, 3));
+
+        assertEquals(identical[0], 0.5);
+        assertEquals(identical[1], 0.0);
+        // a = {1, 2}, b = {2, 3}: ranks 1, 2.5 | 2.5, 4, so U = 3.5 - 3 = 0.5 of 4
+        assertEquals(partial[0], 0.125, 1e-9);
+    }
+
+    @Test
+    public void testNormalCdf() {
+        assertEquals(RegressionCheck.normalCdf(0), 0.5, 1e-7);
+        assertEquals(RegressionCheck.normalCdf(1.959964), 0.975, 1e-6);
+        assertEquals(RegressionCheck.normalCdf(-2.326348), 0.01, 1e-6);
+    }
+
+    @Test
+    public void testSlowerRunIsRegression() {
+        RegressionCheck.Result result = check.compare(latencies(100, 10, 1), latencies(150, 10, 2));
+
+        assertEquals(result.verdict(), RegressionCheck.Verdict.REGRESSION);
+        assertTrue(result.pValue() < 0.01, "p = " + result.pValue());
+        assertTrue(result.probabilitySlower() > 0.9, "P(slower) = " + result.probabilitySlower());
+    }
+
+    @Test
+    public void testFasterRunIsImprovement() {
+        assertEquals(check.compare(latencies(150, 10, 1), latencies(100, 10, 2)).verdict(),
+                RegressionCheck.Verdict.IMPROVED);
+    }
+
+    @Test
+    public void testSameDistributionIsUnchanged() {
+        assertEquals(check.compare(latencies(100, 10, 1), latencies(100, 10, 2)).verdict(),
+                RegressionCheck.Verdict.UNCHANGED);
+    }
+
+    @Test
+    public void testSignificantButSmallShiftIsUnchanged() {
+        RegressionCheck.Result result = check.compare(latencies(100, 1, 1), latencies(105, 1, 2));
+
+        assertTrue(result.pValue() < 0.01, "p = " + result.pValue());
+        assertEquals(result.verdict(), RegressionCheck.Verdict.UNCHANGED);
+    }
+
+    @Test
+    public void testMissingOrSmallBaseline() {
+        assertEquals(check.compare(null, latencies(100, 10, 1)).verdict(), RegressionCheck.Verdict.NEW);
+        assertEquals(check.compare(new Histogram(3), latencies(100, 10, 1)).verdict(), RegressionCheck.Verdict.NEW);
+        assertEquals(check.compare(histogram(100, 200), latencies(100, 10, 1)).verdict(),
+                RegressionCheck.Verdict.TOO_FEW_SAMPLES);
+    }
+
+    private static Histogram histogram(long... values) {
+        Histogram histogram = new Histogram(3);
+        for (long value : values) {
+            histogram.recordValue(value);
+        }
+        return histogram;
+    }
+
+    /**
+     * 200 normal-ish latencies in microseconds around a median in ms
+     */
+    private static Histogram latencies(double medianMillis, double spreadMillis, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < 200; i++) {
+            double millis = medianMillis + spreadMillis * (random.nextDouble() + random.nextDouble() - 1);
+            histogram.recordValue(Math.round(millis * 1000));
+        }
+        return histogram;
+    }
+}
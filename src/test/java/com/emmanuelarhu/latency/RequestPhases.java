@@ -0,0 +1,224 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.config.TestConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where one request's time went, phase by phase, plus the per-endpoint
+ * totals of every request in the JVM.
+ *
+ * {@link LatencyFilter} opens a call for each request; the network phases
+ * are filled in by {@link PhaseTimingHttpClient} below it, deserialization
+ * by {@link PhaseTimingObjectMapper} and validation by
+ * {@link ValidationTimingAspect}. The last two happen after the request
+ * returns, so they are booked to the most recent call on the same thread.
+ * {@code -Dlatency.phases=false} turns the whole breakdown off.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class RequestPhases {
+
+    /**
+     * Phases in wire order; ttfb runs from the request being sent to the response headers arriving
+     */
+    public enum Phase {
+        DNS("dns", 'D'),
+        CONNECT("connect", 'C'),
+        TLS("tls", 'T'),
+        SEND("send", 'S'),
+        TTFB("ttfb", 'W'),
+        DOWNLOAD("download", 'R'),
+        PARSE("parse", 'P'),
+        VALIDATE("validate", 'V');
+
+        private final String label;
+        private final char symbol;
+
+        Phase(String label, char symbol) {
+            this.label = label;
+            this.symbol = symbol;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Character the phase is drawn with in a {@link RequestWaterfall}
+         */
+        public char getSymbol() {
+            return symbol;
+        }
+    }
+
+    private static final boolean ENABLED = TestConfig.getBoolean("latency.phases", true);
+    private static final int PHASES = Phase.values().length;
+    private static final ThreadLocal<RequestPhases> LAST = new ThreadLocal<>();
+    private static final Map<String, Totals> TOTALS = new ConcurrentHashMap<>();
+
+    /**
+     * Per-endpoint sums; each phase histogram holds one sample per occurrence, in microseconds
+     */
+    private static final class Totals {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder[] nanos = new LongAdder[PHASES];
+        private final Histogram[] histograms = new Histogram[PHASES];
+
+        private Totals() {
+            for (int i = 0; i < PHASES; i++) {
+                nanos[i] = new LongAdder();
+                histograms[i] = new ConcurrentHistogram(3);
+            }
+        }
+    }
+
+    private final String endpoint;
+    private final long startedNanos;
+    private final long[] nanos = new long[PHASES];
+    private final long[] firstStart = new long[PHASES];
+    private final long[] lastEnd = new long[PHASES];
+    private final boolean[] seen = new boolean[PHASES];
+    private final Totals totals;
+
+    private RequestPhases(String endpoint, long startedNanos) {
+        this.endpoint = endpoint;
+        this.startedNanos = startedNanos;
+        this.totals = TOTALS.computeIfAbsent(endpoint, key -> new Totals());
+        totals.calls.increment();
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Open a call for the current thread's next request; it stays the thread's current call until the next one
+     */
+    static RequestPhases start(String endpoint) {
+        RequestPhases call = new RequestPhases(endpoint, System.nanoTime());
+        LAST.set(call);
+        return call;
+    }
+
+    /**
+     * The call the current thread made last, or null before its first request
+     */
+    public static RequestPhases current() {
+        return LAST.get();
+    }
+
+    /**
+     * Book a phase to the current thread's call; a no-op when no request has been made
+     */
+    public static void record(Phase phase, long startNanos, long endNanos) {
+        RequestPhases call = LAST.get();
+        if (call != null) {
+            call.add(phase, startNanos, endNanos);
+        }
+    }
+
+    /**
+     * Add one occurrence of a phase; phases that occur more than once (two parses) add up
+     */
+    public synchronized void add(Phase phase, long startNanos, long endNanos) {
+        int i = phase.ordinal();
+        long elapsed = Math.max(0, endNanos - startNanos);
+        if (!seen[i]) {
+            seen[i] = true;
+            firstStart[i] = startNanos;
+            lastEnd[i] = endNanos;
+        }
+        nanos[i] += elapsed;
+        lastEnd[i] = Math.max(lastEnd[i], endNanos);
+        totals.nanos[i].add(elapsed);
+        totals.histograms[i].recordValue(elapsed / 1000);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    long getStartedNanos() {
+        return startedNanos;
+    }
+
+    synchronized long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    synchronized boolean happened(Phase phase) {
+        return seen[phase.ordinal()];
+    }
+
+    synchronized long getFirstStart(Phase phase) {
+        return firstStart[phase.ordinal()];
+    }
+
+    synchronized long getLastEnd(Phase phase) {
+        return lastEnd[phase.ordinal()];
+    }
+
+    /**
+     * Latest end of any phase, or the start when none was recorded
+     */
+    synchronized long getEndNanos() {
+        long end = startedNanos;
+        for (int i = 0; i < PHASES; i++) {
+            if (seen[i]) {
+                end = Math.max(end, lastEnd[i]);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Print mean milliseconds per call of each phase, per endpoint
+     */
+    static void printReport(PrintStream out) {
+        out.printf("%-40s %8s", "endpoint", "calls");
+        for (Phase phase : Phase.values()) {
+            out.printf(" %9s", phase.getLabel());
+        }
+        out.println();
+        for (Map.Entry<String, Totals> entry : new TreeMap<>(TOTALS).entrySet()) {
+            long calls = entry.getValue().calls.sum();
+            out.printf("%-40s %8d", entry.getKey(), calls);
+            for (LongAdder phase : entry.getValue().nanos) {
+                out.printf(" %9.2f", phase.sum() / 1e6 / Math.max(1, calls));
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * One line per endpoint and phase: occurrences, mean ms per call and p50/p99 ms per occurrence
+     */
+    static String toTsv() {
+        StringBuilder tsv = new StringBuilder("endpoint\tphase\tcalls\toccurrences\tmean_ms_per_call\tp50_ms\tp99_ms\n");
+        for (Map.Entry<String, Totals> entry : new TreeMap<>(TOTALS).entrySet()) {
+            Totals totals = entry.getValue();
+            long calls = totals.calls.sum();
+            for (Phase phase : Phase.values()) {
+                Histogram histogram = totals.histograms[phase.ordinal()];
+                tsv.append(String.format("%s\t%s\t%d\t%d\t%.3f\t%.3f\t%.3f%n", entry.getKey(), phase.getLabel(), calls,
+                        histogram.getTotalCount(), totals.nanos[phase.ordinal()].sum() / 1e6 / Math.max(1, calls),
+                        histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0));
+            }
+        }
+        return tsv.toString();
+    }
+
+    /**
+     * Whether any call has been recorded
+     */
+    static boolean isEmpty() {
+        return TOTALS.isEmpty();
+    }
+}
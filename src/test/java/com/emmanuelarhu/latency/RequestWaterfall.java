@@ -0,0 +1,74 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.latency.RequestPhases.Phase;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plain-text waterfall of a test's requests for the Allure report: one row
+ * per request on a shared time axis, each phase drawn with its letter and
+ * {@code .} for time inside the request that no phase accounts for (REST
+ * Assured and filter overhead), followed by the phase durations.
+ *
+ * @author Emmanuel Arhu
+ */
+final class RequestWaterfall {
+
+    private static final int WIDTH = 60;
+    private static final int NAME_WIDTH = 36;
+
+    private RequestWaterfall() {}
+
+    static String render(List<RequestPhases> calls) {
+        long origin = calls.get(0).getStartedNanos();
+        long end = origin;
+        for (RequestPhases call : calls) {
+            end = Math.max(end, call.getEndNanos());
+        }
+        double nanosPerColumn = Math.max(1, end - origin) / (double) WIDTH;
+
+        StringBuilder out = new StringBuilder(String.format(
+                "%d request%s over %.2fms, one column = %.3fms%n%n", calls.size(), calls.size() == 1 ? "" : "s",
+                (end - origin) / 1e6, nanosPerColumn / 1e6));
+        for (RequestPhases call : calls) {
+            char[] bar = new char[WIDTH];
+            Arrays.fill(bar, ' ');
+            fill(bar, column(call.getStartedNanos(), origin, nanosPerColumn),
+                    column(call.getEndNanos(), origin, nanosPerColumn), '.');
+            StringBuilder durations = new StringBuilder();
+            for (Phase phase : Phase.values()) {
+                if (!call.happened(phase)) {
+                    continue;
+                }
+                fill(bar, column(call.getFirstStart(phase), origin, nanosPerColumn),
+                        column(call.getLastEnd(phase), origin, nanosPerColumn), phase.getSymbol());
+                durations.append(String.format(" %s %.2f", phase.getLabel(), call.getNanos(phase) / 1e6));
+            }
+            String name = call.getEndpoint().length() > NAME_WIDTH
+                    ? call.getEndpoint().substring(0, NAME_WIDTH - 1) + "…" : call.getEndpoint();
+            out.append(String.format("%-" + NAME_WIDTH + "s %9.2fms |%s| %8.2fms%n", name,
+                    (call.getStartedNanos() - origin) / 1e6, new String(bar),
+                    (call.getEndNanos() - call.getStartedNanos()) / 1e6));
+            out.append(" ".repeat(NAME_WIDTH + 1)).append("ms:").append(durations).append('\n');
+        }
+        out.append('\n');
+        for (Phase phase : Phase.values()) {
+            out.append(phase.getSymbol()).append(' ').append(phase.getLabel()).append("  ");
+        }
+        return out.append(". other\n").toString();
+    }
+
+    private static int column(long nanos, long origin, double nanosPerColumn) {
+        return (int) Math.min(WIDTH - 1, (nanos - origin) / nanosPerColumn);
+    }
+
+    /**
+     * Fill columns from..to inclusive, at least one
+     */
+    private static void fill(char[] bar, int from, int to, char symbol) {
+        for (int i = from; i <= Math.max(from, to); i++) {
+            bar[i] = symbol;
+        }
+    }
+}
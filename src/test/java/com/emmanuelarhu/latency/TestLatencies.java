@@ -0,0 +1,109 @@
+package com.emmanuelarhu.latency;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Latencies of one test method across all its data-provider rows, plus the
+ * samples and {@link RequestPhases} of the invocation currently running on
+ * each thread, filled by {@link LatencyFilter} while
+ * {@link LatencyBudgetListener} has a test open.
+ *
+ * @author Emmanuel Arhu
+ */
+final class TestLatencies {
+
+    private static final ThreadLocal<Invocation> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Histogram> all = new TreeMap<>();
+    private final Set<String> reported = new HashSet<>();
+
+    /**
+     * Samples of one test invocation (one data-provider row)
+     */
+    static final class Invocation {
+
+        private final TestLatencies method;
+        private final Map<String, Histogram> samples = new TreeMap<>();
+        private final List<RequestPhases> calls = new ArrayList<>();
+
+        private Invocation(TestLatencies method) {
+            this.method = method;
+        }
+
+        Map<String, Histogram> getSamples() {
+            return samples;
+        }
+
+        TestLatencies getMethod() {
+            return method;
+        }
+
+        List<RequestPhases> getCalls() {
+            return calls;
+        }
+    }
+
+    /**
+     * Start collecting the current thread's requests for a test method
+     */
+    static void begin(TestLatencies method) {
+        CURRENT.set(new Invocation(method));
+    }
+
+    /**
+     * Stop collecting and return what the invocation recorded, or null if none was open
+     */
+    static Invocation end() {
+        Invocation invocation = CURRENT.get();
+        CURRENT.remove();
+        return invocation;
+    }
+
+    /**
+     * Add a sample to the current thread's invocation; no-op outside a test
+     */
+    static void record(String endpoint, long nanos) {
+        Invocation invocation = CURRENT.get();
+        if (invocation == null) {
+            return;
+        }
+        long micros = Math.max(0, nanos / 1000);
+        invocation.samples.computeIfAbsent(endpoint, key -> new Histogram(3)).recordValue(micros);
+        synchronized (invocation.method) {
+            invocation.method.all.computeIfAbsent(endpoint, key -> new Histogram(3)).recordValue(micros);
+        }
+    }
+
+    /**
+     * Keep a request's phases for the current thread's invocation; no-op outside a test
+     */
+    static void call(RequestPhases call) {
+        Invocation invocation = CURRENT.get();
+        if (invocation != null) {
+            invocation.calls.add(call);
+        }
+    }
+
+    /**
+     * Copies of every row's samples so far, per endpoint
+     */
+    synchronized Map<String, Histogram> allSamples() {
+        Map<String, Histogram> copies = new TreeMap<>();
+        all.forEach((endpoint, histogram) -> copies.put(endpoint, histogram.copy()));
+        return copies;
+    }
+
+    /**
+     * True the first time a budget violation is seen for this method, so later rows are not failed for it again
+     */
+    synchronized boolean firstReport(String violation) {
+        return reported.add(violation);
+    }
+}
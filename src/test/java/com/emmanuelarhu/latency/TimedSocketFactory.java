@@ -0,0 +1,120 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.latency.RequestPhases.Phase;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * Socket factory wrapper that books the TCP connect and, for TLS schemes,
+ * the handshake as separate {@link RequestPhases}. A TLS connection is
+ * opened as a plain socket first and then layered by the scheme's own
+ * factory, so its certificate and hostname checks are unchanged.
+ *
+ * @author Emmanuel Arhu
+ */
+@SuppressWarnings("deprecation") // plugs into the legacy SchemeRegistry that PhaseTimingHttpClient needs
+class TimedSocketFactory implements SchemeSocketFactory {
+
+    private final SchemeSocketFactory delegate;
+
+    TimedSocketFactory(SchemeSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Replace a scheme's factory with a timed one, once
+     */
+    static void wrap(SchemeRegistry registry, String schemeName) {
+        Scheme scheme = registry.get(schemeName);
+        if (scheme == null || scheme.getSchemeSocketFactory() instanceof TimedSocketFactory) {
+            return;
+        }
+        SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+        registry.register(new Scheme(scheme.getName(), scheme.getDefaultPort(),
+                factory instanceof SchemeLayeredSocketFactory
+                        ? new Layered((SchemeLayeredSocketFactory) factory) : new TimedSocketFactory(factory)));
+    }
+
+    @Override
+    public Socket createSocket(HttpParams params) throws IOException {
+        return delegate.createSocket(params);
+    }
+
+    @Override
+    public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                HttpParams params) throws IOException {
+        long started = System.nanoTime();
+        try {
+            return delegate.connectSocket(socket, remoteAddress, localAddress, params);
+        } finally {
+            RequestPhases.record(Phase.CONNECT, started, System.nanoTime());
+        }
+    }
+
+    @Override
+    public boolean isSecure(Socket socket) {
+        return delegate.isSecure(socket);
+    }
+
+    /**
+     * TLS schemes: plain connect, then the delegate's handshake on top
+     */
+    static final class Layered extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory layered;
+
+        Layered(SchemeLayeredSocketFactory delegate) {
+            super(delegate);
+            this.layered = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) {
+            return new Socket();
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException {
+            Socket plain = socket != null ? socket : new Socket();
+            if (localAddress != null) {
+                plain.setReuseAddress(HttpConnectionParams.getSoReuseaddr(params));
+                plain.bind(localAddress);
+            }
+            long started = System.nanoTime();
+            try {
+                plain.connect(remoteAddress, HttpConnectionParams.getConnectionTimeout(params));
+            } catch (SocketTimeoutException e) {
+                throw new ConnectTimeoutException("Connect to " + remoteAddress + " timed out");
+            } finally {
+                RequestPhases.record(Phase.CONNECT, started, System.nanoTime());
+            }
+            plain.setSoTimeout(HttpConnectionParams.getSoTimeout(params));
+            String host = remoteAddress instanceof HttpInetSocketAddress
+                    ? ((HttpInetSocketAddress) remoteAddress).getHttpHost().getHostName() : remoteAddress.getHostName();
+            return createLayeredSocket(plain, host, remoteAddress.getPort(), params);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException {
+            long started = System.nanoTime();
+            try {
+                return layered.createLayeredSocket(socket, target, port, params);
+            } finally {
+                RequestPhases.record(Phase.TLS, started, System.nanoTime());
+            }
+        }
+    }
+}
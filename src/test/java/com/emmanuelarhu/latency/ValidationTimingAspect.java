@@ -0,0 +1,60 @@
+package com.emmanuelarhu.latency;
+
+import com.emmanuelarhu.jfr.ValidationEvent;
+import com.emmanuelarhu.latency.RequestPhases.Phase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Books every call into the {@code com.emmanuelarhu.validation} classes as
+ * the validate phase of the thread's last request in {@link RequestPhases}.
+ * Only the outermost call counts, so {@code validatePhotoArray} is not
+ * added again for each {@code validateBasicPhotoFields} it makes. Each
+ * outermost call is also a JFR {@link ValidationEvent}.
+ *
+ * Woven at load time by the aspectjweaver agent surefire already runs for
+ * Allure (declared in {@code META-INF/aop.xml}); without the agent nothing
+ * is recorded.
+ *
+ * @author Emmanuel Arhu
+ */
+@Aspect
+public class ValidationTimingAspect {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Around("execution(public static * com.emmanuelarhu.validation..*.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] depth = DEPTH.get();
+        ValidationEvent event = depth[0] == 0 ? new ValidationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long started = System.nanoTime();
+        boolean passed = false;
+        depth[0]++;
+        try {
+            Object result = joinPoint.proceed();
+            passed = true;
+            return result;
+        } finally {
+            if (--depth[0] == 0) {
+                RequestPhases.record(Phase.VALIDATE, started, System.nanoTime());
+                commit(event, joinPoint, passed);
+            }
+        }
+    }
+
+    private static void commit(ValidationEvent event, ProceedingJoinPoint joinPoint, boolean passed) {
+        event.end();
+        if (event.shouldCommit()) {
+            RequestPhases call = RequestPhases.current();
+            event.endpoint = call == null ? null : call.getEndpoint();
+            event.validator = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                    + joinPoint.getSignature().getName();
+            event.passed = passed;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the saturation point of the backend by stepping load up until the
+ * latency or error limit is crossed.
+ *
+ * Each step runs the {@link LoadRunner} at one concurrency (closed model:
+ * 1, 2, 4, ... virtual users) or arrival rate (open model: doubling from
+ * {@code probe.startRate}) in windows of {@code probe.window} seconds until
+ * two consecutive windows agree on p99 within {@code probe.stability}
+ * (default 10%), or {@code probe.maxWindows} windows have run. The probe
+ * stops at the first step whose p99 exceeds {@code probe.maxP99} ms or whose
+ * error rate exceeds {@code probe.maxErrorRate}.
+ *
+ * The throughput-vs-latency curve is printed and written to
+ * {@code target/latency/capacity.csv}. The knee is the step with the highest
+ * power (throughput divided by median latency): past it, extra load buys
+ * more queueing than throughput.
+ *
+ * Targets are {@code probe.targets} in {@link LoadTarget} syntax, built with
+ * BaseTest's request spec, e.g. {@code GET /posts/{id};GET /photos?albumId=}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.emmanuelarhu.load.CapacityProbe -Dstandin=true}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class CapacityProbe {
+
+    /**
+     * One point of the curve
+     */
+    record Step(double load, int windows, boolean stable, double throughput, double p50Millis,
+                double p99Millis, double errorRate, long dropped) {
+
+        double power() {
+            return p50Millis <= 0 ? 0 : throughput / p50Millis;
+        }
+    }
+
+    private CapacityProbe() {}
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            run();
+            status = 0;
+        } catch (Exception e) {
+            System.out.println("❌ Capacity probe failed: " + e.getMessage());
+        }
+        System.exit(status); // the stand-in and fault proxy keep non-daemon threads alive
+    }
+
+    private static void run() throws InterruptedException, IOException {
+        List<LoadTarget> targets = LoadRunner.parseTargets(TestConfig.get("probe.targets", "GET /posts/{id}"));
+        LoadModel model = LoadModel.valueOf(TestConfig.get("probe.model", "closed").toUpperCase());
+        double start = model == LoadModel.CLOSED ? 1 : TestConfig.getDouble("probe.startRate", 10);
+        double max = model == LoadModel.CLOSED
+                ? TestConfig.getInt("probe.maxConcurrency", 256) : TestConfig.getDouble("probe.maxRate", 10_000);
+        double factor = TestConfig.getDouble("probe.stepFactor", 2);
+        long window = TestConfig.getLong("probe.window", 3) * 1_000_000_000L;
+        int maxWindows = TestConfig.getInt("probe.maxWindows", 5);
+        double stability = TestConfig.getDouble("probe.stability", 0.10);
+        double maxP99 = TestConfig.getDouble("probe.maxP99", 1000);
+        double maxErrorRate = TestConfig.getDouble("probe.maxErrorRate", 0.01);
+        boolean validate = TestConfig.getBoolean("probe.validate", true);
+
+        PrintStream console = System.out;
+        console.printf("🔍 Capacity probe: %s model, %s, limits p99 <= %.0fms and errors <= %.1f%%%n",
+                model.name().toLowerCase(), targets.stream().map(LoadTarget::getName).toList(),
+                maxP99, maxErrorRate * 100);
+        console.printf("%12s %8s %12s %10s %10s %8s %10s%n",
+                model == LoadModel.CLOSED ? "users" : "rate/s", "windows", "throughput", "p50 ms", "p99 ms",
+                "errors", "power");
+        LoadRunner.silenceTests();
+
+        List<Step> curve = new ArrayList<>();
+        String stopReason = "reached the maximum " + (model == LoadModel.CLOSED ? "concurrency" : "rate");
+        try {
+            for (double load = start; load <= max; load = next(load, factor, model)) {
+                Step step = runStep(targets, model, load, window, maxWindows, stability, validate);
+                curve.add(step);
+                console.printf("%12s %8s %,12.1f %10.2f %10.2f %7.2f%% %10.2f%n", format(load, model),
+                        step.windows() + (step.stable() ? "" : "*"), step.throughput(), step.p50Millis(),
+                        step.p99Millis(), step.errorRate() * 100, step.power());
+                if (step.p99Millis() > maxP99) {
+                    stopReason = String.format("p99 %.1fms over %.0fms", step.p99Millis(), maxP99);
+                    break;
+                }
+                if (step.errorRate() > maxErrorRate) {
+                    stopReason = String.format("error rate %.2f%% over %.2f%%", step.errorRate() * 100, maxErrorRate * 100);
+                    break;
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        Step knee = curve.get(0);
+        Step best = null;
+        for (Step step : curve) {
+            if (step.power() > knee.power()) {
+                knee = step;
+            }
+            if (step.p99Millis() <= maxP99 && step.errorRate() <= maxErrorRate
+                    && (best == null || step.throughput() > best.throughput())) {
+                best = step;
+            }
+        }
+        console.println("🛑 Stopped: " + stopReason + (curve.stream().anyMatch(step -> !step.stable())
+                ? " (* = latency had not stabilized within probe.maxWindows)" : ""));
+        console.printf("📍 Knee: %s %s, %.1f iterations/s at p50 %.2fms / p99 %.2fms%n",
+                format(knee.load(), model), model == LoadModel.CLOSED ? "users" : "per second",
+                knee.throughput(), knee.p50Millis(), knee.p99Millis());
+        if (best != null) {
+            console.printf("✅ Highest throughput within limits: %.1f iterations/s at %s %s%n",
+                    best.throughput(), format(best.load(), model), model == LoadModel.CLOSED ? "users" : "per second");
+        }
+        Path csv = Path.of(TestConfig.get("latency.dir", "target/latency"), "capacity.csv");
+        writeCsv(csv, curve, knee);
+        console.println("📁 Curve written to " + csv);
+    }
+
+    /**
+     * Run windows at one load level until p99 settles; the step reports its last window
+     */
+    private static Step runStep(List<LoadTarget> targets, LoadModel model, double load, long window, int maxWindows,
+                                double stability, boolean validate) throws InterruptedException {
+        double previousP99 = -1;
+        Step step = null;
+        for (int windows = 1; windows <= maxWindows; windows++) {
+            LatencyRecorder iterations = new LatencyRecorder();
+            LoadRunner runner = new LoadRunner(targets, iterations, validate);
+            if (model == LoadModel.CLOSED) {
+                runner.runClosed((int) load, window);
+            } else {
+                runner.runOpen(load, Integer.MAX_VALUE, window);
+            }
+            double seconds = iterations.elapsedSeconds();
+            Histogram merged = new Histogram(3);
+            long errors = 0;
+            for (Map.Entry<String, Histogram> target : iterations.histograms().entrySet()) {
+                merged.add(target.getValue());
+                errors += iterations.errors(target.getKey());
+            }
+            long count = merged.getTotalCount();
+            double p99 = merged.getValueAtPercentile(99) / 1000.0;
+            boolean stable = previousP99 > 0 && Math.abs(p99 - previousP99) <= stability * previousP99;
+            step = new Step(load, windows, stable, count / seconds, merged.getValueAtPercentile(50) / 1000.0, p99,
+                    count == 0 ? 0 : (double) errors / count, runner.getDropped());
+            if (stable && windows >= 2) {
+                break;
+            }
+            previousP99 = p99;
+        }
+        return step;
+    }
+
+    private static double next(double load, double factor, LoadModel model) {
+        double next = load * factor;
+        return model == LoadModel.CLOSED ? Math.max(load + 1, Math.floor(next)) : next;
+    }
+
+    private static String format(double load, LoadModel model) {
+        return model == LoadModel.CLOSED ? String.valueOf((long) load) : String.format("%.1f", load);
+    }
+
+    private static void writeCsv(Path csv, List<Step> curve, Step knee) throws IOException {
+        StringBuilder out = new StringBuilder("load,windows,stable,throughput,p50_ms,p99_ms,error_rate,power,knee\n");
+        for (Step step : curve) {
+            out.append(String.format("%s,%d,%s,%.3f,%.3f,%.3f,%.5f,%.4f,%s%n", step.load(), step.windows(),
+                    step.stable(), step.throughput(), step.p50Millis(), step.p99Millis(), step.errorRate(),
+                    step.power(), step == knee));
+        }
+        Files.createDirectories(csv.getParent());
+        Files.writeString(csv, out, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,201 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.base.BaseTest;
+import com.emmanuelarhu.data.DatasetCounts;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.emmanuelarhu.standin.NamespaceFilter;
+import com.emmanuelarhu.standin.Resource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Load target that walks one new entity through its whole life:
+ * create, read back, replace, patch, delete and confirm it is gone
+ * ({@code CRUD posts}). The id the server assigns on create is carried
+ * through the later steps, and each response is checked against what was
+ * sent, so a chain only passes when the backend really stored the writes.
+ *
+ * Every step's latency is recorded into {@link #steps()} under
+ * {@code <resource> <n> <step>}, next to the per-endpoint figures
+ * BaseTest's filter collects. With validation on, a chain stops at its first
+ * failing step; with it off the chain runs to the end as long as create
+ * returned an id, which is how it is run against JSONPlaceholder (writes are
+ * faked there, so read-back answers 404).
+ *
+ * Against the stateful stand-in all chains share the namespace
+ * {@code chain.namespace} (default "chains"), so they contend on the same
+ * store the way real clients would; an empty value keeps the per-thread
+ * namespaces instead.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class CrudChain extends BaseTest implements LoadTarget {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LatencyRecorder STEPS = new LatencyRecorder();
+
+    /**
+     * The six steps in order, with the request method and the status that passes
+     */
+    enum Step {
+        CREATE("POST", 201),
+        READ("GET", 200),
+        REPLACE("PUT", 200),
+        PATCH("PATCH", 200),
+        DELETE("DELETE", 200),
+        VERIFY_GONE("GET", 404);
+
+        private final String method;
+        private final int expectedStatus;
+
+        Step(String method, int expectedStatus) {
+            this.method = method;
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    private final Resource resource;
+    private final String textField;
+    private final String namespace;
+    private final int parentCount;
+    private final String[] stepKeys = new String[Step.values().length];
+
+    private CrudChain(Resource resource, String namespace) {
+        this.resource = resource;
+        this.textField = resource == Resource.USERS || resource == Resource.COMMENTS ? "name" : "title";
+        this.namespace = namespace;
+        this.parentCount = resource.getParent() == null ? 0 : resource.getParent().count(DatasetCounts.current());
+        for (Step step : Step.values()) {
+            stepKeys[step.ordinal()] = resource.getPath() + " " + (step.ordinal() + 1) + " "
+                    + step.name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    /**
+     * Parse {@code CRUD <resource>} and run BaseTest's setup
+     */
+    static CrudChain parse(String spec, String namespace) {
+        String[] parts = spec.trim().split("\\s+");
+        Resource resource = parts.length == 2 ? Resource.fromPath(parts[1]) : null;
+        if (resource == null) {
+            throw new IllegalArgumentException("Chain '" + spec + "' is not CRUD followed by a resource such as posts");
+        }
+        CrudChain chain = new CrudChain(resource, namespace);
+        TestMethodTarget.setUp(chain);
+        return chain;
+    }
+
+    /**
+     * Step latencies of every chain in this JVM
+     */
+    public static LatencyRecorder steps() {
+        return STEPS;
+    }
+
+    @Override
+    public String getName() {
+        return "CRUD " + resource.getPath();
+    }
+
+    @Override
+    public void runOnce(SplittableRandom random, boolean validate) throws IOException {
+        if (!namespace.isEmpty()) {
+            NamespaceFilter.use(namespace);
+        }
+        String collection = "/" + resource.getPath();
+        String text = "chain " + Long.toHexString(random.nextLong());
+        ObjectNode created = body(random, text);
+        JsonNode createdJson = send(Step.CREATE, collection, created, validate);
+        JsonNode id = createdJson == null ? null : createdJson.get("id");
+        if (id == null || !id.canConvertToInt()) {
+            throw new AssertionError(getName() + ": create returned no id");
+        }
+        String item = collection + "/" + id.asInt();
+
+        JsonNode read = send(Step.READ, item, null, validate);
+        check(validate, Step.READ, read, textField, created.get(textField));
+
+        ObjectNode replacement = body(random, text + " replaced");
+        JsonNode replaced = send(Step.REPLACE, item, replacement, validate);
+        check(validate, Step.REPLACE, replaced, textField, replacement.get(textField));
+
+        ObjectNode patch = MAPPER.createObjectNode().put(textField, text + " patched");
+        JsonNode patched = send(Step.PATCH, item, patch, validate);
+        check(validate, Step.PATCH, patched, textField, patch.get(textField));
+        if (resource.getParentField() != null) {
+            // a patch merges: fields it does not name keep the replaced values
+            check(validate, Step.PATCH, patched, resource.getParentField(), replacement.get(resource.getParentField()));
+        }
+
+        send(Step.DELETE, item, null, validate);
+        send(Step.VERIFY_GONE, item, null, validate);
+    }
+
+    /**
+     * Run one step and record its latency; returns the parsed body, or null when it has none
+     */
+    private JsonNode send(Step step, String url, ObjectNode body, boolean validate) throws IOException {
+        long started = System.nanoTime();
+        Response response = null;
+        try {
+            response = body == null
+                    ? getRequest().request(step.method, url)
+                    : getRequest().body(MAPPER.writeValueAsBytes(body)).request(step.method, url);
+        } finally {
+            int status = response == null ? -1 : response.getStatusCode();
+            boolean failed = status != step.expectedStatus && (validate || status < 0 || status >= 500);
+            STEPS.record(stepKeys[step.ordinal()], System.nanoTime() - started, failed);
+        }
+        if (validate && response.getStatusCode() != step.expectedStatus) {
+            throw new AssertionError(getName() + ": " + step.method + " " + url + " returned "
+                    + response.getStatusCode() + ", expected " + step.expectedStatus);
+        }
+        byte[] bytes = response.asByteArray();
+        return bytes.length == 0 ? null : MAPPER.readTree(bytes);
+    }
+
+    private void check(boolean validate, Step step, JsonNode response, String field, JsonNode expected) {
+        JsonNode actual = response == null ? null : response.get(field);
+        if (validate && !expected.equals(actual)) {
+            throw new AssertionError(getName() + ": " + step.name().toLowerCase() + " returned " + field + "="
+                    + actual + ", expected " + expected);
+        }
+    }
+
+    /**
+     * A complete entity with random parent and the given text in its name or title field
+     */
+    private ObjectNode body(SplittableRandom random, String text) {
+        ObjectNode body = MAPPER.createObjectNode();
+        if (resource.getParentField() != null) {
+            body.put(resource.getParentField(), random.nextInt(parentCount) + 1);
+        }
+        body.put(textField, text);
+        switch (resource) {
+            case USERS:
+                body.put("username", "chain").put("email", "chain@example.com");
+                break;
+            case POSTS:
+                body.put("body", "written by a CRUD chain");
+                break;
+            case COMMENTS:
+                body.put("email", "chain@example.com").put("body", "written by a CRUD chain");
+                break;
+            case PHOTOS:
+                body.put("url", "https://via.placeholder.com/600/chain")
+                        .put("thumbnailUrl", "https://via.placeholder.com/150/chain");
+                break;
+            case TODOS:
+                body.put("completed", random.nextBoolean());
+                break;
+            default:
+                break;
+        }
+        return body;
+    }
+}
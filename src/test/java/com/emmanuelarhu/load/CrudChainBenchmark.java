@@ -0,0 +1,120 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.latency.LatencyRecorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-path benchmark: runs many {@link CrudChain}s at once and reports
+ * completed chains per second and the latency of each step, so a slow
+ * create, patch or delete shows up on its own rather than averaged into the
+ * chain.
+ *
+ * Settings: {@code chain.resources} ({@code ,}-separated, default posts),
+ * {@code chain.model} ({@code closed} with {@code chain.concurrency} virtual
+ * users, default 16, or {@code open} at {@code chain.rate} chains per second),
+ * {@code chain.duration} / {@code chain.warmup} (seconds, 30 / 5),
+ * {@code chain.validate} (default true) and {@code chain.namespace} (see
+ * {@link CrudChain}). Histogram logs go to {@code target/latency/chains}.
+ *
+ * Run against the stateful stand-in with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.emmanuelarhu.load.CrudChainBenchmark
+ * -Dstandin=true -Dstandin.storage=stateful}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class CrudChainBenchmark {
+
+    private CrudChainBenchmark() {}
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            status = run() ? 0 : 2;
+        } catch (Exception e) {
+            System.out.println("❌ Chain benchmark failed: " + e.getMessage());
+        }
+        System.exit(status); // the stand-in and fault proxy keep non-daemon threads alive
+    }
+
+    /**
+     * Returns false when any chain failed
+     */
+    private static boolean run() throws InterruptedException {
+        List<LoadTarget> chains = new ArrayList<>();
+        for (String resource : TestConfig.get("chain.resources", "posts").split(",")) {
+            if (!resource.isBlank()) {
+                chains.add(LoadTarget.parse("CRUD " + resource.trim()));
+            }
+        }
+        LoadModel model = LoadModel.valueOf(TestConfig.get("chain.model", "closed").toUpperCase());
+        int concurrency = TestConfig.getInt("chain.concurrency", 16);
+        double rate = TestConfig.getDouble("chain.rate", 50);
+        long duration = TestConfig.getLong("chain.duration", 30) * 1_000_000_000L;
+        long warmup = TestConfig.getLong("chain.warmup", 5) * 1_000_000_000L;
+        boolean validate = TestConfig.getBoolean("chain.validate", true);
+        String namespace = TestConfig.get("chain.namespace", "chains");
+
+        LatencyRecorder steps = CrudChain.steps();
+        LatencyRecorder iterations = new LatencyRecorder();
+        LoadRunner runner = new LoadRunner(chains, iterations, validate);
+
+        PrintStream console = System.out;
+        console.printf("🔗 CRUD chains: %s, %s, %ds (+%ds warmup), validation %s, namespace %s%n",
+                chains.stream().map(LoadTarget::getName).toList(),
+                model == LoadModel.CLOSED ? concurrency + " virtual users" : rate + " chains/s",
+                duration / 1_000_000_000L, warmup / 1_000_000_000L, validate ? "on" : "off",
+                namespace.isEmpty() ? "per thread" : namespace);
+        LoadRunner.silenceTests();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (long phase : new long[]{warmup, duration}) {
+                steps.reset();
+                iterations.reset();
+                if (phase == duration) {
+                    sampler.scheduleAtFixedRate(() -> {
+                        steps.sampleInterval();
+                        iterations.sampleInterval();
+                    }, 1, 1, TimeUnit.SECONDS);
+                }
+                if (model == LoadModel.CLOSED) {
+                    runner.runClosed(concurrency, phase);
+                } else {
+                    runner.runOpen(rate, Integer.MAX_VALUE, phase);
+                }
+            }
+        } finally {
+            sampler.shutdownNow();
+            System.setOut(console);
+        }
+
+        long failed = 0;
+        for (String chain : iterations.histograms().keySet()) {
+            failed += iterations.errors(chain);
+        }
+        console.printf("%n📊 Chains (%.1fs, %d steps each)%n", iterations.elapsedSeconds(), CrudChain.Step.values().length);
+        iterations.printReport(console, "chain");
+        console.printf("%n📊 Per step%n");
+        steps.printReport(console, "step");
+        try {
+            Path directory = Path.of(TestConfig.get("latency.dir", "target/latency"), "chains");
+            iterations.writeHistogramLogs(directory);
+            steps.writeHistogramLogs(directory.resolve("steps"));
+            console.println("📁 Histogram logs (1s intervals, microseconds) in " + directory);
+        } catch (IOException e) {
+            console.println("❌ Failed to write histogram logs: " + e.getMessage());
+        }
+        if (failed > 0) {
+            console.println("⚠️ " + failed + " chains failed; the failing step shows in the per-step errors");
+        }
+        return failed == 0;
+    }
+}
@@ -0,0 +1,134 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.base.BaseTest;
+import com.emmanuelarhu.data.DatasetCounts;
+import com.emmanuelarhu.standin.Resource;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Load target for a single request such as {@code GET /posts/{id}} or
+ * {@code GET /photos?albumId=}, built with {@link BaseTest}'s request spec.
+ *
+ * Placeholders are filled with a random valid id per iteration: {@code {id}}
+ * from the resource named by the segment before it, {@code {albumId}} (or an
+ * empty query value such as {@code albumId=}) from albums, and so on. Writes
+ * send a small body with a random parent id. With validation on, anything
+ * but a 2xx status is a failure.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class HttpScenario extends BaseTest implements LoadTarget {
+
+    private final String method;
+    private final String spec;
+    private final List<Object> parts; // String literals and Resource placeholders, in order
+    private final Resource written;
+    private final int[] counts = new int[Resource.values().length];
+
+    private HttpScenario(String method, String spec, List<Object> parts, Resource written) {
+        this.method = method;
+        this.spec = spec;
+        this.parts = parts;
+        this.written = written;
+        DatasetCounts current = DatasetCounts.current();
+        for (Resource resource : Resource.values()) {
+            counts[resource.ordinal()] = resource.count(current);
+        }
+    }
+
+    /**
+     * Parse {@code METHOD /path?query} and run BaseTest's setup
+     */
+    static HttpScenario parse(String spec) {
+        String[] methodAndPath = spec.trim().split("\\s+", 2);
+        if (methodAndPath.length != 2 || !methodAndPath[1].startsWith("/")) {
+            throw new IllegalArgumentException("Load target '" + spec + "' is neither Class#method nor METHOD /path");
+        }
+        String method = methodAndPath[0].toUpperCase();
+        String target = methodAndPath[1];
+        int question = target.indexOf('?');
+        String path = question < 0 ? target : target.substring(0, question);
+
+        List<Object> parts = new ArrayList<>();
+        Resource previous = null;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            parts.add("/");
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                parts.add(placeholder(segment.substring(1, segment.length() - 1), previous, spec));
+            } else {
+                parts.add(segment);
+                previous = Resource.fromPath(segment);
+            }
+        }
+        if (question >= 0) {
+            char separator = '?';
+            for (String pair : target.substring(question + 1).split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                parts.add(separator + name + "=");
+                separator = '&';
+                if (value.isEmpty() || value.startsWith("{")) {
+                    parts.add(placeholder(value.isEmpty() ? name : value.substring(1, value.length() - 1), null, spec));
+                } else {
+                    parts.add(value);
+                }
+            }
+        }
+        Resource written = method.equals("GET") || method.equals("DELETE") || method.equals("HEAD") ? null : previous;
+        HttpScenario scenario = new HttpScenario(method, method + " " + target, parts, written);
+        TestMethodTarget.setUp(scenario);
+        return scenario;
+    }
+
+    @Override
+    public String getName() {
+        return spec;
+    }
+
+    @Override
+    public void runOnce(SplittableRandom random, boolean validate) {
+        StringBuilder url = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Resource) {
+                url.append(randomId((Resource) part, random));
+            } else {
+                url.append((String) part);
+            }
+        }
+        Response response;
+        if (written != null) {
+            String body = written.getParentField() == null
+                    ? "{\"name\":\"Load Test\",\"username\":\"load\",\"email\":\"load@example.com\"}"
+                    : "{\"" + written.getParentField() + "\":" + randomId(written.getParent(), random)
+                    + ",\"title\":\"load test\",\"body\":\"load test\"}";
+            response = getRequest().body(body).request(method, url.toString());
+        } else {
+            response = getRequest().request(method, url.toString());
+        }
+        int status = response.getStatusCode();
+        if (validate && (status < 200 || status > 299)) {
+            throw new AssertionError(spec + " returned " + status + " for " + url);
+        }
+    }
+
+    private int randomId(Resource resource, SplittableRandom random) {
+        return random.nextInt(counts[resource.ordinal()]) + 1;
+    }
+
+    private static Resource placeholder(String name, Resource previous, String spec) {
+        Resource resource = name.equals("id") ? previous
+                : name.endsWith("Id") ? Resource.fromPath(name.substring(0, name.length() - 2) + "s") : null;
+        if (resource == null) {
+            throw new IllegalArgumentException("Cannot tell which ids to use for {" + name + "} in '" + spec + "'");
+        }
+        return resource;
+    }
+}
@@ -0,0 +1,75 @@
+package com.emmanuelarhu.load;
+
+import java.util.Arrays;
+
+/**
+ * Flags a resource series that keeps growing over a soak run.
+ *
+ * A series is a leak suspect when Kendall's tau against time is at least
+ * {@code minTau} (most later samples are above most earlier ones, which
+ * allocation noise and GC timing do not produce) and the median of the last
+ * quarter exceeds that of the first quarter by at least {@code minGrowth}.
+ *
+ * @author Emmanuel Arhu
+ */
+final class LeakDetector {
+
+    static final int MIN_SAMPLES = 8;
+
+    /**
+     * Trend of one series; {@code suspect} when it looks like a leak
+     */
+    record Trend(String name, double tau, double firstQuarter, double lastQuarter, double perHour, boolean suspect) {}
+
+    private final double minTau;
+
+    LeakDetector(double minTau) {
+        this.minTau = minTau;
+    }
+
+    Trend analyze(String name, double[] seconds, double[] values, double minGrowth) {
+        int n = values.length;
+        if (n < MIN_SAMPLES) {
+            return new Trend(name, 0, 0, 0, 0, false);
+        }
+        long concordant = 0;
+        long discordant = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double difference = values[j] - values[i];
+                if (difference > 0) {
+                    concordant++;
+                } else if (difference < 0) {
+                    discordant++;
+                }
+            }
+        }
+        double tau = (concordant - discordant) / (n * (n - 1) / 2.0);
+        int quarter = Math.max(1, n / 4);
+        double first = median(Arrays.copyOfRange(values, 0, quarter));
+        double last = median(Arrays.copyOfRange(values, n - quarter, n));
+        double perHour = slope(seconds, values) * 3600;
+        return new Trend(name, tau, first, last, perHour, tau >= minTau && last - first >= minGrowth);
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * Least-squares slope per second
+     */
+    private static double slope(double[] x, double[] y) {
+        double meanX = Arrays.stream(x).average().orElse(0);
+        double meanY = Arrays.stream(y).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+}
@@ -0,0 +1,97 @@
+package com.emmanuelarhu.load;
+
+import org.testng.annotations.Test;
+
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+/**
+ * Trend statistics and leak verdicts of {@link LeakDetector}
+ *
+ * @author Emmanuel Arhu
+ */
+public class LeakDetectorTest {
+
+    private final LeakDetector detector = new LeakDetector(0.6);
+
+    @Test
+    public void testSteadyGrowthIsSuspect() {
+        double[] seconds = seconds(40);
+        double[] heap = new double[40];
+        for (int i = 0; i < heap.length; i++) {
+            heap[i] = 100 + 2 * i;
+        }
+
+        LeakDetector.Trend trend = detector.analyze("heap", seconds, heap, 10);
+
+        assertEquals(trend.tau(), 1.0);
+        assertEquals(trend.firstQuarter(), 109.0);
+        assertEquals(trend.lastQuarter(), 169.0);
+        assertEquals(trend.perHour(), 2.0 / 60 * 3600, 1e-9, "2 per 60 s sample");
+        assertTrue(trend.suspect());
+    }
+
+    @Test
+    public void testNoisyFlatSeriesIsNotSuspect() {
+        SplittableRandom random = new SplittableRandom(3);
+        double[] heap = new double[60];
+        for (int i = 0; i < heap.length; i++) {
+            heap[i] = 200 + random.nextDouble(-50, 50);
+        }
+
+        LeakDetector.Trend trend = detector.analyze("heap", seconds(60), heap, 10);
+
+        assertTrue(Math.abs(trend.tau()) < 0.3, "tau = " + trend.tau());
+        assertFalse(trend.suspect());
+    }
+
+    @Test
+    public void testSawtoothAfterGcIsNotSuspect() {
+        double[] heap = new double[48];
+        for (int i = 0; i < heap.length; i++) {
+            heap[i] = 100 + 10 * (i % 6);
+        }
+
+        assertFalse(detector.analyze("heap", seconds(48), heap, 10).suspect());
+    }
+
+    @Test
+    public void testMonotonicButTinyGrowthIsNotSuspect() {
+        double[] threads = new double[20];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = 30 + i / 10.0;
+        }
+
+        LeakDetector.Trend trend = detector.analyze("threads", seconds(20), threads, 5);
+
+        assertEquals(trend.tau(), 1.0);
+        assertFalse(trend.suspect(), "Grew by " + (trend.lastQuarter() - trend.firstQuarter()));
+    }
+
+    @Test
+    public void testTiesCountAsNeitherConcordantNorDiscordant() {
+        double[] values = {1, 1, 1, 1, 2, 2, 2, 2};
+
+        // 16 of the 28 pairs rise, the 12 within each plateau tie
+        assertEquals(detector.analyze("fds", seconds(8), values, 0).tau(), 16 / 28.0, 1e-9);
+    }
+
+    @Test
+    public void testTooFewSamples() {
+        double[] values = {1, 2, 3, 4, 5, 6, 7};
+
+        LeakDetector.Trend trend = detector.analyze("heap", seconds(values.length), values, 0);
+
+        assertEquals(trend.tau(), 0.0);
+        assertFalse(trend.suspect());
+    }
+
+    private static double[] seconds(int samples) {
+        double[] seconds = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            seconds[i] = 60.0 * i;
+        }
+        return seconds;
+    }
+}
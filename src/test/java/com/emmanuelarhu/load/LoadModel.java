@@ -0,0 +1,17 @@
+package com.emmanuelarhu.load;
+
+/**
+ * How the {@link LoadRunner} generates load
+ *
+ * @author Emmanuel Arhu
+ */
+public enum LoadModel {
+    /**
+     * A fixed number of virtual users, each starting its next iteration when the previous one ends
+     */
+    CLOSED,
+    /**
+     * Iterations start at a fixed arrival rate, however long earlier ones take
+     */
+    OPEN
+}
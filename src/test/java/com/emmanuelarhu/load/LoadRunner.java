@@ -0,0 +1,267 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.latency.LatencyFilter;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.emmanuelarhu.standin.NamespaceFilter;
+import io.restassured.RestAssured;
+import io.restassured.config.LogConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives existing test methods or plain requests as a load test on virtual
+ * threads, then prints throughput, error rate and p50/p90/p99/p99.9/max
+ * latency per endpoint and per target, and writes them as one-second
+ * interval {@code .hlog} files under {@code target/latency/load}.
+ *
+ * Settings (system properties or allure.properties):
+ * <ul>
+ *   <li>{@code load.targets}: {@code ;}-separated {@link LoadTarget} specs, picked at random
+ *       per iteration, e.g. {@code PostsTest#testGetSinglePost;GET /photos?albumId=}</li>
+ *   <li>{@code load.model}: {@code closed} ({@code load.concurrency} virtual users back to back)
+ *       or {@code open} ({@code load.rate} iterations per second, at most {@code load.maxInFlight}
+ *       running; arrivals beyond that are dropped and reported)</li>
+ *   <li>{@code load.duration} / {@code load.warmup}: seconds measured / run before measuring</li>
+ *   <li>{@code load.validate}: with {@code false} request and CRUD targets skip their checks and
+ *       only server errors and transport failures count; test-method targets reject it</li>
+ *   <li>{@code load.quiet}: silence the tests' console output while running (default true)</li>
+ * </ul>
+ * The usual {@code -Dstandin=true}, {@code -DbaseUrl} and {@code -DfaultScenario} apply.
+ * In the open model a target's latency, and that of its first request, is
+ * measured from its scheduled start, so time spent queued behind a stalled
+ * system is included (no coordinated omission).
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.emmanuelarhu.load.LoadRunner -Dstandin=true -Dload.targets="GET /posts/{id}"}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class LoadRunner {
+
+    private final List<LoadTarget> targets;
+    private final LatencyRecorder iterations;
+    private final boolean validate;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Requests are recorded per endpoint by BaseTest's filter into {@link LatencyRecorder#suite()};
+     * whole iterations go to {@code iterations}, keyed by target name
+     */
+    public LoadRunner(List<LoadTarget> targets, LatencyRecorder iterations, boolean validate) {
+        if (!validate) {
+            for (LoadTarget target : targets) {
+                if (!target.canSkipValidation()) {
+                    throw new IllegalArgumentException(target.getName() + " always runs its test's assertions;"
+                            + " validation can only be turned off for request and CRUD targets");
+                }
+            }
+        }
+        this.targets = targets;
+        this.iterations = iterations;
+        this.validate = validate;
+    }
+
+    /**
+     * Run {@code users} virtual users back to back for the given time, each
+     * with its own stand-in namespace ({@code vu-<n>}) so their writes don't mix
+     */
+    public void runClosed(int users, long durationNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + durationNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                SplittableRandom random = new SplittableRandom(user);
+                String namespace = "vu-" + user;
+                executor.submit(() -> {
+                    NamespaceFilter.use(namespace);
+                    while (System.nanoTime() < deadline) {
+                        iterate(random, System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Start iterations at a fixed rate for the given time, each on its own virtual thread
+     */
+    public void runOpen(double perSecond, int maxInFlight, long durationNanos) {
+        long interval = (long) (1e9 / perSecond);
+        long next = System.nanoTime();
+        long deadline = next + durationNanos;
+        AtomicInteger inFlight = new AtomicInteger();
+        SplittableRandom random = new SplittableRandom(0);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (next < deadline) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.increment();
+                } else {
+                    inFlight.incrementAndGet();
+                    long scheduled = next;
+                    SplittableRandom taskRandom = random.split();
+                    executor.submit(() -> {
+                        try {
+                            LatencyFilter.scheduleNext(scheduled);
+                            iterate(taskRandom, scheduled);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                next += interval;
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Iterations finished so far, across phases
+     */
+    public long getIterations() {
+        return completed.sum();
+    }
+
+    /**
+     * Iterations that failed so far, across phases
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private void iterate(SplittableRandom random, long startedNanos) {
+        LoadTarget target = targets.get(targets.size() == 1 ? 0 : random.nextInt(targets.size()));
+        boolean failed = false;
+        try {
+            target.runOnce(random, validate);
+        } catch (AssertionError e) {
+            failed = validate;
+        } catch (Throwable e) {
+            failed = true;
+        }
+        iterations.record(target.getName(), System.nanoTime() - startedNanos, failed);
+        completed.increment();
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            run();
+            status = 0;
+        } catch (Exception e) {
+            System.out.println("❌ Load run failed: " + e.getMessage());
+        }
+        System.exit(status); // the stand-in and fault proxy keep non-daemon threads alive
+    }
+
+    private static void run() throws InterruptedException {
+        List<LoadTarget> targets = parseTargets(TestConfig.get("load.targets", "GET /posts/{id}"));
+        LoadModel model = LoadModel.valueOf(TestConfig.get("load.model", "closed").toUpperCase());
+        int concurrency = TestConfig.getInt("load.concurrency", 16);
+        double rate = TestConfig.getDouble("load.rate", 100);
+        int maxInFlight = TestConfig.getInt("load.maxInFlight", 10_000);
+        long duration = TestConfig.getLong("load.duration", 30) * 1_000_000_000L;
+        long warmup = TestConfig.getLong("load.warmup", 5) * 1_000_000_000L;
+        boolean validate = TestConfig.getBoolean("load.validate", true);
+
+        LatencyRecorder endpoints = LatencyRecorder.suite();
+        LatencyRecorder iterations = new LatencyRecorder();
+        LoadRunner runner = new LoadRunner(targets, iterations, validate);
+
+        PrintStream console = System.out;
+        console.printf("🚀 Load run: %s, %s, %ds (+%ds warmup), validation %s, targets %s%n",
+                model.name().toLowerCase(),
+                model == LoadModel.CLOSED ? concurrency + " virtual users" : rate + " iterations/s",
+                duration / 1_000_000_000L, warmup / 1_000_000_000L, validate ? "on" : "off",
+                targets.stream().map(LoadTarget::getName).toList());
+        if (TestConfig.getBoolean("load.quiet", true)) {
+            silenceTests();
+        }
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            for (long phase : new long[]{warmup, duration}) {
+                endpoints.reset();
+                iterations.reset();
+                if (phase == duration) {
+                    sampler.scheduleAtFixedRate(() -> {
+                        endpoints.sampleInterval();
+                        iterations.sampleInterval();
+                    }, 1, 1, TimeUnit.SECONDS);
+                }
+                if (model == LoadModel.CLOSED) {
+                    runner.runClosed(concurrency, phase);
+                } else {
+                    runner.runOpen(rate, maxInFlight, phase);
+                }
+            }
+        } finally {
+            sampler.shutdownNow();
+            System.setOut(console);
+        }
+        report(console, endpoints, iterations, runner.getDropped());
+    }
+
+    /**
+     * Parse {@code ;}-separated target specs, running BaseTest's setup for each
+     */
+    static List<LoadTarget> parseTargets(String specs) {
+        List<LoadTarget> targets = new ArrayList<>();
+        for (String spec : specs.split(";")) {
+            if (!spec.isBlank()) {
+                targets.add(LoadTarget.parse(spec));
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Send the tests' console output and REST Assured's failure logs nowhere; callers keep the old System.out
+     */
+    static void silenceTests() {
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        RestAssured.config = RestAssured.config().logConfig(LogConfig.logConfig().defaultStream(discard));
+    }
+
+    private static void report(PrintStream out, LatencyRecorder endpoints, LatencyRecorder iterations, long dropped) {
+        out.printf("%n📊 Per endpoint (%.1fs)%n", endpoints.elapsedSeconds());
+        endpoints.printReport(out, "endpoint");
+        out.printf("%n📊 Per target%n");
+        iterations.printReport(out, "target");
+        if (dropped > 0) {
+            out.println("⚠️ " + dropped + " arrivals dropped at load.maxInFlight; the system could not keep up with load.rate");
+        }
+        try {
+            Path directory = Path.of(TestConfig.get("latency.dir", "target/latency"), "load");
+            endpoints.writeHistogramLogs(directory);
+            iterations.writeHistogramLogs(directory.resolve("targets"));
+            out.println("📁 Histogram logs (1s intervals, microseconds) in " + directory);
+        } catch (IOException e) {
+            out.println("❌ Failed to write histogram logs: " + e.getMessage());
+        }
+    }
+}
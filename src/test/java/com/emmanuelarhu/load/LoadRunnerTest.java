@@ -0,0 +1,115 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.latency.LatencyRecorder;
+import com.emmanuelarhu.standin.NamespaceFilter;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.*;
+
+/**
+ * Iteration counting, the validation switch and stand-in namespaces of {@link LoadRunner}
+ *
+ * @author Emmanuel Arhu
+ */
+public class LoadRunnerTest {
+
+    /**
+     * Fails validation on every other iteration
+     */
+    private static final class FlakyTarget implements LoadTarget {
+
+        private final boolean canSkipValidation;
+        private int runs;
+
+        FlakyTarget(boolean canSkipValidation) {
+            this.canSkipValidation = canSkipValidation;
+        }
+
+        @Override
+        public String getName() {
+            return "flaky";
+        }
+
+        @Override
+        public synchronized void runOnce(SplittableRandom random, boolean validate) {
+            if (runs++ % 2 == 1 && (validate || !canSkipValidation)) {
+                throw new AssertionError("odd run");
+            }
+        }
+
+        @Override
+        public boolean canSkipValidation() {
+            return canSkipValidation;
+        }
+    }
+
+    /**
+     * Remembers the stand-in namespace each iteration ran in
+     */
+    private static final class NamespaceTarget implements LoadTarget {
+
+        private final Set<String> namespaces = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String getName() {
+            return "namespaces";
+        }
+
+        @Override
+        public void runOnce(SplittableRandom random, boolean validate) throws InterruptedException {
+            namespaces.add(NamespaceFilter.current());
+            Thread.sleep(1); // block like a request would, so every virtual user gets a carrier
+        }
+    }
+
+    @Test
+    public void testValidationFailuresAreCounted() throws InterruptedException {
+        LoadRunner runner = new LoadRunner(List.of(new FlakyTarget(true)), new LatencyRecorder(), true);
+
+        runner.runClosed(1, 50_000_000);
+
+        assertTrue(runner.getIterations() > 1, "Ran " + runner.getIterations());
+        assertEquals(runner.getFailures(), runner.getIterations() / 2);
+    }
+
+    @Test
+    public void testValidationOffSkipsChecks() throws InterruptedException {
+        LoadRunner runner = new LoadRunner(List.of(new FlakyTarget(true)), new LatencyRecorder(), false);
+
+        runner.runClosed(1, 50_000_000);
+
+        assertTrue(runner.getIterations() > 1, "Ran " + runner.getIterations());
+        assertEquals(runner.getFailures(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "flaky always runs its test's assertions.*")
+    public void testValidationOffIsRejectedForTargetsThatAlwaysValidate() {
+        new LoadRunner(List.of(new FlakyTarget(true), new FlakyTarget(false)), new LatencyRecorder(), false);
+    }
+
+    @Test
+    public void testClosedModelUsersGetTheirOwnNamespace() throws InterruptedException {
+        NamespaceTarget target = new NamespaceTarget();
+        LoadRunner runner = new LoadRunner(List.of(target), new LatencyRecorder(), true);
+
+        runner.runClosed(3, 500_000_000);
+
+        assertEquals(target.namespaces, Set.of("vu-0", "vu-1", "vu-2"));
+    }
+
+    @Test
+    public void testOpenModelArrivalsShareOneNamespace() {
+        NamespaceTarget target = new NamespaceTarget();
+        LoadRunner runner = new LoadRunner(List.of(target), new LatencyRecorder(), true);
+
+        runner.runOpen(500, 10, 50_000_000);
+
+        assertEquals(target.namespaces, Set.of(NamespaceFilter.VIRTUAL_NAMESPACE));
+    }
+}
@@ -0,0 +1,47 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.config.TestConfig;
+
+import java.util.SplittableRandom;
+
+/**
+ * One unit of work the {@link LoadRunner} repeats: an existing test method
+ * ({@link TestMethodTarget}), a plain request ({@link HttpScenario}) or a
+ * create-to-delete workflow ({@link CrudChain}).
+ *
+ * @author Emmanuel Arhu
+ */
+public interface LoadTarget {
+
+    /**
+     * Name the target is reported under
+     */
+    String getName();
+
+    /**
+     * Run one iteration; an {@link AssertionError} means validation failed
+     */
+    void runOnce(SplittableRandom random, boolean validate) throws Throwable;
+
+    /**
+     * Whether {@code validate = false} skips the validation work, not just its verdict
+     */
+    default boolean canSkipValidation() {
+        return true;
+    }
+
+    /**
+     * Parse a target spec: {@code PostsTest#testGetSinglePost} (class in
+     * com.emmanuelarhu.tests or fully qualified), {@code GET /posts/{id}} or {@code CRUD posts}
+     */
+    static LoadTarget parse(String spec) {
+        String trimmed = spec.trim();
+        if (trimmed.regionMatches(true, 0, "CRUD ", 0, 5)) {
+            return CrudChain.parse(trimmed, TestConfig.get("chain.namespace", "chains"));
+        }
+        if (trimmed.contains("#")) {
+            return TestMethodTarget.parse(trimmed);
+        }
+        return HttpScenario.parse(trimmed);
+    }
+}
@@ -0,0 +1,85 @@
+package com.emmanuelarhu.load;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Point-in-time JVM resource readings for soak runs: heap after GC, GC
+ * totals, open sockets and file descriptors, and live threads.
+ *
+ * With {@code forceGc} a full GC runs first, so the heap figure is the live
+ * set rather than whatever garbage happens to be uncollected; otherwise the
+ * heap pools' usage after their last collection is used. Sockets and file
+ * descriptors are read from {@code /proc/self/fd} and are -1 elsewhere.
+ *
+ * @author Emmanuel Arhu
+ */
+final class ResourceSampler {
+
+    private static final Path FD_DIRECTORY = Path.of("/proc/self/fd");
+
+    /**
+     * One reading; {@code seconds} since the soak started
+     */
+    record Sample(double seconds, long heapAfterGcBytes, long gcCount, long gcMillis, int openSockets,
+                  int openFiles, int threads) {}
+
+    private final boolean forceGc;
+    private final long startedNanos = System.nanoTime();
+
+    ResourceSampler(boolean forceGc) {
+        this.forceGc = forceGc;
+    }
+
+    Sample sample() {
+        long heap;
+        if (forceGc) {
+            System.gc();
+            heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        } else {
+            heap = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getCollectionUsage();
+                if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                    heap += afterGc.getUsed();
+                }
+            }
+        }
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, collector.getCollectionCount());
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        int sockets = -1;
+        int files = -1;
+        if (Files.isDirectory(FD_DIRECTORY)) {
+            sockets = 0;
+            files = 0;
+            try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(FD_DIRECTORY)) {
+                for (Path descriptor : descriptors) {
+                    files++;
+                    try {
+                        if (Files.readSymbolicLink(descriptor).toString().startsWith("socket:")) {
+                            sockets++;
+                        }
+                    } catch (IOException e) {
+                        // closed while listing
+                    }
+                }
+            } catch (IOException e) {
+                sockets = -1;
+                files = -1;
+            }
+        }
+        return new Sample((System.nanoTime() - startedNanos) / 1e9, heap, gcCount, gcMillis, sockets, files,
+                ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
@@ -0,0 +1,326 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.allure.AllureAttachmentListener;
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.latency.LatencyRecorder;
+import io.qameta.allure.testng.AllureTestNg;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedObject;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs the API suite (or {@link LoadTarget} scenarios) in a loop for hours
+ * and watches the JVM for leaks.
+ *
+ * Every {@code soak.interval} seconds a {@link ResourceSampler} reads heap
+ * after GC, GC count and pause time, open sockets and file descriptors and
+ * live threads. At the end each series goes through the
+ * {@link LeakDetector}; for a growing heap the report lists the classes
+ * whose live bytes grew most between the first sample after
+ * {@code soak.warmup} and the end, plus the allocation stacks of old
+ * surviving objects from a JFR {@code jdk.OldObjectSample} recording.
+ *
+ * Settings: {@code soak.duration} (minutes, default 60), {@code soak.interval}
+ * (seconds, 30), {@code soak.warmup} (seconds, 60), {@code soak.classes}
+ * (suite mode, default all test classes), {@code soak.targets} with
+ * {@code soak.concurrency} (scenario mode instead of the suite),
+ * {@code soak.allure} (keep the Allure listeners in suite mode, default false:
+ * every loop adds its result files to {@code target/allure-results}),
+ * {@code soak.forceGc} (default true) and {@code soak.jfr} (default true).
+ * Samples and the report go to {@code target/soak}.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.emmanuelarhu.load.SoakRunner -Dstandin=true -Dsoak.duration=240}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class SoakRunner {
+
+    private static final String TESTS_PACKAGE = "com.emmanuelarhu.tests.";
+    private static final double MB = 1024.0 * 1024.0;
+
+    private SoakRunner() {}
+
+    public static void main(String[] args) {
+        int status = 1;
+        try {
+            status = run() ? 0 : 2;
+        } catch (Exception e) {
+            System.out.println("❌ Soak run failed: " + e);
+        }
+        System.exit(status); // the stand-in and fault proxy keep non-daemon threads alive
+    }
+
+    /**
+     * Soak, report, and return false when a leak suspect was found
+     */
+    private static boolean run() throws Exception {
+        long durationNanos = (long) (TestConfig.getDouble("soak.duration", 60) * 60_000_000_000L);
+        long intervalSeconds = TestConfig.getLong("soak.interval", 30);
+        double warmupSeconds = TestConfig.getDouble("soak.warmup", 60);
+        String targetSpecs = TestConfig.get("soak.targets", "");
+        Path directory = Path.of("target/soak");
+        Files.createDirectories(directory);
+
+        Recording recording = null;
+        if (TestConfig.getBoolean("soak.jfr", true)) {
+            recording = new Recording();
+            recording.enable("jdk.OldObjectSample").withStackTrace().with("cutoff", "0 ns");
+            recording.start();
+        }
+
+        PrintStream console = System.out;
+        long deadline = System.nanoTime() + durationNanos;
+        Thread load;
+        LongSupplier loops;
+        LongSupplier failures;
+        if (targetSpecs.isBlank()) {
+            List<Class<?>> classes = testClasses(TestConfig.get("soak.classes",
+                    "UsersTest,PostsTest,CommentsTest,AlbumsTest,PhotosTest,TodosTest"));
+            console.println("🧪 Soak: looping " + classes.size() + " test classes for "
+                    + clock(durationNanos / 1e9));
+            AtomicLong suiteLoops = new AtomicLong();
+            AtomicLong suiteFailures = new AtomicLong();
+            load = Thread.ofPlatform().name("soak-suite")
+                    .start(() -> loopSuite(classes, deadline, suiteLoops, suiteFailures));
+            loops = suiteLoops::get;
+            failures = suiteFailures::get;
+        } else {
+            List<LoadTarget> targets = LoadRunner.parseTargets(targetSpecs);
+            int concurrency = TestConfig.getInt("soak.concurrency", 8);
+            console.println("🧪 Soak: " + concurrency + " virtual users on "
+                    + targets.stream().map(LoadTarget::getName).toList() + " for " + clock(durationNanos / 1e9));
+            LatencyRecorder iterations = new LatencyRecorder();
+            LoadRunner runner = new LoadRunner(targets, iterations, TestConfig.getBoolean("soak.validate", true));
+            load = Thread.ofPlatform().name("soak-load").start(() -> {
+                try {
+                    runner.runClosed(concurrency, deadline - System.nanoTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            loops = runner::getIterations;
+            failures = runner::getFailures;
+        }
+        if (TestConfig.getBoolean("soak.quiet", true)) {
+            LoadRunner.silenceTests();
+        }
+
+        ResourceSampler sampler = new ResourceSampler(TestConfig.getBoolean("soak.forceGc", true));
+        List<ResourceSampler.Sample> samples = new CopyOnWriteArrayList<>();
+        Map<String, long[]> startHistogram = new HashMap<>();
+        ScheduledExecutorService schedule = Executors.newSingleThreadScheduledExecutor();
+        schedule.scheduleAtFixedRate(() -> {
+            ResourceSampler.Sample sample = sampler.sample();
+            samples.add(sample);
+            if (startHistogram.isEmpty() && sample.seconds() >= warmupSeconds) {
+                startHistogram.putAll(classHistogram());
+            }
+            console.printf("⏱️ %s heap %.1f MB, gc %d (%d ms), sockets %d, fds %d, threads %d, loops %d, failures %d%n",
+                    clock(sample.seconds()), sample.heapAfterGcBytes() / MB, sample.gcCount(), sample.gcMillis(),
+                    sample.openSockets(), sample.openFiles(), sample.threads(), loops.getAsLong(), failures.getAsLong());
+        }, 0, intervalSeconds, TimeUnit.SECONDS);
+        try {
+            load.join();
+        } finally {
+            schedule.shutdown();
+            schedule.awaitTermination(1, TimeUnit.MINUTES);
+            System.setOut(console);
+        }
+        samples.add(sampler.sample());
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("Soak of %s: %d loops/iterations, %d failures, %d samples",
+                clock(samples.get(samples.size() - 1).seconds()), loops.getAsLong(), failures.getAsLong(), samples.size()));
+        LeakDetector detector = new LeakDetector(TestConfig.getDouble("soak.leakTau", 0.6));
+        List<LeakDetector.Trend> trends = List.of(
+                trend(detector, samples, "heap after GC (MB)", sample -> sample.heapAfterGcBytes() / MB,
+                        Math.max(8, samples.get(0).heapAfterGcBytes() / MB * 0.10)),
+                trend(detector, samples, "open sockets", ResourceSampler.Sample::openSockets, 10),
+                trend(detector, samples, "open files", ResourceSampler.Sample::openFiles, 20),
+                trend(detector, samples, "threads", ResourceSampler.Sample::threads, 10));
+        boolean leakFree = true;
+        for (LeakDetector.Trend trend : trends) {
+            report.add(String.format("%s %-20s %10.1f -> %10.1f (%+.1f/hour, Kendall tau %.2f)",
+                    trend.suspect() ? "❌ LEAK?" : "✅      ", trend.name(), trend.firstQuarter(), trend.lastQuarter(),
+                    trend.perHour(), trend.tau()));
+            leakFree &= !trend.suspect();
+        }
+        ResourceSampler.Sample last = samples.get(samples.size() - 1);
+        report.add(String.format("GC: %d collections, %d ms total pause", last.gcCount(), last.gcMillis()));
+        if (trends.get(0).suspect()) {
+            report.add("");
+            report.add("Classes with the most live-byte growth since warmup:");
+            report.addAll(classGrowth(startHistogram, classHistogram(), 15));
+        }
+        if (recording != null) {
+            Path jfr = directory.resolve("soak.jfr");
+            recording.dump(jfr);
+            recording.close();
+            if (trends.get(0).suspect()) {
+                report.add("");
+                report.add("Allocation sites of old surviving objects (JFR OldObjectSample, " + jfr + "):");
+                report.addAll(oldObjectSites(jfr, 10));
+            }
+        }
+
+        writeSamples(directory.resolve("samples.csv"), samples);
+        Files.write(directory.resolve("report.txt"), report, StandardCharsets.UTF_8);
+        console.println();
+        report.forEach(console::println);
+        console.println("📁 Samples and report in " + directory);
+        return leakFree;
+    }
+
+    private static void loopSuite(List<Class<?>> classes, long deadline, AtomicLong loops, AtomicLong failures) {
+        boolean allure = TestConfig.getBoolean("soak.allure", false);
+        if (allure && System.getProperty("allure.results.directory") == null) {
+            System.setProperty("allure.results.directory", "target/allure-results");
+        }
+        while (System.nanoTime() < deadline) {
+            TestNG testng = new TestNG();
+            testng.setTestClasses(classes.toArray(new Class<?>[0]));
+            testng.setUseDefaultListeners(false);
+            testng.setVerbose(0);
+            TestListenerAdapter results = new TestListenerAdapter();
+            testng.addListener(results);
+            if (allure) {
+                testng.addListener(new AllureTestNg());
+                testng.addListener(new AllureAttachmentListener());
+            } else {
+                // allure-testng registers itself through ServiceLoader, so leaving it out is not enough
+                testng.setListenersToSkipFromBeingWiredInViaServiceLoaders(AllureTestNg.class.getName());
+            }
+            testng.run();
+            loops.incrementAndGet();
+            failures.addAndGet(results.getFailedTests().size());
+        }
+    }
+
+    private static List<Class<?>> testClasses(String names) throws ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String trimmed = name.trim();
+            classes.add(Class.forName(trimmed.contains(".") ? trimmed : TESTS_PACKAGE + trimmed));
+        }
+        return classes;
+    }
+
+    private static LeakDetector.Trend trend(LeakDetector detector, List<ResourceSampler.Sample> samples, String name,
+                                            ToDoubleFunction<ResourceSampler.Sample> value, double minGrowth) {
+        double[] seconds = samples.stream().mapToDouble(ResourceSampler.Sample::seconds).toArray();
+        double[] values = samples.stream().mapToDouble(value).toArray();
+        return detector.analyze(name, seconds, values, minGrowth);
+    }
+
+    /**
+     * Live instances and bytes per class, from the GC.class_histogram diagnostic command
+     */
+    private static Map<String, long[]> classHistogram() {
+        Map<String, long[]> classes = new HashMap<>();
+        try {
+            String text = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                    new Object[]{new String[0]}, new String[]{String[].class.getName()});
+            for (String line : text.split("\n")) {
+                String[] columns = line.trim().split("\\s+");
+                if (columns.length >= 4 && columns[0].endsWith(":")) {
+                    classes.put(columns[3], new long[]{Long.parseLong(columns[1]), Long.parseLong(columns[2])});
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Class histogram unavailable: " + e.getMessage());
+        }
+        return classes;
+    }
+
+    private static List<String> classGrowth(Map<String, long[]> start, Map<String, long[]> end, int top) {
+        List<Map.Entry<String, long[]>> growth = new ArrayList<>();
+        end.forEach((name, counts) -> {
+            long[] before = start.getOrDefault(name, new long[2]);
+            if (counts[1] > before[1]) {
+                growth.add(Map.entry(name, new long[]{counts[0] - before[0], counts[1] - before[1]}));
+            }
+        });
+        growth.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : growth.subList(0, Math.min(top, growth.size()))) {
+            lines.add(String.format("  %+12.2f MB %+12d instances  %s", entry.getValue()[1] / MB, entry.getValue()[0],
+                    entry.getKey()));
+        }
+        return lines;
+    }
+
+    /**
+     * Group OldObjectSample events by object type and the first application frames of their allocation stack
+     */
+    private static List<String> oldObjectSites(Path jfr, int top) throws IOException {
+        Map<String, Integer> sites = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(jfr)) {
+            if (!event.getEventType().getName().equals("jdk.OldObjectSample") || event.getStackTrace() == null) {
+                continue;
+            }
+            RecordedObject object = event.getValue("object");
+            RecordedClass type = object == null ? null : object.getValue("type");
+            StringBuilder site = new StringBuilder(type == null ? "?" : type.getName());
+            int frames = 0;
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String className = frame.getMethod().getType().getName();
+                if (className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")) {
+                    continue;
+                }
+                site.append(frames == 0 ? " allocated at " : " <- ").append(className).append('.')
+                        .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+                if (++frames == 4) {
+                    break;
+                }
+            }
+            sites.merge(site.toString(), 1, Integer::sum);
+        }
+        List<String> lines = new ArrayList<>();
+        sites.entrySet().stream()
+                .sorted((a, b) -> b.getValue() - a.getValue())
+                .limit(top)
+                .forEach(entry -> lines.add(String.format("  %5d x %s", entry.getValue(), entry.getKey())));
+        return lines;
+    }
+
+    private static void writeSamples(Path csv, List<ResourceSampler.Sample> samples) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("seconds,heap_after_gc_bytes,gc_count,gc_millis,open_sockets,open_files,threads");
+        for (ResourceSampler.Sample sample : samples) {
+            lines.add(String.format("%.1f,%d,%d,%d,%d,%d,%d", sample.seconds(), sample.heapAfterGcBytes(),
+                    sample.gcCount(), sample.gcMillis(), sample.openSockets(), sample.openFiles(), sample.threads()));
+        }
+        Files.write(csv, lines, StandardCharsets.UTF_8);
+    }
+
+    private static String clock(double seconds) {
+        long total = (long) seconds;
+        return String.format("%02d:%02d:%02d", total / 3600, total / 60 % 60, total % 60);
+    }
+}
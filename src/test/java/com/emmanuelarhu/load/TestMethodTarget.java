@@ -0,0 +1,128 @@
+package com.emmanuelarhu.load;
+
+import com.emmanuelarhu.base.BaseTest;
+import com.emmanuelarhu.config.TestConfig;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Load target that calls an existing {@code @Test} method, so the suite's own
+ * requests and assertions become the load scenario. Methods with a data
+ * provider get a random provider row per iteration. The assertions are part
+ * of the test body, so they always run: validation cannot be turned off.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class TestMethodTarget implements LoadTarget {
+
+    private static final String TESTS_PACKAGE = "com.emmanuelarhu.tests.";
+
+    private final String name;
+    private final Object instance;
+    private final Method method;
+    private final Object[][] rows;
+
+    private TestMethodTarget(String name, Object instance, Method method, Object[][] rows) {
+        this.name = name;
+        this.instance = instance;
+        this.method = method;
+        this.rows = rows;
+    }
+
+    /**
+     * Resolve {@code Class#method}, create the test instance and run its setup
+     */
+    static TestMethodTarget parse(String spec) {
+        int hash = spec.indexOf('#');
+        String className = spec.substring(0, hash);
+        String methodName = spec.substring(hash + 1);
+        try {
+            Class<?> testClass = Class.forName(className.contains(".") ? className : TESTS_PACKAGE + className);
+            Method method = findTestMethod(testClass, methodName);
+            Object instance = testClass.getDeclaredConstructor().newInstance();
+            if (instance instanceof BaseTest) {
+                setUp((BaseTest) instance);
+            }
+            Test test = method.getAnnotation(Test.class);
+            Object[][] rows = test.dataProvider().isEmpty()
+                    ? new Object[][]{{}}
+                    : providerRows(test.dataProviderClass() == Object.class ? testClass : test.dataProviderClass(),
+                    test.dataProvider(), instance);
+            if (rows.length == 0) {
+                throw new IllegalArgumentException("Data provider of " + spec + " returned no rows");
+            }
+            return new TestMethodTarget(testClass.getSimpleName() + "#" + methodName, instance, method, rows);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot load test method " + spec + ": " + e, e);
+        }
+    }
+
+    /**
+     * Run BaseTest's setup with the same parameters a suite run would get
+     */
+    static void setUp(BaseTest test) {
+        test.setup(TestConfig.get("baseUrl", "https://jsonplaceholder.typicode.com"),
+                TestConfig.get("faultScenario", ""),
+                TestConfig.get("faultSeed", "42"));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean canSkipValidation() {
+        return false;
+    }
+
+    @Override
+    public void runOnce(SplittableRandom random, boolean validate) throws Throwable {
+        try {
+            method.invoke(instance, rows[random.nextInt(rows.length)]);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Method findTestMethod(Class<?> testClass, String methodName) {
+        for (Method method : testClass.getMethods()) {
+            if (method.getName().equals(methodName) && method.isAnnotationPresent(Test.class)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(testClass.getSimpleName() + " has no @Test method " + methodName);
+    }
+
+    private static Object[][] providerRows(Class<?> providerClass, String providerName, Object testInstance)
+            throws ReflectiveOperationException {
+        for (Method method : providerClass.getMethods()) {
+            DataProvider provider = method.getAnnotation(DataProvider.class);
+            if (provider == null
+                    || !(provider.name().isEmpty() ? method.getName() : provider.name()).equals(providerName)) {
+                continue;
+            }
+            Object target = null;
+            if (!Modifier.isStatic(method.getModifiers())) {
+                target = providerClass.isInstance(testInstance)
+                        ? testInstance : providerClass.getDeclaredConstructor().newInstance();
+            }
+            Object result = method.invoke(target);
+            if (result instanceof Object[][]) {
+                return (Object[][]) result;
+            }
+            List<Object[]> rows = new ArrayList<>();
+            ((Iterator<?>) result).forEachRemaining(row -> rows.add((Object[]) row));
+            return rows.toArray(new Object[0][]);
+        }
+        throw new IllegalArgumentException(providerClass.getSimpleName() + " has no @DataProvider " + providerName);
+    }
+}
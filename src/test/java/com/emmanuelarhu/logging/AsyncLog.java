@@ -0,0 +1,209 @@
+package com.emmanuelarhu.logging;
+
+import com.emmanuelarhu.config.TestConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous logging for the tests and BaseTest: a call below the
+ * configured level costs a comparison, anything else is queued in a
+ * lock-free {@link RingBuffer} and written by a background thread, so test
+ * threads never block on console I/O.
+ *
+ * Settings: {@code log.level} (DEBUG, INFO, WARN, ERROR, OFF; default INFO),
+ * {@code log.format} ({@code text}, or {@code json} for one object per line),
+ * {@code log.buffer} (records, default 8192) and {@code log.overflow}
+ * ({@code block} waits for the writer when the buffer is full, {@code drop}
+ * discards and reports the count).
+ *
+ * Records go to whatever {@code System.out} is when they are written, so
+ * the load and soak runners can silence the tests by swapping it.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class AsyncLog {
+
+    private static final LogLevel LEVEL = LogLevel.valueOf(TestConfig.get("log.level", "INFO").toUpperCase());
+    private static final boolean JSON = TestConfig.get("log.format", "text").equalsIgnoreCase("json");
+    private static final boolean DROP = TestConfig.get("log.overflow", "block").equalsIgnoreCase("drop");
+    private static final long FLUSH_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final RingBuffer<Record> BUFFER = new RingBuffer<>(TestConfig.getInt("log.buffer", 8192));
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final Object OUT_LOCK = new Object();
+    private static final Thread WRITER = Thread.ofPlatform().name("async-log-writer").daemon().unstarted(AsyncLog::drain);
+    private static volatile boolean writerParked;
+
+    static {
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncLog::flush));
+    }
+
+    private record Record(long epochMillis, LogLevel level, String thread, String message, Throwable error) {}
+
+    private AsyncLog() {}
+
+    public static boolean isEnabled(LogLevel level) {
+        return level.compareTo(LEVEL) >= 0 && level != LogLevel.OFF;
+    }
+
+    public static void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public static void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+
+    public static void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+
+    public static void warn(String message, Throwable error) {
+        log(LogLevel.WARN, message, error);
+    }
+
+    public static void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        log(LogLevel.ERROR, message, error);
+    }
+
+    public static void log(LogLevel level, String message, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Record record = new Record(System.currentTimeMillis(), level, Thread.currentThread().getName(), message, error);
+        while (!BUFFER.offer(record)) {
+            if (DROP) {
+                DROPPED.increment();
+                return;
+            }
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(10_000);
+        }
+        if (writerParked) {
+            LockSupport.unpark(WRITER);
+        }
+    }
+
+    /**
+     * Log a multi-line report (a table printed to a stream) at INFO as one record
+     */
+    public static void report(Consumer<PrintStream> printer) {
+        if (!isEnabled(LogLevel.INFO)) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        printer.accept(out);
+        info(bytes.toString(StandardCharsets.UTF_8).stripTrailing());
+    }
+
+    /**
+     * Wait until everything logged so far is written, e.g. before printing a report directly
+     */
+    public static void flush() {
+        long target = BUFFER.offered();
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT_NANOS;
+        while (BUFFER.taken() < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(100_000);
+        }
+        synchronized (OUT_LOCK) {
+            System.out.flush();
+        }
+    }
+
+    private static void drain() {
+        StringBuilder line = new StringBuilder(256);
+        long reportedDrops = 0;
+        while (true) {
+            Record record = BUFFER.poll();
+            if (record == null) {
+                long dropped = DROPPED.sum();
+                if (dropped > reportedDrops) {
+                    write(line, new Record(System.currentTimeMillis(), LogLevel.WARN, WRITER.getName(),
+                            "⚠️ " + (dropped - reportedDrops) + " log records dropped, buffer full", null));
+                    reportedDrops = dropped;
+                }
+                synchronized (OUT_LOCK) {
+                    System.out.flush();
+                }
+                writerParked = true;
+                if (BUFFER.taken() == BUFFER.offered()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                }
+                writerParked = false;
+                continue;
+            }
+            write(line, record);
+        }
+    }
+
+    private static void write(StringBuilder line, Record record) {
+        line.setLength(0);
+        if (JSON) {
+            line.append("{\"time\":\"").append(Instant.ofEpochMilli(record.epochMillis())).append("\",\"level\":\"")
+                    .append(record.level()).append("\",\"thread\":\"").append(jsonEscape(record.thread()))
+                    .append("\",\"message\":\"").append(jsonEscape(record.message())).append('"');
+            if (record.error() != null) {
+                line.append(",\"error\":\"").append(jsonEscape(stackTrace(record.error()))).append('"');
+            }
+            line.append('}');
+        } else {
+            line.append(TIME.format(Instant.ofEpochMilli(record.epochMillis()))).append(' ')
+                    .append(String.format("%-5s", record.level())).append(" [").append(record.thread()).append("] ")
+                    .append(record.message());
+            if (record.error() != null) {
+                line.append(System.lineSeparator()).append(stackTrace(record.error()).stripTrailing());
+            }
+        }
+        synchronized (OUT_LOCK) {
+            System.out.println(line);
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+
+    private static String jsonEscape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
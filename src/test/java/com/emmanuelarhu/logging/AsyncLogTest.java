@@ -0,0 +1,45 @@
+package com.emmanuelarhu.logging;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * {@link AsyncLog} writes to the System.out of the moment, so runners can silence it
+ *
+ * @author Emmanuel Arhu
+ */
+public class AsyncLogTest {
+
+    @Test
+    public void testRecordsFollowSwappedSystemOut() {
+        AsyncLog.info("warm up the writer before swapping");
+        AsyncLog.flush();
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            AsyncLog.info("silenced line");
+            AsyncLog.flush();
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            AsyncLog.info("captured line");
+            AsyncLog.report(out -> {
+                out.println("header");
+                out.println("row");
+            });
+            AsyncLog.flush();
+        } finally {
+            System.setOut(console);
+        }
+
+        String text = captured.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("captured line"), text);
+        assertTrue(text.contains("header" + System.lineSeparator() + "row"), text);
+        assertFalse(text.contains("silenced line"), text);
+    }
+}
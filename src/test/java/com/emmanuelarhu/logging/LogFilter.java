@@ -0,0 +1,123 @@
+package com.emmanuelarhu.logging;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.latency.EndpointTemplate;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * REST Assured filter that logs each exchange through {@link AsyncLog} as
+ * one record: method, URI, status and time, the request body and, at DEBUG,
+ * the response body. Bodies are cut at {@code log.body.max} characters
+ * (default 2048).
+ *
+ * {@code -Dlog.sample.every=N} logs only the first and then every Nth
+ * exchange per {@link EndpointTemplate}; 5xx responses and exceptions are
+ * always logged, at WARN. BaseTest installs a DEBUG instance for every
+ * request; {@link #all()} is the INFO instance a test adds to a request it
+ * wants to see, in place of {@code log().all()}, which prints synchronously
+ * on the test thread.
+ *
+ * @author Emmanuel Arhu
+ */
+public class LogFilter implements OrderedFilter {
+
+    private static final int BODY_MAX = TestConfig.getInt("log.body.max", 2048);
+    private static final long SAMPLE_EVERY = Math.max(1, TestConfig.getLong("log.sample.every", 1));
+    private static final LogFilter ALL = new LogFilter(LogLevel.INFO);
+
+    private final LogLevel level;
+    private final Map<String, AtomicLong> exchanges = new ConcurrentHashMap<>();
+
+    public LogFilter(LogLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * Shared INFO instance for {@code .filter(LogFilter.all())}
+     */
+    public static LogFilter all() {
+        return ALL;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!AsyncLog.isEnabled(LogLevel.WARN) || loggedByAnother(requestSpec)) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String endpoint = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+        boolean sampled = AsyncLog.isEnabled(level)
+                && exchanges.computeIfAbsent(endpoint, key -> new AtomicLong()).getAndIncrement() % SAMPLE_EVERY == 0;
+        long started = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            boolean serverError = response.getStatusCode() >= 500;
+            if (sampled || serverError) {
+                StringBuilder message = summary(requestSpec, response.getStatusCode() + "", started);
+                body(message, "Request body", requestSpec.getBody());
+                if (AsyncLog.isEnabled(LogLevel.DEBUG)) {
+                    body(message, "Response body", response.getBody().asByteArray());
+                }
+                AsyncLog.log(serverError ? LogLevel.WARN : level, message.toString(), null);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            StringBuilder message = summary(requestSpec, e.getClass().getSimpleName(), started);
+            body(message, "Request body", requestSpec.getBody());
+            AsyncLog.warn(message.toString(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * The global instance leaves requests that carry their own LogFilter to it
+     */
+    private boolean loggedByAnother(FilterableRequestSpecification requestSpec) {
+        for (Filter filter : requestSpec.getDefinedFilters()) {
+            if (filter instanceof LogFilter && filter != this && level.compareTo(((LogFilter) filter).level) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static StringBuilder summary(FilterableRequestSpecification requestSpec, String outcome, long started) {
+        return new StringBuilder("🌐 ").append(requestSpec.getMethod()).append(' ').append(requestSpec.getURI())
+                .append(" → ").append(outcome).append(String.format(" in %.1fms", (System.nanoTime() - started) / 1e6));
+    }
+
+    private static void body(StringBuilder message, String label, Object body) {
+        String text;
+        int more;
+        if (body instanceof byte[] bytes) {
+            text = new String(bytes, 0, Math.min(bytes.length, BODY_MAX), StandardCharsets.UTF_8);
+            more = bytes.length - Math.min(bytes.length, BODY_MAX);
+        } else {
+            String full = body == null ? "" : body.toString();
+            text = full.length() > BODY_MAX ? full.substring(0, BODY_MAX) : full;
+            more = full.length() - text.length();
+        }
+        if (text.isEmpty()) {
+            return;
+        }
+        message.append(System.lineSeparator()).append("    ").append(label).append(": ").append(text);
+        if (more > 0) {
+            message.append("… (").append(more).append(" more)");
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 3; // just above MetricsFilter, so the logged time is the request's
+    }
+}
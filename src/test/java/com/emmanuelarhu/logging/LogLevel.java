@@ -0,0 +1,15 @@
+package com.emmanuelarhu.logging;
+
+/**
+ * Severity of an {@link AsyncLog} record, lowest first; {@code OFF} as the
+ * configured level drops everything.
+ *
+ * @author Emmanuel Arhu
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
@@ -0,0 +1,86 @@
+package com.emmanuelarhu.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * Each slot carries a sequence number: a producer claims the next position
+ * with one CAS when the slot's sequence says it is free, writes the item and
+ * publishes it by advancing the sequence; the consumer takes it once the
+ * sequence shows it published and frees the slot for the next lap. Producers
+ * never wait on each other or on the consumer, a full buffer just refuses
+ * the offer.
+ *
+ * @author Emmanuel Arhu
+ */
+final class RingBuffer<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    RingBuffer(int minimumCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, minimumCapacity - 1)) << 1;
+        this.items = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an item, false when the buffer is full
+     */
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long free = sequences.get(slot) - position;
+            if (free == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[slot] = item;
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (free < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest published item, null when there is none; consumer thread only
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long position = head;
+        int slot = (int) (position & mask);
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        T item = (T) items[slot];
+        items[slot] = null;
+        sequences.set(slot, position + items.length);
+        head = position + 1;
+        return item;
+    }
+
+    /**
+     * Number of items offered so far; {@link #taken()} reaches it once all of them are consumed
+     */
+    long offered() {
+        return tail.get();
+    }
+
+    long taken() {
+        return head;
+    }
+}
@@ -0,0 +1,117 @@
+package com.emmanuelarhu.logging;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.*;
+
+/**
+ * Ordering, capacity and multi-producer behaviour of {@link RingBuffer}
+ *
+ * @author Emmanuel Arhu
+ */
+public class RingBufferTest {
+
+    @Test
+    public void testFifoAndEmpty() {
+        RingBuffer<String> buffer = new RingBuffer<>(4);
+
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertEquals(buffer.poll(), "a");
+        assertEquals(buffer.poll(), "b");
+        assertNull(buffer.poll());
+        assertEquals(buffer.offered(), 2);
+        assertEquals(buffer.taken(), 2);
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(fill(new RingBuffer<>(8)), 8);
+        assertEquals(fill(new RingBuffer<>(5)), 8);
+        assertEquals(fill(new RingBuffer<>(9)), 16);
+        assertEquals(fill(new RingBuffer<>(1)), 4);
+    }
+
+    @Test
+    public void testFullBufferRefusesUntilPolled() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(buffer.poll(), Integer.valueOf(0));
+        assertTrue(buffer.offer(4));
+        assertEquals(buffer.offered(), 5, "A refused offer does not claim a position");
+    }
+
+    @Test
+    public void testManyLapsKeepOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        int next = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) {
+                while (next <= i) {
+                    assertEquals(buffer.poll(), Integer.valueOf(next++));
+                }
+            }
+        }
+    }
+
+    @Test(timeOut = 30_000)
+    public void testConcurrentProducersLoseNothingAndKeepTheirOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 100_000;
+        RingBuffer<long[]> buffer = new RingBuffer<>(64);
+        List<Future<?>> running = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                running.add(executor.submit(() -> {
+                    for (long i = 0; i < perProducer; i++) {
+                        long[] item = {producer, i};
+                        while (!buffer.offer(item)) {
+                            Thread.yield(); // not onSpinWait: spinning producers starve the consumer on one CPU
+                        }
+                    }
+                }));
+            }
+            long[] expected = new long[producers];
+            long received = 0;
+            while (received < (long) producers * perProducer) {
+                long[] item = buffer.poll();
+                if (item == null) {
+                    Thread.yield();
+                    continue;
+                }
+                assertEquals(item[1], expected[(int) item[0]], "Producer " + item[0] + " out of order");
+                expected[(int) item[0]]++;
+                received++;
+            }
+            for (Future<?> producer : running) {
+                producer.get();
+            }
+            assertNull(buffer.poll());
+            assertEquals(buffer.taken(), buffer.offered());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int fill(RingBuffer<Object> buffer) {
+        int accepted = 0;
+        while (buffer.offer(accepted)) {
+            accepted++;
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,82 @@
+package com.emmanuelarhu.metrics;
+
+import com.emmanuelarhu.latency.EndpointTemplate;
+import com.emmanuelarhu.usage.TestUsage;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * REST Assured filter that counts every request into a
+ * {@link MetricsRegistry} under its {@link EndpointTemplate}: requests,
+ * responses by status class ({@code 2xx}..{@code 5xx}, {@code error} when
+ * the request threw), bytes sent and received and a latency timer, plus a
+ * gauge of requests in flight. Body bytes are also booked to the running
+ * test's {@link TestUsage}.
+ *
+ * @author Emmanuel Arhu
+ */
+public class MetricsFilter implements OrderedFilter {
+
+    private final LongAdder inFlight = new LongAdder();
+    private final MetricsRegistry.Counter requests;
+    private final MetricsRegistry.Counter responses;
+    private final MetricsRegistry.Counter bytesOut;
+    private final MetricsRegistry.Counter bytesIn;
+    private final MetricsRegistry.Timer duration;
+
+    public MetricsFilter(MetricsRegistry registry) {
+        requests = registry.counter("api_requests", "Requests sent, by endpoint template", null, "endpoint");
+        responses = registry.counter("api_responses", "Responses by endpoint template and status class", null,
+                "endpoint", "code");
+        bytesOut = registry.counter("api_request_bytes", "Request body bytes sent", "bytes", "endpoint");
+        bytesIn = registry.counter("api_response_bytes", "Response body bytes received", "bytes", "endpoint");
+        duration = registry.timer("api_request_duration_seconds", "Request latency below the other filters",
+                MetricsRegistry.LATENCY_BUCKETS, "endpoint");
+        registry.gauge("api_requests_in_flight", "Requests sent and not yet answered", inFlight::sum);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        String endpoint = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+        long sent = bodyLength(requestSpec.getBody());
+        requests.inc(endpoint);
+        bytesOut.add(sent, endpoint);
+        inFlight.increment();
+        long started = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            duration.record(System.nanoTime() - started, endpoint);
+            responses.inc(endpoint, response.getStatusCode() / 100 + "xx");
+            long received = response.getBody().asByteArray().length;
+            bytesIn.add(received, endpoint);
+            TestUsage.addBytes(sent, received);
+            return response;
+        } catch (RuntimeException e) {
+            duration.record(System.nanoTime() - started, endpoint);
+            responses.inc(endpoint, "error");
+            TestUsage.addBytes(sent, 0);
+            throw e;
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    private static long bodyLength(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return body == null ? 0 : body.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 2; // just above LatencyFilter and the cassette, so replayed requests are counted too
+    }
+}
@@ -0,0 +1,54 @@
+package com.emmanuelarhu.metrics;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import org.testng.IExecutionListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the suite's {@link MetricsRegistry} as an OpenMetrics text file to
+ * {@code -Dmetrics.file} (default target/metrics/openmetrics.txt) at the end
+ * of the run. With {@code -Dmetrics.port=<port>} the registry is also served
+ * at {@code http://127.0.0.1:<port>/metrics} while the run is going.
+ *
+ * @author Emmanuel Arhu
+ */
+public class MetricsListener implements IExecutionListener {
+
+    private MetricsServer server;
+
+    @Override
+    public void onExecutionStart() {
+        String port = TestConfig.get("metrics.port", "");
+        if (port.isEmpty()) {
+            return;
+        }
+        try {
+            server = MetricsServer.start(MetricsRegistry.suite(), Integer.parseInt(port));
+            AsyncLog.info("📈 Serving metrics at " + server.getUrl());
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to start metrics endpoint on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (server != null) {
+            server.close();
+        }
+        Path file = Path.of(TestConfig.get("metrics.file", "target/metrics/openmetrics.txt"));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, MetricsRegistry.suite().toOpenMetrics(), StandardCharsets.UTF_8);
+            AsyncLog.info("📈 Wrote metrics to " + file);
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to write metrics: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.emmanuelarhu.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, timers and gauges of the test run, rendered in the OpenMetrics
+ * text format for a Prometheus-compatible scraper.
+ *
+ * Each metric is a family with fixed label names; every distinct set of
+ * label values is its own series. Recording is a {@link LongAdder} update,
+ * so any number of threads can record without contending on a lock.
+ * Registering the same name again returns the existing family.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry SUITE = new MetricsRegistry();
+
+    /**
+     * Upper bounds of the request timer buckets, in seconds
+     */
+    public static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * Metrics of the API suite, filled by {@code BaseTest}'s {@link MetricsFilter}
+     */
+    public static MetricsRegistry suite() {
+        return SUITE;
+    }
+
+    public Counter counter(String name, String help, String unit, String... labelNames) {
+        return (Counter) families.computeIfAbsent(name, key -> new Counter(name, help, unit, labelNames));
+    }
+
+    public Timer timer(String name, String help, double[] bucketSeconds, String... labelNames) {
+        return (Timer) families.computeIfAbsent(name, key -> new Timer(name, help, bucketSeconds, labelNames));
+    }
+
+    /**
+     * Register a gauge read when the registry is rendered; a later registration under the same name replaces it
+     */
+    public void gauge(String name, String help, LongSupplier value) {
+        families.put(name, new Gauge(name, help, value));
+    }
+
+    /**
+     * The whole registry in the OpenMetrics text format, terminated by {@code # EOF}
+     */
+    public String toOpenMetrics() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : families.values()) {
+            family.write(out);
+        }
+        return out.append("# EOF\n").toString();
+    }
+
+    /**
+     * Common metadata of a metric family
+     */
+    private abstract static class Family {
+
+        final String name;
+        final String help;
+        final String unit;
+        final String[] labelNames;
+
+        Family(String name, String help, String unit, String[] labelNames) {
+            this.name = name;
+            this.help = help;
+            this.unit = unit;
+            this.labelNames = labelNames;
+        }
+
+        abstract String type();
+
+        abstract void writeSamples(StringBuilder out);
+
+        final void write(StringBuilder out) {
+            out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+            if (unit != null) {
+                out.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+            }
+            out.append("# HELP ").append(name).append(' ').append(escape(help, false)).append('\n');
+            writeSamples(out);
+        }
+
+        List<String> key(String[] labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " expects labels " + Arrays.toString(labelNames)
+                        + ", got " + Arrays.toString(labelValues));
+            }
+            return List.of(labelValues);
+        }
+
+        /**
+         * {@code {a="1",b="2"}} for a series, with an optional extra label (a bucket's le); empty without labels
+         */
+        void labels(StringBuilder out, List<String> values, String extraName, String extraValue) {
+            if (values.isEmpty() && extraName == null) {
+                return;
+            }
+            out.append('{');
+            for (int i = 0; i < values.size(); i++) {
+                out.append(i == 0 ? "" : ",").append(labelNames[i]).append("=\"").append(escape(values.get(i), true))
+                        .append('"');
+            }
+            if (extraName != null) {
+                out.append(values.isEmpty() ? "" : ",").append(extraName).append("=\"").append(extraValue).append('"');
+            }
+            out.append('}');
+        }
+    }
+
+    /**
+     * Monotonic count per series, exposed as {@code <name>_total}
+     */
+    public static final class Counter extends Family {
+
+        private final Map<List<String>, LongAdder> series = new ConcurrentHashMap<>();
+
+        private Counter(String name, String help, String unit, String[] labelNames) {
+            super(name, help, unit, labelNames);
+        }
+
+        public void inc(String... labelValues) {
+            add(1, labelValues);
+        }
+
+        public void add(long amount, String... labelValues) {
+            series.computeIfAbsent(key(labelValues), key -> new LongAdder()).add(amount);
+        }
+
+        @Override
+        String type() {
+            return "counter";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            for (Map.Entry<List<String>, LongAdder> entry : sorted(series).entrySet()) {
+                out.append(name).append("_total");
+                labels(out, entry.getKey(), null, null);
+                out.append(' ').append(entry.getValue().sum()).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Histogram of durations in seconds with fixed buckets, recorded in nanoseconds
+     */
+    public static final class Timer extends Family {
+
+        private final double[] bucketSeconds;
+        private final long[] bucketNanos;
+        private final Map<List<String>, Buckets> series = new ConcurrentHashMap<>();
+
+        private final class Buckets {
+            private final LongAdder[] counts = new LongAdder[bucketNanos.length + 1];
+            private final LongAdder sumNanos = new LongAdder();
+
+            private Buckets() {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = new LongAdder();
+                }
+            }
+        }
+
+        private Timer(String name, String help, double[] bucketSeconds, String[] labelNames) {
+            super(name, help, "seconds", labelNames);
+            this.bucketSeconds = bucketSeconds.clone();
+            this.bucketNanos = new long[bucketSeconds.length];
+            for (int i = 0; i < bucketSeconds.length; i++) {
+                bucketNanos[i] = (long) (bucketSeconds[i] * 1e9);
+            }
+        }
+
+        public void record(long nanos, String... labelValues) {
+            Buckets buckets = series.computeIfAbsent(key(labelValues), key -> new Buckets());
+            int bucket = 0;
+            while (bucket < bucketNanos.length && nanos > bucketNanos[bucket]) {
+                bucket++;
+            }
+            buckets.counts[bucket].increment();
+            buckets.sumNanos.add(nanos);
+        }
+
+        @Override
+        String type() {
+            return "histogram";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            for (Map.Entry<List<String>, Buckets> entry : sorted(series).entrySet()) {
+                long cumulative = 0;
+                for (int i = 0; i <= bucketNanos.length; i++) {
+                    cumulative += entry.getValue().counts[i].sum();
+                    out.append(name).append("_bucket");
+                    labels(out, entry.getKey(), "le", i < bucketNanos.length ? Double.toString(bucketSeconds[i]) : "+Inf");
+                    out.append(' ').append(cumulative).append('\n');
+                }
+                out.append(name).append("_count");
+                labels(out, entry.getKey(), null, null);
+                out.append(' ').append(cumulative).append('\n');
+                out.append(name).append("_sum");
+                labels(out, entry.getKey(), null, null);
+                out.append(' ').append(entry.getValue().sumNanos.sum() / 1e9).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Current value read on every render
+     */
+    private static final class Gauge extends Family {
+
+        private final LongSupplier value;
+
+        private Gauge(String name, String help, LongSupplier value) {
+            super(name, help, null, new String[0]);
+            this.value = value;
+        }
+
+        @Override
+        String type() {
+            return "gauge";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            out.append(name).append(' ').append(value.getAsLong()).append('\n');
+        }
+    }
+
+    private static <V> Map<List<String>, V> sorted(Map<List<String>, V> series) {
+        Map<List<String>, V> sorted = new TreeMap<>((a, b) -> String.join("\u0000", a).compareTo(String.join("\u0000", b)));
+        sorted.putAll(series);
+        return sorted;
+    }
+
+    /**
+     * Escape backslashes and newlines, and double quotes inside label values
+     */
+    private static String escape(String text, boolean quoted) {
+        String escaped = text.replace("\\", "\\\\").replace("\n", "\\n");
+        return quoted ? escaped.replace("\"", "\\\"") : escaped;
+    }
+}
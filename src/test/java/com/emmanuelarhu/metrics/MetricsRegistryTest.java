@@ -0,0 +1,107 @@
+package com.emmanuelarhu.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+/**
+ * OpenMetrics text rendered by {@link MetricsRegistry}
+ *
+ * @author Emmanuel Arhu
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void testCounterSeriesAreSortedAndEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Counter requests = registry.counter("api_requests", "Requests\nsent", null, "method", "path");
+        requests.inc("POST", "/posts");
+        requests.add(3, "GET", "/posts");
+        requests.inc("GET", "/say \"hi\"\\");
+
+        assertEquals(registry.toOpenMetrics(), """
+                # TYPE api_requests counter
+                # HELP api_requests Requests\\nsent
+                api_requests_total{method="GET",path="/posts"} 3
+                api_requests_total{method="GET",path="/say \\"hi\\"\\\\"} 1
+                api_requests_total{method="POST",path="/posts"} 1
+                # EOF
+                """);
+    }
+
+    @Test
+    public void testTimerBucketsAreCumulative() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Timer timer = registry.timer("api_request_duration", "Request time", new double[]{0.01, 0.1},
+                "method");
+        timer.record(5_000_000, "GET");
+        timer.record(10_000_000, "GET");   // on the bound: le is inclusive
+        timer.record(50_000_000, "GET");
+        timer.record(2_000_000_000, "GET");
+
+        assertEquals(registry.toOpenMetrics(), """
+                # TYPE api_request_duration histogram
+                # UNIT api_request_duration seconds
+                # HELP api_request_duration Request time
+                api_request_duration_bucket{method="GET",le="0.01"} 2
+                api_request_duration_bucket{method="GET",le="0.1"} 3
+                api_request_duration_bucket{method="GET",le="+Inf"} 4
+                api_request_duration_count{method="GET"} 4
+                api_request_duration_sum{method="GET"} 2.065
+                # EOF
+                """);
+    }
+
+    @Test
+    public void testGaugeIsReadOnRenderAndFamiliesAreOrdered() {
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicLong open = new AtomicLong(2);
+        registry.gauge("z_connections_open", "Open connections", open::get);
+        registry.counter("a_retries", "Retries", null).inc();
+        open.set(7);
+
+        assertEquals(registry.toOpenMetrics(), """
+                # TYPE a_retries counter
+                # HELP a_retries Retries
+                a_retries_total 1
+                # TYPE z_connections_open gauge
+                # HELP z_connections_open Open connections
+                z_connections_open 7
+                # EOF
+                """);
+    }
+
+    @Test
+    public void testRegisteringAgainReturnsTheSameFamily() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("api_retries", "Retries", null, "endpoint"),
+                registry.counter("api_retries", "Retries", null, "endpoint"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWrongLabelCountIsRejected() {
+        new MetricsRegistry().counter("api_retries", "Retries", null, "endpoint").inc("GET", "/posts");
+    }
+
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Counter counter = registry.counter("hits", "Hits", null, "worker");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < 100; task++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        counter.inc(String.valueOf(i % 2));
+                    }
+                });
+            }
+        }
+
+        assertTrue(registry.toOpenMetrics().contains("hits_total{worker=\"0\"} 50000\nhits_total{worker=\"1\"} 50000\n"));
+    }
+}
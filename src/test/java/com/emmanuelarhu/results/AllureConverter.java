@@ -0,0 +1,149 @@
+package com.emmanuelarhu.results;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Turns a {@link ResultLog} into Allure 2 result files, for runs that left
+ * the Allure listener out ({@code -Pvolume}). Only the statuses in
+ * {@code -Dresults.allure.statuses} (default all) are converted; the index
+ * is read first, so a failures-only report never parses passing records.
+ * {@code categories.json} is copied along so the report groups failures.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.emmanuelarhu.results.AllureConverter -Dresults.allure.statuses=FAIL,SKIP
+ * mvn allure:serve
+ * </pre>
+ *
+ * @author Emmanuel Arhu
+ */
+public final class AllureConverter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private AllureConverter() {}
+
+    /**
+     * Write one {@code <uuid>-result.json} per record with a wanted status; returns how many were written
+     */
+    public static long convert(ResultLog log, Set<ResultRecord.Status> statuses, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long written = 0;
+        for (long n = 0; n < log.size(); n++) {
+            if (statuses.contains(log.status(n))) {
+                write(log.get(n), directory);
+                written++;
+            }
+        }
+        try (InputStream categories = AllureConverter.class.getResourceAsStream("/categories.json")) {
+            if (categories != null) {
+                Files.copy(categories, directory.resolve("categories.json"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return written;
+    }
+
+    private static void write(ResultRecord record, Path directory) throws IOException {
+        String uuid = UUID.randomUUID().toString();
+        String fullName = record.className() + "." + record.method();
+        String packageName = record.className().contains(".")
+                ? record.className().substring(0, record.className().lastIndexOf('.')) : "";
+        String simpleClass = record.className().substring(record.className().lastIndexOf('.') + 1);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(uuid + "-result.json"));
+             JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("uuid", uuid);
+            json.writeStringField("historyId", id(fullName + (record.parameters() != null ? record.parameters() : "")));
+            json.writeStringField("testCaseId", id(fullName));
+            json.writeStringField("fullName", fullName);
+            json.writeStringField("name", record.method());
+            json.writeStringField("status", status(record));
+            if (record.failureType() != null) {
+                json.writeObjectFieldStart("statusDetails");
+                json.writeStringField("message", record.failureMessage() != null
+                        ? record.failureMessage() : record.failureType());
+                json.writeStringField("trace", record.failureTrace());
+                json.writeEndObject();
+            }
+            json.writeStringField("stage", "finished");
+            json.writeNumberField("start", record.startMillis());
+            json.writeNumberField("stop", record.startMillis() + record.durationMillis());
+            json.writeArrayFieldStart("labels");
+            label(json, "suite", simpleClass);
+            label(json, "testClass", record.className());
+            label(json, "testMethod", record.method());
+            label(json, "package", packageName);
+            label(json, "thread", record.thread());
+            label(json, "framework", "testng");
+            label(json, "language", "java");
+            json.writeEndArray();
+            json.writeArrayFieldStart("parameters");
+            if (record.parameters() != null) {
+                json.writeStartObject();
+                json.writeStringField("name", "arguments");
+                json.writeStringField("value", record.parameters());
+                json.writeEndObject();
+            }
+            if (record.traceId() != null) {
+                json.writeStartObject();
+                json.writeStringField("name", "traceId");
+                json.writeStringField("value", record.traceId());
+                json.writeBooleanField("excluded", true);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Allure status the way AllureTestNg reports it: assertion failures are failed, other exceptions broken
+     */
+    private static String status(ResultRecord record) {
+        return switch (record.status()) {
+            case PASS -> "passed";
+            case SKIP -> "skipped";
+            case FAIL -> record.failureType() != null && record.failureType().endsWith("AssertionError")
+                    ? "failed" : "broken";
+        };
+    }
+
+    private static void label(JsonGenerator json, String name, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", name);
+        json.writeStringField("value", value);
+        json.writeEndObject();
+    }
+
+    private static String id(String text) {
+        return UUID.nameUUIDFromBytes(text.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(TestConfig.get("results.dir", "target/results"));
+        Path allureResults = Path.of(TestConfig.get("allure.results.directory", "target/allure-results"));
+        Set<ResultRecord.Status> statuses = EnumSet.noneOf(ResultRecord.Status.class);
+        Arrays.stream(TestConfig.get("results.allure.statuses", "PASS,FAIL,SKIP").split(","))
+                .map(String::trim)
+                .filter(status -> !status.isEmpty())
+                .forEach(status -> statuses.add(ResultRecord.Status.valueOf(status.toUpperCase())));
+        try (ResultLog log = ResultLog.open(directory)) {
+            long written = convert(log, statuses, allureResults);
+            AsyncLog.info("📁 Wrote " + written + " of " + log.size() + " results to " + allureResults);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.emmanuelarhu.results;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The failure categories of {@code categories.json}, matched the way the
+ * Allure report matches them: a category applies to a failed or broken
+ * result when its message regex matches the whole failure message and its
+ * trace regex the whole stack trace, an absent regex matching anything.
+ * A result is counted under the first category that applies.
+ *
+ * @author Emmanuel Arhu
+ */
+final class FailureCategories {
+
+    static final String UNCATEGORIZED = "Uncategorized";
+
+    private record Category(String name, Pattern message, Pattern trace) {}
+
+    private final List<Category> categories;
+
+    private FailureCategories(List<Category> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Categories from {@code categories.json} on the test classpath; none when it is missing
+     */
+    static FailureCategories load() {
+        List<Category> categories = new ArrayList<>();
+        try (InputStream in = FailureCategories.class.getResourceAsStream("/categories.json")) {
+            if (in != null) {
+                for (JsonNode category : new ObjectMapper().readTree(in)) {
+                    categories.add(new Category(category.path("name").asText(), pattern(category, "messageRegex"),
+                            pattern(category, "traceRegex")));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read categories.json", e);
+        }
+        return new FailureCategories(categories);
+    }
+
+    private static Pattern pattern(JsonNode category, String field) {
+        return category.hasNonNull(field) ? Pattern.compile(category.get(field).asText(), Pattern.DOTALL) : null;
+    }
+
+    /**
+     * Category of a failed or skipped-with-cause record
+     */
+    String categorize(ResultRecord record) {
+        for (Category category : categories) {
+            if (matches(category.message(), record.failureMessage()) && matches(category.trace(), record.failureTrace())) {
+                return category.name();
+            }
+        }
+        return UNCATEGORIZED;
+    }
+
+    private static boolean matches(Pattern pattern, String text) {
+        return pattern == null || text != null && pattern.matcher(text).matches();
+    }
+}
@@ -0,0 +1,274 @@
+package com.emmanuelarhu.results;
+
+import com.emmanuelarhu.logging.AsyncLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of test results, written as tests finish instead of as
+ * one file per test. Two files in one directory:
+ * <ul>
+ *   <li>{@code results.ndjson}: one {@link ResultRecord} JSON object per line</li>
+ *   <li>{@code results.idx}: an 8 byte magic followed by one 16 byte entry
+ *       per record (line offset, line length, status byte, 3 reserved), so
+ *       record n or all failures can be read without scanning the log</li>
+ * </ul>
+ * The log line is written before its index entry; an index cut short by a
+ * crash is rebuilt from the log on open.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class ResultLog implements Closeable {
+
+    public static final String DATA_FILE = "results.ndjson";
+    public static final String INDEX_FILE = "results.idx";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final long MAGIC = 0x5245534958303031L; // "RESIX001"
+    private static final int HEADER_BYTES = 8;
+    private static final int ENTRY_BYTES = 16;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final boolean writable;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+    private long end;
+    private long size;
+
+    private ResultLog(FileChannel data, FileChannel index, boolean writable) throws IOException {
+        this.data = data;
+        this.index = index;
+        this.writable = writable;
+        this.end = data.size();
+        this.size = (index.size() - HEADER_BYTES) / ENTRY_BYTES;
+    }
+
+    /**
+     * Start an empty log in a directory, replacing the log and index a previous run left there
+     */
+    public static ResultLog create(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeFully(index, ByteBuffer.allocate(HEADER_BYTES).putLong(0, MAGIC), 0);
+        return new ResultLog(data, index, true);
+    }
+
+    /**
+     * Open an existing log read-only, rebuilding its index into a temporary file when it is missing or short
+     */
+    public static ResultLog open(Path directory) throws IOException {
+        Path dataFile = directory.resolve(DATA_FILE);
+        if (!Files.exists(dataFile)) {
+            throw new IllegalStateException("No results log at " + dataFile);
+        }
+        FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ);
+        Path indexFile = directory.resolve(INDEX_FILE);
+        FileChannel index = Files.exists(indexFile) ? FileChannel.open(indexFile, StandardOpenOption.READ) : null;
+        if (index == null || !isComplete(index, data.size())) {
+            if (index != null) {
+                index.close();
+            }
+            AsyncLog.warn("⚠️ Rebuilding the results index from " + dataFile);
+            index = rebuildIndex(data, indexFile);
+        }
+        return new ResultLog(data, index, false);
+    }
+
+    /**
+     * Append a record as one line and index it
+     */
+    public synchronized void append(ResultRecord record) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("Results log is open read-only");
+        }
+        line.reset();
+        try (JsonGenerator json = JSON.createGenerator(line)) {
+            record.write(json);
+        }
+        line.write('\n');
+        long offset = end;
+        end += writeFully(data, ByteBuffer.wrap(line.toByteArray()), offset);
+        writeFully(index, entry(offset, line.size(), record.status()), HEADER_BYTES + size * ENTRY_BYTES);
+        size++;
+    }
+
+    /**
+     * Number of records
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    public ResultRecord.Status status(long n) throws IOException {
+        return ResultRecord.Status.fromCode(readEntry(n).get(12));
+    }
+
+    /**
+     * Record n, read straight from its offset
+     */
+    public ResultRecord get(long n) throws IOException {
+        ByteBuffer entry = readEntry(n);
+        ByteBuffer bytes = ByteBuffer.allocate(entry.getInt(8));
+        long offset = entry.getLong(0);
+        while (bytes.hasRemaining()) {
+            if (data.read(bytes, offset + bytes.position()) < 0) {
+                throw new IOException("Results log ends inside record " + n);
+            }
+        }
+        try (JsonParser json = JSON.createParser(bytes.array())) {
+            json.nextToken();
+            return ResultRecord.read(json);
+        }
+    }
+
+    /**
+     * Stream every record of a log file in order in one pass, without its index, up to its last complete line
+     */
+    public static long forEach(Path dataFile, Consumer<ResultRecord> consumer) throws IOException {
+        long complete;
+        try (FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            complete = completeLength(data);
+        }
+        long count = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(dataFile), 64 * 1024);
+             JsonParser json = JSON.createParser(in)) {
+            // a line a crash cut short starts at or after the last newline
+            while (json.nextToken() == JsonToken.START_OBJECT
+                    && json.currentTokenLocation().getByteOffset() < complete) {
+                consumer.accept(ResultRecord.read(json));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+        index.close();
+    }
+
+    private synchronized ByteBuffer readEntry(long n) throws IOException {
+        if (n < 0 || n >= size) {
+            throw new IndexOutOfBoundsException("Record " + n + " of " + size);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+        long position = HEADER_BYTES + n * ENTRY_BYTES;
+        while (entry.hasRemaining()) {
+            if (index.read(entry, position + entry.position()) < 0) {
+                throw new IOException("Results index ends inside entry " + n);
+            }
+        }
+        return entry;
+    }
+
+    private static ByteBuffer entry(long offset, int length, ResultRecord.Status status) {
+        return ByteBuffer.allocate(ENTRY_BYTES).putLong(0, offset).putInt(8, length).put(12, status.getCode());
+    }
+
+    /**
+     * Whether an index has the magic and its last entry ends where the log does
+     */
+    private static boolean isComplete(FileChannel index, long dataSize) throws IOException {
+        long size = index.size();
+        if (size < HEADER_BYTES || (size - HEADER_BYTES) % ENTRY_BYTES != 0) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        index.read(header, 0);
+        if (header.getLong(0) != MAGIC) {
+            return false;
+        }
+        if (size == HEADER_BYTES) {
+            return dataSize == 0;
+        }
+        ByteBuffer last = ByteBuffer.allocate(ENTRY_BYTES);
+        index.read(last, size - ENTRY_BYTES);
+        return last.getLong(0) + last.getInt(8) == dataSize;
+    }
+
+    /**
+     * Bytes up to and including the log's last newline
+     */
+    private static long completeLength(FileChannel data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long end = data.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (data.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Results log shrank while reading it");
+                }
+            }
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Index every complete line of the log into a temporary file deleted on exit
+     */
+    private static FileChannel rebuildIndex(FileChannel data, Path indexFile) throws IOException {
+        Path rebuilt = Files.createTempFile(indexFile.getFileName().toString(), ".rebuilt");
+        rebuilt.toFile().deleteOnExit();
+        FileChannel index = FileChannel.open(rebuilt, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeFully(index, ByteBuffer.allocate(HEADER_BYTES).putLong(0, MAGIC), 0);
+        long position = HEADER_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        ByteArrayOutputStream current = new ByteArrayOutputStream(1024);
+        long lineStart = 0;
+        long offset = 0;
+        while (data.read(buffer, offset) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                offset++;
+                if (b != '\n') {
+                    current.write(b);
+                    continue;
+                }
+                ResultRecord.Status status;
+                try (JsonParser json = JSON.createParser(current.toByteArray())) {
+                    json.nextToken();
+                    status = ResultRecord.read(json).status();
+                }
+                position += writeFully(index, entry(lineStart, (int) (offset - lineStart), status), position);
+                current.reset();
+                lineStart = offset;
+            }
+            buffer.clear();
+        }
+        return index;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,135 @@
+package com.emmanuelarhu.results;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Reading, index rebuild and torn-tail handling of {@link ResultLog}
+ *
+ * @author Emmanuel Arhu
+ */
+public class ResultLogTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("result-log");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testRecordsReadBackByIndex() throws IOException {
+        write(5);
+
+        try (ResultLog log = ResultLog.open(directory)) {
+            assertEquals(log.size(), 5);
+            assertEquals(log.get(3), record(3));
+            assertEquals(log.status(2), ResultRecord.Status.FAIL);
+            assertEquals(log.status(4), ResultRecord.Status.SKIP);
+        }
+    }
+
+    @Test
+    public void testMissingIndexIsRebuilt() throws IOException {
+        write(5);
+        Files.delete(directory.resolve(ResultLog.INDEX_FILE));
+
+        try (ResultLog log = ResultLog.open(directory)) {
+            assertEquals(log.size(), 5);
+            assertEquals(log.get(4), record(4));
+            assertEquals(log.status(1), ResultRecord.Status.SKIP);
+        }
+    }
+
+    @Test
+    public void testIndexCutShortIsRebuilt() throws IOException {
+        write(5);
+        Path index = directory.resolve(ResultLog.INDEX_FILE);
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 20); // last entry and a half lost
+        }
+
+        try (ResultLog log = ResultLog.open(directory)) {
+            assertEquals(log.size(), 5);
+            assertEquals(log.get(4), record(4));
+        }
+        assertEquals(Files.size(index), 8 + 16 * 3 + 12, "The run's own index is left as it was");
+    }
+
+    @Test
+    public void testTornLastLineIsSkipped() throws IOException {
+        write(5);
+        tear();
+
+        try (ResultLog log = ResultLog.open(directory)) {
+            assertEquals(log.size(), 5);
+            assertEquals(log.get(4), record(4));
+        }
+        List<ResultRecord> streamed = new ArrayList<>();
+        assertEquals(ResultLog.forEach(directory.resolve(ResultLog.DATA_FILE), streamed::add), 5);
+        assertEquals(streamed, List.of(record(0), record(1), record(2), record(3), record(4)));
+        ResultsSummary summary = ResultsSummary.of(directory.resolve(ResultLog.DATA_FILE));
+        assertEquals(summary.getTests(), 5);
+        assertEquals(summary.count(ResultRecord.Status.FAIL), 1);
+    }
+
+    @Test
+    public void testOnlyTornLineIsEmpty() throws IOException {
+        write(0);
+        tear();
+
+        try (ResultLog log = ResultLog.open(directory)) {
+            assertEquals(log.size(), 0);
+        }
+        assertEquals(ResultLog.forEach(directory.resolve(ResultLog.DATA_FILE), record -> fail("Read " + record)), 0);
+    }
+
+    private void write(int records) throws IOException {
+        try (ResultLog log = ResultLog.create(directory)) {
+            for (int i = 0; i < records; i++) {
+                log.append(record(i));
+            }
+        }
+    }
+
+    /**
+     * A crash in the middle of appending: half a line, no index entry
+     */
+    private void tear() throws IOException {
+        Files.writeString(directory.resolve(ResultLog.DATA_FILE), "{\"seq\":5,\"class\":\"com.example.Torn",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static ResultRecord record(int seq) {
+        ResultRecord.Status status = seq == 2 ? ResultRecord.Status.FAIL
+                : seq % 3 == 1 ? ResultRecord.Status.SKIP : ResultRecord.Status.PASS;
+        boolean failed = status == ResultRecord.Status.FAIL;
+        return new ResultRecord(seq, "com.example.SampleTest", "testRow", "[" + seq + "]", status, 1_000L * seq, 40 + seq,
+                "main", seq % 2 == 0 ? "4bf92f3577b34da6a3ce929d0e0e4736" : null,
+                failed ? "java.lang.AssertionError" : null, failed ? "expected [1] but found [2]" : null,
+                failed ? "java.lang.AssertionError: expected [1]\n\tat SampleTest.testRow" : null);
+    }
+}
@@ -0,0 +1,141 @@
+package com.emmanuelarhu.results;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * One finished test invocation as kept in the {@link ResultLog}: a single
+ * JSON object per line, written and read with Jackson's streaming API so
+ * neither side builds a tree.
+ *
+ * @param seq            position in the log, from 0
+ * @param parameters     data-provider arguments, null for a plain test
+ * @param traceId        W3C trace id of the invocation, null when it made no trace
+ * @param failureType    exception class, null unless the test failed or was skipped with a cause
+ * @param failureTrace   stack trace, cut to {@value #MAX_TRACE_CHARS} characters
+ * @author Emmanuel Arhu
+ */
+public record ResultRecord(long seq, String className, String method, String parameters, Status status,
+                         long startMillis, long durationMillis, String thread, String traceId,
+                         String failureType, String failureMessage, String failureTrace) {
+
+    public static final int MAX_TRACE_CHARS = 8192;
+
+    /**
+     * Outcome of the invocation, with the byte the index stores for it
+     */
+    public enum Status {
+        PASS(0), FAIL(1), SKIP(2);
+
+        private final byte code;
+
+        Status(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        public static Status fromCode(byte code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown result status code " + code);
+        }
+    }
+
+    /**
+     * {@code SimpleClass.method}, plus the arguments for a data-provider row
+     */
+    public String displayName() {
+        String simpleClass = className.substring(className.lastIndexOf('.') + 1);
+        return simpleClass + "." + method + (parameters != null ? parameters : "");
+    }
+
+    void write(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("seq", seq);
+        json.writeStringField("class", className);
+        json.writeStringField("method", method);
+        if (parameters != null) {
+            json.writeStringField("parameters", parameters);
+        }
+        json.writeStringField("status", status.name());
+        json.writeNumberField("start", startMillis);
+        json.writeNumberField("durationMs", durationMillis);
+        json.writeStringField("thread", thread);
+        if (traceId != null) {
+            json.writeStringField("traceId", traceId);
+        }
+        if (failureType != null) {
+            json.writeObjectFieldStart("failure");
+            json.writeStringField("type", failureType);
+            json.writeStringField("message", failureMessage);
+            json.writeStringField("trace", failureTrace);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Read the record whose START_OBJECT the parser is on; unknown fields are skipped
+     */
+    static ResultRecord read(JsonParser json) throws IOException {
+        long seq = -1;
+        String className = null;
+        String method = null;
+        String parameters = null;
+        Status status = null;
+        long start = 0;
+        long duration = 0;
+        String thread = null;
+        String traceId = null;
+        String failureType = null;
+        String failureMessage = null;
+        String failureTrace = null;
+        while (json.nextToken() == JsonToken.FIELD_NAME) {
+            String field = json.getCurrentName();
+            JsonToken value = json.nextToken();
+            switch (field) {
+                case "seq" -> seq = json.getLongValue();
+                case "class" -> className = json.getText();
+                case "method" -> method = json.getText();
+                case "parameters" -> parameters = json.getText();
+                case "status" -> status = Status.valueOf(json.getText());
+                case "start" -> start = json.getLongValue();
+                case "durationMs" -> duration = json.getLongValue();
+                case "thread" -> thread = json.getText();
+                case "traceId" -> traceId = json.getText();
+                case "failure" -> {
+                    while (json.nextToken() == JsonToken.FIELD_NAME) {
+                        String failureField = json.getCurrentName();
+                        json.nextToken();
+                        String text = json.currentToken() == JsonToken.VALUE_NULL ? null : json.getText();
+                        switch (failureField) {
+                            case "type" -> failureType = text;
+                            case "message" -> failureMessage = text;
+                            case "trace" -> failureTrace = text;
+                            default -> json.skipChildren();
+                        }
+                    }
+                }
+                default -> {
+                    if (value.isStructStart()) {
+                        json.skipChildren();
+                    }
+                }
+            }
+        }
+        if (className == null || method == null || status == null) {
+            throw new IOException("Incomplete test record " + seq + " at " + json.getCurrentLocation());
+        }
+        return new ResultRecord(seq, className, method, parameters, status, start, duration, thread, traceId,
+                failureType, failureMessage, failureTrace);
+    }
+}
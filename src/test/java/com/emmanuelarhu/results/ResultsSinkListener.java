@@ -0,0 +1,127 @@
+package com.emmanuelarhu.results;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.trace.TraceContext;
+import org.testng.IExecutionListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends every test result to a {@link ResultLog} as soon as TestNG
+ * reports it, so a run's results are one NDJSON file and its index under
+ * {@code -Dresults.dir} (default target/results) rather than one file per
+ * test. At the end of the run the log is summarized in one streaming pass
+ * into {@code summary.json}. {@code -Dresults.enabled=false} turns it off.
+ *
+ * For volume runs {@code -Pvolume} leaves out the Allure listener, and
+ * {@link AllureConverter} turns the log into Allure results afterwards.
+ *
+ * @author Emmanuel Arhu
+ */
+public class ResultsSinkListener implements ITestListener, IExecutionListener {
+
+    private static final boolean ENABLED = TestConfig.getBoolean("results.enabled", true);
+    private static final Path DIRECTORY = Path.of(TestConfig.get("results.dir", "target/results"));
+    private static final int MAX_PARAMETERS_LENGTH = 200;
+
+    private final AtomicLong seq = new AtomicLong();
+    private ResultLog log;
+    private boolean failed;
+
+    @Override
+    public void onExecutionStart() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            log = ResultLog.create(DIRECTORY);
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to create the results log in " + DIRECTORY + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        append(result, ResultRecord.Status.PASS);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        append(result, ResultRecord.Status.FAIL);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        append(result, ResultRecord.Status.SKIP);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        append(result, ResultRecord.Status.FAIL);
+    }
+
+    private void append(ITestResult result, ResultRecord.Status status) {
+        if (log == null) {
+            return;
+        }
+        String parameters = null;
+        if (result.getParameters().length > 0) {
+            parameters = Arrays.toString(result.getParameters());
+            if (parameters.length() > MAX_PARAMETERS_LENGTH) {
+                parameters = parameters.substring(0, MAX_PARAMETERS_LENGTH - 1) + "…";
+            }
+        }
+        Throwable error = result.getThrowable();
+        String trace = null;
+        if (error != null) {
+            StringWriter stackTrace = new StringWriter();
+            error.printStackTrace(new PrintWriter(stackTrace));
+            trace = stackTrace.toString();
+            if (trace.length() > ResultRecord.MAX_TRACE_CHARS) {
+                trace = trace.substring(0, ResultRecord.MAX_TRACE_CHARS);
+            }
+        }
+        long end = result.getEndMillis() > 0 ? result.getEndMillis() : System.currentTimeMillis();
+        Object traceId = result.getAttribute(TraceContext.TRACE_ID_ATTRIBUTE);
+        ResultRecord record = new ResultRecord(seq.getAndIncrement(), result.getTestClass().getRealClass().getName(),
+                result.getMethod().getMethodName(), parameters, status, result.getStartMillis(),
+                Math.max(0, end - result.getStartMillis()), Thread.currentThread().getName(),
+                traceId == null ? null : traceId.toString(), error == null ? null : error.getClass().getName(),
+                error == null ? null : error.getMessage(), trace);
+        try {
+            log.append(record);
+        } catch (IOException e) {
+            synchronized (this) {
+                if (!failed) {
+                    failed = true;
+                    AsyncLog.error("❌ Failed to append to the results log: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+            ResultsSummary summary = ResultsSummary.of(DIRECTORY.resolve(ResultLog.DATA_FILE));
+            AsyncLog.report(summary::printReport);
+            summary.write(DIRECTORY.resolve(ResultsSummary.SUMMARY_FILE));
+            AsyncLog.info("📁 Wrote " + summary.getTests() + " results to " + DIRECTORY.resolve(ResultLog.DATA_FILE)
+                    + " and " + ResultsSummary.SUMMARY_FILE);
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to summarize the results log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.emmanuelarhu.results;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Summary of a {@link ResultLog} built in one streaming pass over its
+ * records: counts per status, test and wall-clock time, totals per class,
+ * failures per {@link FailureCategories category} and the slowest tests.
+ * Memory stays flat however many data-provider rows the log holds.
+ *
+ * Written at the end of every run by {@link ResultsSinkListener}, or on its
+ * own for an existing log:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.emmanuelarhu.results.ResultsSummary -Dresults.dir=target/results
+ * </pre>
+ *
+ * @author Emmanuel Arhu
+ */
+public final class ResultsSummary {
+
+    public static final String SUMMARY_FILE = "summary.json";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int SLOWEST = 10;
+
+    private final FailureCategories categories = FailureCategories.load();
+    private final long[] byStatus = new long[ResultRecord.Status.values().length];
+    private final Map<String, long[]> byClass = new TreeMap<>();
+    private final Map<String, Long> byCategory = new TreeMap<>();
+    private final PriorityQueue<ResultRecord> slowest = new PriorityQueue<>(
+            Comparator.comparingLong(ResultRecord::durationMillis));
+    private long tests;
+    private long testMillis;
+    private long firstStart = Long.MAX_VALUE;
+    private long lastEnd = Long.MIN_VALUE;
+
+    private ResultsSummary() {}
+
+    /**
+     * Summarize a log file in one pass
+     */
+    public static ResultsSummary of(Path dataFile) throws IOException {
+        ResultsSummary summary = new ResultsSummary();
+        ResultLog.forEach(dataFile, summary::add);
+        return summary;
+    }
+
+    private void add(ResultRecord record) {
+        tests++;
+        byStatus[record.status().ordinal()]++;
+        testMillis += record.durationMillis();
+        firstStart = Math.min(firstStart, record.startMillis());
+        lastEnd = Math.max(lastEnd, record.startMillis() + record.durationMillis());
+
+        String simpleClass = record.className().substring(record.className().lastIndexOf('.') + 1);
+        long[] totals = byClass.computeIfAbsent(simpleClass, key -> new long[5]);
+        totals[0]++;
+        totals[1 + record.status().ordinal()]++;
+        totals[4] += record.durationMillis();
+        if (record.status() == ResultRecord.Status.FAIL) {
+            byCategory.merge(categories.categorize(record), 1L, Long::sum);
+        }
+        slowest.add(record);
+        if (slowest.size() > SLOWEST) {
+            slowest.poll();
+        }
+    }
+
+    public long getTests() {
+        return tests;
+    }
+
+    public long count(ResultRecord.Status status) {
+        return byStatus[status.ordinal()];
+    }
+
+    private long wallClockMillis() {
+        return tests == 0 ? 0 : lastEnd - firstStart;
+    }
+
+    private List<ResultRecord> slowestFirst() {
+        List<ResultRecord> records = new ArrayList<>(slowest);
+        records.sort(Comparator.comparingLong(ResultRecord::durationMillis).reversed());
+        return records;
+    }
+
+    public void printReport(PrintStream out) {
+        out.printf("📋 Results: %d tests, %d passed, %d failed, %d skipped; %.1fs of test time over %.1fs%n", tests,
+                count(ResultRecord.Status.PASS), count(ResultRecord.Status.FAIL), count(ResultRecord.Status.SKIP),
+                testMillis / 1e3, wallClockMillis() / 1e3);
+        if (!byCategory.isEmpty()) {
+            out.println("Failures by category:");
+            byCategory.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(entry -> out.printf("  %-40s %6d%n", entry.getKey(), entry.getValue()));
+        }
+        out.println("Slowest tests:");
+        for (ResultRecord record : slowestFirst()) {
+            out.printf("  %-70s %8d ms %s%n", shorten(record.displayName()), record.durationMillis(), record.status());
+        }
+    }
+
+    /**
+     * Write the summary as JSON
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator json = JSON.createGenerator(out).useDefaultPrettyPrinter()) {
+            json.writeStartObject();
+            json.writeNumberField("tests", tests);
+            json.writeNumberField("passed", count(ResultRecord.Status.PASS));
+            json.writeNumberField("failed", count(ResultRecord.Status.FAIL));
+            json.writeNumberField("skipped", count(ResultRecord.Status.SKIP));
+            json.writeNumberField("testTimeMs", testMillis);
+            json.writeNumberField("wallClockMs", wallClockMillis());
+            json.writeObjectFieldStart("classes");
+            for (Map.Entry<String, long[]> entry : byClass.entrySet()) {
+                long[] totals = entry.getValue();
+                json.writeObjectFieldStart(entry.getKey());
+                json.writeNumberField("tests", totals[0]);
+                json.writeNumberField("passed", totals[1]);
+                json.writeNumberField("failed", totals[2]);
+                json.writeNumberField("skipped", totals[3]);
+                json.writeNumberField("testTimeMs", totals[4]);
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeObjectFieldStart("failureCategories");
+            for (Map.Entry<String, Long> entry : byCategory.entrySet()) {
+                json.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            json.writeEndObject();
+            json.writeArrayFieldStart("slowest");
+            for (ResultRecord record : slowestFirst()) {
+                json.writeStartObject();
+                json.writeNumberField("seq", record.seq());
+                json.writeStringField("name", record.displayName());
+                json.writeStringField("status", record.status().name());
+                json.writeNumberField("durationMs", record.durationMillis());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static String shorten(String name) {
+        return name.length() > 70 ? name.substring(0, 69) + "…" : name;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(TestConfig.get("results.dir", "target/results"));
+        ResultsSummary summary = of(directory.resolve(ResultLog.DATA_FILE));
+        summary.printReport(System.out);
+        summary.write(directory.resolve(SUMMARY_FILE));
+        System.out.println("📁 Wrote " + directory.resolve(SUMMARY_FILE));
+    }
+}
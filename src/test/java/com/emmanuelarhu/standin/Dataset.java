@@ -0,0 +1,93 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented, read-only stand-in dataset.
+ *
+ * Only what cannot be derived is stored: one {@code int[]} foreign-key
+ * column per child resource and a bitmap for {@code todos.completed}.
+ * Ids are implicit (row index + 1) and text fields are regenerated on
+ * demand by {@link EntityJson}, so 1M photos take about 4 MB.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class Dataset {
+
+    private final DatasetCounts counts;
+    private final long seed;
+    private final int[][] parentIds;
+    private final long[] completedBits;
+
+    Dataset(DatasetCounts counts, long seed, int[][] parentIds, long[] completedBits) {
+        this.counts = counts;
+        this.seed = seed;
+        this.parentIds = parentIds;
+        this.completedBits = completedBits;
+    }
+
+    public DatasetCounts getCounts() {
+        return counts;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int count(Resource resource) {
+        return resource.count(counts);
+    }
+
+    public boolean exists(Resource resource, int id) {
+        return id >= 1 && id <= count(resource);
+    }
+
+    /**
+     * Foreign key of a row, e.g. the albumId of a photo
+     */
+    public int parentId(Resource resource, int id) {
+        return parentIds[resource.ordinal()][id - 1];
+    }
+
+    public boolean isCompleted(int todoId) {
+        int bit = todoId - 1;
+        return (completedBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Raw foreign-key column (row index = id - 1), null for users
+     */
+    int[] parentColumn(Resource resource) {
+        return parentIds[resource.ordinal()];
+    }
+
+    long[] completedBitmap() {
+        return completedBits;
+    }
+
+    /**
+     * Identity of the generated content: sizes, seed and every stored column
+     */
+    public long fingerprint() {
+        long hash = seed;
+        for (Resource resource : Resource.values()) {
+            hash = hash * 31 + count(resource);
+            int[] column = parentIds[resource.ordinal()];
+            hash = hash * 31 + (column == null ? 0 : Arrays.hashCode(column));
+        }
+        return hash * 31 + Arrays.hashCode(completedBits);
+    }
+
+    /**
+     * Approximate heap used by the stored columns
+     */
+    public long storedBytes() {
+        long bytes = (long) completedBits.length * Long.BYTES;
+        for (int[] column : parentIds) {
+            bytes += column == null ? 0 : (long) column.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds a stand-in {@link Dataset} of any size with valid foreign keys.
+ *
+ * Children are spread evenly over their parents exactly like JSONPlaceholder
+ * (10 posts per user, 5 comments per post, 50 photos per album, ...), so at
+ * scale 1 {@code /posts/1/comments} and friends look the same as the real API.
+ * With {@code shuffle} the same assignments are permuted, so filtered rows are
+ * scattered across the table instead of forming contiguous id ranges.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class DatasetGenerator {
+
+    private DatasetGenerator() {}
+
+    /**
+     * Generate a dataset for the counts configured for this run
+     */
+    public static Dataset generate() {
+        return generate(DatasetCounts.current(), 42L, Boolean.getBoolean("dataset.shuffle"));
+    }
+
+    public static Dataset generate(DatasetCounts counts, long seed, boolean shuffle) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] parentIds = new int[Resource.values().length][];
+        for (Resource resource : Resource.values()) {
+            if (resource.getParent() != null) {
+                parentIds[resource.ordinal()] = assignParents(
+                        resource.count(counts), resource.getParent().count(counts), shuffle ? random.split() : null);
+            }
+        }
+
+        int todos = counts.getTodos();
+        long[] completed = new long[(todos + 63) >>> 6];
+        SplittableRandom completion = random.split();
+        for (int bit = 0; bit < todos; bit++) {
+            if (completion.nextInt(100) < 45) { // JSONPlaceholder has ~45% of todos completed
+                completed[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new Dataset(counts, seed, parentIds, completed);
+    }
+
+    /**
+     * Even split of children over parents; every parent gets at least one child when children >= parents
+     */
+    private static int[] assignParents(int children, int parents, SplittableRandom shuffle) {
+        int[] column = new int[children];
+        for (int i = 0; i < children; i++) {
+            column[i] = (int) ((long) i * parents / children) + 1;
+        }
+        if (shuffle != null) {
+            for (int i = children - 1; i > 0; i--) {
+                int j = shuffle.nextInt(i + 1);
+                int swap = column[i];
+                column[i] = column[j];
+                column[j] = swap;
+            }
+        }
+        return column;
+    }
+}
@@ -0,0 +1,271 @@
+package com.emmanuelarhu.standin;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Secondary inverted indexes over a {@link Dataset}.
+ *
+ * Every foreign key gets one posting-list structure in CSR form: a single
+ * {@code int[]} of row ids grouped by parent and sorted within each group,
+ * plus an {@code int[]} of group offsets. {@code todos.completed} is served
+ * from the dataset's bitmap. Filtered queries therefore cost O(matching rows)
+ * instead of O(table size), and {@code _start} skips inside a posting list
+ * in O(1).
+ *
+ * @author Emmanuel Arhu
+ */
+public final class DatasetIndex {
+
+    private static final PrimitiveIterator.OfInt EMPTY = new RangeIterator(1, 0);
+
+    private final Dataset dataset;
+    private final int[][] offsets = new int[Resource.values().length][];
+    private final int[][] postings = new int[Resource.values().length][];
+
+    private DatasetIndex(Dataset dataset) {
+        this.dataset = dataset;
+    }
+
+    /**
+     * Build all posting lists with one counting-sort pass per foreign key
+     */
+    public static DatasetIndex build(Dataset dataset) {
+        DatasetIndex index = new DatasetIndex(dataset);
+        for (Resource resource : Resource.values()) {
+            int[] column = dataset.parentColumn(resource);
+            if (column == null) {
+                continue;
+            }
+            int parents = dataset.count(resource.getParent());
+            int[] start = new int[parents + 2];
+            for (int parentId : column) {
+                start[parentId + 1]++;
+            }
+            for (int p = 1; p < start.length; p++) {
+                start[p] += start[p - 1];
+            }
+            int[] fill = start.clone();
+            int[] rows = new int[column.length];
+            for (int row = 0; row < column.length; row++) {
+                rows[fill[column[row]]++] = row + 1; // ascending row order keeps each list sorted
+            }
+            index.offsets[resource.ordinal()] = start;
+            index.postings[resource.ordinal()] = rows;
+        }
+        return index;
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    /**
+     * Ids of rows matching a filter in ascending order, after _start and _limit
+     */
+    public PrimitiveIterator.OfInt query(Resource resource, QueryFilter filter) {
+        if (filter.limit == 0) {
+            return EMPTY;
+        }
+        if (filter.id != null) {
+            int id = filter.id;
+            boolean hit = dataset.exists(resource, id) && filter.start == 0 && filter.matches(dataset, resource, id);
+            return hit ? new RangeIterator(id, id) : EMPTY;
+        }
+        if (filter.completed == null) {
+            // Without a residual predicate _start is a plain offset into the candidate list
+            if (filter.parentId != null) {
+                return page(postings(resource, filter.parentId, filter.start), 0, filter.limit);
+            }
+            int count = dataset.count(resource);
+            return filter.start >= count ? EMPTY : page(new RangeIterator(filter.start + 1, count), 0, filter.limit);
+        }
+        PrimitiveIterator.OfInt rows = filter.parentId != null
+                ? new FilteringIterator(postings(resource, filter.parentId, 0), filter.completed)
+                : new BitmapIterator(dataset.completedBitmap(), dataset.count(resource), filter.completed);
+        return page(rows, filter.start, filter.limit);
+    }
+
+    /**
+     * Number of rows pointing at one parent, read straight from the offsets
+     */
+    public int countForParent(Resource resource, int parentId) {
+        int[] start = offsets[resource.ordinal()];
+        if (start == null || parentId < 1 || parentId + 1 >= start.length) {
+            return 0;
+        }
+        return start[parentId + 1] - start[parentId];
+    }
+
+    /**
+     * Approximate heap used by the posting lists
+     */
+    public long indexBytes() {
+        long bytes = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i] != null) {
+                bytes += (long) (offsets[i].length + postings[i].length) * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private PrimitiveIterator.OfInt postings(Resource resource, int parentId, int skip) {
+        int[] start = offsets[resource.ordinal()];
+        if (start == null || parentId < 1 || parentId + 1 >= start.length) {
+            return EMPTY;
+        }
+        int from = (int) Math.min((long) start[parentId] + skip, start[parentId + 1]);
+        return new ArraySliceIterator(postings[resource.ordinal()], from, start[parentId + 1]);
+    }
+
+    /**
+     * Apply _start and _limit to an ascending id stream
+     */
+    static PrimitiveIterator.OfInt page(PrimitiveIterator.OfInt rows, int skip, int limit) {
+        for (int i = 0; i < skip && rows.hasNext(); i++) {
+            rows.nextInt();
+        }
+        if (limit == Integer.MAX_VALUE) {
+            return rows;
+        }
+        return new PrimitiveIterator.OfInt() {
+            private int remaining = limit;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0 && rows.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return rows.nextInt();
+            }
+        };
+    }
+
+    private final class FilteringIterator implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt rows;
+        private final boolean completed;
+        private int next = -1;
+
+        FilteringIterator(PrimitiveIterator.OfInt rows, boolean completed) {
+            this.rows = rows;
+            this.completed = completed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next < 0 && rows.hasNext()) {
+                int candidate = rows.nextInt();
+                if (dataset.isCompleted(candidate) == completed) {
+                    next = candidate;
+                }
+            }
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int row = next;
+            next = -1;
+            return row;
+        }
+    }
+
+    private static final class RangeIterator implements PrimitiveIterator.OfInt {
+        private int next;
+        private final int last;
+
+        RangeIterator(int first, int last) {
+            this.next = first;
+            this.last = last;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next <= last;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next > last) {
+                throw new NoSuchElementException();
+            }
+            return next++;
+        }
+    }
+
+    private static final class ArraySliceIterator implements PrimitiveIterator.OfInt {
+        private final int[] values;
+        private int position;
+        private final int end;
+
+        ArraySliceIterator(int[] values, int from, int to) {
+            this.values = values;
+            this.position = Math.min(from, to);
+            this.end = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        public int nextInt() {
+            if (position >= end) {
+                throw new NoSuchElementException();
+            }
+            return values[position++];
+        }
+    }
+
+    /**
+     * Walks set (or clear) bits of a bitmap a word at a time
+     */
+    private static final class BitmapIterator implements PrimitiveIterator.OfInt {
+        private final long[] bits;
+        private final int size;
+        private final boolean set;
+        private int wordIndex = -1;
+        private long word;
+
+        BitmapIterator(long[] bits, int size, boolean set) {
+            this.bits = bits;
+            this.size = size;
+            this.set = set;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++wordIndex >= bits.length) {
+                    return false;
+                }
+                word = set ? bits[wordIndex] : ~bits[wordIndex];
+                if (wordIndex == bits.length - 1 && (size & 63) != 0) {
+                    word &= (1L << (size & 63)) - 1; // ignore padding bits past the last row
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return (wordIndex << 6) + bit + 1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.testng.Assert.*;
+
+/**
+ * Posting-list queries of {@link DatasetIndex} against a brute-force scan of the same dataset
+ *
+ * @author Emmanuel Arhu
+ */
+public class DatasetIndexTest {
+
+    private Dataset dataset;
+    private DatasetIndex index;
+
+    @BeforeClass
+    public void buildIndex() {
+        dataset = DatasetGenerator.generate(new DatasetCounts(10, 100, 500, 100, 5000, 200), 7L, true);
+        index = DatasetIndex.build(dataset);
+    }
+
+    @DataProvider
+    public Object[][] queries() {
+        return new Object[][]{
+                {Resource.POSTS, null},
+                {Resource.POSTS, "userId=3"},
+                {Resource.COMMENTS, "postId=42&_start=2&_limit=2"},
+                {Resource.PHOTOS, "albumId=100"},
+                {Resource.PHOTOS, "_start=4990"},
+                {Resource.TODOS, "completed=true"},
+                {Resource.TODOS, "completed=false&_start=10&_limit=7"},
+                {Resource.TODOS, "userId=2&completed=true&_start=1"},
+                {Resource.USERS, "id=5"},
+                {Resource.USERS, "id=5&_start=1"},
+                {Resource.USERS, "id=11"},
+                {Resource.POSTS, "userId=0"},
+                {Resource.POSTS, "userId=11"},
+                {Resource.POSTS, "_limit=0"},
+                {Resource.POSTS, "_start=100"},
+                {Resource.POSTS, "_start=2147483647"},
+                {Resource.COMMENTS, "postId=1&_start=2147483647"},
+                {Resource.TODOS, "completed=true&_start=2147483647&_limit=2147483647"},
+        };
+    }
+
+    @Test(dataProvider = "queries")
+    public void testQueryMatchesScan(Resource resource, String query) {
+        QueryFilter filter = QueryFilter.parse(resource, query);
+        assertEquals(ids(index.query(resource, filter)), scan(resource, filter), "Query " + query);
+    }
+
+    @Test
+    public void testCountForParentMatchesScan() {
+        for (int userId = 0; userId <= 11; userId++) {
+            int expected = scan(Resource.POSTS, QueryFilter.parse(Resource.POSTS, "userId=" + userId)).size();
+            assertEquals(index.countForParent(Resource.POSTS, userId), expected, "Posts of user " + userId);
+        }
+    }
+
+    @Test
+    public void testPageSkipsAndLimits() {
+        PrimitiveIterator.OfInt rows = List.of(1, 2, 3, 4, 5).stream().mapToInt(Integer::intValue).iterator();
+        assertEquals(ids(DatasetIndex.page(rows, 1, 2)), List.of(2, 3));
+    }
+
+    private List<Integer> scan(Resource resource, QueryFilter filter) {
+        List<Integer> matches = new ArrayList<>();
+        for (int id = 1; id <= dataset.count(resource); id++) {
+            if (filter.matches(dataset, resource, id)) {
+                matches.add(id);
+            }
+        }
+        int from = (int) Math.min(filter.start, matches.size());
+        int to = (int) Math.min((long) from + filter.limit, matches.size());
+        return matches.subList(from, to);
+    }
+
+    private static List<Integer> ids(PrimitiveIterator.OfInt rows) {
+        List<Integer> ids = new ArrayList<>();
+        rows.forEachRemaining((int id) -> ids.add(id));
+        return ids;
+    }
+}
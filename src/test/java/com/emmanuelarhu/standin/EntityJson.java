@@ -0,0 +1,76 @@
+package com.emmanuelarhu.standin;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Renders dataset rows as JSONPlaceholder-shaped JSON, field order included
+ *
+ * @author Emmanuel Arhu
+ */
+final class EntityJson {
+
+    private static final int TITLE_FIELD = 1;
+    private static final int BODY_FIELD = 2;
+    private static final int EMAIL_FIELD = 3;
+
+    private EntityJson() {}
+
+    /**
+     * Write one row as a JSON object
+     */
+    static void write(JsonGenerator json, Dataset dataset, Resource resource, int id) throws IOException {
+        long seed = dataset.getSeed();
+        json.writeStartObject();
+        switch (resource) {
+            case USERS:
+                String first = LoremText.firstName(id);
+                String last = LoremText.lastName(id);
+                String username = first + (id > 10 ? "." + id : "");
+                json.writeNumberField("id", id);
+                json.writeStringField("name", first + " " + last);
+                json.writeStringField("username", username);
+                json.writeStringField("email", LoremText.email(LoremText.random(seed, resource, id, EMAIL_FIELD), username));
+                json.writeStringField("phone", "1-770-736-" + String.format("%04d", id % 10000));
+                json.writeStringField("website", username.toLowerCase() + ".org");
+                break;
+            case POSTS:
+                json.writeNumberField("userId", dataset.parentId(resource, id));
+                json.writeNumberField("id", id);
+                json.writeStringField("title", LoremText.sentence(LoremText.random(seed, resource, id, TITLE_FIELD), 3, 8));
+                json.writeStringField("body", LoremText.paragraph(LoremText.random(seed, resource, id, BODY_FIELD), 4));
+                break;
+            case COMMENTS:
+                json.writeNumberField("postId", dataset.parentId(resource, id));
+                json.writeNumberField("id", id);
+                json.writeStringField("name", LoremText.sentence(LoremText.random(seed, resource, id, TITLE_FIELD), 3, 7));
+                json.writeStringField("email", LoremText.email(LoremText.random(seed, resource, id, EMAIL_FIELD),
+                        LoremText.firstName(id).toLowerCase() + id));
+                json.writeStringField("body", LoremText.paragraph(LoremText.random(seed, resource, id, BODY_FIELD), 4));
+                break;
+            case ALBUMS:
+                json.writeNumberField("userId", dataset.parentId(resource, id));
+                json.writeNumberField("id", id);
+                json.writeStringField("title", LoremText.sentence(LoremText.random(seed, resource, id, TITLE_FIELD), 2, 6));
+                break;
+            case PHOTOS:
+                SplittableRandom random = LoremText.random(seed, resource, id, TITLE_FIELD);
+                String color = String.format("%06x", random.nextInt(0x1000000));
+                json.writeNumberField("albumId", dataset.parentId(resource, id));
+                json.writeNumberField("id", id);
+                json.writeStringField("title", LoremText.sentence(random, 3, 8));
+                json.writeStringField("url", "https://via.placeholder.com/600/" + color);
+                json.writeStringField("thumbnailUrl", "https://via.placeholder.com/150/" + color);
+                break;
+            case TODOS:
+                json.writeNumberField("userId", dataset.parentId(resource, id));
+                json.writeNumberField("id", id);
+                json.writeStringField("title", LoremText.sentence(LoremText.random(seed, resource, id, TITLE_FIELD), 2, 8));
+                json.writeBooleanField("completed", dataset.isCompleted(id));
+                break;
+        }
+        json.writeEndObject();
+    }
+}
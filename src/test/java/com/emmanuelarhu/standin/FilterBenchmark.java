@@ -0,0 +1,130 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.data.DatasetCounts;
+
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+
+/**
+ * Filtered-query throughput of the stand-in store at growing dataset sizes.
+ *
+ * For each scale it times random {@code ?albumId=}, {@code ?postId=},
+ * {@code ?userId=&completed=} and {@code ?completed=&_limit=} lookups through
+ * {@link DatasetIndex} and through a full {@link QueryFilter#matches} scan.
+ * Index latency should stay flat as rows grow; the scan grows linearly.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.emmanuelarhu.standin.FilterBenchmark -Dbenchmark.scales=20,200,400}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class FilterBenchmark {
+
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    // Keeps the JIT from discarding query results
+    private static volatile long blackhole;
+
+    private FilterBenchmark() {}
+
+    public static void main(String[] args) {
+        String scales = TestConfig.get("benchmark.scales", "20,200,400");
+        boolean shuffle = TestConfig.getBoolean("dataset.shuffle", true);
+        System.out.printf("%-7s %-10s %-32s %14s %14s %10s%n",
+                "scale", "rows", "query", "index ops/s", "scan ops/s", "speedup");
+        for (String scale : scales.split(",")) {
+            DatasetCounts counts = DatasetCounts.current().scaled(Integer.parseInt(scale.trim()));
+            Dataset dataset = DatasetGenerator.generate(counts, 42L, shuffle);
+            long buildStart = System.nanoTime();
+            DatasetIndex index = DatasetIndex.build(dataset);
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+            run(scale, index, Resource.PHOTOS, "albumId", null, Integer.MAX_VALUE);
+            run(scale, index, Resource.COMMENTS, "postId", null, Integer.MAX_VALUE);
+            run(scale, index, Resource.TODOS, "userId", Boolean.TRUE, Integer.MAX_VALUE);
+            run(scale, index, Resource.TODOS, null, Boolean.FALSE, 10);
+            System.out.println("📊 scale " + scale + ": index built in " + buildMillis + " ms, "
+                    + index.indexBytes() / 1024 + " KB over " + dataset.storedBytes() / 1024 + " KB of columns");
+        }
+    }
+
+    private static void run(String scale, DatasetIndex index, Resource resource, String parentField,
+                            Boolean completed, int limit) {
+        Dataset dataset = index.getDataset();
+        int parents = resource.getParent() == null ? 0 : dataset.count(resource.getParent());
+        SplittableRandom random = new SplittableRandom(7);
+        String query = resource.getPath() + "?" + (parentField != null ? parentField + "=N" : "")
+                + (completed != null ? (parentField != null ? "&" : "") + "completed=" + completed : "")
+                + (limit != Integer.MAX_VALUE ? "&_limit=" + limit : "");
+
+        double indexed = measure(() -> {
+            QueryFilter filter = filter(random, parentField, parents, completed, limit);
+            return drain(index.query(resource, filter));
+        });
+        double scanned = measure(() -> {
+            QueryFilter filter = filter(random, parentField, parents, completed, limit);
+            return scan(dataset, resource, filter);
+        });
+        System.out.printf("%-7s %-10d %-32s %,14.0f %,14.0f %9.1fx%n",
+                scale, dataset.count(resource), query, indexed, scanned, indexed / scanned);
+    }
+
+    private static QueryFilter filter(SplittableRandom random, String parentField, int parents,
+                                      Boolean completed, int limit) {
+        QueryFilter filter = new QueryFilter();
+        if (parentField != null) {
+            filter.parentId = random.nextInt(parents) + 1;
+        }
+        filter.completed = completed;
+        filter.limit = limit;
+        return filter;
+    }
+
+    private static int drain(PrimitiveIterator.OfInt rows) {
+        int sum = 0;
+        while (rows.hasNext()) {
+            sum += rows.nextInt();
+        }
+        return sum;
+    }
+
+    // The pre-index StandInServer loop, kept here as the baseline
+    private static int scan(Dataset dataset, Resource resource, QueryFilter filter) {
+        int sum = 0;
+        int written = 0;
+        for (int id = 1, count = dataset.count(resource); id <= count && written < filter.limit; id++) {
+            if (filter.matches(dataset, resource, id)) {
+                sum += id;
+                written++;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Operations per second after a short warm-up
+     */
+    private static double measure(Query query) {
+        long sink = 0;
+        long warmupEnd = System.nanoTime() + MEASURE_NANOS / 4;
+        while (System.nanoTime() < warmupEnd) {
+            sink += query.run();
+        }
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += query.run();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        blackhole = sink;
+        return ops * 1e9 / elapsed;
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        int run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.emmanuelarhu.standin;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic JSONPlaceholder-style filler text.
+ *
+ * Text fields are never stored: each one is regenerated from
+ * (seed, resource, id, field), so a million rows cost no string memory.
+ *
+ * @author Emmanuel Arhu
+ */
+final class LoremText {
+
+    private static final String[] WORDS = {
+            "sunt", "aut", "facere", "repellat", "provident", "occaecati", "excepturi", "optio", "reprehenderit",
+            "quia", "et", "suscipit", "recusandae", "consequuntur", "expedita", "rerum", "tempore", "vitae",
+            "sequi", "sint", "nulla", "pariatur", "dolor", "beatae", "ea", "dolores", "neque", "fugiat",
+            "blanditiis", "voluptate", "porro", "vel", "minima", "molestiae", "ut", "reiciendis", "qui",
+            "aperiam", "non", "debitis", "possimus", "eum", "sed", "doloribus", "accusamus", "odit", "magnam",
+            "voluptas", "quo", "iste", "dicta", "laboriosam", "officia", "tenetur", "natus", "eveniet", "ipsam"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Leanne", "Ervin", "Clementine", "Patricia", "Chelsey", "Dennis", "Kurtis", "Nicholas", "Glenna", "Clementina"
+    };
+    private static final String[] LAST_NAMES = {
+            "Graham", "Howell", "Bauch", "Lebsack", "Dietrich", "Schulist", "Weissnat", "Runolfsdottir", "Reichert", "DuBuque"
+    };
+    private static final String[] DOMAINS = {"april.biz", "melissa.tv", "yesenia.net", "kory.org", "annie.ca", "jasper.info"};
+
+    private LoremText() {}
+
+    static SplittableRandom random(long seed, Resource resource, int id, int field) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + (resource.ordinal() + 1L) * 0xC2B2AE3D27D4EB4FL + id * 31L + field;
+        return new SplittableRandom(mixed);
+    }
+
+    /**
+     * A sentence of minWords..maxWords lowercase words without trailing period
+     */
+    static String sentence(SplittableRandom random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * A few newline-separated sentences, like JSONPlaceholder post bodies
+     */
+    static String paragraph(SplittableRandom random, int lines) {
+        StringBuilder text = new StringBuilder(lines * 70);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append(sentence(random, 8, 12));
+        }
+        return text.toString();
+    }
+
+    static String firstName(int id) {
+        return FIRST_NAMES[(id - 1) % FIRST_NAMES.length];
+    }
+
+    static String lastName(int id) {
+        return LAST_NAMES[((id - 1) / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    static String email(SplittableRandom random, String localPart) {
+        return localPart + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+    }
+}
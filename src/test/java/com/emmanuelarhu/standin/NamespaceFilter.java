@@ -0,0 +1,73 @@
+package com.emmanuelarhu.standin;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * REST Assured filter that tags every request with the calling thread's
+ * stand-in namespace ({@value StandInServer#NAMESPACE_HEADER}), so
+ * parallel workers running mutation tests against a stateful stand-in each
+ * get their own copy-on-write fork of the dataset.
+ *
+ * Platform threads default to {@code worker-<n>}, numbered densely in the
+ * order they first send a request, so a fixed TestNG pool only ever creates
+ * as many namespaces as it has threads. Unpinned virtual threads (one per
+ * arrival in LoadRunner's open model) all share {@value #VIRTUAL_NAMESPACE};
+ * naming them one by one would fork a namespace per request that the store
+ * never drops. Long-lived virtual threads pin their own name with
+ * {@link #use(String)}, as the closed model's virtual users ({@code vu-<n>})
+ * and CRUD chains do; a test can pin a name to share state across threads
+ * on purpose.
+ *
+ * Namespaces only isolate tests running at the same time: tests that run one
+ * after another on the same thread share a namespace and see each other's writes.
+ *
+ * @author Emmanuel Arhu
+ */
+public class NamespaceFilter implements OrderedFilter {
+
+    /**
+     * Namespace shared by every virtual thread that does not pin one, i.e. open-model arrivals
+     */
+    public static final String VIRTUAL_NAMESPACE = "worker-virtual";
+
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+    private static final ThreadLocal<String> NAMESPACE = ThreadLocal.withInitial(
+            () -> Thread.currentThread().isVirtual() ? VIRTUAL_NAMESPACE : "worker-" + WORKERS.getAndIncrement());
+
+    /**
+     * Namespace requests from the current thread go to
+     */
+    public static String current() {
+        return NAMESPACE.get();
+    }
+
+    /**
+     * Send the current thread's requests to a named namespace from now on
+     */
+    public static void use(String namespace) {
+        if (!StatefulStore.isValidNamespace(namespace)) {
+            throw new IllegalArgumentException("Invalid namespace '" + namespace + "'");
+        }
+        NAMESPACE.set(namespace);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!requestSpec.getHeaders().hasHeaderWithName(StandInServer.NAMESPACE_HEADER)) {
+            requestSpec.header(StandInServer.NAMESPACE_HEADER, current());
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE; // before Allure so the header shows up in attachments
+    }
+}
@@ -0,0 +1,57 @@
+package com.emmanuelarhu.standin;
+
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.*;
+
+/**
+ * Default namespaces of {@link NamespaceFilter} stay bounded however many threads send requests
+ *
+ * @author Emmanuel Arhu
+ */
+public class NamespaceFilterTest {
+
+    @Test
+    public void testVirtualThreadsShareOneNamespace() {
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> names.add(NamespaceFilter.current()));
+            }
+        }
+        assertEquals(names, Set.of(NamespaceFilter.VIRTUAL_NAMESPACE));
+    }
+
+    @Test
+    public void testPoolThreadsKeepTheirOwnNamespace() throws Exception {
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 200; i++) {
+                pool.submit(() -> names.add(NamespaceFilter.current())).get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(names.size() <= 4, "One namespace per pool thread, got " + names);
+        names.forEach(name -> assertTrue(StatefulStore.isValidNamespace(name), name));
+    }
+
+    @Test
+    public void testPinnedNamespaceWins() throws Exception {
+        AtomicReference<String> pinned = new AtomicReference<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            NamespaceFilter.use("chain-a");
+            pinned.set(NamespaceFilter.current());
+        });
+        thread.join();
+        assertEquals(pinned.get(), "chain-a");
+        assertNotEquals(NamespaceFilter.current(), "chain-a");
+    }
+}
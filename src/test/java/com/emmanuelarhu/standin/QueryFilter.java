@@ -0,0 +1,104 @@
+package com.emmanuelarhu.standin;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The subset of JSONPlaceholder query parameters the stand-in understands:
+ * {@code id}, the resource's foreign key (e.g. {@code albumId}), {@code completed}
+ * for todos, and {@code _start}/{@code _limit} paging. Other parameters are ignored.
+ * Paging values are clamped to 0..{@link Integer#MAX_VALUE}; a non-numeric one is
+ * rejected before any response is sent.
+ *
+ * @author Emmanuel Arhu
+ */
+final class QueryFilter {
+
+    Integer id;
+    Integer parentId;
+    Boolean completed;
+    int start;
+    int limit = Integer.MAX_VALUE;
+
+    /**
+     * Parse the raw query string of a list request; throws IllegalArgumentException for a non-numeric _start or _limit
+     */
+    static QueryFilter parse(Resource resource, String rawQuery) {
+        QueryFilter filter = new QueryFilter();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return filter;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String name = URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (name.equals("id")) {
+                filter.id = parseIntOrNoMatch(value);
+            } else if (name.equals(resource.getParentField())) {
+                filter.parentId = parseIntOrNoMatch(value);
+            } else if (name.equals("completed") && resource == Resource.TODOS) {
+                filter.completed = Boolean.parseBoolean(value);
+            } else if (name.equals("_start")) {
+                filter.start = parsePaging(name, value);
+            } else if (name.equals("_limit")) {
+                filter.limit = parsePaging(name, value);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Whether a row passes every equality filter (paging is applied by the caller).
+     * {@link DatasetIndex} uses it for id lookups; scanning a table with it is the slow path.
+     */
+    boolean matches(Dataset dataset, Resource resource, int rowId) {
+        return (id == null || id == rowId)
+                && (parentId == null || parentId == dataset.parentId(resource, rowId))
+                && (completed == null || completed == dataset.isCompleted(rowId));
+    }
+
+    /**
+     * Same check against field values held outside the dataset (rows written through a {@link StatefulStore})
+     */
+    boolean matches(int rowId, int rowParentId, boolean rowCompleted) {
+        return (id == null || id == rowId)
+                && (parentId == null || parentId == rowParentId)
+                && (completed == null || completed == rowCompleted);
+    }
+
+    /**
+     * Copy with the equality filters only, for callers that page a merged result themselves
+     */
+    QueryFilter withoutPaging() {
+        QueryFilter copy = new QueryFilter();
+        copy.id = id;
+        copy.parentId = parentId;
+        copy.completed = completed;
+        return copy;
+    }
+
+    private static int parsePaging(String name, String value) {
+        String digits = value.trim();
+        if (!digits.matches("[+-]?\\d+")) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+        if (digits.startsWith("-")) {
+            return 0;
+        }
+        // Too many digits for a long is still just "more than there are rows"
+        return digits.replaceFirst("^\\+?0*", "").length() > 18
+                ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, Long.parseLong(digits));
+    }
+
+    // Non-numeric ids can never match, like JSONPlaceholder returning []
+    private static Integer parseIntOrNoMatch(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.emmanuelarhu.standin;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Query string parsing of the stand-in: filters, paging and the values it has to reject or clamp
+ *
+ * @author Emmanuel Arhu
+ */
+public class QueryFilterTest {
+
+    @Test
+    public void testEmptyQueryMatchesEverything() {
+        QueryFilter filter = QueryFilter.parse(Resource.POSTS, null);
+        assertNull(filter.id);
+        assertNull(filter.parentId);
+        assertNull(filter.completed);
+        assertEquals(filter.start, 0);
+        assertEquals(filter.limit, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testFiltersAndPaging() {
+        QueryFilter filter = QueryFilter.parse(Resource.TODOS, "userId=3&completed=true&_start=5&_limit=10&foo=bar");
+        assertEquals(filter.parentId, Integer.valueOf(3));
+        assertEquals(filter.completed, Boolean.TRUE);
+        assertEquals(filter.start, 5);
+        assertEquals(filter.limit, 10);
+    }
+
+    @Test
+    public void testForeignKeyOfAnotherResourceIsIgnored() {
+        assertNull(QueryFilter.parse(Resource.PHOTOS, "postId=1").parentId);
+        assertNull(QueryFilter.parse(Resource.POSTS, "completed=true").completed);
+    }
+
+    @Test
+    public void testNonNumericIdNeverMatches() {
+        QueryFilter filter = QueryFilter.parse(Resource.POSTS, "id=abc");
+        assertEquals(filter.id, Integer.valueOf(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testUrlEncodedNamesAndValues() {
+        assertEquals(QueryFilter.parse(Resource.COMMENTS, "post%49d=%207").parentId, Integer.valueOf(7));
+    }
+
+    @Test
+    public void testNegativePagingClampsToZero() {
+        QueryFilter filter = QueryFilter.parse(Resource.POSTS, "_start=-4&_limit=-1");
+        assertEquals(filter.start, 0);
+        assertEquals(filter.limit, 0);
+    }
+
+    @Test
+    public void testOversizedPagingClampsToIntRange() {
+        QueryFilter filter = QueryFilter.parse(Resource.POSTS, "_start=2147483648&_limit=99999999999999999999999");
+        assertEquals(filter.start, Integer.MAX_VALUE);
+        assertEquals(filter.limit, Integer.MAX_VALUE);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Invalid _start: ten")
+    public void testNonNumericStartIsRejected() {
+        QueryFilter.parse(Resource.POSTS, "_start=ten");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonNumericLimitIsRejected() {
+        QueryFilter.parse(Resource.POSTS, "_limit=1.5");
+    }
+
+    @Test
+    public void testWithoutPagingKeepsEqualityFilters() {
+        QueryFilter paged = QueryFilter.parse(Resource.TODOS, "id=4&userId=1&completed=false&_start=2&_limit=3");
+        QueryFilter copy = paged.withoutPaging();
+        assertEquals(copy.id, paged.id);
+        assertEquals(copy.parentId, paged.parentId);
+        assertEquals(copy.completed, paged.completed);
+        assertEquals(copy.start, 0);
+        assertEquals(copy.limit, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,77 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+
+/**
+ * The six JSONPlaceholder resources and how they reference each other
+ *
+ * @author Emmanuel Arhu
+ */
+public enum Resource {
+    USERS("users", null, null),
+    POSTS("posts", USERS, "userId"),
+    COMMENTS("comments", POSTS, "postId"),
+    ALBUMS("albums", USERS, "userId"),
+    PHOTOS("photos", ALBUMS, "albumId"),
+    TODOS("todos", USERS, "userId");
+
+    private final String path;
+    private final Resource parent;
+    private final String parentField;
+
+    Resource(String path, Resource parent, String parentField) {
+        this.path = path;
+        this.parent = parent;
+        this.parentField = parentField;
+    }
+
+    /**
+     * Resolve a URL path segment such as "photos", or null when unknown
+     */
+    public static Resource fromPath(String segment) {
+        for (Resource resource : values()) {
+            if (resource.path.equals(segment)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Row count of this resource in a dataset of the given size
+     */
+    public int count(DatasetCounts counts) {
+        switch (this) {
+            case USERS:
+                return counts.getUsers();
+            case POSTS:
+                return counts.getPosts();
+            case COMMENTS:
+                return counts.getComments();
+            case ALBUMS:
+                return counts.getAlbums();
+            case PHOTOS:
+                return counts.getPhotos();
+            default:
+                return counts.getTodos();
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Resource this one points at through its foreign key, null for users
+     */
+    public Resource getParent() {
+        return parent;
+    }
+
+    /**
+     * Name of the foreign key field, e.g. "albumId" for photos
+     */
+    public String getParentField() {
+        return parentField;
+    }
+}
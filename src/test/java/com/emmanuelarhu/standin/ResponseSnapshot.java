@@ -0,0 +1,402 @@
+package com.emmanuelarhu.standin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.PrimitiveIterator;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Every GET response of a {@link Dataset}, serialized once into a file.
+ *
+ * The file holds each entity ({@code /photos/7}), each full list
+ * ({@code /photos}) and each per-parent list ({@code /albums/3/photos},
+ * which is also {@code /photos?albumId=3}) as ready-to-send JSON bytes,
+ * optionally followed by a gzip copy. A memory-mapped offset index maps a
+ * route to its byte ranges, so serving a GET is a slot lookup plus
+ * {@link FileChannel#transferTo}.
+ *
+ * Layout: a 32 byte header (magic, dataset fingerprint, gzip flag, slot
+ * count), the index, then the response bodies. The index has, per resource,
+ * one slot per entity, one for the full list and one per parent id, each
+ * 32 bytes (offset, length, gzip offset, gzip length; gzip length -1 when
+ * there is no compressed copy). Snapshots are cached by fingerprint and
+ * reused across runs.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class ResponseSnapshot implements Closeable {
+
+    private static final long MAGIC = 0x524153_4E_4150_3031L; // "RASNAP01"
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 32;
+    private static final int GZIP_MIN_BYTES = 1024; // smaller bodies are not worth compressing
+    private static final int COPY_BUFFER = 1024 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final byte[] OPEN = {'['};
+    private static final byte[] COMMA = {','};
+    private static final byte[] CLOSE = {']'};
+
+    /**
+     * Byte range of one response body inside the snapshot file
+     */
+    public record Body(long offset, long length, boolean gzip) {}
+
+    private final Path file;
+    private final FileChannel channel;
+    private final SlotIndex index;
+    private final int[] entitySlots = new int[Resource.values().length];
+    private final int[] listSlots = new int[Resource.values().length];
+    private final int[] parentSlots = new int[Resource.values().length];
+    private final Dataset dataset;
+
+    private ResponseSnapshot(Path file, Dataset dataset) throws IOException {
+        this.file = file;
+        this.dataset = dataset;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        int slotCount = layoutSlots(dataset, entitySlots, listSlots, parentSlots);
+        this.index = SlotIndex.map(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, slotCount, SlotIndex.REGION_BYTES);
+    }
+
+    /**
+     * Open the cached snapshot for a dataset, building it first when missing
+     */
+    public static ResponseSnapshot open(Dataset dataset, DatasetIndex datasetIndex, Path directory, boolean gzip)
+            throws IOException {
+        long fingerprint = dataset.fingerprint();
+        Path file = directory.resolve(String.format("snapshot-%016x%s.bin", fingerprint, gzip ? "-gz" : ""));
+        if (!isComplete(file, fingerprint, gzip)) {
+            Files.createDirectories(directory);
+            long started = System.nanoTime();
+            Path temp = directory.resolve(file.getFileName() + ".tmp");
+            write(dataset, datasetIndex, temp, fingerprint, gzip);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("📦 Built response snapshot " + file + " (" + Files.size(file) / (1024 * 1024) + " MB) in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms");
+        }
+        return new ResponseSnapshot(file, dataset);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Body for a GET route, or null when the route is not pre-serialized
+     * (unknown ids, paging, combined filters and so on)
+     */
+    public Body find(String rawPath, String rawQuery, boolean acceptGzip) {
+        String[] segments = rawPath.replaceAll("^/+|/+$", "").split("/+");
+        Resource resource = Resource.fromPath(segments[0]);
+        if (resource == null || segments.length > 3) {
+            return null;
+        }
+        int slot;
+        if (segments.length == 1) {
+            slot = collectionSlot(resource, rawQuery);
+        } else {
+            int id = parseId(segments[1]);
+            if (!dataset.exists(resource, id) || rawQuery != null) {
+                return null;
+            }
+            if (segments.length == 2) {
+                slot = entitySlots[resource.ordinal()] + id - 1;
+            } else {
+                Resource child = Resource.fromPath(segments[2]);
+                slot = child != null && child.getParent() == resource ? parentSlots[child.ordinal()] + id - 1 : -1;
+            }
+        }
+        if (slot < 0) {
+            return null;
+        }
+        if (acceptGzip && index.get(slot, 24) >= 0) {
+            return new Body(index.get(slot, 16), index.get(slot, 24), true);
+        }
+        return new Body(index.get(slot, 0), index.get(slot, 8), false);
+    }
+
+    /**
+     * Copy a body straight from the page cache to a channel without passing through the heap
+     */
+    public void transferTo(Body body, WritableByteChannel target) throws IOException {
+        long position = body.offset();
+        long end = position + body.length();
+        while (position < end) {
+            position += channel.transferTo(position, end - position, target);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // "/photos" and "/photos?albumId=3" are pre-serialized; any other query falls through
+    private int collectionSlot(Resource resource, String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return listSlots[resource.ordinal()];
+        }
+        String prefix = resource.getParentField() + "=";
+        if (resource.getParent() == null || !rawQuery.startsWith(prefix) || rawQuery.indexOf('&') >= 0) {
+            return -1;
+        }
+        int parentId = parseId(rawQuery.substring(prefix.length()));
+        return dataset.exists(resource.getParent(), parentId) ? parentSlots[resource.ordinal()] + parentId - 1 : -1;
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Slot numbers of the entity, list and per-parent sections, in resource order
+     */
+    private static int layoutSlots(Dataset dataset, int[] entitySlots, int[] listSlots, int[] parentSlots) {
+        int slot = 0;
+        for (Resource resource : Resource.values()) {
+            entitySlots[resource.ordinal()] = slot;
+            slot += dataset.count(resource);
+            listSlots[resource.ordinal()] = slot++;
+            parentSlots[resource.ordinal()] = slot;
+            slot += resource.getParent() == null ? 0 : dataset.count(resource.getParent());
+        }
+        return slot;
+    }
+
+    private static boolean isComplete(Path file, long fingerprint, boolean gzip) throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) {
+            return false;
+        }
+        try (FileChannel existing = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            existing.read(header, 0);
+            return header.getLong(0) == MAGIC && header.getLong(8) == fingerprint
+                    && header.getInt(16) == (gzip ? 1 : 0);
+        }
+    }
+
+    private static void write(Dataset dataset, DatasetIndex datasetIndex, Path temp, long fingerprint, boolean gzip)
+            throws IOException {
+        int[] entitySlots = new int[Resource.values().length];
+        int[] listSlots = new int[Resource.values().length];
+        int[] parentSlots = new int[Resource.values().length];
+        int slotCount = layoutSlots(dataset, entitySlots, listSlots, parentSlots);
+        long indexBytes = (long) slotCount * SLOT_BYTES;
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            SlotIndex slots = SlotIndex.map(out, FileChannel.MapMode.READ_WRITE, HEADER_BYTES, slotCount,
+                    SlotIndex.REGION_BYTES);
+            BodyWriter writer = new BodyWriter(out, HEADER_BYTES + indexBytes);
+            ByteArrayOutputStream entity = new ByteArrayOutputStream(1024);
+            for (Resource resource : Resource.values()) {
+                int count = dataset.count(resource);
+                for (int id = 1; id <= count; id++) {
+                    long offset = writer.position();
+                    writer.write(render(dataset, resource, id, entity));
+                    putSlot(slots, entitySlots[resource.ordinal()] + id - 1, writer, offset, gzip);
+                }
+
+                QueryFilter all = new QueryFilter();
+                putSlot(slots, listSlots[resource.ordinal()], writer,
+                        writeList(writer, dataset, resource, datasetIndex.query(resource, all), entity), gzip);
+
+                if (resource.getParent() != null) {
+                    for (int parentId = 1; parentId <= dataset.count(resource.getParent()); parentId++) {
+                        QueryFilter byParent = new QueryFilter();
+                        byParent.parentId = parentId;
+                        long offset = writeList(writer, dataset, resource, datasetIndex.query(resource, byParent), entity);
+                        putSlot(slots, parentSlots[resource.ordinal()] + parentId - 1, writer, offset, gzip);
+                    }
+                }
+            }
+            writer.flush();
+            slots.force();
+
+            // Header last: a snapshot with a valid magic is always complete
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(0, MAGIC).putLong(8, fingerprint).putInt(16, gzip ? 1 : 0).putInt(20, slotCount);
+            out.write(header, 0);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Record the body written since {@code offset}, compressing a copy when asked and large enough
+     */
+    private static void putSlot(SlotIndex slots, int slot, BodyWriter writer, long offset, boolean gzip)
+            throws IOException {
+        long length = writer.position() - offset;
+        long gzipOffset = -1;
+        long gzipLength = -1;
+        if (gzip && length >= GZIP_MIN_BYTES) {
+            gzipOffset = writer.position();
+            writer.gzipCopy(offset, length);
+            gzipLength = writer.position() - gzipOffset;
+        }
+        slots.put(slot, offset, length, gzipOffset, gzipLength);
+    }
+
+    private static long writeList(BodyWriter writer, Dataset dataset, Resource resource, PrimitiveIterator.OfInt rows,
+                                  ByteArrayOutputStream entity) throws IOException {
+        long offset = writer.position();
+        writer.write(OPEN);
+        boolean first = true;
+        while (rows.hasNext()) {
+            if (!first) {
+                writer.write(COMMA);
+            }
+            writer.write(render(dataset, resource, rows.nextInt(), entity));
+            first = false;
+        }
+        writer.write(CLOSE);
+        return offset;
+    }
+
+    private static byte[] render(Dataset dataset, Resource resource, int id, ByteArrayOutputStream buffer)
+            throws IOException {
+        buffer.reset();
+        try (JsonGenerator json = JSON.createGenerator(buffer)) {
+            EntityJson.write(json, dataset, resource, id);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * The slot index, mapped in regions of whole slots: one mapping cannot go past 2 GB,
+     * which an index reaches at about 67 million slots
+     */
+    static final class SlotIndex {
+        static final long REGION_BYTES = 1L << 30;
+
+        private final MappedByteBuffer[] regions;
+        private final long regionBytes;
+
+        private SlotIndex(MappedByteBuffer[] regions, long regionBytes) {
+            this.regions = regions;
+            this.regionBytes = regionBytes;
+        }
+
+        /**
+         * Map slotCount slots starting at a file position; regionBytes must be a multiple of the slot size
+         */
+        static SlotIndex map(FileChannel channel, FileChannel.MapMode mode, long position, int slotCount,
+                             long regionBytes) throws IOException {
+            long bytes = (long) slotCount * SLOT_BYTES;
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) Math.max(1, (bytes + regionBytes - 1) / regionBytes)];
+            for (int i = 0; i < regions.length; i++) {
+                long start = i * regionBytes;
+                regions[i] = channel.map(mode, position + start, Math.min(regionBytes, bytes - start));
+            }
+            return new SlotIndex(regions, regionBytes);
+        }
+
+        /**
+         * One of a slot's longs: 0 offset, 8 length, 16 gzip offset, 24 gzip length
+         */
+        long get(int slot, int field) {
+            long base = (long) slot * SLOT_BYTES;
+            return regions[(int) (base / regionBytes)].getLong((int) (base % regionBytes) + field);
+        }
+
+        void put(int slot, long offset, long length, long gzipOffset, long gzipLength) {
+            long base = (long) slot * SLOT_BYTES;
+            int at = (int) (base % regionBytes);
+            regions[(int) (base / regionBytes)].putLong(at, offset).putLong(at + 8, length)
+                    .putLong(at + 16, gzipOffset).putLong(at + 24, gzipLength);
+        }
+
+        void force() {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+        }
+    }
+
+    /**
+     * Buffered appender that knows its file position and can compress an earlier byte range onto the end
+     */
+    private static final class BodyWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER);
+        private long flushed;
+
+        BodyWriter(FileChannel channel, long start) {
+            this.channel = channel;
+            this.flushed = start;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void write(byte[] bytes) throws IOException {
+            write(bytes, 0, bytes.length);
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int n = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, n);
+                offset += n;
+                length -= n;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer, flushed);
+            }
+            buffer.clear();
+        }
+
+        void gzipCopy(long offset, long length) throws IOException {
+            flush();
+            OutputStream sink = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    BodyWriter.this.write(new byte[]{(byte) b});
+                }
+
+                @Override
+                public void write(byte[] bytes, int off, int len) throws IOException {
+                    BodyWriter.this.write(bytes, off, len);
+                }
+            };
+            try (GZIPOutputStream gzip = new GZIPOutputStream(sink, 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            }) {
+                ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+                long read = 0;
+                while (read < length) {
+                    chunk.clear().limit((int) Math.min(chunk.capacity(), length - read));
+                    read += channel.read(chunk, offset + read);
+                    gzip.write(chunk.array(), 0, chunk.position());
+                }
+            }
+        }
+    }
+}
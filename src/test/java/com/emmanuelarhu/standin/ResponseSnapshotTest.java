@@ -0,0 +1,147 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Snapshot file format: route lookup, body bytes, gzip copies and the region-split slot index
+ *
+ * @author Emmanuel Arhu
+ */
+public class ResponseSnapshotTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Path directory;
+    private Dataset dataset;
+    private ResponseSnapshot snapshot;
+
+    @BeforeClass
+    public void buildSnapshot() throws IOException {
+        directory = Files.createTempDirectory("snapshot-test");
+        dataset = DatasetGenerator.generate(new DatasetCounts(3, 12, 60, 6, 300, 24), 11L, false);
+        snapshot = ResponseSnapshot.open(dataset, DatasetIndex.build(dataset), directory, true);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteSnapshot() throws IOException {
+        if (snapshot != null) {
+            snapshot.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testEntityBodyIsTheRenderedEntity() throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (JsonGenerator json = new JsonFactory().createGenerator(expected)) {
+            EntityJson.write(json, dataset, Resource.PHOTOS, 77);
+        }
+        assertEquals(body(snapshot.find("/photos/77", null, false)), expected.toByteArray());
+    }
+
+    @Test
+    public void testListsHoldEveryRowInOrder() throws IOException {
+        JsonNode all = MAPPER.readTree(body(snapshot.find("/comments", null, false)));
+        assertEquals(all.size(), 60);
+        assertEquals(all.get(59).get("id").asInt(), 60);
+
+        JsonNode nested = MAPPER.readTree(body(snapshot.find("/albums/2/photos", null, false)));
+        JsonNode filtered = MAPPER.readTree(body(snapshot.find("/photos", "albumId=2", false)));
+        assertEquals(nested, filtered);
+        assertEquals(nested.size(), 50);
+        for (JsonNode photo : nested) {
+            assertEquals(photo.get("albumId").asInt(), 2);
+        }
+    }
+
+    @Test
+    public void testGzipCopyInflatesToThePlainBody() throws IOException {
+        ResponseSnapshot.Body gzip = snapshot.find("/photos", null, true);
+        assertTrue(gzip.gzip());
+        byte[] inflated;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body(gzip)))) {
+            inflated = in.readAllBytes();
+        }
+        assertEquals(inflated, body(snapshot.find("/photos", null, false)));
+    }
+
+    @Test
+    public void testSmallBodiesHaveNoGzipCopy() {
+        assertFalse(snapshot.find("/users/1", null, true).gzip());
+    }
+
+    @Test
+    public void testRoutesOutsideTheSnapshotFallThrough() {
+        assertNull(snapshot.find("/posts/13", null, false), "unknown id");
+        assertNull(snapshot.find("/posts/abc", null, false), "non-numeric id");
+        assertNull(snapshot.find("/posts", "_limit=2", false), "paging");
+        assertNull(snapshot.find("/posts", "userId=1&id=2", false), "combined filters");
+        assertNull(snapshot.find("/posts/1/photos", null, false), "not a child of posts");
+        assertNull(snapshot.find("/widgets", null, false), "unknown resource");
+    }
+
+    @Test
+    public void testReopenReusesTheCachedFile() throws IOException {
+        long modified = Files.getLastModifiedTime(snapshot.getFile()).toMillis();
+        try (ResponseSnapshot again = ResponseSnapshot.open(dataset, DatasetIndex.build(dataset), directory, true)) {
+            assertEquals(again.getFile(), snapshot.getFile());
+            assertEquals(Files.getLastModifiedTime(again.getFile()).toMillis(), modified);
+        }
+    }
+
+    @Test
+    public void testSlotIndexAddressesSlotsAcrossRegions() throws IOException {
+        Path file = directory.resolve("slots.bin");
+        int slots = 7;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Two 32 byte slots per region, so slot 6 sits in the fourth mapping
+            ResponseSnapshot.SlotIndex index = ResponseSnapshot.SlotIndex.map(channel, FileChannel.MapMode.READ_WRITE,
+                    16, slots, 64);
+            for (int slot = 0; slot < slots; slot++) {
+                index.put(slot, slot * 1000L, slot + 1L, (1L << 40) + slot, -1);
+            }
+            index.force();
+            ResponseSnapshot.SlotIndex reread = ResponseSnapshot.SlotIndex.map(channel, FileChannel.MapMode.READ_ONLY,
+                    16, slots, 64);
+            for (int slot = 0; slot < slots; slot++) {
+                assertEquals(reread.get(slot, 0), slot * 1000L);
+                assertEquals(reread.get(slot, 8), slot + 1L);
+                assertEquals(reread.get(slot, 16), (1L << 40) + slot);
+                assertEquals(reread.get(slot, 24), -1L);
+            }
+        }
+        assertEquals(Files.size(file), 16 + slots * 32L);
+    }
+
+    private byte[] body(ResponseSnapshot.Body body) throws IOException {
+        assertNotNull(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.transferTo(body, Channels.newChannel(out));
+        assertEquals(out.size(), body.length());
+        return out.toByteArray();
+    }
+}
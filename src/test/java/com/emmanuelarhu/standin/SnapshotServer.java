@@ -0,0 +1,255 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.trace.ServerSpanFilter;
+import com.emmanuelarhu.trace.TraceContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keep-alive HTTP/1.1 front end that answers GETs from a {@link ResponseSnapshot}.
+ *
+ * Pre-serialized bodies go from the page cache to the socket with
+ * {@code transferTo} (sendfile on Linux), so nothing is rendered or copied
+ * through the heap per request. Everything the snapshot does not cover
+ * (writes, paging, combined filters, unknown ids) is forwarded to a regular
+ * {@link StandInServer} with {@code Connection: close}, whose
+ * {@link ServerSpanFilter} records it; the responses served here are
+ * recorded as server spans the same way.
+ *
+ * @author Emmanuel Arhu
+ */
+public class SnapshotServer implements Closeable {
+
+    private static final int HEAD_BUFFER = 16 * 1024;
+    private static final int UPSTREAM_TIMEOUT = 30000;
+
+    private final ResponseSnapshot snapshot;
+    private final URI fallback;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong zeroCopyResponses = new AtomicLong();
+    private final AtomicLong zeroCopyBytes = new AtomicLong();
+    private final AtomicLong forwarded = new AtomicLong();
+
+    private SnapshotServer(ResponseSnapshot snapshot, String fallbackBaseUrl, int port) throws IOException {
+        this.snapshot = snapshot;
+        this.fallback = URI.create(fallbackBaseUrl);
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        Thread.ofPlatform().daemon().name("snapshot-server-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Serve a snapshot on a loopback port (0 picks a free one), forwarding misses to a fallback base URL
+     */
+    public static SnapshotServer start(ResponseSnapshot snapshot, String fallbackBaseUrl, int port) throws IOException {
+        SnapshotServer server = new SnapshotServer(snapshot, fallbackBaseUrl, port);
+        System.out.println("📦 Snapshot server " + server.getBaseUrl() + " serving " + snapshot.getFile().getFileName()
+                + ", misses -> " + fallbackBaseUrl);
+        return server;
+    }
+
+    public String getBaseUrl() throws IOException {
+        return "http://127.0.0.1:" + ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * One-line summary of how requests were answered so far
+     */
+    public String summary() {
+        return String.format("zeroCopy=%d (%d MB), forwarded=%d",
+                zeroCopyResponses.get(), zeroCopyBytes.get() / (1024 * 1024), forwarded.get());
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        workers.shutdownNow();
+        System.out.println("📦 Snapshot server stopped: " + summary());
+    }
+
+    private void acceptLoop() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel client = serverChannel.accept();
+                workers.execute(() -> handle(client));
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.out.println("❌ Snapshot server accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        ByteBuffer in = ByteBuffer.allocate(HEAD_BUFFER);
+        try (client) {
+            client.socket().setTcpNoDelay(true);
+            while (true) {
+                String head = readHead(client, in);
+                if (head == null) {
+                    return;
+                }
+                String[] lines = head.split("\r\n");
+                String[] requestLine = lines[0].split(" ");
+                if (requestLine.length != 3) {
+                    return;
+                }
+                String method = requestLine[0];
+                String target = requestLine[1];
+                boolean keepAlive = !requestLine[2].equals("HTTP/1.0");
+                boolean acceptGzip = false;
+                int contentLength = 0;
+                String traceparent = null;
+                for (int i = 1; i < lines.length; i++) {
+                    String line = lines[i].toLowerCase(Locale.ROOT);
+                    if (line.startsWith(TraceContext.TRACEPARENT + ":")) {
+                        traceparent = lines[i].substring(TraceContext.TRACEPARENT.length() + 1);
+                    } else if (line.startsWith("connection:") && line.contains("close")) {
+                        keepAlive = false;
+                    } else if (line.startsWith("accept-encoding:") && line.contains("gzip")) {
+                        acceptGzip = true;
+                    } else if (line.startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    }
+                }
+
+                String[] parent = ServerSpanFilter.parent(traceparent);
+                long start = parent == null ? 0 : TraceContext.epochNanos();
+                ResponseSnapshot.Body body = null;
+                if ((method.equals("GET") || method.equals("HEAD")) && contentLength == 0) {
+                    int query = target.indexOf('?');
+                    body = snapshot.find(query < 0 ? target : target.substring(0, query),
+                            query < 0 ? null : target.substring(query + 1), acceptGzip);
+                }
+                if (body == null) {
+                    forward(client, head, readBody(client, in, contentLength));
+                    return;
+                }
+                writeHead(client, body, keepAlive);
+                if (method.equals("GET")) {
+                    snapshot.transferTo(body, client);
+                    zeroCopyResponses.incrementAndGet();
+                    zeroCopyBytes.addAndGet(body.length());
+                }
+                if (parent != null) {
+                    ServerSpanFilter.record(parent, method, URI.create(target), 200, start, null);
+                }
+                if (!keepAlive) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // client went away mid-response
+        }
+    }
+
+    private static void writeHead(SocketChannel client, ResponseSnapshot.Body body, boolean keepAlive)
+            throws IOException {
+        String head = "HTTP/1.1 200 OK\r\n"
+                + "Content-Type: application/json; charset=utf-8\r\n"
+                + "Content-Length: " + body.length() + "\r\n"
+                + (body.gzip() ? "Content-Encoding: gzip\r\n" : "")
+                + "Vary: Accept-Encoding\r\n"
+                + (keepAlive ? "" : "Connection: close\r\n")
+                + "\r\n";
+        ByteBuffer bytes = ByteBuffer.wrap(head.getBytes(StandardCharsets.ISO_8859_1));
+        while (bytes.hasRemaining()) {
+            client.write(bytes);
+        }
+    }
+
+    /**
+     * Relay one request to the fallback server and its response back, then close the connection
+     */
+    private void forward(SocketChannel client, String head, byte[] body) throws IOException {
+        forwarded.incrementAndGet();
+        StringBuilder upstreamHead = new StringBuilder();
+        String[] lines = head.split("\r\n");
+        upstreamHead.append(lines[0]).append("\r\n");
+        for (int i = 1; i < lines.length; i++) {
+            String name = lines[i].toLowerCase(Locale.ROOT);
+            if (!name.startsWith("connection:") && !name.startsWith("keep-alive:")) {
+                upstreamHead.append(lines[i]).append("\r\n");
+            }
+        }
+        upstreamHead.append("Connection: close\r\n\r\n");
+
+        try (Socket upstream = new Socket()) {
+            upstream.connect(new InetSocketAddress(fallback.getHost(), fallback.getPort()), UPSTREAM_TIMEOUT);
+            upstream.setSoTimeout(UPSTREAM_TIMEOUT);
+            OutputStream out = upstream.getOutputStream();
+            out.write(upstreamHead.toString().getBytes(StandardCharsets.ISO_8859_1));
+            out.write(body);
+            out.flush();
+            InputStream response = upstream.getInputStream();
+            byte[] chunk = new byte[HEAD_BUFFER];
+            int n;
+            while ((n = response.read(chunk)) != -1) {
+                ByteBuffer bytes = ByteBuffer.wrap(chunk, 0, n);
+                while (bytes.hasRemaining()) {
+                    client.write(bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read up to the blank line after the headers, keeping any extra bytes in the buffer; null on EOF
+     */
+    private static String readHead(SocketChannel client, ByteBuffer in) throws IOException {
+        while (true) {
+            int end = indexOfHeadEnd(in);
+            if (end >= 0) {
+                String head = new String(in.array(), 0, end, StandardCharsets.ISO_8859_1);
+                in.flip().position(end + 4);
+                in.compact();
+                return head;
+            }
+            if (!in.hasRemaining() || client.read(in) < 0) {
+                return null;
+            }
+        }
+    }
+
+    private static byte[] readBody(SocketChannel client, ByteBuffer in, int length) throws IOException {
+        byte[] body = new byte[length];
+        int filled = Math.min(length, in.position());
+        in.flip();
+        in.get(body, 0, filled);
+        in.compact();
+        ByteBuffer rest = ByteBuffer.wrap(body, filled, length - filled);
+        while (rest.hasRemaining()) {
+            if (client.read(rest) < 0) {
+                throw new IOException("Connection closed inside request body");
+            }
+        }
+        return body;
+    }
+
+    private static int indexOfHeadEnd(ByteBuffer in) {
+        byte[] data = in.array();
+        for (int i = 0; i + 3 < in.position(); i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n' && data[i + 2] == '\r' && data[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
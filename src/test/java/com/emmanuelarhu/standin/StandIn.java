@@ -0,0 +1,83 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.config.TestConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Starts the stand-in in the storage mode selected by {@code -Dstandin.storage}:
+ * <ul>
+ *   <li>{@code dynamic} (default): {@link StandInServer} renders every response on demand</li>
+ *   <li>{@code snapshot}: {@link SnapshotServer} serves GETs zero-copy from a
+ *       {@link ResponseSnapshot} and forwards the rest to a dynamic server;
+ *       {@code -Dstandin.snapshot.gzip=true} adds precompressed bodies and
+ *       {@code -Dstandin.snapshot.dir} moves the cache (default target/standin)</li>
+ *   <li>{@code stateful}: writes really change the data through a {@link StatefulStore};
+ *       {@code -Dstandin.wal=path} keeps them across restarts and
+ *       {@code -Dstandin.wal.sync=true} fsyncs each one before answering</li>
+ * </ul>
+ *
+ * @author Emmanuel Arhu
+ */
+public final class StandIn implements Closeable {
+
+    private final StandInServer dynamic;
+    private final ResponseSnapshot snapshot;
+    private final SnapshotServer snapshotServer;
+
+    private StandIn(StandInServer dynamic, ResponseSnapshot snapshot, SnapshotServer snapshotServer) {
+        this.dynamic = dynamic;
+        this.snapshot = snapshot;
+        this.snapshotServer = snapshotServer;
+    }
+
+    /**
+     * Start the configured storage mode over a dataset; port 0 picks a free one
+     */
+    public static StandIn start(Dataset dataset, int port) throws IOException {
+        String storage = TestConfig.get("standin.storage", "dynamic");
+        switch (storage) {
+            case "dynamic":
+                return new StandIn(StandInServer.start(dataset, port), null, null);
+            case "snapshot":
+                StandInServer fallback = StandInServer.start(dataset, 0);
+                ResponseSnapshot snapshot = ResponseSnapshot.open(dataset, fallback.getIndex(),
+                        Path.of(TestConfig.get("standin.snapshot.dir", "target/standin")),
+                        TestConfig.getBoolean("standin.snapshot.gzip", false));
+                return new StandIn(fallback, snapshot, SnapshotServer.start(snapshot, fallback.getBaseUrl(), port));
+            case "stateful":
+                String wal = TestConfig.get("standin.wal", "");
+                return new StandIn(StandInServer.startStateful(dataset, port, wal.isBlank() ? null : Path.of(wal),
+                        TestConfig.getBoolean("standin.wal.sync", false)), null, null);
+            default:
+                throw new IllegalArgumentException("Unknown standin.storage '" + storage
+                        + "', expected dynamic, snapshot or stateful");
+        }
+    }
+
+    public String getBaseUrl() throws IOException {
+        return snapshotServer != null ? snapshotServer.getBaseUrl() : dynamic.getBaseUrl();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotServer != null) {
+            snapshotServer.close();
+            snapshot.close();
+        }
+        dynamic.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        StandIn standIn = start(DatasetGenerator.generate(), TestConfig.getInt("standin.port", 3000));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                standIn.close();
+            } catch (IOException e) {
+                System.out.println("❌ Failed to stop stand-in: " + e.getMessage());
+            }
+        }));
+    }
+}
@@ -0,0 +1,401 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.trace.ServerSpanFilter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for JSONPlaceholder backed by a generated {@link Dataset}.
+ *
+ * Serves the same routes as the real API: {@code /{resource}},
+ * {@code /{resource}/{id}}, nested {@code /{parent}/{id}/{child}} lists and
+ * query filters. Filters are answered from the {@link DatasetIndex} posting
+ * lists and list responses are streamed with chunked encoding straight from
+ * the dataset, so a million-row {@code /photos} never sits in memory.
+ * By default writes follow JSONPlaceholder's fake semantics: they are
+ * validated and echoed back but nothing is stored. Started with a
+ * {@link StatefulStore} they really create, replace, merge and delete rows,
+ * inside the namespace named by the {@value #NAMESPACE_HEADER} header or a
+ * {@code /ns/{name}} path prefix. Unknown ids answer the way JSONPlaceholder
+ * does: 404 for GET and PATCH, 200 with {@code {}} for DELETE, and the body
+ * echoed back for PUT, with nothing stored.
+ * Requests with a W3C traceparent header are recorded as server spans by
+ * {@link ServerSpanFilter}.
+ *
+ * Started through {@link StandIn}, standalone or in-process from BaseTest
+ * with {@code -Dstandin=true}.
+ *
+ * @author Emmanuel Arhu
+ */
+public class StandInServer implements Closeable {
+
+    /**
+     * Request header selecting the stateful namespace, see {@link StatefulStore#namespace(String)}
+     */
+    public static final String NAMESPACE_HEADER = "X-Standin-Namespace";
+    private static final String NAMESPACE_PREFIX = "ns";
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int STREAM_BUFFER = 64 * 1024;
+    private static final byte[] EMPTY_OBJECT = {'{', '}'};
+
+    private final Dataset dataset;
+    private final DatasetIndex index;
+    private final StatefulStore store; // null when writes are faked
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private StandInServer(Dataset dataset, int port, Path walFile, boolean stateful, boolean syncWal)
+            throws IOException {
+        this.dataset = dataset;
+        this.index = DatasetIndex.build(dataset);
+        this.store = stateful ? StatefulStore.open(dataset, index, walFile, syncWal) : null;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.server.createContext("/", this::handle).getFilters().add(new ServerSpanFilter());
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Start serving a dataset on a loopback port (0 picks a free one)
+     */
+    public static StandInServer start(Dataset dataset, int port) throws IOException {
+        return announce(new StandInServer(dataset, port, null, false, false));
+    }
+
+    /**
+     * Start serving a dataset whose writes are kept, optionally logged to a write-ahead log file
+     */
+    public static StandInServer startStateful(Dataset dataset, int port, Path walFile, boolean syncWal)
+            throws IOException {
+        return announce(new StandInServer(dataset, port, walFile, true, syncWal));
+    }
+
+    private static StandInServer announce(StandInServer standIn) {
+        Dataset dataset = standIn.dataset;
+        System.out.println("🧪 Stand-in server " + standIn.getBaseUrl() + " serving " + dataset.getCounts()
+                + " (" + dataset.storedBytes() / 1024 + " KB stored, " + standIn.index.indexBytes() / 1024 + " KB indexed"
+                + (standIn.store != null ? ", stateful" : "") + ")");
+        return standIn;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public Dataset getDataset() {
+        return dataset;
+    }
+
+    public DatasetIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * The store behind writes, null when they are faked
+     */
+    public StatefulStore getStore() {
+        return store;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.out.println("❌ Failed to close stateful store: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] segments = exchange.getRequestURI().getRawPath().replaceAll("^/+|/+$", "").split("/+");
+            String namespaceName = exchange.getRequestHeaders().getFirst(NAMESPACE_HEADER);
+            if (segments.length > 2 && segments[0].equals(NAMESPACE_PREFIX)) {
+                namespaceName = segments[1];
+                segments = Arrays.copyOfRange(segments, 2, segments.length);
+            }
+            StatefulStore.Namespace namespace = null;
+            if (store != null) {
+                if (namespaceName != null && !StatefulStore.isValidNamespace(namespaceName)) {
+                    drain(exchange);
+                    send(exchange, 400, "{\"error\":\"Invalid namespace\"}");
+                    return;
+                }
+                namespace = store.namespace(namespaceName != null ? namespaceName : StatefulStore.DEFAULT_NAMESPACE);
+            }
+
+            Resource resource = Resource.fromPath(segments[0]);
+            String method = exchange.getRequestMethod();
+            if (resource == null || segments.length > 3) {
+                send(exchange, 404, "{}");
+            } else if (segments.length == 1) {
+                handleCollection(exchange, namespace, method, resource);
+            } else {
+                Integer id = parseId(segments[1]);
+                if (id == null) {
+                    drain(exchange);
+                    send(exchange, 404, "{}");
+                } else if (segments.length == 3) {
+                    // like JSONPlaceholder, children of a missing parent are an empty list rather than a 404
+                    handleNested(exchange, namespace, method, resource, id, Resource.fromPath(segments[2]));
+                } else if (!exists(namespace, resource, id)) {
+                    handleUnknownItem(exchange, method, id);
+                } else {
+                    handleItem(exchange, namespace, method, resource, id);
+                }
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, "{\"error\":\"" + e.getClass().getSimpleName() + "\"}");
+        }
+    }
+
+    private void handleCollection(HttpExchange exchange, StatefulStore.Namespace namespace, String method,
+                                  Resource resource) throws IOException {
+        switch (method) {
+            case "GET":
+                QueryFilter filter = parseFilter(exchange, resource);
+                if (filter != null) {
+                    writeList(exchange, namespace, resource, filter);
+                }
+                break;
+            case "POST":
+                ObjectNode created = readObject(exchange);
+                if (created != null && namespace != null) {
+                    send(exchange, 201, namespace.create(resource, created));
+                } else if (created != null) {
+                    created.put("id", dataset.count(resource) + 1);
+                    send(exchange, 201, MAPPER.writeValueAsString(created));
+                }
+                break;
+            default:
+                send(exchange, 404, "{}");
+        }
+    }
+
+    private void handleItem(HttpExchange exchange, StatefulStore.Namespace namespace, String method,
+                            Resource resource, int id) throws IOException {
+        if (namespace != null) {
+            handleStoredItem(exchange, namespace, method, resource, id);
+            return;
+        }
+        switch (method) {
+            case "GET":
+                send(exchange, 200, render(resource, id));
+                break;
+            case "PUT":
+                echo(exchange, id);
+                break;
+            case "PATCH":
+                ObjectNode patch = readObject(exchange);
+                if (patch != null) {
+                    ObjectNode current = (ObjectNode) MAPPER.readTree(render(resource, id));
+                    current.setAll(patch);
+                    current.put("id", id);
+                    send(exchange, 200, MAPPER.writeValueAsString(current));
+                }
+                break;
+            case "DELETE":
+                send(exchange, 200, "{}");
+                break;
+            default:
+                send(exchange, 404, "{}");
+        }
+    }
+
+    /**
+     * An id with no row answers like JSONPlaceholder: DELETE succeeds with {}, PUT echoes the body, anything else is 404
+     */
+    private static void handleUnknownItem(HttpExchange exchange, String method, int id) throws IOException {
+        if (method.equals("DELETE")) {
+            drain(exchange);
+            send(exchange, 200, EMPTY_OBJECT);
+        } else if (method.equals("PUT")) {
+            echo(exchange, id);
+        } else {
+            drain(exchange);
+            send(exchange, 404, "{}");
+        }
+    }
+
+    /**
+     * Answer a write with its own body and the given id, without storing anything
+     */
+    private static void echo(HttpExchange exchange, int id) throws IOException {
+        ObjectNode body = readObject(exchange);
+        if (body != null) {
+            body.put("id", id);
+            send(exchange, 200, MAPPER.writeValueAsString(body));
+        }
+    }
+
+    /**
+     * Item routes against the stateful store; a row deleted concurrently answers like an unknown id
+     */
+    private void handleStoredItem(HttpExchange exchange, StatefulStore.Namespace namespace, String method,
+                                  Resource resource, int id) throws IOException {
+        byte[] result = null;
+        switch (method) {
+            case "GET":
+                result = namespace.get(resource, id);
+                break;
+            case "PUT":
+                ObjectNode replacement = readObject(exchange);
+                if (replacement == null) {
+                    return;
+                }
+                result = namespace.replace(resource, id, replacement);
+                if (result == null) {
+                    replacement.put("id", id);
+                    result = MAPPER.writeValueAsBytes(replacement);
+                }
+                break;
+            case "PATCH":
+                ObjectNode patch = readObject(exchange);
+                if (patch == null) {
+                    return;
+                }
+                result = namespace.patch(resource, id, patch);
+                break;
+            case "DELETE":
+                namespace.delete(resource, id);
+                result = EMPTY_OBJECT;
+                break;
+            default:
+                break;
+        }
+        if (result != null) {
+            send(exchange, 200, result);
+        } else {
+            send(exchange, 404, "{}");
+        }
+    }
+
+    private void handleNested(HttpExchange exchange, StatefulStore.Namespace namespace, String method,
+                              Resource parent, int parentId, Resource child) throws IOException {
+        if (child == null || child.getParent() != parent || !method.equals("GET")) {
+            send(exchange, 404, "{}");
+            return;
+        }
+        QueryFilter filter = parseFilter(exchange, child);
+        if (filter != null) {
+            filter.parentId = parentId;
+            writeList(exchange, namespace, child, filter);
+        }
+    }
+
+    /**
+     * Parse a list request's query, answering 400 and returning null when it is invalid.
+     * Runs before writeList, which commits to a 200 as soon as it starts streaming.
+     */
+    private static QueryFilter parseFilter(HttpExchange exchange, Resource resource) throws IOException {
+        try {
+            return QueryFilter.parse(resource, exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, MAPPER.writeValueAsString(MAPPER.createObjectNode().put("error", e.getMessage())));
+            return null;
+        }
+    }
+
+    /**
+     * Stream matching rows as a JSON array using chunked transfer encoding
+     */
+    private void writeList(HttpExchange exchange, StatefulStore.Namespace namespace, Resource resource,
+                           QueryFilter filter) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        try (JsonGenerator json = JSON.createGenerator(new BufferedOutputStream(exchange.getResponseBody(), STREAM_BUFFER))) {
+            json.writeStartArray();
+            PrimitiveIterator.OfInt rows = namespace != null
+                    ? namespace.query(resource, filter)
+                    : index.query(resource, filter);
+            while (rows.hasNext()) {
+                if (namespace != null) {
+                    namespace.writeRow(json, resource, rows.nextInt());
+                } else {
+                    EntityJson.write(json, dataset, resource, rows.nextInt());
+                }
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private boolean exists(StatefulStore.Namespace namespace, Resource resource, int id) {
+        return namespace != null ? namespace.exists(resource, id) : dataset.exists(resource, id);
+    }
+
+    private String render(Resource resource, int id) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            EntityJson.write(json, dataset, resource, id);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse the request body as a JSON object, answering 400 and returning null when it is not one
+     */
+    private static ObjectNode readObject(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        try {
+            JsonNode node = MAPPER.readTree(body);
+            if (node instanceof ObjectNode object) {
+                return object;
+            }
+        } catch (JsonProcessingException e) {
+            // fall through to 400
+        }
+        send(exchange, 400, "{\"error\":\"Request body must be a JSON object\"}");
+        return null;
+    }
+
+    private static Integer parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.emmanuelarhu.standin;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.testng.Assert.*;
+
+/**
+ * Nested and unknown-id routes of {@link StandInServer} answer like JSONPlaceholder
+ *
+ * @author Emmanuel Arhu
+ */
+public class StandInServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private StandInServer standIn;
+    private StandInServer stateful;
+
+    @BeforeClass
+    public void start() throws IOException {
+        Dataset dataset = DatasetGenerator.generate();
+        standIn = StandInServer.start(dataset, 0);
+        stateful = StandInServer.startStateful(dataset, 0, null, false);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stop() {
+        standIn.close();
+        stateful.close();
+    }
+
+    @Test
+    public void testChildrenOfMissingParentAreEmpty() throws Exception {
+        for (StandInServer server : new StandInServer[]{standIn, stateful}) {
+            for (String path : new String[]{"/posts/999/comments", "/users/0/todos", "/albums/2147483647/photos"}) {
+                HttpResponse<String> response = get(server, path);
+                assertEquals(response.statusCode(), 200, path);
+                assertEquals(response.body().replaceAll("\\s", ""), "[]", path);
+            }
+        }
+    }
+
+    @Test
+    public void testChildrenOfExistingParent() throws Exception {
+        HttpResponse<String> response = get(standIn, "/posts/1/comments");
+
+        assertEquals(response.statusCode(), 200);
+        assertTrue(response.body().contains("\"postId\""), response.body());
+    }
+
+    @Test
+    public void testUnknownRoutesAreNotFound() throws Exception {
+        assertEquals(get(standIn, "/posts/999").statusCode(), 404);
+        assertEquals(get(standIn, "/posts/1/photos").statusCode(), 404);
+        assertEquals(get(standIn, "/posts/999/photos").statusCode(), 404);
+        assertEquals(get(standIn, "/posts/abc/comments").statusCode(), 404);
+    }
+
+    private HttpResponse<String> get(StandInServer server, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
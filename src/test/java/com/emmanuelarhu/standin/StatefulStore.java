@@ -0,0 +1,438 @@
+package com.emmanuelarhu.standin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Mutable view of a {@link Dataset}: POST/PUT/PATCH/DELETE really change
+ * what later GETs return.
+ *
+ * The generated rows stay read-only; writes go to one
+ * {@link ConcurrentHashMap} overlay per resource, keyed by id, holding the
+ * serialized row (or a tombstone for deletes). Each write runs inside
+ * {@code compute} for its key, so concurrent writes to one row are
+ * serialized while other rows proceed in parallel. New ids come from one
+ * {@link AtomicInteger} per resource starting at {@value #FIRST_CREATED_ID},
+ * well clear of the generated rows and of the out-of-range ids the tests
+ * expect to be missing at any {@code dataset.scale}. PUT answers with the
+ * body it was sent, like JSONPlaceholder, but stores it laid over the
+ * current row so fields the body leaves out are kept.
+ * List queries take the indexed path until a resource has been written,
+ * then merge index hits with the matching overlay rows.
+ *
+ * Overlays live in named {@link Namespace}s. Each one is a copy-on-write
+ * fork of the generated dataset: creating it costs two empty arrays and it
+ * only stores the rows written through it, so parallel workers can each
+ * mutate {@code /posts/1} without seeing one another. Namespaces are kept
+ * until the store closes, so clients must draw names from a bounded set
+ * (see {@link NamespaceFilter}).
+ *
+ * With a {@link WriteAheadLog} every write is logged before it is
+ * acknowledged and all namespaces are rebuilt from the log on restart.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class StatefulStore implements Closeable {
+
+    /**
+     * Namespace used when a request does not name one
+     */
+    public static final String DEFAULT_NAMESPACE = "default";
+
+    /**
+     * First id handed out by POST in every namespace
+     */
+    public static final int FIRST_CREATED_ID = 1_000_000_001;
+
+    private static final Pattern NAMESPACE_NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * Overlay entry; {@code json == null} marks a deleted row
+     */
+    private record Row(byte[] json, int parentId, boolean completed) {}
+
+    private static final Row TOMBSTONE = new Row(null, 0, false);
+
+    private final Dataset dataset;
+    private final DatasetIndex index;
+    private final WriteAheadLog wal;
+    private final ConcurrentHashMap<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    private StatefulStore(Dataset dataset, DatasetIndex index, Path walFile, boolean syncWal) throws IOException {
+        this.dataset = dataset;
+        this.index = index;
+        this.wal = walFile == null ? null
+                : WriteAheadLog.open(walFile, dataset.fingerprint(), syncWal, this::replay);
+    }
+
+    /**
+     * Open a store over a dataset, replaying the write-ahead log when one is given
+     */
+    public static StatefulStore open(Dataset dataset, DatasetIndex index, Path walFile, boolean syncWal)
+            throws IOException {
+        StatefulStore store = new StatefulStore(dataset, index, walFile, syncWal);
+        if (store.wal != null) {
+            System.out.println("📝 Stateful store replayed " + store.overlaySize() + " changed rows in "
+                    + store.namespaces.size() + " namespaces from " + walFile + (syncWal ? " (fsync on every write)" : ""));
+        }
+        return store;
+    }
+
+    /**
+     * Whether a string can name a namespace (letters, digits, '_', '.', '-'; at most 64)
+     */
+    public static boolean isValidNamespace(String name) {
+        return name != null && NAMESPACE_NAME.matcher(name).matches();
+    }
+
+    /**
+     * The namespace with this name, forked from the generated dataset on first use
+     */
+    public Namespace namespace(String name) {
+        if (!isValidNamespace(name)) {
+            throw new IllegalArgumentException("Invalid namespace '" + name + "'");
+        }
+        return namespaces.computeIfAbsent(name, Namespace::new);
+    }
+
+    /**
+     * Acknowledged writes since start (replayed ones excluded)
+     */
+    public long getWrites() {
+        return writes.get();
+    }
+
+    /**
+     * Rows that differ from the generated dataset across all namespaces, deletes included
+     */
+    public int overlaySize() {
+        int size = 0;
+        for (Namespace namespace : namespaces.values()) {
+            size += namespace.overlaySize();
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * One copy-on-write fork of the dataset
+     */
+    public final class Namespace {
+
+        private final String name;
+        private final ConcurrentHashMap<Integer, Row>[] overlays;
+        private final AtomicInteger[] nextIds = new AtomicInteger[Resource.values().length];
+
+        @SuppressWarnings("unchecked")
+        private Namespace(String name) {
+            this.name = name;
+            this.overlays = new ConcurrentHashMap[Resource.values().length];
+            for (Resource resource : Resource.values()) {
+                overlays[resource.ordinal()] = new ConcurrentHashMap<>();
+                nextIds[resource.ordinal()] = new AtomicInteger(FIRST_CREATED_ID);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean exists(Resource resource, int id) {
+            Row row = overlay(resource).get(id);
+            return row != null ? row.json() != null : dataset.exists(resource, id);
+        }
+
+        /**
+         * Current JSON of a row, or null when it does not exist
+         */
+        public byte[] get(Resource resource, int id) throws IOException {
+            Row row = overlay(resource).get(id);
+            if (row != null) {
+                return row.json();
+            }
+            return dataset.exists(resource, id) ? render(resource, id) : null;
+        }
+
+        /**
+         * Insert a row under a freshly allocated id and return it as stored
+         */
+        public byte[] create(Resource resource, ObjectNode body) throws IOException {
+            int id = nextIds[resource.ordinal()].getAndIncrement();
+            body.put("id", id);
+            return write(resource, id, current -> body);
+        }
+
+        /**
+         * Update a row (PUT) and return the body as sent, or null when the row does not exist
+         */
+        public byte[] replace(Resource resource, int id, ObjectNode body) throws IOException {
+            body.put("id", id);
+            byte[] stored = write(resource, id, current -> current == null ? null : merge(current, body, id));
+            return stored == null ? null : MAPPER.writeValueAsBytes(body);
+        }
+
+        /**
+         * Merge fields into a row (PATCH), or return null when it does not exist
+         */
+        public byte[] patch(Resource resource, int id, ObjectNode fields) throws IOException {
+            return write(resource, id, current -> current == null ? null : merge(current, fields, id));
+        }
+
+        /**
+         * Delete a row; false when it did not exist
+         */
+        public boolean delete(Resource resource, int id) throws IOException {
+            long[] sequence = {0};
+            boolean[] deleted = {false};
+            overlay(resource).compute(id, (key, row) -> {
+                boolean present = row != null ? row.json() != null : dataset.exists(resource, id);
+                if (!present) {
+                    return row;
+                }
+                sequence[0] = log(WriteAheadLog.DELETE, name, resource, id, new byte[0]);
+                deleted[0] = true;
+                return TOMBSTONE;
+            });
+            if (deleted[0]) {
+                writes.incrementAndGet();
+                awaitDurable(sequence[0]);
+            }
+            return deleted[0];
+        }
+
+        /**
+         * Ids matching a filter in ascending order, after _start and _limit
+         */
+        public PrimitiveIterator.OfInt query(Resource resource, QueryFilter filter) {
+            ConcurrentHashMap<Integer, Row> overlay = overlay(resource);
+            if (overlay.isEmpty()) {
+                return index.query(resource, filter);
+            }
+            QueryFilter equality = filter.withoutPaging();
+            int[] changed = overlay.entrySet().stream()
+                    .filter(e -> e.getValue().json() != null
+                            && equality.matches(e.getKey(), e.getValue().parentId(), e.getValue().completed()))
+                    .mapToInt(e -> e.getKey())
+                    .sorted()
+                    .toArray();
+            PrimitiveIterator.OfInt unchanged = new SkippingIterator(index.query(resource, equality), overlay);
+            return DatasetIndex.page(new MergingIterator(unchanged, changed), filter.start, filter.limit);
+        }
+
+        /**
+         * Write one row as part of a JSON array
+         */
+        public void writeRow(JsonGenerator json, Resource resource, int id) throws IOException {
+            Row row = overlay(resource).get(id);
+            if (row == null) {
+                EntityJson.write(json, dataset, resource, id);
+            } else if (row.json() != null) {
+                json.writeRawValue(new String(row.json(), StandardCharsets.UTF_8));
+            }
+        }
+
+        /**
+         * Rows this namespace changed, deletes included
+         */
+        public int overlaySize() {
+            int size = 0;
+            for (ConcurrentHashMap<Integer, Row> overlay : overlays) {
+                size += overlay.size();
+            }
+            return size;
+        }
+
+        /**
+         * Run a mutation atomically for one row: log it, then publish it to the overlay
+         */
+        private byte[] write(Resource resource, int id, Mutation mutation) throws IOException {
+            long[] sequence = {0};
+            Row[] written = {null};
+            try {
+                overlay(resource).compute(id, (key, row) -> {
+                    try {
+                        byte[] current = row != null ? row.json() : dataset.exists(resource, id) ? render(resource, id) : null;
+                        ObjectNode next = mutation.apply(current);
+                        if (next == null) {
+                            return row;
+                        }
+                        byte[] json = MAPPER.writeValueAsBytes(next);
+                        sequence[0] = log(WriteAheadLog.UPSERT, name, resource, id, json);
+                        written[0] = toRow(resource, next, json);
+                        return written[0];
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (written[0] == null) {
+                return null;
+            }
+            writes.incrementAndGet();
+            awaitDurable(sequence[0]);
+            return written[0].json();
+        }
+
+        private void apply(byte op, Resource resource, int id, byte[] json) throws IOException {
+            if (op == WriteAheadLog.DELETE) {
+                overlay(resource).put(id, TOMBSTONE);
+                return;
+            }
+            overlay(resource).put(id, toRow(resource, (ObjectNode) MAPPER.readTree(json), json));
+            nextIds[resource.ordinal()].accumulateAndGet(id + 1, Math::max);
+        }
+
+        private ConcurrentHashMap<Integer, Row> overlay(Resource resource) {
+            return overlays[resource.ordinal()];
+        }
+    }
+
+    @FunctionalInterface
+    private interface Mutation {
+        ObjectNode apply(byte[] current) throws IOException;
+    }
+
+    private long log(byte op, String namespace, Resource resource, int id, byte[] json) {
+        if (wal == null) {
+            return 0;
+        }
+        try {
+            return wal.append(op, namespace, resource, id, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        if (wal != null) {
+            wal.awaitDurable(sequence);
+        }
+    }
+
+    private void replay(byte op, String namespace, Resource resource, int id, byte[] json) {
+        try {
+            namespace(namespace).apply(op, resource, id, json);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt write-ahead log record for " + namespace + ":"
+                    + resource.getPath() + "/" + id, e);
+        }
+    }
+
+    private static ObjectNode merge(byte[] current, ObjectNode fields, int id) throws IOException {
+        ObjectNode merged = (ObjectNode) MAPPER.readTree(current);
+        merged.setAll(fields);
+        merged.put("id", id);
+        return merged;
+    }
+
+    private static Row toRow(Resource resource, ObjectNode node, byte[] json) {
+        int parentId = resource.getParentField() == null ? 0 : node.path(resource.getParentField()).asInt(-1);
+        return new Row(json, parentId, node.path("completed").asBoolean(false));
+    }
+
+    private byte[] render(Resource resource, int id) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            EntityJson.write(json, dataset, resource, id);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Generated rows that have no overlay entry (changed rows come from the overlay instead)
+     */
+    private static final class SkippingIterator implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt rows;
+        private final ConcurrentHashMap<Integer, Row> overlay;
+        private int next = -1;
+
+        SkippingIterator(PrimitiveIterator.OfInt rows, ConcurrentHashMap<Integer, Row> overlay) {
+            this.rows = rows;
+            this.overlay = overlay;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next < 0 && rows.hasNext()) {
+                int candidate = rows.nextInt();
+                if (!overlay.containsKey(candidate)) {
+                    next = candidate;
+                }
+            }
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int row = next;
+            next = -1;
+            return row;
+        }
+    }
+
+    /**
+     * Ascending union of two ascending, disjoint id streams
+     */
+    private static final class MergingIterator implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt left;
+        private final int[] right;
+        private int rightPosition;
+        private int leftNext = -1;
+
+        MergingIterator(PrimitiveIterator.OfInt left, int[] right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leftNext >= 0 || left.hasNext() || rightPosition < right.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (leftNext < 0 && left.hasNext()) {
+                leftNext = left.nextInt();
+            }
+            boolean takeRight = rightPosition < right.length && (leftNext < 0 || right[rightPosition] < leftNext);
+            if (takeRight) {
+                return right[rightPosition++];
+            }
+            if (leftNext < 0) {
+                throw new NoSuchElementException();
+            }
+            int row = leftNext;
+            leftNext = -1;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.data.DatasetCounts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.*;
+
+/**
+ * Write semantics of {@link StatefulStore} and replay of its {@link WriteAheadLog}
+ *
+ * @author Emmanuel Arhu
+ */
+public class StatefulStoreTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Dataset dataset;
+    private DatasetIndex index;
+    private Path directory;
+    private Path walFile;
+
+    @BeforeClass
+    public void buildDataset() {
+        dataset = DatasetGenerator.generate(new DatasetCounts(10, 100, 500, 100, 5000, 200), 7L, true);
+        index = DatasetIndex.build(dataset);
+    }
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("stateful-store");
+        walFile = directory.resolve("store.wal");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void testCreatedIdsStayClearOfOutOfRangeIds() throws IOException {
+        try (StatefulStore store = StatefulStore.open(dataset, index, null, false)) {
+            StatefulStore.Namespace namespace = store.namespace(StatefulStore.DEFAULT_NAMESPACE);
+            JsonNode created = json(namespace.create(Resource.POSTS, object("{\"userId\":1,\"title\":\"t\",\"body\":\"b\"}")));
+
+            assertEquals(created.get("id").asInt(), StatefulStore.FIRST_CREATED_ID);
+            assertFalse(namespace.exists(Resource.POSTS, dataset.count(Resource.POSTS) + 1));
+            assertEquals(ids(namespace.query(Resource.POSTS, QueryFilter.parse(Resource.POSTS, "userId=1"))).getLast(),
+                    StatefulStore.FIRST_CREATED_ID);
+        }
+    }
+
+    @Test
+    public void testPutEchoesBodyAndKeepsOmittedFields() throws IOException {
+        try (StatefulStore store = StatefulStore.open(dataset, index, null, false)) {
+            StatefulStore.Namespace namespace = store.namespace(StatefulStore.DEFAULT_NAMESPACE);
+            JsonNode before = json(namespace.get(Resource.TODOS, 1));
+
+            JsonNode answered = json(namespace.replace(Resource.TODOS, 1, object("{\"title\":\"renamed\"}")));
+            JsonNode stored = json(namespace.get(Resource.TODOS, 1));
+
+            assertEquals(answered, json("{\"title\":\"renamed\",\"id\":1}"));
+            assertEquals(stored.get("title").asText(), "renamed");
+            assertEquals(stored.get("completed"), before.get("completed"));
+            assertEquals(stored.get("userId"), before.get("userId"));
+            assertNull(namespace.replace(Resource.TODOS, dataset.count(Resource.TODOS) + 1, object("{}")));
+        }
+    }
+
+    @Test
+    public void testWalReplayRestoresRowsIdsAndTombstones() throws IOException {
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, true)) {
+            StatefulStore.Namespace shared = store.namespace(StatefulStore.DEFAULT_NAMESPACE);
+            StatefulStore.Namespace worker = store.namespace("worker-0");
+            shared.create(Resource.POSTS, object("{\"userId\":2,\"title\":\"first\"}"));
+            shared.patch(Resource.TODOS, 3, object("{\"completed\":true}"));
+            shared.delete(Resource.COMMENTS, 5);
+            worker.replace(Resource.USERS, 1, object("{\"name\":\"Worker\"}"));
+        }
+
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, true)) {
+            StatefulStore.Namespace shared = store.namespace(StatefulStore.DEFAULT_NAMESPACE);
+            StatefulStore.Namespace worker = store.namespace("worker-0");
+
+            assertEquals(store.overlaySize(), 4);
+            assertEquals(store.getWrites(), 0, "Replayed writes are not counted");
+            assertEquals(json(shared.get(Resource.POSTS, StatefulStore.FIRST_CREATED_ID)).get("title").asText(), "first");
+            assertTrue(json(shared.get(Resource.TODOS, 3)).get("completed").asBoolean());
+            assertFalse(shared.exists(Resource.COMMENTS, 5));
+            assertEquals(json(worker.get(Resource.USERS, 1)).get("name").asText(), "Worker");
+            assertNotEquals(json(shared.get(Resource.USERS, 1)).get("name").asText(), "Worker");
+            assertTrue(worker.exists(Resource.COMMENTS, 5), "Namespaces do not see each other's deletes");
+            assertEquals(json(shared.create(Resource.POSTS, object("{}"))).get("id").asInt(),
+                    StatefulStore.FIRST_CREATED_ID + 1);
+        }
+    }
+
+    @Test
+    public void testTornWalTailIsDropped() throws IOException {
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, false)) {
+            store.namespace(StatefulStore.DEFAULT_NAMESPACE).patch(Resource.POSTS, 1, object("{\"title\":\"kept\"}"));
+        }
+        long intact = Files.size(walFile);
+        Files.write(walFile, new byte[]{0, 0, 1, 0, 9, 9}, StandardOpenOption.APPEND);
+
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, false)) {
+            assertEquals(Files.size(walFile), intact);
+            StatefulStore.Namespace namespace = store.namespace(StatefulStore.DEFAULT_NAMESPACE);
+            assertEquals(json(namespace.get(Resource.POSTS, 1)).get("title").asText(), "kept");
+            namespace.patch(Resource.POSTS, 2, object("{\"title\":\"after\"}"));
+        }
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, false)) {
+            assertEquals(store.overlaySize(), 2);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testWalOfAnotherDatasetIsRejected() throws IOException {
+        try (StatefulStore store = StatefulStore.open(dataset, index, walFile, false)) {
+            store.namespace(StatefulStore.DEFAULT_NAMESPACE).delete(Resource.POSTS, 1);
+        }
+        Dataset other = DatasetGenerator.generate(new DatasetCounts(10, 100, 500, 100, 5000, 200), 8L, true);
+        StatefulStore.open(other, DatasetIndex.build(other), walFile, false).close();
+    }
+
+    private static ObjectNode object(String json) throws IOException {
+        return (ObjectNode) MAPPER.readTree(json);
+    }
+
+    private static JsonNode json(String json) throws IOException {
+        return MAPPER.readTree(json);
+    }
+
+    private static JsonNode json(byte[] json) throws IOException {
+        assertNotNull(json);
+        return MAPPER.readTree(json);
+    }
+
+    private static List<Integer> ids(PrimitiveIterator.OfInt rows) {
+        List<Integer> ids = new ArrayList<>();
+        rows.forEachRemaining((int id) -> ids.add(id));
+        return ids;
+    }
+}
@@ -0,0 +1,108 @@
+package com.emmanuelarhu.standin;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.data.DatasetCounts;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write throughput of {@link StatefulStore} under concurrent clients.
+ *
+ * Each client is a virtual thread running a create/patch/replace/delete mix
+ * against random posts and todos for a fixed time. The same mix runs in
+ * memory only, with the write-ahead log, and with the log fsynced on every
+ * write (group commit), for each client count. With
+ * {@code -Dbenchmark.namespaces=true} every client writes to its own
+ * namespace instead of sharing the default one.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.emmanuelarhu.standin.StoreBenchmark -Dbenchmark.clients=1,4,16,64}
+ *
+ * @author Emmanuel Arhu
+ */
+public final class StoreBenchmark {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private StoreBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        String clients = TestConfig.get("benchmark.clients", "1,4,16,64");
+        long seconds = TestConfig.getLong("benchmark.seconds", 3);
+        boolean perClientNamespace = TestConfig.getBoolean("benchmark.namespaces", false);
+        Dataset dataset = DatasetGenerator.generate(DatasetCounts.current().scaled(TestConfig.getInt("benchmark.scale", 100)), 42L, false);
+        DatasetIndex index = DatasetIndex.build(dataset);
+        Path walDirectory = Files.createDirectories(Path.of("target/standin/benchmark"));
+
+        System.out.printf("%-12s %8s %14s %12s%n", "mode", "clients", "writes/s", "wal MB");
+        for (String mode : new String[]{"memory", "wal", "wal+fsync"}) {
+            for (String count : clients.split(",")) {
+                Path wal = mode.equals("memory") ? null : walDirectory.resolve("store-" + mode.replace('+', '-') + ".wal");
+                if (wal != null) {
+                    Files.deleteIfExists(wal);
+                }
+                try (StatefulStore store = StatefulStore.open(dataset, index, wal, mode.endsWith("fsync"))) {
+                    double throughput = run(store, dataset, Integer.parseInt(count.trim()), seconds, perClientNamespace);
+                    double walMegabytes = wal == null ? 0 : Files.size(wal) / (1024.0 * 1024.0);
+                    System.out.printf("%-12s %8s %,14.0f %12.1f%n", mode, count.trim(), throughput, walMegabytes);
+                }
+            }
+        }
+    }
+
+    private static double run(StatefulStore store, Dataset dataset, int clients, long seconds, boolean perClientNamespace)
+            throws Exception {
+        LongAdder completed = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                SplittableRandom random = new SplittableRandom(client);
+                StatefulStore.Namespace namespace = store.namespace(
+                        perClientNamespace ? "client-" + client : StatefulStore.DEFAULT_NAMESPACE);
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        writeOnce(namespace, dataset, random);
+                        completed.increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return completed.sum() * 1e9 / (System.nanoTime() - started);
+    }
+
+    private static void writeOnce(StatefulStore.Namespace namespace, Dataset dataset, SplittableRandom random)
+            throws IOException {
+        int roll = random.nextInt(100);
+        Resource resource = random.nextBoolean() ? Resource.POSTS : Resource.TODOS;
+        int id = random.nextInt(dataset.count(resource)) + 1;
+        ObjectNode body = NODES.objectNode()
+                .put(resource.getParentField(), random.nextInt(dataset.count(Resource.USERS)) + 1)
+                .put("title", "benchmark " + roll);
+        if (roll < 40) {
+            namespace.create(resource, body);
+        } else if (roll < 75) {
+            namespace.patch(resource, id, NODES.objectNode().put("title", "patched " + roll));
+        } else if (roll < 95) {
+            namespace.replace(resource, id, body);
+        } else {
+            namespace.delete(resource, id);
+        }
+    }
+}
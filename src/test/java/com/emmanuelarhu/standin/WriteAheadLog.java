@@ -0,0 +1,184 @@
+package com.emmanuelarhu.standin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of {@link StatefulStore} mutations, replayed on restart.
+ *
+ * Layout: a 16 byte header (magic, dataset fingerprint) followed by records
+ * of {@code [int payload length][int crc32][payload]}, where the payload is
+ * {@code [byte op][byte resource][int id][byte name length][namespace][row json]}.
+ * Every record carries the full row after the write, so replay is a plain
+ * upsert or delete. A torn or corrupt tail from a crash is cut off on open.
+ *
+ * With {@code sync} each append is fsynced before it returns; concurrent
+ * writers share one {@code force} call (group commit).
+ *
+ * @author Emmanuel Arhu
+ */
+final class WriteAheadLog implements Closeable {
+
+    static final byte UPSERT = 1;
+    static final byte DELETE = 2;
+
+    private static final long MAGIC = 0x524157_414C_303032L; // "RAWAL002"
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int PAYLOAD_HEADER_BYTES = 7;
+
+    /**
+     * Receives replayed records in log order
+     */
+    interface Replayer {
+        void apply(byte op, String namespace, Resource resource, int id, byte[] json);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final Object syncLock = new Object();
+    private long appended;
+    private long synced;
+
+    private WriteAheadLog(Path file, FileChannel channel, boolean sync) {
+        this.file = file;
+        this.channel = channel;
+        this.sync = sync;
+    }
+
+    /**
+     * Open or create the log for a dataset and replay what it already holds
+     */
+    static WriteAheadLog open(Path file, long fingerprint, boolean sync, Replayer replayer) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putLong(MAGIC).putLong(fingerprint).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                channel.force(true);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                if (header.getLong(0) != MAGIC) {
+                    throw new IllegalStateException(file + " is not a stand-in write-ahead log of this version");
+                }
+                if (header.getLong(8) != fingerprint) {
+                    throw new IllegalStateException(file + " was written for a different dataset; delete it or change standin.wal");
+                }
+            }
+            long end = replay(channel, replayer);
+            if (end < channel.size()) {
+                System.out.println("⚠️ Write-ahead log " + file + ": dropping " + (channel.size() - end) + " bytes of torn tail");
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return new WriteAheadLog(file, channel, sync);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Append one mutation; call {@link #awaitDurable(long)} with the result once locks are released
+     */
+    long append(byte op, String namespace, Resource resource, int id, byte[] json) throws IOException {
+        byte[] name = namespace.getBytes(StandardCharsets.US_ASCII); // at most 64 bytes, see StatefulStore
+        int payloadLength = PAYLOAD_HEADER_BYTES + name.length + json.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadLength);
+        record.putInt(payloadLength).putInt(0)
+                .put(op).put((byte) resource.ordinal()).putInt(id).put((byte) name.length).put(name).put(json);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_BYTES, payloadLength);
+        record.putInt(4, (int) crc.getValue()).flip();
+        synchronized (this) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            return ++appended;
+        }
+    }
+
+    /**
+     * Block until the record with this sequence number is on disk (no-op without sync)
+     */
+    void awaitDurable(long sequence) throws IOException {
+        if (!sync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return; // another writer's force already covered us
+            }
+            long target;
+            synchronized (this) {
+                target = appended;
+            }
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Apply every intact record and return the offset just past the last one
+     */
+    private static long replay(FileChannel channel, Replayer replayer) throws IOException {
+        long position = HEADER_BYTES;
+        long size = channel.size();
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            recordHeader.clear();
+            channel.read(recordHeader, position);
+            int payloadLength = recordHeader.getInt(0);
+            if (payloadLength < PAYLOAD_HEADER_BYTES || position + RECORD_HEADER_BYTES + payloadLength > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+            while (payload.hasRemaining()) {
+                channel.read(payload, position + RECORD_HEADER_BYTES + payload.position());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != recordHeader.getInt(4)) {
+                break;
+            }
+            byte op = payload.get(0);
+            int resource = payload.get(1);
+            int nameLength = payload.get(6);
+            if (resource < 0 || resource >= Resource.values().length
+                    || nameLength < 0 || PAYLOAD_HEADER_BYTES + nameLength > payloadLength) {
+                break;
+            }
+            byte[] name = new byte[nameLength];
+            payload.get(PAYLOAD_HEADER_BYTES, name);
+            byte[] json = new byte[payloadLength - PAYLOAD_HEADER_BYTES - nameLength];
+            payload.get(PAYLOAD_HEADER_BYTES + nameLength, json);
+            replayer.apply(op, new String(name, StandardCharsets.US_ASCII), Resource.values()[resource],
+                    payload.getInt(2), json);
+            position += RECORD_HEADER_BYTES + payloadLength;
+        }
+        return position;
+    }
+}
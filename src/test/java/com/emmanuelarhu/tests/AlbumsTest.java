@@ -2,6 +2,8 @@ package com.emmanuelarhu.tests;
 
 import com.emmanuelarhu.base.BaseTest;
 import com.emmanuelarhu.data.TestDataProvider;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
 import com.emmanuelarhu.models.albums;
 import com.emmanuelarhu.validation.AlbumValidation;
 import io.qameta.allure.Description;
@@ -24,25 +26,23 @@ public class AlbumsTest extends BaseTest {
 
     @Test(priority = 1)
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Verify that we can retrieve all albums and get exactly 100 albums")
+    @Description("Verify that we can retrieve all albums and get the expected number of albums")
     public void testGetAllAlbums() {
         try {
             Response response = makeApiCall("/albums", "GET");
 
             response.then()
                     .statusCode(200)
-                    .body("$", hasSize(100))
+                    .body("$", hasSize(COUNTS.getAlbums()))
                     .body("[0].id", notNullValue())
                     .body("[0].userId", notNullValue())
                     .body("[0].title", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to albums objects and verify
             albums[] albums = response.as(albums[].class);
-            AlbumValidation.validateAlbumArray(albums, 100);
+            AlbumValidation.validateAlbumArray(albums, COUNTS.getAlbums());
 
-            System.out.println("✅ Successfully retrieved " + albums.length + " albums");
+            AsyncLog.info("✅ Successfully retrieved " + albums.length + " albums");
         } catch (Exception e) {
             fail("Test failed due to: " + e.getMessage());
         }
@@ -61,13 +61,11 @@ public class AlbumsTest extends BaseTest {
                     .body("userId", notNullValue())
                     .body("title", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to albums object and verify
             albums album = response.as(albums.class);
             AlbumValidation.validateSingleAlbum(album, albumId);
 
-            System.out.println("✅ Successfully retrieved album: " + album.getId());
+            AsyncLog.info("✅ Successfully retrieved album: " + album.getId());
         } catch (Exception e) {
             fail("Test failed for albumId " + albumId + " due to: " + e.getMessage());
         }
@@ -82,7 +80,7 @@ public class AlbumsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(newAlbum)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/albums")
                     .then()
                     .statusCode(201)
@@ -91,13 +89,11 @@ public class AlbumsTest extends BaseTest {
                     .body("title", equalTo(title))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify created album
             albums createdAlbum = response.as(albums.class);
             AlbumValidation.validateCreatedAlbum(createdAlbum, userId, title);
 
-            System.out.println("✅ Successfully created new album with ID: " + createdAlbum.getId());
+            AsyncLog.info("✅ Successfully created new album with ID: " + createdAlbum.getId());
         } catch (Exception e) {
             fail("Test failed for album creation due to: " + e.getMessage());
         }
@@ -113,7 +109,7 @@ public class AlbumsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(updatedAlbum)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .put("/albums/1")
                     .then()
                     .statusCode(200)
@@ -122,13 +118,11 @@ public class AlbumsTest extends BaseTest {
                     .body("title", equalTo(title))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify updated album
             albums returnedAlbum = response.as(albums.class);
             AlbumValidation.validateUpdatedAlbum(returnedAlbum, 1, userId, title);
 
-            System.out.println("✅ Successfully updated album 1");
+            AsyncLog.info("✅ Successfully updated album 1");
         } catch (Exception e) {
             fail("Test failed for album update due to: " + e.getMessage());
         }
@@ -143,7 +137,7 @@ public class AlbumsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(patchBody)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .patch("/albums/1")
                     .then()
                     .statusCode(200)
@@ -152,8 +146,7 @@ public class AlbumsTest extends BaseTest {
                     .body("userId", notNullValue())
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Successfully patched album title");
+            AsyncLog.info("✅ Successfully patched album title");
         } catch (Exception e) {
             fail("Test failed for album patch due to: " + e.getMessage());
         }
@@ -167,9 +160,8 @@ public class AlbumsTest extends BaseTest {
             Response response = makeApiCall("/albums/1", "DELETE");
 
             response.then().statusCode(200);
-            verifyResponseTime(response.getTime());
 
-            System.out.println("✅ Successfully deleted album 1");
+            AsyncLog.info("✅ Successfully deleted album 1");
         } catch (Exception e) {
             fail("Test failed for album deletion due to: " + e.getMessage());
         }
@@ -182,7 +174,7 @@ public class AlbumsTest extends BaseTest {
         try {
             Response response = getRequest()
                     .queryParam("userId", userId)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/albums")
                     .then()
                     .statusCode(200)
@@ -190,12 +182,10 @@ public class AlbumsTest extends BaseTest {
                     .body("userId", everyItem(equalTo(userId)))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             albums[] albums = response.as(albums[].class);
             AlbumValidation.validateAlbumsForUser(albums, userId);
 
-            System.out.println("✅ Successfully filtered " + albums.length + " albums by userId=" + userId);
+            AsyncLog.info("✅ Successfully filtered " + albums.length + " albums by userId=" + userId);
         } catch (Exception e) {
             fail("Test failed for album filtering by userId " + userId + " due to: " + e.getMessage());
         }
@@ -208,14 +198,13 @@ public class AlbumsTest extends BaseTest {
     public void testGetNonExistentAlbum(int invalidAlbumId) {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/albums/" + invalidAlbumId)
                     .then()
                     .statusCode(404)
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned 404 for invalid album ID: " + invalidAlbumId);
+            AsyncLog.info("✅ Correctly returned 404 for invalid album ID: " + invalidAlbumId);
         } catch (Exception e) {
             fail("Negative test failed for invalid albumId " + invalidAlbumId + " due to: " + e.getMessage());
         }
@@ -230,17 +219,16 @@ public class AlbumsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(invalidAlbum)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/albums");
 
             // JSONPlaceholder is lenient, but we verify response is received
             assertTrue(response.getStatusCode() == 404 ,
                     "Should receive a valid HTTP response code");
 
-            verifyResponseTime(response.getTime());
-            System.out.println("🔍 Tested invalid album data: userId=" + userId + ", title='" + title + "'");
+            AsyncLog.info("🔍 Tested invalid album data: userId=" + userId + ", title='" + title + "'");
         } catch (Exception e) {
-            System.out.println("✅ Expected error for invalid album data: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for invalid album data: " + e.getMessage());
         }
     }
 
@@ -250,16 +238,15 @@ public class AlbumsTest extends BaseTest {
     public void testFilterAlbumsWithInvalidUserId() {
         try {
             Response response = getRequest()
-                    .queryParam("userId", 999)
-                    .when().log().all()
+                    .queryParam("userId", COUNTS.getUsers() + 1)
+                    .when().filter(LogFilter.all())
                     .get("/albums")
                     .then()
                     .statusCode(404)
                     .body("$", hasSize(0)) // Should return empty array
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned empty array for non-existent userId filter");
+            AsyncLog.info("✅ Correctly returned empty array for non-existent userId filter");
         } catch (Exception e) {
             fail("Test failed for invalid userId filter due to: " + e.getMessage());
         }
@@ -271,14 +258,13 @@ public class AlbumsTest extends BaseTest {
     public void testDeleteNonExistentAlbum() {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .delete("/albums/999")
                     .then()
                     .statusCode(404) // JSONPlaceholder returns 200 even for non-existent resources
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Handled deletion of non-existent album gracefully");
+            AsyncLog.info("✅ Handled deletion of non-existent album gracefully");
         } catch (Exception e) {
             fail("Negative test for deleting non-existent album failed due to: " + e.getMessage());
         }
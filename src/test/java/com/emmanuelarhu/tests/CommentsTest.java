@@ -2,6 +2,8 @@ package com.emmanuelarhu.tests;
 
 import com.emmanuelarhu.base.BaseTest;
 import com.emmanuelarhu.data.TestDataProvider;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
 import com.emmanuelarhu.models.comments;
 import com.emmanuelarhu.validation.CommentValidation;
 import io.qameta.allure.Description;
@@ -24,27 +26,25 @@ public class CommentsTest extends BaseTest {
 
     @Test(priority = 1)
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Verify that we can retrieve all comments and get exactly 500 comments")
+    @Description("Verify that we can retrieve all comments and get the expected number of comments")
     public void testGetAllComments() {
         try {
             Response response = makeApiCall("/comments", "GET");
 
             response.then()
                     .statusCode(200)
-                    .body("$", hasSize(500))
+                    .body("$", hasSize(COUNTS.getComments()))
                     .body("[0].id", notNullValue())
                     .body("[0].postId", notNullValue())
                     .body("[0].name", not(emptyString()))
                     .body("[0].email", containsString("@"))
                     .body("[0].body", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to comments objects and verify
             comments[] comments = response.as(comments[].class);
-            CommentValidation.validateCommentArray(comments, 500);
+            CommentValidation.validateCommentArray(comments, COUNTS.getComments());
 
-            System.out.println("✅ Successfully retrieved " + comments.length + " comments");
+            AsyncLog.info("✅ Successfully retrieved " + comments.length + " comments");
         } catch (Exception e) {
             fail("Test failed due to: " + e.getMessage());
         }
@@ -65,13 +65,11 @@ public class CommentsTest extends BaseTest {
                     .body("email", containsString("@"))
                     .body("body", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to comments object and verify
             comments comment = response.as(comments.class);
             CommentValidation.validateSingleComment(comment, commentId);
 
-            System.out.println("✅ Successfully retrieved comment: " + comment.getId());
+            AsyncLog.info("✅ Successfully retrieved comment: " + comment.getId());
         } catch (Exception e) {
             fail("Test failed for commentId " + commentId + " due to: " + e.getMessage());
         }
@@ -86,7 +84,7 @@ public class CommentsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(newComment)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/comments")
                     .then()
                     .statusCode(201)
@@ -97,13 +95,11 @@ public class CommentsTest extends BaseTest {
                     .body("body", equalTo(body))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify created comment
             comments createdComment = response.as(comments.class);
             CommentValidation.validateCreatedComment(createdComment, postId, name, email, body);
 
-            System.out.println("✅ Successfully created new comment with ID: " + createdComment.getId());
+            AsyncLog.info("✅ Successfully created new comment with ID: " + createdComment.getId());
         } catch (Exception e) {
             fail("Test failed for comment creation due to: " + e.getMessage());
         }
@@ -119,7 +115,7 @@ public class CommentsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(updatedComment)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .put("/comments/1")
                     .then()
                     .statusCode(200)
@@ -130,8 +126,7 @@ public class CommentsTest extends BaseTest {
                     .body("body", equalTo(body))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Successfully updated comment 1");
+            AsyncLog.info("✅ Successfully updated comment 1");
         } catch (Exception e) {
             fail("Test failed for comment update due to: " + e.getMessage());
         }
@@ -145,9 +140,8 @@ public class CommentsTest extends BaseTest {
             Response response = makeApiCall("/comments/1", "DELETE");
 
             response.then().statusCode(200);
-            verifyResponseTime(response.getTime());
 
-            System.out.println("✅ Successfully deleted comment 1");
+            AsyncLog.info("✅ Successfully deleted comment 1");
         } catch (Exception e) {
             fail("Test failed for comment deletion due to: " + e.getMessage());
         }
@@ -160,7 +154,7 @@ public class CommentsTest extends BaseTest {
         try {
             Response response = getRequest()
                     .queryParam("postId", postId)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/comments")
                     .then()
                     .statusCode(200)
@@ -168,12 +162,10 @@ public class CommentsTest extends BaseTest {
                     .body("postId", everyItem(equalTo(postId)))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             comments[] comments = response.as(comments[].class);
             CommentValidation.validateCommentsForPost(comments, postId);
 
-            System.out.println("✅ Successfully filtered " + comments.length + " comments by postId=" + postId);
+            AsyncLog.info("✅ Successfully filtered " + comments.length + " comments by postId=" + postId);
         } catch (Exception e) {
             fail("Test failed for comment filtering by postId " + postId + " due to: " + e.getMessage());
         }
@@ -186,14 +178,13 @@ public class CommentsTest extends BaseTest {
     public void testGetNonExistentComment(int invalidCommentId) {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/comments/" + invalidCommentId)
                     .then()
                     .statusCode(404)
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned 404 for invalid comment ID: " + invalidCommentId);
+            AsyncLog.info("✅ Correctly returned 404 for invalid comment ID: " + invalidCommentId);
         } catch (Exception e) {
             fail("Negative test failed for invalid commentId " + invalidCommentId + " due to: " + e.getMessage());
         }
@@ -208,17 +199,16 @@ public class CommentsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(invalidComment)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/comments");
 
             // JSONPlaceholder is lenient, but we verify response is received
             assertTrue(response.getStatusCode() == 200 ,
                     "Expected 404 Not Found for invalid comment creation");
 
-            verifyResponseTime(response.getTime());
-            System.out.println("🔍 Tested invalid comment data: postId=" + postId + ", name='" + name + "'");
+            AsyncLog.info("🔍 Tested invalid comment data: postId=" + postId + ", name='" + name + "'");
         } catch (Exception e) {
-            System.out.println("✅ Expected error for invalid comment data: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for invalid comment data: " + e.getMessage());
         }
     }
 
@@ -228,16 +218,15 @@ public class CommentsTest extends BaseTest {
     public void testFilterCommentsWithInvalidPostId() {
         try {
             Response response = getRequest()
-                    .queryParam("postId", 999)
-                    .when().log().all()
+                    .queryParam("postId", COUNTS.getPosts() + 1)
+                    .when().filter(LogFilter.all())
                     .get("/comments")
                     .then()
                     .statusCode(404)
                     .body("$", hasSize(0)) // Should return empty array
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned empty array for non-existent postId filter");
+            AsyncLog.info("✅ Correctly returned empty array for non-existent postId filter");
         } catch (Exception e) {
             fail("Test failed for invalid postId filter due to: " + e.getMessage());
         }
@@ -2,7 +2,10 @@ package com.emmanuelarhu.tests;
 
 import com.emmanuelarhu.base.BaseTest;
 import com.emmanuelarhu.data.TestDataProvider;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
 import com.emmanuelarhu.models.photos;
+import com.emmanuelarhu.usage.ResourceBudget;
 import com.emmanuelarhu.validation.PhotoValidation;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
@@ -24,27 +27,26 @@ public class PhotosTest extends BaseTest {
 
     @Test(priority = 1)
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Verify that we can retrieve all photos and get exactly 5000 photos")
+    @Description("Verify that we can retrieve all photos and get the expected number of photos")
+    @ResourceBudget(allocatedMb = 450, receivedKb = 1500, scalesWithDataset = true)
     public void testGetAllPhotos() {
         try {
             Response response = makeApiCall("/photos", "GET");
 
             response.then()
                     .statusCode(200)
-                    .body("$", hasSize(5000))
+                    .body("$", hasSize(COUNTS.getPhotos()))
                     .body("[0].id", notNullValue())
                     .body("[0].albumId", notNullValue())
                     .body("[0].title", not(emptyString()))
                     .body("[0].url", not(emptyString()))
                     .body("[0].thumbnailUrl", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to photos objects and verify
             photos[] photos = response.as(photos[].class);
-            PhotoValidation.validatePhotoArray(photos, 5000);
+            PhotoValidation.validatePhotoArray(photos, COUNTS.getPhotos());
 
-            System.out.println("✅ Successfully retrieved " + photos.length + " photos");
+            AsyncLog.info("✅ Successfully retrieved " + photos.length + " photos");
         } catch (Exception e) {
             fail("Test failed due to: " + e.getMessage());
         }
@@ -53,6 +55,7 @@ public class PhotosTest extends BaseTest {
     @Test(dataProvider = "validPhotoIds", dataProviderClass = TestDataProvider.class, priority = 2)
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that we can retrieve specific photos by valid IDs")
+    @ResourceBudget(allocatedMb = 15, receivedKb = 2)
     public void testGetSinglePhoto(int photoId) {
         try {
             Response response = makeApiCall("/photos/" + photoId, "GET");
@@ -65,13 +68,11 @@ public class PhotosTest extends BaseTest {
                     .body("url", not(emptyString()))
                     .body("thumbnailUrl", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to photos object and verify
             photos photo = response.as(photos.class);
             PhotoValidation.validateSinglePhoto(photo, photoId);
 
-            System.out.println("✅ Successfully retrieved photo: " + photo.getId());
+            AsyncLog.info("✅ Successfully retrieved photo: " + photo.getId());
         } catch (Exception e) {
             fail("Test failed for photoId " + photoId + " due to: " + e.getMessage());
         }
@@ -86,7 +87,7 @@ public class PhotosTest extends BaseTest {
 
             Response response = getRequest()
                     .body(newPhoto)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/photos")
                     .then()
                     .statusCode(201)
@@ -97,13 +98,11 @@ public class PhotosTest extends BaseTest {
                     .body("thumbnailUrl", equalTo(thumbnailUrl))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify created photo
             photos createdPhoto = response.as(photos.class);
             PhotoValidation.validateCreatedPhoto(createdPhoto, albumId, title, url, thumbnailUrl);
 
-            System.out.println("✅ Successfully created new photo with ID: " + createdPhoto.getId());
+            AsyncLog.info("✅ Successfully created new photo with ID: " + createdPhoto.getId());
         } catch (Exception e) {
             fail("Test failed for photo creation due to: " + e.getMessage());
         }
@@ -119,7 +118,7 @@ public class PhotosTest extends BaseTest {
 
             Response response = getRequest()
                     .body(updatedPhoto)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .put("/photos/1")
                     .then()
                     .statusCode(200)
@@ -130,13 +129,11 @@ public class PhotosTest extends BaseTest {
                     .body("thumbnailUrl", equalTo(thumbnailUrl))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify updated photo
             photos returnedPhoto = response.as(photos.class);
             PhotoValidation.validateUpdatedPhoto(returnedPhoto, 1, albumId, title, url, thumbnailUrl);
 
-            System.out.println("✅ Successfully updated photo 1");
+            AsyncLog.info("✅ Successfully updated photo 1");
         } catch (Exception e) {
             fail("Test failed for photo update due to: " + e.getMessage());
         }
@@ -151,7 +148,7 @@ public class PhotosTest extends BaseTest {
 
             Response response = getRequest()
                     .body(patchBody)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .patch("/photos/1")
                     .then()
                     .statusCode(200)
@@ -162,8 +159,7 @@ public class PhotosTest extends BaseTest {
                     .body("thumbnailUrl", notNullValue())
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Successfully patched photo title");
+            AsyncLog.info("✅ Successfully patched photo title");
         } catch (Exception e) {
             fail("Test failed for photo patch due to: " + e.getMessage());
         }
@@ -177,9 +173,8 @@ public class PhotosTest extends BaseTest {
             Response response = makeApiCall("/photos/1", "DELETE");
 
             response.then().statusCode(200);
-            verifyResponseTime(response.getTime());
 
-            System.out.println("✅ Successfully deleted photo 1");
+            AsyncLog.info("✅ Successfully deleted photo 1");
         } catch (Exception e) {
             fail("Test failed for photo deletion due to: " + e.getMessage());
         }
@@ -188,11 +183,12 @@ public class PhotosTest extends BaseTest {
     @Test(dataProvider = "userIdFilters", dataProviderClass = TestDataProvider.class, priority = 7)
     @Severity(SeverityLevel.NORMAL)
     @Description("Verify that we can filter photos by album ID")
+    @ResourceBudget(allocatedMb = 20, receivedKb = 25)
     public void testFilterPhotosByAlbum(int albumId) {
         try {
             Response response = getRequest()
                     .queryParam("albumId", albumId)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/photos")
                     .then()
                     .statusCode(200)
@@ -200,12 +196,10 @@ public class PhotosTest extends BaseTest {
                     .body("albumId", everyItem(equalTo(albumId)))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             photos[] photos = response.as(photos[].class);
             PhotoValidation.validatePhotosForAlbum(photos, albumId);
 
-            System.out.println("✅ Successfully filtered " + photos.length + " photos by albumId=" + albumId);
+            AsyncLog.info("✅ Successfully filtered " + photos.length + " photos by albumId=" + albumId);
         } catch (Exception e) {
             fail("Test failed for photo filtering by albumId " + albumId + " due to: " + e.getMessage());
         }
@@ -218,14 +212,13 @@ public class PhotosTest extends BaseTest {
     public void testGetNonExistentPhoto(int invalidPhotoId) {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/photos/" + invalidPhotoId)
                     .then()
                     .statusCode(404)
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned 404 for invalid photo ID: " + invalidPhotoId);
+            AsyncLog.info("✅ Correctly returned 404 for invalid photo ID: " + invalidPhotoId);
         } catch (Exception e) {
             fail("Negative test failed for invalid photoId " + invalidPhotoId + " due to: " + e.getMessage());
         }
@@ -240,17 +233,16 @@ public class PhotosTest extends BaseTest {
 
             Response response = getRequest()
                     .body(invalidPhoto)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/photos");
 
             // JSONPlaceholder is lenient, but we verify response is received
             assertTrue(response.getStatusCode() >= 200 && response.getStatusCode() < 500,
                     "Should receive a valid HTTP response code");
 
-            verifyResponseTime(response.getTime());
-            System.out.println("🔍 Tested invalid photo data: albumId=" + albumId + ", title='" + title + "'");
+            AsyncLog.info("🔍 Tested invalid photo data: albumId=" + albumId + ", title='" + title + "'");
         } catch (Exception e) {
-            System.out.println("✅ Expected error for invalid photo data: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for invalid photo data: " + e.getMessage());
         }
     }
 
@@ -260,16 +252,15 @@ public class PhotosTest extends BaseTest {
     public void testFilterPhotosWithInvalidAlbumId() {
         try {
             Response response = getRequest()
-                    .queryParam("albumId", 9999)
-                    .when().log().all()
+                    .queryParam("albumId", COUNTS.getAlbums() + 1)
+                    .when().filter(LogFilter.all())
                     .get("/photos")
                     .then()
                     .statusCode(404)
                     .body("$", hasSize(0)) // Should return empty array
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned empty array for non-existent albumId filter");
+            AsyncLog.info("✅ Correctly returned empty array for non-existent albumId filter");
         } catch (Exception e) {
             fail("Test failed for invalid albumId filter due to: " + e.getMessage());
         }
@@ -281,14 +272,13 @@ public class PhotosTest extends BaseTest {
     public void testDeleteNonExistentPhoto() {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .delete("/photos/9999")
                     .then()
                     .statusCode(404) // JSONPlaceholder returns 200 even for non-existent resources
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Handled deletion of non-existent photo gracefully");
+            AsyncLog.info("✅ Handled deletion of non-existent photo gracefully");
         } catch (Exception e) {
             fail("Negative test for deleting non-existent photo failed due to: " + e.getMessage());
         }
@@ -303,14 +293,14 @@ public class PhotosTest extends BaseTest {
 
             Response response = getRequest()
                     .body(malformedJson)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/photos");
 
             // Should handle malformed JSON gracefully
             assertTrue(response.getStatusCode() >= 400, "Should return error for malformed JSON");
-            System.out.println("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
+            AsyncLog.info("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
         } catch (Exception e) {
-            System.out.println("✅ Expected error for malformed JSON: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for malformed JSON: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.emmanuelarhu.tests;
 
 import com.emmanuelarhu.base.BaseTest;
 import com.emmanuelarhu.data.TestDataProvider;
-import com.emmanuelarhu.models.posts;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
 import com.emmanuelarhu.models.comments;
-import com.emmanuelarhu.validation.PostValidation;
+import com.emmanuelarhu.models.posts;
 import com.emmanuelarhu.validation.CommentValidation;
+import com.emmanuelarhu.validation.PostValidation;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
@@ -26,26 +28,24 @@ public class PostsTest extends BaseTest {
 
     @Test(priority = 1)
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Verify that we can retrieve all posts and get exactly 100 posts")
+    @Description("Verify that we can retrieve all posts and get the expected number of posts")
     public void testGetAllPosts() {
         try {
             Response response = makeApiCall("/posts", "GET");
 
             response.then()
                     .statusCode(200)
-                    .body("$", hasSize(100))
+                    .body("$", hasSize(COUNTS.getPosts()))
                     .body("[0].id", notNullValue())
                     .body("[0].userId", notNullValue())
                     .body("[0].title", not(emptyString()))
                     .body("[0].body", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to Post objects and verify
             posts[] posts = response.as(posts[].class);
-            PostValidation.validatePostArray(posts, 100);
+            PostValidation.validatePostArray(posts, COUNTS.getPosts());
 
-            System.out.println("✅ Successfully retrieved " + posts.length + " posts");
+            AsyncLog.info("✅ Successfully retrieved " + posts.length + " posts");
         } catch (Exception e) {
             fail("Test failed due to: " + e.getMessage());
         }
@@ -65,14 +65,12 @@ public class PostsTest extends BaseTest {
                     .body("title", not(emptyString()))
                     .body("body", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to Post object and verify
             posts post = response.as(posts.class);
             assertEquals(post.getId().intValue(), postId, "Post ID should match expected");
             PostValidation.validateBasicPostFields(post);
 
-            System.out.println("✅ Successfully retrieved post: " + post);
+            AsyncLog.info("✅ Successfully retrieved post: " + post);
         } catch (Exception e) {
             fail("Test failed for postId " + postId + " due to: " + e.getMessage());
         }
@@ -94,13 +92,11 @@ public class PostsTest extends BaseTest {
                     .body("[0].email", containsString("@"))
                     .body("[0].body", not(emptyString()));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to comments objects and verify
             comments[] comments = response.as(comments[].class);
             CommentValidation.validateCommentsForPost(comments, 1);
 
-            System.out.println("✅ Successfully retrieved " + comments.length + " comments for post 1");
+            AsyncLog.info("✅ Successfully retrieved " + comments.length + " comments for post 1");
         } catch (Exception e) {
             fail("Test failed for getting comments for post due to: " + e.getMessage());
         }
@@ -113,7 +109,7 @@ public class PostsTest extends BaseTest {
         try {
             Response response = getRequest()
                     .queryParam("postId", postId)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/comments")
                     .then()
                     .statusCode(200)
@@ -121,13 +117,11 @@ public class PostsTest extends BaseTest {
                     .body("postId", everyItem(equalTo(postId)))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Convert to comments objects and verify
             comments[] comments = response.as(comments[].class);
             CommentValidation.validateCommentsForPost(comments, postId);
 
-            System.out.println("✅ Successfully filtered comments by postId=" + postId + ", found " + comments.length + " comments");
+            AsyncLog.info("✅ Successfully filtered comments by postId=" + postId + ", found " + comments.length + " comments");
         } catch (Exception e) {
             fail("Test failed for comment filtering by postId " + postId + " due to: " + e.getMessage());
         }
@@ -142,7 +136,7 @@ public class PostsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(newPost)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/posts")
                     .then()
                     .statusCode(201)
@@ -152,13 +146,11 @@ public class PostsTest extends BaseTest {
                     .body("body", equalTo(body))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Convert to Post object and verify
             posts createdPost = response.as(posts.class);
             PostValidation.validateCreatedPost(createdPost, userId, title, body);
 
-            System.out.println("✅ Successfully created new post with ID: " + createdPost.getId());
+            AsyncLog.info("✅ Successfully created new post with ID: " + createdPost.getId());
         } catch (Exception e) {
             fail("Test failed for post creation due to: " + e.getMessage());
         }
@@ -174,7 +166,7 @@ public class PostsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(updatedPost)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .put("/posts/1")
                     .then()
                     .statusCode(200)
@@ -184,8 +176,6 @@ public class PostsTest extends BaseTest {
                     .body("body", equalTo(body))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Convert to Post object and verify
             posts returnedPost = response.as(posts.class);
             assertEquals(returnedPost.getId().intValue(), 1, "Updated post should have correct ID");
@@ -193,7 +183,7 @@ public class PostsTest extends BaseTest {
             assertEquals(returnedPost.getTitle(), title, "Updated post should have new title");
             assertEquals(returnedPost.getBody(), body, "Updated post should have new body");
 
-            System.out.println("✅ Successfully updated post: " + returnedPost);
+            AsyncLog.info("✅ Successfully updated post: " + returnedPost);
         } catch (Exception e) {
             fail("Test failed for post update due to: " + e.getMessage());
         }
@@ -208,7 +198,7 @@ public class PostsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(patchBody)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .patch("/posts/1")
                     .then()
                     .statusCode(200)
@@ -218,8 +208,6 @@ public class PostsTest extends BaseTest {
                     .body("body", notNullValue())
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Convert to Post object and verify
             posts patchedPost = response.as(posts.class);
             assertEquals(patchedPost.getId().intValue(), 1, "Patched post should have correct ID");
@@ -227,7 +215,7 @@ public class PostsTest extends BaseTest {
             assertNotNull(patchedPost.getUserId(), "Patched post should still have userId");
             assertNotNull(patchedPost.getBody(), "Patched post should still have body");
 
-            System.out.println("✅ Successfully patched post title: " + patchedPost.getTitle());
+            AsyncLog.info("✅ Successfully patched post title: " + patchedPost.getTitle());
         } catch (Exception e) {
             fail("Test failed for post patch due to: " + e.getMessage());
         }
@@ -241,9 +229,8 @@ public class PostsTest extends BaseTest {
             Response response = makeApiCall("/posts/1", "DELETE");
 
             response.then().statusCode(200);
-            verifyResponseTime(response.getTime());
 
-            System.out.println("✅ Successfully deleted post 1");
+            AsyncLog.info("✅ Successfully deleted post 1");
         } catch (Exception e) {
             fail("Test failed for post deletion due to: " + e.getMessage());
         }
@@ -256,14 +243,13 @@ public class PostsTest extends BaseTest {
     public void testGetNonExistentPost(int invalidPostId) {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/posts/" + invalidPostId)
                     .then()
                     .statusCode(404)
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned 404 for invalid post ID: " + invalidPostId);
+            AsyncLog.info("✅ Correctly returned 404 for invalid post ID: " + invalidPostId);
         } catch (Exception e) {
             fail("Negative test failed for invalid postId " + invalidPostId + " due to: " + e.getMessage());
         }
@@ -278,17 +264,16 @@ public class PostsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(invalidPost)
-                    .when().log().all().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/posts");
 
             // JSONPlaceholder is lenient, but we verify response is received
             assertTrue(response.getStatusCode() == 404,
                     "Should receive a valid HTTP response code");
 
-            verifyResponseTime(response.getTime());
-            System.out.println("🔍 Tested invalid post data: userId=" + userId + ", title='" + title + "'");
+            AsyncLog.info("🔍 Tested invalid post data: userId=" + userId + ", title='" + title + "'");
         } catch (Exception e) {
-            System.out.println("✅ Expected error for invalid post data: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for invalid post data: " + e.getMessage());
         }
     }
 
@@ -298,14 +283,13 @@ public class PostsTest extends BaseTest {
     public void testDeleteNonExistentPost() {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .delete("/posts/999")
                     .then()
                     .statusCode(404) // JSONPlaceholder returns 200 even for non-existent resources
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Handled deletion of non-existent post gracefully");
+            AsyncLog.info("✅ Handled deletion of non-existent post gracefully");
         } catch (Exception e) {
             fail("Negative test for deleting non-existent post failed due to: " + e.getMessage());
         }
@@ -320,14 +304,14 @@ public class PostsTest extends BaseTest {
 
             Response response = getRequest()
                     .body(malformedJson)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/posts");
 
             // Should handle malformed JSON gracefully
             assertTrue(response.getStatusCode() >= 400, "Should return error for malformed JSON");
-            System.out.println("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
+            AsyncLog.info("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
         } catch (Exception e) {
-            System.out.println("✅ Expected error for malformed JSON: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for malformed JSON: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
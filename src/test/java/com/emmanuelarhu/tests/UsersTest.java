@@ -2,6 +2,8 @@ package com.emmanuelarhu.tests;
 
 import com.emmanuelarhu.base.BaseTest;
 import com.emmanuelarhu.data.TestDataProvider;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.emmanuelarhu.logging.LogFilter;
 import com.emmanuelarhu.models.users;
 import com.emmanuelarhu.validation.UserValidation;
 import io.qameta.allure.Description;
@@ -24,29 +26,27 @@ public class UsersTest extends BaseTest {
 
     @Test(priority = 1)
     @Severity(SeverityLevel.CRITICAL)
-    @Description("Verify that we can retrieve all users and get exactly 10 users")
+    @Description("Verify that we can retrieve all users and get the expected number of users")
     public void testGetAllUsers() {
         try {
             Response response = makeApiCall("/users", "GET");
 
             response.then()
                     .statusCode(200)
-                    .body("$", hasSize(10))
+                    .body("$", hasSize(COUNTS.getUsers()))
                     .body("[0].id", notNullValue())
                     .body("[0].name", not(emptyString()))
                     .body("[0].username", not(emptyString()))
                     .body("[0].email", containsString("@"));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to users objects and verify
             users[] users = response.as(users[].class);
-            assertEquals(users.length, 10, "Should have exactly 10 users");
+            assertEquals(users.length, COUNTS.getUsers(), "Should have exactly " + COUNTS.getUsers() + " users");
 
             // Use validation class
             UserValidation.validateUserArray(users);
 
-            System.out.println("✅ Successfully retrieved " + users.length + " users");
+            AsyncLog.info("✅ Successfully retrieved " + users.length + " users");
         } catch (Exception e) {
             fail("Test failed due to: " + e.getMessage());
         }
@@ -66,13 +66,11 @@ public class UsersTest extends BaseTest {
                     .body("username", not(emptyString()))
                     .body("email", containsString("@"));
 
-            verifyResponseTime(response.getTime());
-
             // Convert to users object and verify
             users user = response.as(users.class);
             UserValidation.validateSingleUser(user, userId);
 
-            System.out.println("✅ Successfully retrieved user: " + user);
+            AsyncLog.info("✅ Successfully retrieved user: " + user);
         } catch (Exception e) {
             fail("Test failed for userId " + userId + " due to: " + e.getMessage());
         }
@@ -87,7 +85,7 @@ public class UsersTest extends BaseTest {
 
             Response response = getRequest()
                     .body(newUser)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/users")
                     .then()
                     .statusCode(201)
@@ -97,13 +95,11 @@ public class UsersTest extends BaseTest {
                     .body("email", equalTo(email))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             // Verify created user
             users createdUser = response.as(users.class);
             UserValidation.validateCreatedUser(createdUser, name, username, email);
 
-            System.out.println("✅ Successfully created new user with ID: " + createdUser.getId());
+            AsyncLog.info("✅ Successfully created new user with ID: " + createdUser.getId());
         } catch (Exception e) {
             fail("Test failed for user creation with data: " + name + ", " + username + ", " + email + " due to: " + e.getMessage());
         }
@@ -119,7 +115,7 @@ public class UsersTest extends BaseTest {
 
             Response response = getRequest()
                     .body(updatedUser)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .put("/users/1")
                     .then()
                     .statusCode(200)
@@ -129,12 +125,10 @@ public class UsersTest extends BaseTest {
                     .body("email", equalTo(email))
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-
             users returnedUser = response.as(users.class);
             UserValidation.validateUpdatedUser(returnedUser, 1, name, username, email);
 
-            System.out.println("✅ Successfully updated user: " + returnedUser);
+            AsyncLog.info("✅ Successfully updated user: " + returnedUser);
         } catch (Exception e) {
             fail("Test failed for user update due to: " + e.getMessage());
         }
@@ -148,9 +142,8 @@ public class UsersTest extends BaseTest {
             Response response = makeApiCall("/users/1", "DELETE");
 
             response.then().statusCode(200);
-            verifyResponseTime(response.getTime());
 
-            System.out.println("✅ Successfully deleted user 1");
+            AsyncLog.info("✅ Successfully deleted user 1");
         } catch (Exception e) {
             fail("Test failed for user deletion due to: " + e.getMessage());
         }
@@ -163,14 +156,13 @@ public class UsersTest extends BaseTest {
     public void testGetNonExistentUser(int invalidUserId) {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .get("/users/" + invalidUserId)
                     .then()
                     .statusCode(404)
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Correctly returned 404 for invalid user ID: " + invalidUserId);
+            AsyncLog.info("✅ Correctly returned 404 for invalid user ID: " + invalidUserId);
         } catch (Exception e) {
             fail("Negative test failed for invalid userId " + invalidUserId + " due to: " + e.getMessage());
         }
@@ -185,7 +177,7 @@ public class UsersTest extends BaseTest {
 
             Response response = getRequest()
                     .body(invalidUser)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/users");
 
             // Note: JSONPlaceholder is lenient, but in real APIs this would return 400
@@ -193,11 +185,10 @@ public class UsersTest extends BaseTest {
             assertTrue(response.getStatusCode() == 404,
                     "Should receive a valid HTTP response code");
 
-            verifyResponseTime(response.getTime());
-            System.out.println("🔍 Tested invalid data: name='" + name + "', username='" + username + "', email='" + email + "'");
+            AsyncLog.info("🔍 Tested invalid data: name='" + name + "', username='" + username + "', email='" + email + "'");
         } catch (Exception e) {
             // Expected behavior for truly invalid requests
-            System.out.println("✅ Expected error for invalid data: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for invalid data: " + e.getMessage());
         }
     }
 
@@ -207,14 +198,13 @@ public class UsersTest extends BaseTest {
     public void testDeleteNonExistentUser() {
         try {
             Response response = getRequest()
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .delete("/users/999")
                     .then()
                     .statusCode(200) // JSONPlaceholder returns 200 even for non-existent resources
                     .extract().response();
 
-            verifyResponseTime(response.getTime());
-            System.out.println("✅ Handled deletion of non-existent user gracefully");
+            AsyncLog.info("✅ Handled deletion of non-existent user gracefully");
         } catch (Exception e) {
             fail("Negative test for deleting non-existent user failed due to: " + e.getMessage());
         }
@@ -229,14 +219,14 @@ public class UsersTest extends BaseTest {
 
             Response response = getRequest()
                     .body(malformedJson)
-                    .when().log().all()
+                    .when().filter(LogFilter.all())
                     .post("/users");
 
             // Should handle malformed JSON gracefully
             assertTrue(response.getStatusCode() >= 400, "Should return error for malformed JSON");
-            System.out.println("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
+            AsyncLog.info("✅ Properly handled malformed JSON with status: " + response.getStatusCode());
         } catch (Exception e) {
-            System.out.println("✅ Expected error for malformed JSON: " + e.getMessage());
+            AsyncLog.info("✅ Expected error for malformed JSON: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.emmanuelarhu.trace;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes spans in the Chrome Trace Event JSON format, which Perfetto
+ * (ui.perfetto.dev) and chrome://tracing open: one complete ({@code X})
+ * event per span on its thread's track, an enclosing event per
+ * data-provider method around its rows, and a "Critical path" track on top
+ * with the {@link CriticalPath} steps and the gaps between them.
+ *
+ * @author Emmanuel Arhu
+ */
+final class ChromeTrace {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int PID = 1;
+    private static final int CRITICAL_PATH_TID = 0;
+
+    private ChromeTrace() {}
+
+    static void write(List<Span> spans, CriticalPath path, OutputStream out) throws IOException {
+        long origin = spans.stream().mapToLong(Span::getStartNanos).min().orElse(0);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("traceEvents");
+
+            metadata(json, "process_name", CRITICAL_PATH_TID, "JSONPlaceholder API tests");
+            metadata(json, "thread_name", CRITICAL_PATH_TID, "Critical path");
+            Map<Long, String> threads = new LinkedHashMap<>();
+            for (Span span : spans) {
+                threads.putIfAbsent(span.getThreadId(), span.getThreadName());
+            }
+            for (Map.Entry<Long, String> thread : threads.entrySet()) {
+                metadata(json, "thread_name", thread.getKey(), thread.getValue());
+            }
+
+            for (Span span : spans) {
+                event(json, span.getName(), span.getCategory(), span.getThreadId(), span.getStartNanos() - origin,
+                        span.getNanos(), span.getArgs());
+            }
+            dataProviderMethods(json, spans, origin);
+
+            long previousEnd = path.getStartNanos();
+            for (CriticalPath.Step step : path.getSteps()) {
+                Span work = step.work();
+                if (step.gapBeforeNanos() > 0) {
+                    event(json, "between steps", "gap", CRITICAL_PATH_TID, previousEnd - origin, step.gapBeforeNanos(),
+                            Map.of());
+                }
+                Map<String, String> args = new LinkedHashMap<>(work.getArgs());
+                args.put("thread", work.getThreadName());
+                args.put("http_ms", String.format("%.3f", step.httpNanos() / 1e6));
+                args.put("sleep_ms", String.format("%.3f", step.sleepNanos() / 1e6));
+                event(json, work.getName(), work.getCategory(), CRITICAL_PATH_TID, work.getStartNanos() - origin,
+                        work.getNanos(), args);
+                previousEnd = work.getEndNanos();
+            }
+            json.writeEndArray();
+
+            json.writeStringField("displayTimeUnit", "ms");
+            json.writeObjectFieldStart("otherData");
+            json.writeNumberField("wallClockSeconds", (path.getEndNanos() - path.getStartNanos()) / 1e9);
+            json.writeNumberField("criticalPathSteps", path.getSteps().size());
+            json.writeNumberField("criticalPathGapSeconds", path.getGapNanos() / 1e9);
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * One event per data-provider method and thread, from its first row's start to its last row's end
+     */
+    private static void dataProviderMethods(JsonGenerator json, List<Span> spans, long origin) throws IOException {
+        Map<String, long[]> methods = new LinkedHashMap<>();
+        for (Span span : spans) {
+            if (!span.getCategory().equals(SuiteTrace.TEST) || !span.getArgs().containsKey("row")) {
+                continue;
+            }
+            long[] method = methods.computeIfAbsent(span.getThreadId() + " " + CriticalPath.method(span),
+                    key -> new long[]{span.getThreadId(), Long.MAX_VALUE, Long.MIN_VALUE, 0});
+            method[1] = Math.min(method[1], span.getStartNanos());
+            method[2] = Math.max(method[2], span.getEndNanos());
+            method[3]++;
+        }
+        for (Map.Entry<String, long[]> entry : methods.entrySet()) {
+            long[] method = entry.getValue();
+            String name = entry.getKey().substring(entry.getKey().indexOf(' ') + 1);
+            event(json, name, "method", method[0], method[1] - origin, method[2] - method[1],
+                    Map.of("rows", Long.toString(method[3])));
+        }
+    }
+
+    private static void metadata(JsonGenerator json, String name, long tid, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ph", "M");
+        json.writeStringField("name", name);
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", tid);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("name", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void event(JsonGenerator json, String name, String category, long tid, long startNanos,
+                              long durationNanos, Map<String, String> args) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ph", "X");
+        json.writeStringField("name", name);
+        json.writeStringField("cat", category);
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", tid);
+        json.writeNumberField("ts", startNanos / 1e3);
+        json.writeNumberField("dur", durationNanos / 1e3);
+        if (!args.isEmpty()) {
+            json.writeObjectFieldStart("args");
+            for (Map.Entry<String, String> arg : args.entrySet()) {
+                json.writeStringField(arg.getKey(), arg.getValue());
+            }
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+}
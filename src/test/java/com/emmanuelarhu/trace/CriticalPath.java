@@ -0,0 +1,162 @@
+package com.emmanuelarhu.trace;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The chain of work that decided when the run finished. Starting at the
+ * end of the suite it walks backwards: the step before time t is the test,
+ * configuration method or data provider, on any thread, that ended last
+ * at or before t. Spans still running at t on other threads ran alongside
+ * and are not on the path. The time between two steps is TestNG, listener
+ * and class-loading overhead. Making anything off the path faster does not
+ * make the run finish sooner.
+ *
+ * @author Emmanuel Arhu
+ */
+final class CriticalPath {
+
+    private static final Set<String> WORK = Set.of(SuiteTrace.CONFIGURATION, SuiteTrace.DATA_PROVIDER, SuiteTrace.TEST);
+    private static final int TOP = 10;
+
+    /**
+     * A unit of work on the path, the gap before it, and its time in HTTP calls and retry sleeps
+     */
+    record Step(Span work, long gapBeforeNanos, long httpNanos, long sleepNanos) {
+        long otherNanos() {
+            return work.getNanos() - httpNanos - sleepNanos;
+        }
+    }
+
+    private final long startNanos;
+    private final long endNanos;
+    private final List<Step> steps;
+
+    private CriticalPath(long startNanos, long endNanos, List<Step> steps) {
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.steps = steps;
+    }
+
+    /**
+     * Path through the spans, from the first suite span's start to the last one's end (or all spans' when there is no suite span)
+     */
+    static CriticalPath of(List<Span> spans) {
+        List<Span> bounds = spans.stream().filter(span -> span.getCategory().equals(SuiteTrace.SUITE)).toList();
+        if (bounds.isEmpty()) {
+            bounds = spans;
+        }
+        long start = bounds.stream().mapToLong(Span::getStartNanos).min().orElse(0);
+        long end = bounds.stream().mapToLong(Span::getEndNanos).max().orElse(0);
+
+        List<Span> work = new ArrayList<>(spans.stream()
+                .filter(span -> WORK.contains(span.getCategory()) && span.getStartNanos() >= start)
+                .toList());
+        work.sort(Comparator.comparingLong(Span::getEndNanos));
+        List<Span> waits = spans.stream()
+                .filter(span -> span.getCategory().equals(SuiteTrace.HTTP) || span.getCategory().equals(SuiteTrace.SLEEP))
+                .toList();
+
+        List<Step> steps = new ArrayList<>();
+        long t = end;
+        int i = work.size() - 1;
+        while (i >= 0) {
+            while (i >= 0 && work.get(i).getEndNanos() > t) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            Span step = work.get(i--);
+            long http = 0;
+            long sleep = 0;
+            for (Span wait : waits) {
+                if (step.contains(wait)) {
+                    if (wait.getCategory().equals(SuiteTrace.HTTP)) {
+                        http += wait.getNanos();
+                    } else {
+                        sleep += wait.getNanos();
+                    }
+                }
+            }
+            steps.add(new Step(step, 0, http, sleep));
+            t = step.getStartNanos();
+        }
+        Collections.reverse(steps);
+
+        List<Step> withGaps = new ArrayList<>(steps.size());
+        long previousEnd = start;
+        for (Step step : steps) {
+            withGaps.add(new Step(step.work(), Math.max(0, step.work().getStartNanos() - previousEnd), step.httpNanos(),
+                    step.sleepNanos()));
+            previousEnd = step.work().getEndNanos();
+        }
+        return new CriticalPath(start, end, withGaps);
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getEndNanos() {
+        return endNanos;
+    }
+
+    /**
+     * Time between steps, and before the first and after the last
+     */
+    long getGapNanos() {
+        long gaps = steps.isEmpty() ? endNanos - startNanos : endNanos - steps.get(steps.size() - 1).work().getEndNanos();
+        for (Step step : steps) {
+            gaps += step.gapBeforeNanos();
+        }
+        return gaps;
+    }
+
+    void printReport(PrintStream out) {
+        long http = 0;
+        long sleep = 0;
+        long other = 0;
+        Map<String, long[]> byMethod = new LinkedHashMap<>();
+        for (Step step : steps) {
+            http += step.httpNanos();
+            sleep += step.sleepNanos();
+            other += step.otherNanos();
+            long[] totals = byMethod.computeIfAbsent(method(step.work()), key -> new long[5]);
+            totals[0]++;
+            totals[1] += step.work().getNanos();
+            totals[2] += step.httpNanos();
+            totals[3] += step.sleepNanos();
+            totals[4] += step.otherNanos();
+        }
+        out.printf("🛤️ Critical path: %d steps over %.2fs of wall-clock; HTTP %.2fs, retry sleeps %.2fs, "
+                        + "test and setup code %.2fs, between steps %.2fs%n", steps.size(), (endNanos - startNanos) / 1e9,
+                http / 1e9, sleep / 1e9, other / 1e9, getGapNanos() / 1e9);
+        out.printf("%-60s %6s %10s %10s %10s %10s%n", "on the path", "steps", "total ms", "http ms", "sleep ms", "other ms");
+        byMethod.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(TOP)
+                .forEach(entry -> {
+                    long[] totals = entry.getValue();
+                    out.printf("%-60s %6d %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(), totals[0], totals[1] / 1e6,
+                            totals[2] / 1e6, totals[3] / 1e6, totals[4] / 1e6);
+                });
+    }
+
+    /**
+     * Method a span belongs to; data-provider rows share their method's
+     */
+    static String method(Span span) {
+        return span.getArgs().getOrDefault("method", span.getName());
+    }
+}
@@ -0,0 +1,71 @@
+package com.emmanuelarhu.trace;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Joins client spans with the stand-in's server spans for the same call
+ * when both run in this JVM ({@code -Dstandin=true}), splitting each
+ * endpoint's time into what the server spent and everything outside it:
+ * connection, transfer and the client's own filters. Against a remote
+ * server the span files are joined by a collector instead.
+ *
+ * @author Emmanuel Arhu
+ */
+final class LatencyAttribution {
+
+    private static final int MAX_CALLS = 200_000;
+
+    private record Call(String template, long nanos) {}
+
+    private static final Map<String, Call> CLIENT = new ConcurrentHashMap<>();
+    private static final Map<String, Long> SERVER = new ConcurrentHashMap<>();
+
+    private LatencyAttribution() {}
+
+    static void clear() {
+        CLIENT.clear();
+        SERVER.clear();
+    }
+
+    static void client(OtlpSpan span) {
+        if (CLIENT.size() < MAX_CALLS) {
+            CLIENT.put(span.spanId(), new Call(span.name(), span.nanos()));
+        }
+    }
+
+    static void server(OtlpSpan span) {
+        if (SERVER.size() < MAX_CALLS) {
+            SERVER.put(span.parentSpanId(), span.nanos());
+        }
+    }
+
+    /**
+     * Mean client and server ms per endpoint over the joined calls; prints nothing when no call was joined
+     */
+    static void printReport(PrintStream out) {
+        Map<String, long[]> byEndpoint = new TreeMap<>();
+        for (Map.Entry<String, Call> entry : CLIENT.entrySet()) {
+            Long server = SERVER.get(entry.getKey());
+            if (server == null) {
+                continue;
+            }
+            long[] totals = byEndpoint.computeIfAbsent(entry.getValue().template(), key -> new long[3]);
+            totals[0]++;
+            totals[1] += entry.getValue().nanos();
+            totals[2] += server;
+        }
+        if (byEndpoint.isEmpty()) {
+            return;
+        }
+        out.println("🔗 Client vs stand-in time per endpoint (mean ms, joined by traceparent):");
+        out.printf("%-44s %7s %10s %10s %10s%n", "endpoint", "calls", "client", "server", "outside");
+        for (Map.Entry<String, long[]> entry : byEndpoint.entrySet()) {
+            long[] totals = entry.getValue();
+            out.printf("%-44s %7d %10.2f %10.2f %10.2f%n", entry.getKey(), totals[0], totals[1] / 1e6 / totals[0],
+                    totals[2] / 1e6 / totals[0], (totals[1] - totals[2]) / 1e6 / totals[0]);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Appends spans to a file in the OTLP/JSON encoding, one
+ * {@code ExportTraceServiceRequest} per line, the layout the OpenTelemetry
+ * Collector's {@code otlpjsonfile} receiver reads and its file exporter
+ * writes.
+ *
+ * Spans are only taken between {@link #start()} and {@link #finish()}, which
+ * TraceListener calls when a TestNG execution starts and finishes, so load,
+ * soak and benchmark runs export nothing. {@link #export(List)} just queues
+ * them: a background thread writes whatever is queued as one line every
+ * {@value #WRITE_INTERVAL_MILLIS} ms and flushes it, so a collector can
+ * tail the file while the run is going, and {@link #finish()} writes the
+ * rest. Each file starts empty with every execution.
+ *
+ * The test client writes {@code client-spans.jsonl} and the stand-in
+ * {@code standin-spans.jsonl}, both under {@code -Dtrace.otlp.dir}
+ * (default target/trace/otlp).
+ *
+ * @author Emmanuel Arhu
+ */
+public final class OtlpExporter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String SCOPE = "com.emmanuelarhu.trace";
+    private static final Path DIRECTORY = Path.of(TestConfig.get("trace.otlp.dir", "target/trace/otlp"));
+    private static final long WRITE_INTERVAL_MILLIS = 200;
+
+    private static volatile boolean running;
+
+    private final String serviceName;
+    private final Path file;
+    private final Queue<List<OtlpSpan>> queued = new ConcurrentLinkedQueue<>();
+    private OutputStream out;
+    private boolean failed;
+
+    private OtlpExporter(String serviceName, Path file) {
+        this.serviceName = serviceName;
+        this.file = file;
+    }
+
+    private static final class Holder {
+        private static final OtlpExporter CLIENT = new OtlpExporter("jsonplaceholder-api-tests",
+                DIRECTORY.resolve("client-spans.jsonl"));
+        private static final OtlpExporter STAND_IN = new OtlpExporter("jsonplaceholder-standin",
+                DIRECTORY.resolve("standin-spans.jsonl"));
+
+        static {
+            Thread.ofPlatform().daemon().name("otlp-exporter").start(() -> {
+                try {
+                    while (true) {
+                        Thread.sleep(WRITE_INTERVAL_MILLIS);
+                        CLIENT.write(false);
+                        STAND_IN.write(false);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    /**
+     * Start taking spans, each file starting afresh
+     */
+    public static void start() {
+        Holder.CLIENT.reset();
+        Holder.STAND_IN.reset();
+        running = TraceContext.isEnabled();
+    }
+
+    /**
+     * Stop taking spans, write the queued ones and close the files
+     */
+    public static void finish() {
+        running = false;
+        Holder.CLIENT.write(true);
+        Holder.STAND_IN.write(true);
+    }
+
+    /**
+     * Whether spans are taken: between start and finish of a TestNG execution, with propagation on
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Spans of the tests and their HTTP calls
+     */
+    public static OtlpExporter client() {
+        return Holder.CLIENT;
+    }
+
+    /**
+     * Spans of the requests the stand-in served
+     */
+    public static OtlpExporter standIn() {
+        return Holder.STAND_IN;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Queue spans for the next line; outside a run, or once an I/O failure was reported, they are dropped
+     */
+    public void export(List<OtlpSpan> spans) {
+        if (running && !spans.isEmpty()) {
+            queued.add(spans);
+        }
+    }
+
+    private synchronized void reset() {
+        queued.clear();
+        close();
+        failed = false;
+    }
+
+    /**
+     * Write everything queued so far as one line; the background thread leaves a finished run's file alone
+     */
+    private synchronized void write(boolean close) {
+        if (!running && !close) {
+            return;
+        }
+        List<OtlpSpan> spans = new ArrayList<>();
+        for (List<OtlpSpan> batch = queued.poll(); batch != null; batch = queued.poll()) {
+            spans.addAll(batch);
+        }
+        if (!spans.isEmpty() && !failed) {
+            try {
+                if (out == null) {
+                    Files.createDirectories(file.getParent());
+                    out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.WRITE);
+                }
+                out.write(encode(spans));
+                out.flush();
+            } catch (IOException e) {
+                failed = true;
+                AsyncLog.error("❌ Failed to write spans to " + file + ": " + e.getMessage());
+            }
+        }
+        if (close) {
+            close();
+        }
+    }
+
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to close " + file + ": " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private byte[] encode(List<OtlpSpan> spans) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512 * spans.size());
+        try (JsonGenerator json = JSON.createGenerator(buffer)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            attribute(json, "service.name", serviceName);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", SCOPE);
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            for (OtlpSpan span : spans) {
+                span(json, span);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode spans", e); // in-memory, cannot happen
+        }
+        buffer.write('\n');
+        return buffer.toByteArray();
+    }
+
+    private static void span(JsonGenerator json, OtlpSpan span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.traceId());
+        json.writeStringField("spanId", span.spanId());
+        if (span.parentSpanId() != null) {
+            json.writeStringField("parentSpanId", span.parentSpanId());
+        }
+        json.writeStringField("name", span.name());
+        json.writeNumberField("kind", span.kind().getCode());
+        // 64-bit integers are strings in OTLP/JSON
+        json.writeStringField("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+        json.writeArrayFieldStart("attributes");
+        for (Map.Entry<String, Object> attribute : span.attributes().entrySet()) {
+            attribute(json, attribute.getKey(), attribute.getValue());
+        }
+        json.writeEndArray();
+        json.writeObjectFieldStart("status");
+        if (span.error() != null) {
+            json.writeNumberField("code", 2);
+            json.writeStringField("message", span.error());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void attribute(JsonGenerator json, String key, Object value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        if (value instanceof Integer || value instanceof Long) {
+            json.writeStringField("intValue", value.toString());
+        } else if (value instanceof Boolean bool) {
+            json.writeBooleanField("boolValue", bool);
+        } else {
+            json.writeStringField("stringValue", String.valueOf(value));
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
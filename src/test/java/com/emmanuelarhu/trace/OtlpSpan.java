@@ -0,0 +1,37 @@
+package com.emmanuelarhu.trace;
+
+import java.util.Map;
+
+/**
+ * A finished span in OpenTelemetry terms, as written by {@link OtlpExporter}:
+ * hex trace and span ids, wall-clock start and end in Unix nanoseconds, and
+ * attributes named after the OpenTelemetry semantic conventions.
+ *
+ * @param parentSpanId null for a root span
+ * @param error        null when the span succeeded, else what went wrong
+ * @author Emmanuel Arhu
+ */
+public record OtlpSpan(String traceId, String spanId, String parentSpanId, String name, Kind kind,
+                       long startEpochNanos, long endEpochNanos, Map<String, Object> attributes, String error) {
+
+    /**
+     * OTLP span kinds, with their protocol numbers
+     */
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3);
+
+        private final int code;
+
+        Kind(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    public long nanos() {
+        return endEpochNanos - startEpochNanos;
+    }
+}
@@ -0,0 +1,85 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.latency.EndpointTemplate;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link com.sun.net.httpserver.HttpServer} filter for the stand-in: a
+ * request carrying a valid {@value TraceContext#TRACEPARENT} header is
+ * recorded as a server span, a child of the caller's client span in the
+ * same trace, and written through {@link OtlpExporter#standIn()}. Requests
+ * without one, and all requests outside a TestNG run (such as a stand-alone
+ * StandIn), are passed through untouched. SnapshotServer records the
+ * responses it serves itself through {@link #record}.
+ *
+ * @author Emmanuel Arhu
+ */
+public class ServerSpanFilter extends Filter {
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        String[] parent = parent(exchange.getRequestHeaders().getFirst(TraceContext.TRACEPARENT));
+        if (parent == null) {
+            chain.doFilter(exchange);
+            return;
+        }
+        long start = TraceContext.epochNanos();
+        String error = null;
+        try {
+            chain.doFilter(exchange);
+            if (exchange.getResponseCode() >= 500) {
+                error = Integer.toString(exchange.getResponseCode());
+            }
+        } catch (IOException | RuntimeException e) {
+            error = e.getClass().getName();
+            throw e;
+        } finally {
+            record(parent, exchange.getRequestMethod(), exchange.getRequestURI(), exchange.getResponseCode(), start,
+                    error);
+        }
+    }
+
+    /**
+     * Trace and parent span id to record a request under, or null when it has no valid traceparent or spans are not taken
+     */
+    public static String[] parent(String traceparent) {
+        return OtlpExporter.isRunning() ? TraceContext.parse(traceparent) : null;
+    }
+
+    /**
+     * Export a server span for a request answered with status (0 when none was sent), started at startEpochNanos
+     */
+    public static void record(String[] parent, String method, URI uri, int status, long startEpochNanos,
+                              String error) {
+        String template = EndpointTemplate.of(method, uri.toString());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("http.request.method", method);
+        attributes.put("url.path", uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            attributes.put("url.query", uri.getRawQuery());
+        }
+        attributes.put("http.route", template.substring(template.indexOf(' ') + 1));
+        if (status > 0) {
+            attributes.put("http.response.status_code", status);
+        }
+        if (error != null) {
+            attributes.put("error.type", error);
+        }
+        OtlpSpan span = new OtlpSpan(parent[0], TraceContext.newSpanId(), parent[1], template, OtlpSpan.Kind.SERVER,
+                startEpochNanos, TraceContext.epochNanos(), attributes, error);
+        LatencyAttribution.server(span);
+        OtlpExporter.standIn().export(List.of(span));
+    }
+
+    @Override
+    public String description() {
+        return "Records W3C traceparent requests as OTLP server spans";
+    }
+}
@@ -0,0 +1,93 @@
+package com.emmanuelarhu.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed piece of the run on one thread: the suite, a test class, a test
+ * or configuration method invocation, a data provider, an HTTP call or a
+ * retry sleep. Opened by {@link SuiteTrace#begin(String, String)} and kept
+ * once {@link #end()} is called.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class Span {
+
+    private final String category;
+    private final String name;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final boolean kept;
+    private final Map<String, String> args = new LinkedHashMap<>();
+    private volatile long endNanos = -1;
+
+    Span(String category, String name, long startNanos, boolean kept) {
+        this.category = category;
+        this.name = name;
+        this.threadId = Thread.currentThread().threadId();
+        this.threadName = Thread.currentThread().getName();
+        this.startNanos = startNanos;
+        this.kept = kept;
+    }
+
+    /**
+     * Add a detail shown with the span in the trace viewer
+     */
+    public Span arg(String key, Object value) {
+        if (kept && value != null) {
+            synchronized (args) {
+                args.put(key, String.valueOf(value));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Close the span and keep it in the trace; later calls are ignored
+     */
+    public void end() {
+        if (kept && endNanos < 0) {
+            endNanos = System.nanoTime();
+            SuiteTrace.add(this);
+        }
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getNanos() {
+        return endNanos - startNanos;
+    }
+
+    public Map<String, String> getArgs() {
+        synchronized (args) {
+            return new LinkedHashMap<>(args);
+        }
+    }
+
+    boolean contains(Span other) {
+        return other.threadId == threadId && other.startNanos >= startNanos && other.endNanos <= endNanos;
+    }
+}
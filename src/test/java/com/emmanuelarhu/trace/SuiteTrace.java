@@ -0,0 +1,78 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.config.TestConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The run's spans, filled by {@link TraceListener} for the TestNG side and
+ * by BaseTest and the latency filter for HTTP calls and retry sleeps, and
+ * written out as a Chrome trace at the end of the run.
+ *
+ * Spans are only kept between {@link #start()} and {@link #finish()}, which
+ * TraceListener calls when a TestNG execution starts and finishes; load,
+ * soak and benchmark runs outside TestNG keep nothing. Beginning a span is a
+ * clock read and an allocation; outside that window or with
+ * {@code -Dtrace.enabled=false} it is a shared span that is never kept.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class SuiteTrace {
+
+    public static final String SUITE = "suite";
+    public static final String CLASS = "class";
+    public static final String CONFIGURATION = "configuration";
+    public static final String DATA_PROVIDER = "dataprovider";
+    public static final String TEST = "test";
+    public static final String HTTP = "http";
+    public static final String SLEEP = "sleep";
+
+    private static final boolean ENABLED = TestConfig.getBoolean("trace.enabled", true);
+    private static final Span DISABLED = new Span("disabled", "disabled", 0, false);
+    private static final Queue<Span> SPANS = new ConcurrentLinkedQueue<>();
+    private static volatile boolean recording;
+
+    private SuiteTrace() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start keeping spans, dropping any left from an earlier execution
+     */
+    public static void start() {
+        SPANS.clear();
+        recording = ENABLED;
+    }
+
+    /**
+     * Stop keeping spans and hand over the ones ended so far, by start time
+     */
+    public static List<Span> finish() {
+        recording = false;
+        List<Span> spans = new ArrayList<>();
+        for (Span span = SPANS.poll(); span != null; span = SPANS.poll()) {
+            spans.add(span);
+        }
+        spans.sort(Comparator.comparingLong(Span::getStartNanos));
+        return spans;
+    }
+
+    /**
+     * Open a span on the current thread, starting now
+     */
+    public static Span begin(String category, String name) {
+        return recording ? new Span(category, name, System.nanoTime(), true) : DISABLED;
+    }
+
+    static void add(Span span) {
+        if (recording) {
+            SPANS.add(span);
+        }
+    }
+}
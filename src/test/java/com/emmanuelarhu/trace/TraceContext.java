@@ -0,0 +1,200 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.config.TestConfig;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context of the running test: every test invocation (one per
+ * data-provider row) is its own trace, rooted in a span for the test, and
+ * each HTTP attempt made during it is a child span whose id goes out in the
+ * {@value #TRACEPARENT} header (see {@link TraceContextFilter}). When the
+ * test ends, it and its HTTP spans are written through {@link OtlpExporter}.
+ *
+ * The {@value #TRACESTATE} header carries {@code apitests=<run id>}, so a
+ * backend can pick out all traces of one run. {@code -Dtrace.propagation=false}
+ * turns headers and spans off.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String TRACESTATE = "tracestate";
+
+    /**
+     * TestNG result attribute holding the invocation's trace id
+     */
+    public static final String TRACE_ID_ATTRIBUTE = "traceId";
+
+    private static final boolean ENABLED = TestConfig.getBoolean("trace.propagation", true);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final String RUN_ID = HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+    private static final long EPOCH_ORIGIN_NANOS;
+    private static final long NANO_ORIGIN;
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> RESEND_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    static {
+        Instant now = Instant.now();
+        NANO_ORIGIN = System.nanoTime();
+        EPOCH_ORIGIN_NANOS = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private final String traceId;
+    private final String spanId;
+    private final String name;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes;
+    private final List<OtlpSpan> children = new ArrayList<>();
+
+    private TraceContext(String name, Map<String, Object> attributes) {
+        this.traceId = newTraceId();
+        this.spanId = newSpanId();
+        this.name = name;
+        this.startEpochNanos = epochNanos();
+        this.attributes = new LinkedHashMap<>(attributes);
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start a new trace for the test the current thread is about to run; null when propagation is off
+     */
+    public static TraceContext beginTest(String name, Map<String, Object> attributes) {
+        if (!ENABLED) {
+            return null;
+        }
+        TraceContext context = new TraceContext(name, attributes);
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * End the current thread's test trace and export it with its HTTP spans; error is null for a passing test
+     */
+    public static void endTest(String result, String error) {
+        TraceContext context = CURRENT.get();
+        if (context == null) {
+            return;
+        }
+        CURRENT.remove();
+        context.attributes.put("test.result", result);
+        List<OtlpSpan> spans;
+        synchronized (context.children) {
+            spans = new ArrayList<>(context.children.size() + 1);
+            spans.add(new OtlpSpan(context.traceId, context.spanId, null, context.name, OtlpSpan.Kind.INTERNAL,
+                    context.startEpochNanos, epochNanos(), context.attributes, error));
+            spans.addAll(context.children);
+        }
+        OtlpExporter.client().export(spans);
+    }
+
+    /**
+     * The current thread's test trace, null outside a test
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Mark the current thread's next request as the n-th resend of the same call, as makeApiCall does on retries
+     */
+    public static void resendCount(int count) {
+        RESEND_COUNT.get()[0] = count;
+    }
+
+    static int takeResendCount() {
+        int[] count = RESEND_COUNT.get();
+        int value = count[0];
+        count[0] = 0;
+        return value;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    void addChild(OtlpSpan span) {
+        synchronized (children) {
+            children.add(span);
+        }
+    }
+
+    /**
+     * Wall-clock now in Unix nanoseconds, monotonic within the run
+     */
+    public static long epochNanos() {
+        return EPOCH_ORIGIN_NANOS + (System.nanoTime() - NANO_ORIGIN);
+    }
+
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0);
+        return HEX.toHexDigits(high) + HEX.toHexDigits(low);
+    }
+
+    public static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return HEX.toHexDigits(id);
+    }
+
+    /**
+     * {@code 00-<trace id>-<span id>-01}, a sampled version-00 traceparent
+     */
+    public static String traceparent(String traceId, String spanId) {
+        return "00-" + traceId + "-" + spanId + "-01";
+    }
+
+    public static String tracestate() {
+        return "apitests=" + RUN_ID;
+    }
+
+    /**
+     * Trace and parent span id of a traceparent header, or null when it is missing or malformed
+     */
+    public static String[] parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[0].length() != 2 || parts[0].equals("ff") || !isHex(parts[0])
+                || parts[1].length() != 32 || !isHex(parts[1]) || parts[1].matches("0+")
+                || parts[2].length() != 16 || !isHex(parts[2]) || parts[2].matches("0+")
+                || parts[3].length() != 2 || !isHex(parts[3])
+                || (parts[0].equals("00") && parts.length != 4)) {
+            return null;
+        }
+        return new String[]{parts[1], parts[2]};
+    }
+
+    private static boolean isHex(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
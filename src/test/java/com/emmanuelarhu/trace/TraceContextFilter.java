@@ -0,0 +1,83 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.latency.EndpointTemplate;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Assured filter that makes every HTTP attempt a client span of the
+ * running test's {@link TraceContext}: it sends the span's
+ * {@value TraceContext#TRACEPARENT} and {@value TraceContext#TRACESTATE}
+ * headers and records the span with the method, URL, endpoint template,
+ * status and resend count of the attempt. A request made outside a test,
+ * such as in {@code @BeforeClass} setup, gets a trace of its own; outside a
+ * TestNG run nothing is sent or recorded.
+ *
+ * @author Emmanuel Arhu
+ */
+public class TraceContextFilter implements OrderedFilter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        int resendCount = TraceContext.takeResendCount();
+        if (!OtlpExporter.isRunning() || requestSpec.getHeaders().hasHeaderWithName(TraceContext.TRACEPARENT)) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        TraceContext test = TraceContext.current();
+        String traceId = test != null ? test.getTraceId() : TraceContext.newTraceId();
+        String spanId = TraceContext.newSpanId();
+        requestSpec.header(TraceContext.TRACEPARENT, TraceContext.traceparent(traceId, spanId));
+        requestSpec.header(TraceContext.TRACESTATE, TraceContext.tracestate());
+
+        String template = EndpointTemplate.of(requestSpec.getMethod(), requestSpec.getURI());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("http.request.method", requestSpec.getMethod());
+        attributes.put("url.full", requestSpec.getURI());
+        attributes.put("url.template", template.substring(template.indexOf(' ') + 1));
+        URI uri = URI.create(requestSpec.getURI());
+        attributes.put("server.address", uri.getHost());
+        attributes.put("server.port", uri.getPort() >= 0 ? uri.getPort() : uri.getScheme().equals("https") ? 443 : 80);
+        if (resendCount > 0) {
+            attributes.put("http.request.resend_count", resendCount);
+        }
+
+        long start = TraceContext.epochNanos();
+        String error = null;
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            attributes.put("http.response.status_code", response.getStatusCode());
+            if (response.getStatusCode() >= 400) { // client spans count 4xx as errors too (semantic conventions)
+                error = Integer.toString(response.getStatusCode());
+                attributes.put("error.type", error);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            error = e.getClass().getName();
+            attributes.put("error.type", error);
+            throw e;
+        } finally {
+            OtlpSpan span = new OtlpSpan(traceId, spanId, test != null ? test.getSpanId() : null, template,
+                    OtlpSpan.Kind.CLIENT, start, TraceContext.epochNanos(), attributes, error);
+            LatencyAttribution.client(span);
+            if (test != null) {
+                test.addChild(span);
+            } else {
+                OtlpExporter.client().export(List.of(span));
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE; // before Allure so the headers show up in attachments, and every other filter is in the span
+    }
+}
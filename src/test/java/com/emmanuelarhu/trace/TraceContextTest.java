@@ -0,0 +1,56 @@
+package com.emmanuelarhu.trace;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * W3C traceparent parsing and formatting of {@link TraceContext}
+ *
+ * @author Emmanuel Arhu
+ */
+public class TraceContextTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    @Test
+    public void testValidTraceparent() {
+        assertEquals(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01"), new String[]{TRACE_ID, SPAN_ID});
+        assertEquals(TraceContext.parse(" 00-" + TRACE_ID + "-" + SPAN_ID + "-00 "), new String[]{TRACE_ID, SPAN_ID},
+                "Unsampled, surrounding whitespace");
+    }
+
+    @Test
+    public void testFormattedTraceparentParsesBack() {
+        String traceId = TraceContext.newTraceId();
+        String spanId = TraceContext.newSpanId();
+
+        assertEquals(TraceContext.parse(TraceContext.traceparent(traceId, spanId)), new String[]{traceId, spanId});
+    }
+
+    @Test
+    public void testLaterVersionsMayAddFields() {
+        assertEquals(TraceContext.parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01-extra"), new String[]{TRACE_ID, SPAN_ID});
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01-extra"), "Version 00 has exactly four");
+    }
+
+    @Test
+    public void testMalformedTraceparentIsNull() {
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse(""));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID));
+        assertNull(TraceContext.parse("ff-" + TRACE_ID + "-" + SPAN_ID + "-01"), "Version ff is invalid");
+        assertNull(TraceContext.parse("0-" + TRACE_ID + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID.substring(1) + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "0-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID.toUpperCase() + "-" + SPAN_ID + "-01"), "Hex is lowercase");
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-0g"));
+    }
+
+    @Test
+    public void testAllZeroIdsAreInvalid() {
+        assertNull(TraceContext.parse("00-" + "0".repeat(32) + "-" + SPAN_ID + "-01"));
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-" + "0".repeat(16) + "-01"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.emmanuelarhu.trace;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.logging.AsyncLog;
+import org.testng.IClassListener;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the run's timeline into {@link SuiteTrace}: a span per suite,
+ * test class, configuration method (such as {@code @BeforeClass} setup),
+ * data provider and test invocation, one per data-provider row. BaseTest
+ * and the latency filter add the HTTP calls and retry sleeps inside them.
+ *
+ * At the end of the run the {@link CriticalPath} is printed and everything
+ * is written to {@code -Dtrace.dir} (default target/trace) as
+ * {@code suite-trace.json}, to open in ui.perfetto.dev or chrome://tracing.
+ * Nothing is recorded outside the execution this listener sees start;
+ * {@code -Dtrace.enabled=false} turns recording off.
+ *
+ * Each test invocation also starts and ends its {@link TraceContext}, the
+ * W3C trace its HTTP calls propagate, and the {@link OtlpExporter} files
+ * are written for the length of the execution.
+ *
+ * @author Emmanuel Arhu
+ */
+public class TraceListener implements ISuiteListener, IClassListener, IDataProviderListener, IInvokedMethodListener,
+        IExecutionListener {
+
+    private static final int MAX_PARAMETERS_LENGTH = 200;
+    private static final ThreadLocal<Span> INVOCATION = new ThreadLocal<>();
+    private static final ThreadLocal<Span> DATA_PROVIDER = new ThreadLocal<>();
+
+    private final Map<String, Span> suites = new ConcurrentHashMap<>();
+    private final Map<ITestClass, Span> classes = new ConcurrentHashMap<>();
+    private final Map<ITestNGMethod, AtomicInteger> rows = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        suites.put(suite.getName(), SuiteTrace.begin(SuiteTrace.SUITE, suite.getName()));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Span span = suites.remove(suite.getName());
+        if (span != null) {
+            span.end();
+        }
+    }
+
+    @Override
+    public void onBeforeClass(ITestClass testClass) {
+        classes.put(testClass, SuiteTrace.begin(SuiteTrace.CLASS, testClass.getRealClass().getSimpleName()));
+    }
+
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        Span span = classes.remove(testClass);
+        if (span != null) {
+            span.end();
+        }
+    }
+
+    @Override
+    public void beforeDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method,
+                                            ITestContext context) {
+        DATA_PROVIDER.set(SuiteTrace.begin(SuiteTrace.DATA_PROVIDER, dataProviderMethod.getName())
+                .arg("method", name(method)));
+    }
+
+    @Override
+    public void afterDataProviderExecution(IDataProviderMethod dataProviderMethod, ITestNGMethod method,
+                                           ITestContext context) {
+        Span span = DATA_PROVIDER.get();
+        if (span != null) {
+            DATA_PROVIDER.remove();
+            span.end();
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        if (!method.isTestMethod()) {
+            INVOCATION.set(SuiteTrace.begin(SuiteTrace.CONFIGURATION, name(testMethod)));
+            return;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("code.namespace", testMethod.getRealClass().getName());
+        attributes.put("code.function", testMethod.getMethodName());
+        if (!testMethod.isDataDriven()) {
+            INVOCATION.set(SuiteTrace.begin(SuiteTrace.TEST, name(testMethod)).arg("method", name(testMethod)));
+            traceId(testResult, TraceContext.beginTest(name(testMethod), attributes));
+            return;
+        }
+        int row = rows.computeIfAbsent(testMethod, key -> new AtomicInteger()).getAndIncrement();
+        String parameters = Arrays.toString(testResult.getParameters());
+        if (parameters.length() > MAX_PARAMETERS_LENGTH) {
+            parameters = parameters.substring(0, MAX_PARAMETERS_LENGTH - 1) + "…";
+        }
+        INVOCATION.set(SuiteTrace.begin(SuiteTrace.TEST, name(testMethod) + " #" + row)
+                .arg("method", name(testMethod))
+                .arg("row", row)
+                .arg("parameters", parameters));
+        attributes.put("test.row", row);
+        attributes.put("test.parameters", parameters);
+        traceId(testResult, TraceContext.beginTest(name(testMethod) + " #" + row, attributes));
+    }
+
+    /**
+     * Keep the trace id on the TestNG result, for reporters that link results to traces
+     */
+    private static void traceId(ITestResult testResult, TraceContext context) {
+        if (context != null) {
+            testResult.setAttribute(TraceContext.TRACE_ID_ATTRIBUTE, context.getTraceId());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Span span = INVOCATION.get();
+        if (span == null) {
+            return;
+        }
+        INVOCATION.remove();
+        String result = testResult.isSuccess() ? "PASS" : testResult.getStatus() == ITestResult.SKIP ? "SKIP" : "FAIL";
+        span.arg("result", result).end();
+        if (method.isTestMethod()) {
+            Throwable error = testResult.getThrowable();
+            TraceContext.endTest(result, result.equals("FAIL")
+                    ? error == null ? "FAIL" : error.getClass().getSimpleName() + ": " + error.getMessage() : null);
+        }
+    }
+
+    @Override
+    public void onExecutionStart() {
+        SuiteTrace.start();
+        LatencyAttribution.clear();
+        OtlpExporter.start();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        OtlpExporter.finish();
+        AsyncLog.report(LatencyAttribution::printReport);
+        List<Span> spans = SuiteTrace.finish();
+        if (spans.isEmpty()) {
+            return;
+        }
+        CriticalPath path = CriticalPath.of(spans);
+        AsyncLog.report(path::printReport);
+        Path directory = Path.of(TestConfig.get("trace.dir", "target/trace"));
+        Path file = directory.resolve("suite-trace.json");
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                ChromeTrace.write(spans, path, out);
+            }
+            AsyncLog.info("📁 Wrote " + spans.size() + " spans to " + file + " (open in ui.perfetto.dev)");
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to write the suite trace: " + e.getMessage());
+        }
+    }
+
+    private static String name(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName();
+    }
+}
@@ -0,0 +1,49 @@
+package com.emmanuelarhu.usage;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits on what one invocation of a test (one data-provider row) may cost
+ * its thread, checked by {@link ResourceUsageListener}. Unset limits (-1)
+ * are not checked. Limits are for JSONPlaceholder's dataset; set
+ * {@link #scalesWithDataset()} when the test reads a whole collection.
+ * <pre>
+ * &#64;ResourceBudget(allocatedMb = 15, receivedKb = 2)
+ * public void testGetSinglePhoto(int photoId) { ... }
+ * </pre>
+ *
+ * @author Emmanuel Arhu
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ResourceBudget {
+
+    /**
+     * Heap allocated by the test thread, in megabytes (10^6 bytes)
+     */
+    double allocatedMb() default -1;
+
+    /**
+     * CPU time of the test thread, in milliseconds
+     */
+    long cpuMs() default -1;
+
+    /**
+     * Request bodies sent, in kilobytes (10^3 bytes)
+     */
+    double sentKb() default -1;
+
+    /**
+     * Response bodies received, in kilobytes (10^3 bytes)
+     */
+    double receivedKb() default -1;
+
+    /**
+     * Multiply the byte and CPU limits by {@code dataset.scale}, for tests whose
+     * response grows with the dataset
+     */
+    boolean scalesWithDataset() default false;
+}
@@ -0,0 +1,197 @@
+package com.emmanuelarhu.usage;
+
+import com.emmanuelarhu.config.TestConfig;
+import com.emmanuelarhu.data.DatasetCounts;
+import com.emmanuelarhu.logging.AsyncLog;
+import io.qameta.allure.Allure;
+import org.testng.IExecutionListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures each test invocation's {@link TestUsage} and checks it against
+ * the method's {@link ResourceBudget}. The usage is attached to the test in
+ * the Allure report; at the end of the run the methods that allocate most
+ * are printed and every method's totals are written to
+ * {@code -Dusage.dir} (default target/usage) as {@code usage.tsv}.
+ *
+ * {@code -Dusage.budgets=fail} (default) fails a passing test that is over
+ * budget, {@code warn} only prints, {@code off} skips the checks but still
+ * measures; {@code -Dusage.enabled=false} turns the listener off.
+ *
+ * @author Emmanuel Arhu
+ */
+public class ResourceUsageListener implements IInvokedMethodListener, IExecutionListener {
+
+    private static final boolean ENABLED = TestConfig.getBoolean("usage.enabled", true) && TestUsage.isSupported();
+    private static final String MODE = TestConfig.get("usage.budgets", "fail");
+    private static final int TOP = 10;
+
+    private final Map<String, Totals> methods = new ConcurrentHashMap<>();
+
+    /**
+     * One test method's usage over all its invocations
+     */
+    private static final class Totals {
+        private long invocations;
+        private long cpuNanos;
+        private long maxCpuNanos;
+        private long allocatedBytes;
+        private long maxAllocatedBytes;
+        private long sentBytes;
+        private long receivedBytes;
+
+        synchronized void add(TestUsage usage) {
+            invocations++;
+            cpuNanos += usage.getCpuNanos();
+            maxCpuNanos = Math.max(maxCpuNanos, usage.getCpuNanos());
+            allocatedBytes += usage.getAllocatedBytes();
+            maxAllocatedBytes = Math.max(maxAllocatedBytes, usage.getAllocatedBytes());
+            sentBytes += usage.getSentBytes();
+            receivedBytes += usage.getReceivedBytes();
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (ENABLED && method.isTestMethod()) {
+            TestUsage.begin();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        TestUsage usage = TestUsage.end();
+        if (usage == null) {
+            return;
+        }
+        methods.computeIfAbsent(method.getTestMethod().getQualifiedName(), key -> new Totals()).add(usage);
+
+        Method javaMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+        ResourceBudget budget = javaMethod == null ? null : javaMethod.getAnnotation(ResourceBudget.class);
+        List<String> violations = budget == null || MODE.equals("off") ? List.of() : check(usage, budget);
+        StringBuilder attachment = new StringBuilder(usage.toString()).append('\n');
+        if (budget != null) {
+            attachment.append("Budget: ").append(describe(budget)).append('\n');
+        }
+        if (Allure.getLifecycle().getCurrentTestCase().isPresent()) {
+            Allure.addAttachment("Resource usage", "text/plain", attachment.toString());
+        }
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Resource budget exceeded: " + String.join("; ", violations);
+        if (MODE.equals("fail") && testResult.getStatus() == ITestResult.SUCCESS) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(new AssertionError(message));
+        } else {
+            AsyncLog.warn("⚠️ " + message);
+        }
+    }
+
+    private static List<String> check(TestUsage usage, ResourceBudget budget) {
+        List<String> violations = new ArrayList<>();
+        double factor = factor(budget);
+        double allocatedMb = usage.getAllocatedBytes() / 1e6;
+        if (budget.allocatedMb() >= 0 && allocatedMb > budget.allocatedMb() * factor) {
+            violations.add(String.format("allocated %.2f MB, budget %s MB", allocatedMb, budget.allocatedMb() * factor));
+        }
+        double cpuMs = usage.getCpuNanos() / 1e6;
+        if (budget.cpuMs() >= 0 && cpuMs > budget.cpuMs() * factor) {
+            violations.add(String.format("CPU %.1f ms, budget %d ms", cpuMs, Math.round(budget.cpuMs() * factor)));
+        }
+        double sentKb = usage.getSentBytes() / 1e3;
+        if (budget.sentKb() >= 0 && sentKb > budget.sentKb() * factor) {
+            violations.add(String.format("sent %.1f KB, budget %s KB", sentKb, budget.sentKb() * factor));
+        }
+        double receivedKb = usage.getReceivedBytes() / 1e3;
+        if (budget.receivedKb() >= 0 && receivedKb > budget.receivedKb() * factor) {
+            violations.add(String.format("received %.1f KB, budget %s KB", receivedKb, budget.receivedKb() * factor));
+        }
+        return violations;
+    }
+
+    private static String describe(ResourceBudget budget) {
+        List<String> limits = new ArrayList<>();
+        double factor = factor(budget);
+        if (budget.allocatedMb() >= 0) {
+            limits.add("allocated <= " + budget.allocatedMb() * factor + " MB");
+        }
+        if (budget.cpuMs() >= 0) {
+            limits.add("CPU <= " + Math.round(budget.cpuMs() * factor) + " ms");
+        }
+        if (budget.sentKb() >= 0) {
+            limits.add("sent <= " + budget.sentKb() * factor + " KB");
+        }
+        if (budget.receivedKb() >= 0) {
+            limits.add("received <= " + budget.receivedKb() * factor + " KB");
+        }
+        if (factor != 1) {
+            limits.add("x" + DatasetCounts.scale() + " dataset");
+        }
+        return String.join(", ", limits);
+    }
+
+    private static double factor(ResourceBudget budget) {
+        return budget.scalesWithDataset() ? DatasetCounts.scale() : 1;
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (methods.isEmpty()) {
+            return;
+        }
+        Map<String, Totals> sorted = new TreeMap<>(methods);
+        AsyncLog.report(out -> {
+            out.println("🧮 Most allocating tests (per invocation, test thread only):");
+            out.printf("%-60s %6s %12s %12s %12s%n", "test", "runs", "max MB", "mean MB", "mean CPU ms");
+            sorted.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().maxAllocatedBytes)
+                            .reversed())
+                    .limit(TOP)
+                    .forEach(entry -> {
+                        Totals totals = entry.getValue();
+                        out.printf("%-60s %6d %12.2f %12.2f %12.1f%n", shorten(entry.getKey()), totals.invocations,
+                                totals.maxAllocatedBytes / 1e6, totals.allocatedBytes / 1e6 / totals.invocations,
+                                totals.cpuNanos / 1e6 / totals.invocations);
+                    });
+        });
+
+        StringBuilder tsv = new StringBuilder("test\tinvocations\tcpu_ms\tmax_cpu_ms\tallocated_mb\tmax_allocated_mb"
+                + "\tsent_kb\treceived_kb\n");
+        for (Map.Entry<String, Totals> entry : sorted.entrySet()) {
+            Totals totals = entry.getValue();
+            tsv.append(String.format("%s\t%d\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f%n", entry.getKey(), totals.invocations,
+                    totals.cpuNanos / 1e6, totals.maxCpuNanos / 1e6, totals.allocatedBytes / 1e6,
+                    totals.maxAllocatedBytes / 1e6, totals.sentBytes / 1e3, totals.receivedBytes / 1e3));
+        }
+        Path directory = Path.of(TestConfig.get("usage.dir", "target/usage"));
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("usage.tsv"), tsv.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            AsyncLog.error("❌ Failed to write usage.tsv: " + e.getMessage());
+        }
+    }
+
+    private static String shorten(String qualifiedName) {
+        int dot = qualifiedName.lastIndexOf('.', qualifiedName.lastIndexOf('.') - 1);
+        return dot < 0 ? qualifiedName : qualifiedName.substring(dot + 1);
+    }
+}
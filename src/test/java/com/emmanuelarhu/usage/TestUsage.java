@@ -0,0 +1,108 @@
+package com.emmanuelarhu.usage;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * What the current thread's test invocation has cost so far: CPU time and
+ * heap allocated by the thread (from {@link ThreadMXBean}), and request and
+ * response body bytes, which {@code MetricsFilter} reports through
+ * {@link #addBytes(long, long)}. Work done on other threads, such as an
+ * in-process stand-in serving the request, is not included.
+ *
+ * @author Emmanuel Arhu
+ */
+public final class TestUsage {
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final ThreadLocal<TestUsage> CURRENT = new ThreadLocal<>();
+
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long sentBytes;
+    private long receivedBytes;
+
+    private TestUsage() {
+        this.startCpuNanos = cpuNow();
+        this.startAllocatedBytes = allocatedNow();
+    }
+
+    /**
+     * Whether the JVM can measure per-thread CPU time and allocation
+     */
+    static boolean isSupported() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * Start measuring the current thread
+     */
+    static void begin() {
+        if (!THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        CURRENT.set(new TestUsage());
+    }
+
+    /**
+     * Stop measuring and return the totals, or null if nothing was being measured
+     */
+    static TestUsage end() {
+        long cpu = cpuNow();
+        long allocated = allocatedNow();
+        TestUsage usage = CURRENT.get();
+        CURRENT.remove();
+        if (usage != null) {
+            usage.cpuNanos = cpu - usage.startCpuNanos;
+            usage.allocatedBytes = allocated - usage.startAllocatedBytes;
+        }
+        return usage;
+    }
+
+    /**
+     * Count body bytes of a request made by the current thread; no-op outside a test
+     */
+    public static void addBytes(long sent, long received) {
+        TestUsage usage = CURRENT.get();
+        if (usage != null) {
+            usage.sentBytes += sent;
+            usage.receivedBytes += received;
+        }
+    }
+
+    private static long cpuNow() {
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    private static long allocatedNow() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    long getSentBytes() {
+        return sentBytes;
+    }
+
+    long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CPU %.1f ms, allocated %.2f MB, sent %.1f KB, received %.1f KB",
+                cpuNanos / 1e6, allocatedBytes / 1e6, sentBytes / 1e3, receivedBytes / 1e3);
+    }
+}
@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.albums;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,10 @@ import static org.testng.Assert.*;
  */
 public class AlbumValidation {
 
+    // Upper bound of valid userIds, follows -Ddataset.scale (10 for JSONPlaceholder)
+    private static final int MAX_USER_ID = DatasetCounts.current().getUsers();
+    private static final String USER_ID_RANGE_MESSAGE = "Album userId should be between 1 and " + MAX_USER_ID;
+
     /**
      * Validate an array of albums
      */
@@ -76,9 +82,9 @@ public class AlbumValidation {
 
         assertFalse(album.getTitle().isEmpty(), "Album title should not be empty");
 
-        // Validate userId range (for JSONPlaceholder, valid userIds are 1-10)
-        assertTrue(album.getUserId() >= 1 && album.getUserId() <= 10,
-                "Album userId should be between 1 and 10 for JSONPlaceholder");
+        // Validate userId range
+        assertTrue(album.getUserId() >= 1 && album.getUserId() <= MAX_USER_ID,
+                USER_ID_RANGE_MESSAGE);
     }
 
     /**
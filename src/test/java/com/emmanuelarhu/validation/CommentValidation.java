@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.comments;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,10 @@ import static org.testng.Assert.*;
  */
 public class CommentValidation {
 
+    // Upper bound of valid postIds, follows -Ddataset.scale (100 for JSONPlaceholder)
+    private static final int MAX_POST_ID = DatasetCounts.current().getPosts();
+    private static final String POST_ID_RANGE_MESSAGE = "Comment postId should be between 1 and " + MAX_POST_ID;
+
     /**
      * Validate an array of comments
      */
@@ -72,9 +78,9 @@ public class CommentValidation {
         assertFalse(comment.getBody().isEmpty(), "Comment body should not be empty");
         assertTrue(comment.getEmail().contains("@"), "Comment should have valid email format");
 
-        // Validate postId range (for JSONPlaceholder, valid postIds are 1-100)
-        assertTrue(comment.getPostId() >= 1 && comment.getPostId() <= 100,
-                "Comment postId should be between 1 and 100 for JSONPlaceholder");
+        // Validate postId range
+        assertTrue(comment.getPostId() >= 1 && comment.getPostId() <= MAX_POST_ID,
+                POST_ID_RANGE_MESSAGE);
     }
 
     /**
@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.photos;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,10 @@ import static org.testng.Assert.*;
  */
 public class PhotoValidation {
 
+    // Upper bound of valid albumIds, follows -Ddataset.scale (100 for JSONPlaceholder)
+    private static final int MAX_ALBUM_ID = DatasetCounts.current().getAlbums();
+    private static final String ALBUM_ID_RANGE_MESSAGE = "Photo albumId should be between 1 and " + MAX_ALBUM_ID;
+
     /**
      * Validate an array of photos
      */
@@ -84,9 +90,9 @@ public class PhotoValidation {
         assertFalse(photo.getUrl().isEmpty(), "Photo URL should not be empty");
         assertFalse(photo.getThumbnailUrl().isEmpty(), "Photo thumbnail URL should not be empty");
 
-        // Validate albumId range (for JSONPlaceholder, valid albumIds are 1-100)
-        assertTrue(photo.getAlbumId() >= 1 && photo.getAlbumId() <= 100,
-                "Photo albumId should be between 1 and 100 for JSONPlaceholder");
+        // Validate albumId range
+        assertTrue(photo.getAlbumId() >= 1 && photo.getAlbumId() <= MAX_ALBUM_ID,
+                ALBUM_ID_RANGE_MESSAGE);
     }
 
     /**
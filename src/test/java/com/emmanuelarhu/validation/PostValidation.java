@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.posts;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,10 @@ import static org.testng.Assert.*;
  */
 public class PostValidation {
 
+    // Upper bound of valid userIds, follows -Ddataset.scale (10 for JSONPlaceholder)
+    private static final int MAX_USER_ID = DatasetCounts.current().getUsers();
+    private static final String USER_ID_RANGE_MESSAGE = "Post userId should be between 1 and " + MAX_USER_ID;
+
     /**
      * Validate an array of posts
      */
@@ -46,8 +52,8 @@ public class PostValidation {
         assertFalse(post.getTitle().isEmpty(), "Post title should not be empty");
         assertFalse(post.getBody().isEmpty(), "Post body should not be empty");
 
-        // Validate userId range (for JSONPlaceholder, valid userIds are 1-10)
-        assertTrue(post.getUserId() >= 1 && post.getUserId() <= 10,
-                "Post userId should be between 1 and 10 for JSONPlaceholder");
+        // Validate userId range
+        assertTrue(post.getUserId() >= 1 && post.getUserId() <= MAX_USER_ID,
+                USER_ID_RANGE_MESSAGE);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.todos;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,10 @@ import static org.testng.Assert.*;
  */
 public class TodoValidation {
 
+    // Upper bound of valid userIds, follows -Ddataset.scale (10 for JSONPlaceholder)
+    private static final int MAX_USER_ID = DatasetCounts.current().getUsers();
+    private static final String USER_ID_RANGE_MESSAGE = "Todo userId should be between 1 and " + MAX_USER_ID;
+
     /**
      * Validate an array of todos
      */
@@ -105,9 +111,9 @@ public class TodoValidation {
 
         assertFalse(todo.getTitle().isEmpty(), "Todo title should not be empty");
 
-        // Validate userId range (for JSONPlaceholder, valid userIds are 1-10)
-        assertTrue(todo.getUserId() >= 1 && todo.getUserId() <= 10,
-                "Todo userId should be between 1 and 10 for JSONPlaceholder");
+        // Validate userId range
+        assertTrue(todo.getUserId() >= 1 && todo.getUserId() <= MAX_USER_ID,
+                USER_ID_RANGE_MESSAGE);
 
         // Validate completion status is a proper boolean
         assertTrue(todo.getCompleted() == true || todo.getCompleted() == false,
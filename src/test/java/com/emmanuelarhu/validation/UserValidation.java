@@ -1,6 +1,8 @@
 package com.emmanuelarhu.validation;
 
 import com.emmanuelarhu.models.users;
+import com.emmanuelarhu.data.DatasetCounts;
+
 import static org.testng.Assert.*;
 
 /**
@@ -11,6 +13,9 @@ import static org.testng.Assert.*;
  */
 public class UserValidation {
 
+    // Upper bound of valid user IDs, follows -Ddataset.scale (10 for JSONPlaceholder)
+    private static final int MAX_USER_ID = DatasetCounts.current().getUsers();
+
     /**
      * Validate an array of users
      */
@@ -81,11 +86,11 @@ public class UserValidation {
     }
 
     /**
-     * Validate user ID range (for JSONPlaceholder, valid IDs are 1-10)
+     * Validate user ID range (1-10 for JSONPlaceholder, scaled with the dataset)
      */
     public static void validateUserIdRange(Integer userId) {
         if (userId != null) {
-            assertTrue(userId >= 1 && userId <= 10, "User ID should be between 1 and 10 for JSONPlaceholder");
+            assertTrue(userId >= 1 && userId <= MAX_USER_ID, "User ID should be between 1 and " + MAX_USER_ID);
         }
     }
 